@@ -0,0 +1,78 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.common.MiscUtil;
+import org.fujion.test.MockEnvironment;
+import org.fujion.test.MockServletContext;
+import org.fujion.test.MockTest;
+
+/**
+ * Provides the mock Fujion environment in which benchmarks run. The environment is created on
+ * first use, once per benchmark JVM, and closed when the JVM exits.
+ */
+public class BenchmarkEnvironment {
+
+    private static MockEnvironment environment;
+
+    /**
+     * Returns the mock environment, creating it if necessary.
+     *
+     * @return The mock environment.
+     */
+    public static synchronized MockEnvironment getMockEnvironment() {
+        if (environment == null) {
+            MockEnvironment mockEnvironment = new MockEnvironment();
+
+            try {
+                mockEnvironment.init(MockTest.rootConfig, null);
+            } catch (Exception e) {
+                throw MiscUtil.toUnchecked(e);
+            }
+
+            Runtime.getRuntime().addShutdownHook(new Thread(mockEnvironment::close));
+            environment = mockEnvironment;
+        }
+
+        return environment;
+    }
+
+    /**
+     * Creates a session with its own page, and makes it the current execution context of the
+     * calling thread. The caller should close the session when done.
+     *
+     * @return The new session.
+     */
+    public static BenchmarkSession createSession() {
+        MockEnvironment environment = getMockEnvironment();
+
+        try {
+            return new BenchmarkSession(environment.getRootContext(),
+                    (MockServletContext) environment.getSession().getServletContext(), new CountingWebSocketSession());
+        } catch (Exception e) {
+            throw MiscUtil.toUnchecked(e);
+        }
+    }
+
+    private BenchmarkEnvironment() {
+    }
+
+}
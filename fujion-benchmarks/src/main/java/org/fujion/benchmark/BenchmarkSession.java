@@ -0,0 +1,93 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.client.ExecutionContext;
+import org.fujion.component.Page;
+import org.fujion.test.MockClientRequest;
+import org.fujion.test.MockServletContext;
+import org.fujion.test.MockSession;
+import org.fujion.websocket.WireFormat;
+import org.springframework.context.ApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A mock session with its own initialized page, whose traffic to the client is counted.
+ */
+public class BenchmarkSession extends MockSession {
+
+    private final CountingWebSocketSession socket;
+
+    private final MockClientRequest request;
+
+    BenchmarkSession(ApplicationContext applicationContext, MockServletContext servletContext,
+                     CountingWebSocketSession socket) {
+        super(applicationContext, servletContext, socket);
+        this.socket = socket;
+        Page page = getPage();
+        Map<String, Object> browserInfo = new HashMap<>();
+        browserInfo.put("requestURL", "http://mock.org/benchmark.fsp");
+        Map<String, Object> map = new HashMap<>();
+        map.put("pid", page.getId());
+        map.put("type", "mock");
+        map.put("data", browserInfo);
+        request = new MockClientRequest(this, map);
+        activate();
+        Page._init(page, request, getSynchronizer());
+        socket.reset();
+    }
+
+    /**
+     * Makes this session the current execution context of the calling thread.
+     */
+    public void activate() {
+        ExecutionContext.clear();
+        ExecutionContext.put(ExecutionContext.ATTR_REQUEST, request);
+    }
+
+    /**
+     * Returns the socket that counts this session's traffic.
+     *
+     * @return The counting socket.
+     */
+    public CountingWebSocketSession getCountingSocket() {
+        return socket;
+    }
+
+    /**
+     * Sets the wire format, as if negotiated by the client.
+     */
+    @Override
+    public void setWireFormat(WireFormat wireFormat) {
+        super.setWireFormat(wireFormat);
+    }
+
+    /**
+     * Destroys the session and clears the calling thread's execution context.
+     */
+    public void close() {
+        destroy();
+        ExecutionContext.clear();
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.common.AbstractCache;
+import org.fujion.common.AbstractCache.EvictionPolicy;
+import org.fujion.common.Localizer;
+import org.fujion.expression.ExpressionCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.Expression;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cache access: a bounded or unbounded cache under a skewed key distribution, from one
+ * and from several threads, and the expression and message caches used during rendering.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+
+    private static final int KEY_COUNT = 1 << 16;
+
+    private static final int KEY_RANGE = 10000;
+
+    private static final String MESSAGE_ID = "org.fujion.console.cache.fsp.size.result";
+
+    private static class TestCache extends AbstractCache<Integer, String> {
+
+        @Override
+        protected String fetch(Integer key) {
+            return "Value " + key;
+        }
+
+    }
+
+    /**
+     * A cache shared by all benchmark threads, and a skewed sequence of keys in which low keys
+     * are far more frequent than high keys.
+     */
+    @State(Scope.Benchmark)
+    public static class SharedCache {
+
+        @Param({ "LRU", "TINY_LFU" })
+        public EvictionPolicy policy;
+
+        @Param({ "0", "1000" })
+        public int maximumSize;
+
+        private final TestCache cache = new TestCache();
+
+        private final Integer[] keys = new Integer[KEY_COUNT];
+
+        @Setup
+        public void setup() {
+            cache.setEvictionPolicy(policy);
+            cache.setMaximumSize(maximumSize);
+            Random random = new Random(42);
+
+            for (int i = 0; i < KEY_COUNT; i++) {
+                keys[i] = (int) (Math.pow(random.nextDouble(), 3) * KEY_RANGE);
+            }
+        }
+
+    }
+
+    /**
+     * Each thread's position in the key sequence.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int position = new Random().nextInt(KEY_COUNT);
+
+        int next() {
+            return position = (position + 1) & (KEY_COUNT - 1);
+        }
+
+    }
+
+    /**
+     * Initializes the mock environment, which registers the message sources.
+     */
+    @State(Scope.Benchmark)
+    public static class Environment {
+
+        @Setup
+        public void setup() {
+            BenchmarkEnvironment.getMockEnvironment();
+        }
+
+    }
+
+    @Benchmark
+    public String get(SharedCache shared, Cursor cursor) {
+        return shared.cache.get(shared.keys[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String getConcurrent(SharedCache shared, Cursor cursor) {
+        return shared.cache.get(shared.keys[cursor.next()]);
+    }
+
+    @Benchmark
+    public Expression expression(Environment environment) {
+        return ExpressionCache.getInstance().get("${(1+4)*4}");
+    }
+
+    @Benchmark
+    public String messageHit(Environment environment) {
+        return Localizer.getMessage(MESSAGE_ID, Locale.US, 10);
+    }
+
+    @Benchmark
+    public String messageMiss(Environment environment) {
+        return Localizer.getMessage("org.fujion.benchmark.missing", Locale.US);
+    }
+
+}
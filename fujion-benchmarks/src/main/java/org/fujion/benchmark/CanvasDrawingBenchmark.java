@@ -0,0 +1,101 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.canvas.d2.Canvas2D;
+import org.fujion.canvas.d2.RenderingContext2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures 2D canvas draw calls per second for a single session, with each call sent as its own
+ * invocation or recorded into a command buffer that is flushed once per frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CanvasDrawingBenchmark {
+
+    private static final int DRAW_CALLS = 1000;
+
+    @Param({ "false", "true" })
+    public boolean recording;
+
+    private BenchmarkSession session;
+
+    private Canvas2D canvas;
+
+    private RenderingContext2D context;
+
+    @Setup
+    public void setup() {
+        session = BenchmarkEnvironment.createSession();
+        canvas = new Canvas2D();
+        session.getPage().addChild(canvas);
+        context = canvas.getRenderingContext();
+
+        if (recording) {
+            canvas.startRecording();
+        }
+
+        session.getCountingSocket().reset();
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    /**
+     * Draws a frame consisting of a path of line segments.
+     */
+    @Benchmark
+    @OperationsPerInvocation(DRAW_CALLS)
+    public void drawFrame(WireCounters counters) {
+        context.beginPath();
+        context.moveTo(0, 0);
+
+        for (int i = 3; i < DRAW_CALLS; i++) {
+            context.lineTo(i, Math.sin(i / 50.0) * 100);
+        }
+
+        context.stroke();
+        canvas.flush();
+        counters.record(session.getCountingSocket());
+    }
+
+}
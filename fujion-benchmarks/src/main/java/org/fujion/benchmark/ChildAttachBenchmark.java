@@ -0,0 +1,104 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.component.Div;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to attach a large number of named children to a parent on the page, adding
+ * them one at a time versus as a single batch.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ChildAttachBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int childCount;
+
+    private BenchmarkSession session;
+
+    private Div parent;
+
+    private List<Div> children;
+
+    @Setup
+    public void setup() {
+        session = BenchmarkEnvironment.createSession();
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void createChildren() {
+        parent = new Div();
+        session.getPage().addChild(parent);
+        children = new ArrayList<>(childCount);
+
+        for (int i = 0; i < childCount; i++) {
+            Div child = new Div();
+            child.setName("child" + i);
+            children.add(child);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void destroyChildren() {
+        parent.destroy();
+        session.getCountingSocket().reset();
+    }
+
+    @Benchmark
+    public void addChildIndividually() {
+        for (Div child : children) {
+            parent.addChild(child);
+        }
+    }
+
+    @Benchmark
+    public void addChildrenBatch() {
+        parent.addChildren(children);
+    }
+
+}
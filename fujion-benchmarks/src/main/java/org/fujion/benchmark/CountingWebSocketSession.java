@@ -0,0 +1,75 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.test.MockWebSocketSession;
+import org.springframework.web.socket.WebSocketMessage;
+
+/**
+ * Mock web socket that discards outgoing messages, but counts them and their payload bytes.
+ */
+public class CountingWebSocketSession extends MockWebSocketSession {
+
+    private long messageCount;
+
+    private long byteCount;
+
+    public CountingWebSocketSession() throws Exception {
+        super();
+    }
+
+    /**
+     * Counts the message. For text messages, the payload length is its UTF-8 encoded length, so
+     * the encoding cost a real container would incur is included.
+     */
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) {
+        messageCount++;
+        byteCount += message.getPayloadLength();
+    }
+
+    /**
+     * Returns the number of messages sent since the last reset.
+     *
+     * @return The number of messages sent.
+     */
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Returns the number of payload bytes sent since the last reset.
+     *
+     * @return The number of payload bytes sent.
+     */
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Resets the message and byte counts.
+     */
+    public void reset() {
+        messageCount = 0;
+        byteCount = 0;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.component.Div;
+import org.fujion.expression.ELEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.expression.Expression;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures EL evaluation against a component, both from the expression text (which is looked up
+ * in the expression cache) and from a previously parsed expression. Literal text, which contains
+ * no expression, is included to show the cost of detecting that case.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ELEvaluationBenchmark {
+
+    @Param({ "${(1+4)*4}", "${name + ' suffix'}", "${@fujion_ELEvaluator.class.name}", "literal text" })
+    public String expression;
+
+    private final ELEvaluator evaluator = ELEvaluator.getInstance();
+
+    private BenchmarkSession session;
+
+    private Div root;
+
+    private Expression parsed;
+
+    @Setup
+    public void setup() {
+        session = BenchmarkEnvironment.createSession();
+        root = new Div();
+        root.setName("root");
+        parsed = evaluator.parse(expression);
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public Object evaluate() {
+        return evaluator.evaluate(expression, root);
+    }
+
+    @Benchmark
+    public Object evaluateParsed() {
+        return parsed == null ? expression : evaluator.evaluate(parsed, root);
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.fujion.component.Button;
+import org.fujion.component.Label;
+import org.fujion.component.Page;
+import org.fujion.event.ClickEvent;
+import org.fujion.websocket.WebSocketHandler;
+import org.fujion.websocket.WireFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures an event round trip: a click event request is received from the client, decoded and
+ * dispatched to a listener that updates a label, and the resulting state change is sent back in
+ * the session's wire format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventDispatchBenchmark {
+
+    /**
+     * Exposes receipt of client requests.
+     */
+    private static class RequestReceiver extends WebSocketHandler {
+
+        void receive(WebSocketSession socket, String payload) {
+            handleTextMessage(socket, new TextMessage(payload));
+        }
+
+    }
+
+    @Param({ "JSON", "CBOR" })
+    public WireFormat wireFormat;
+
+    private final RequestReceiver receiver = new RequestReceiver();
+
+    private BenchmarkSession session;
+
+    private String payload;
+
+    private int clicks;
+
+    @Setup
+    public void setup() throws Exception {
+        session = BenchmarkEnvironment.createSession();
+        session.setWireFormat(wireFormat);
+        Page page = session.getPage();
+        Button button = new Button("Click");
+        Label label = new Label();
+        page.addChild(button);
+        page.addChild(label);
+        button.addEventListener(ClickEvent.class, event -> label.setLabel("Clicked " + ++clicks));
+        Map<String, Object> data = new HashMap<>();
+        data.put("type", ClickEvent.TYPE);
+        data.put("id", 1);
+        data.put("target", button.getId());
+        data.put("pageX", 10);
+        data.put("pageY", 10);
+        data.put("which", 1);
+        Map<String, Object> request = new HashMap<>();
+        request.put("type", "event");
+        request.put("pid", page.getId());
+        request.put("data", data);
+        payload = new ObjectMapper().writeValueAsString(request);
+        session.getCountingSocket().reset();
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.activate();
+        session.close();
+    }
+
+    @Benchmark
+    public void click(WireCounters counters) {
+        receiver.receive(session.getSocket(), payload);
+        counters.record(session.getCountingSocket());
+    }
+
+}
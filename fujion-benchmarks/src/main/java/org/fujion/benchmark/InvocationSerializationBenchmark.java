@@ -0,0 +1,126 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.fujion.client.ClientInvocation;
+import org.fujion.component.Div;
+import org.fujion.component.Page;
+import org.fujion.websocket.WebSocketHandler;
+import org.fujion.websocket.WireFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of serializing and sending a batch of client invocations. The toMap benchmark
+ * builds an intermediate map and string per invocation, as was done before invocations were
+ * streamed to the generator. The send benchmark exercises the full send path in each wire format,
+ * reporting the bytes sent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InvocationSerializationBenchmark {
+
+    /**
+     * The wire format negotiated by the session.
+     */
+    @State(Scope.Thread)
+    public static class Wire {
+
+        @Param({ "JSON", "CBOR" })
+        public WireFormat wireFormat;
+
+        @Setup
+        public void setup(InvocationSerializationBenchmark benchmark) {
+            benchmark.session.setWireFormat(wireFormat);
+        }
+
+    }
+
+    private static final ObjectWriter writer = new ObjectMapper().writer();
+
+    @Param({ "1", "100", "1000" })
+    public int invocationCount;
+
+    private BenchmarkSession session;
+
+    private Page page;
+
+    private List<ClientInvocation> invocations;
+
+    @Setup
+    public void setup() {
+        session = BenchmarkEnvironment.createSession();
+        page = session.getPage();
+        invocations = new ArrayList<>(invocationCount);
+
+        for (int i = 0; i < invocationCount; i++) {
+            Div div = new Div();
+            page.addChild(div);
+            invocations.add(new ClientInvocation(div, "updateState", null, "label", "Label " + i));
+        }
+
+        session.getCountingSocket().reset();
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public String toMap() throws IOException {
+        StringBuilder sb = new StringBuilder("[");
+
+        for (ClientInvocation invocation : invocations) {
+            sb.append(sb.length() == 1 ? "" : ",").append(writer.writeValueAsString(invocation.toMap(page)));
+        }
+
+        return sb.append("]").toString();
+    }
+
+    @Benchmark
+    public void send(Wire wire, WireCounters counters) {
+        WebSocketHandler.send(session.getSocket(), invocations);
+        counters.record(session.getCountingSocket());
+    }
+
+}
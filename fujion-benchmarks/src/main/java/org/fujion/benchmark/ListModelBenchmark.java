@@ -0,0 +1,119 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.model.ListModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures list model operations used when rendering and manipulating large models, without any
+ * bound view. Benchmarks that modify the model operate on a fresh copy, which is included in the
+ * measured time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListModelBenchmark {
+
+    @Param({ "10000", "50000" })
+    public int size;
+
+    private List<Integer> items;
+
+    private List<Integer> block;
+
+    private ListModel<Integer> model;
+
+    @Setup
+    public void setup() {
+        items = new ArrayList<>(size);
+        block = new ArrayList<>(size / 10);
+
+        for (int i = 0; i < size; i++) {
+            items.add(i);
+        }
+
+        for (int i = 0; i < size / 10; i++) {
+            block.add(-i);
+        }
+
+        Collections.shuffle(items, new Random(42));
+        model = new ListModel<>(items);
+    }
+
+    @Benchmark
+    public long indexedGet() {
+        long sum = 0;
+
+        for (int i = 0; i < size; i++) {
+            sum += model.get(i);
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public ListModel<Integer> copy() {
+        return new ListModel<>(items);
+    }
+
+    @Benchmark
+    public ListModel<Integer> sort() {
+        ListModel<Integer> copy = new ListModel<>(items);
+        copy.sort(Comparator.naturalOrder(), true);
+        return copy;
+    }
+
+    @Benchmark
+    public ListModel<Integer> insertRange() {
+        ListModel<Integer> copy = new ListModel<>(items);
+        copy.addAll(size / 2, block);
+        return copy;
+    }
+
+    @Benchmark
+    public ListModel<Integer> removeRange() {
+        ListModel<Integer> copy = new ListModel<>(items);
+        copy.removeRange(size / 4, size / 2);
+        return copy;
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.component.Grid;
+import org.fujion.component.Label;
+import org.fujion.component.Row;
+import org.fujion.component.Rows;
+import org.fujion.model.IModelAndView;
+import org.fujion.model.ListModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures rendering of a list model bound to a grid, both in full and in virtual mode, where only
+ * the rows in the viewport are rendered. Sorting the model re-renders the rows in their new order.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelRenderingBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean virtual;
+
+    private BenchmarkSession session;
+
+    private ListModel<String> model;
+
+    private IModelAndView<Row, String> modelAndView;
+
+    private boolean ascending;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        session = BenchmarkEnvironment.createSession();
+        Grid grid = new Grid();
+        Rows rows = new Rows();
+        grid.addChild(rows);
+        session.getPage().addChild(grid);
+        List<String> items = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            items.add("Item " + i);
+        }
+
+        model = new ListModel<>(items);
+        modelAndView = (IModelAndView<Row, String>) rows.getModelAndView();
+        modelAndView.setVirtual(virtual);
+        modelAndView.setRenderer(item -> {
+            Row row = new Row();
+            row.addChild(new Label(item));
+            return row;
+        });
+        modelAndView.setModel(model);
+        session.getCountingSocket().reset();
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public void rerender(WireCounters counters) {
+        modelAndView.rerender();
+        counters.record(session.getCountingSocket());
+    }
+
+    @Benchmark
+    public void sort(WireCounters counters) {
+        ascending = !ascending;
+        model.sort(Comparator.naturalOrder(), ascending);
+        counters.record(session.getCountingSocket());
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.fujion.ancillary.OptionMap;
+import org.fujion.highcharts.Chart;
+import org.fujion.highcharts.DataPoint;
+import org.fujion.highcharts.PlotType;
+import org.fujion.highcharts.Series;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures conversion of a large chart series to an option map, and of the option map to JSON.
+ * Each data point has nested data label and marker options, so a series of n points converts 3n
+ * options instances.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OptionsBenchmark {
+
+    private static final ObjectWriter writer = new ObjectMapper().writer();
+
+    @Param({ "1000", "10000" })
+    public int points;
+
+    private BenchmarkSession session;
+
+    private Series series;
+
+    @Setup
+    public void setup() {
+        session = BenchmarkEnvironment.createSession();
+        series = new Chart().addSeries(PlotType.LINE);
+
+        for (int i = 0; i < points; i++) {
+            DataPoint point = series.addDataPoint(i, Math.sin(i / 100.0));
+            point.name = "Point " + i;
+            point.dataLabels.enabled = i % 10 == 0;
+            point.marker.radius = 3;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public OptionMap toMap() {
+        return series.toMap();
+    }
+
+    @Benchmark
+    public String toJson() throws IOException {
+        return writer.writeValueAsString(series.toMap());
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.common.StrUtil;
+
+/**
+ * Generates FSP content resembling a generated form: a list of rows, each containing a label with
+ * an EL expression, a text box and a button.
+ */
+class PageGenerator {
+
+    private static final String HEADER = "<fsp xmlns=\"http://www.fujion.org/schema/fsp\">\n"
+            + "<div name=\"root\" class=\"form\">\n";
+
+    private static final String ROW = "  <div name=\"row%1$d\" class=\"row\" style=\"padding:2px\">\n"
+            + "    <label label=\"${'Field ' + %1$d}\"/>\n"
+            + "    <textbox name=\"field%1$d\" placeholder=\"Enter value %1$d\"/>\n"
+            + "    <button name=\"clear%1$d\" label=\"Clear\"/>\n"
+            + "  </div>\n";
+
+    private static final String FOOTER = "</div>\n</fsp>\n";
+
+    /**
+     * Returns generated FSP content.
+     *
+     * @param rows The number of rows. Each row contributes four elements.
+     * @return The FSP content as UTF-8 encoded bytes.
+     */
+    static byte[] generate(int rows) {
+        StringBuilder sb = new StringBuilder(HEADER);
+
+        for (int i = 0; i < rows; i++) {
+            sb.append(String.format(ROW, i));
+        }
+
+        return sb.append(FOOTER).toString().getBytes(StrUtil.UTF8);
+    }
+
+    private PageGenerator() {
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.component.BaseComponent;
+import org.fujion.component.Div;
+import org.fujion.page.PageDefinition;
+import org.fujion.page.PageParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures materialization of a cached page definition. A detached parent isolates the cost of
+ * creating and configuring components; an attached parent adds the cost of synchronizing them with
+ * the client. Generated pages are used rather than the test harness pages, which depend on
+ * controllers and resources packaged only with the test harness web application.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageMaterializationBenchmark {
+
+    @Param({ "100", "1000" })
+    public int rows;
+
+    private BenchmarkSession session;
+
+    private PageDefinition pageDefinition;
+
+    @Setup
+    public void setup() {
+        session = BenchmarkEnvironment.createSession();
+        pageDefinition = PageParser.getInstance().parse(new ByteArrayInputStream(PageGenerator.generate(rows)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        session.close();
+    }
+
+    @Benchmark
+    public BaseComponent materializeDetached() {
+        Div parent = new Div();
+        pageDefinition.materialize(parent);
+        return parent;
+    }
+
+    @Benchmark
+    public void materializeAttached(WireCounters counters) {
+        Div parent = new Div();
+        session.getPage().addChild(parent);
+        pageDefinition.materialize(parent);
+        parent.destroy();
+        counters.record(session.getCountingSocket());
+    }
+
+}
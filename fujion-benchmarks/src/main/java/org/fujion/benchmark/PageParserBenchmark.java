@@ -0,0 +1,84 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.page.PageDefinition;
+import org.fujion.page.PageParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing of a large generated FSP by the DOM and streaming (StAX) parsers, for documents
+ * of different sizes. Besides the time per parse, the memory allocated per parse is reported as
+ * gc.alloc.rate.norm by the gc profiler, which {@link BenchmarkRunner} enables by default.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageParserBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean streaming;
+
+    @Param({ "250", "2500" })
+    public int rows;
+
+    private final PageParser parser = PageParser.getInstance();
+
+    private boolean wasStreaming;
+
+    private byte[] content;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.getMockEnvironment();
+        wasStreaming = parser.isStreaming();
+        parser.setStreaming(streaming);
+        content = PageGenerator.generate(rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        parser.setStreaming(wasStreaming);
+    }
+
+    @Benchmark
+    public PageDefinition parse() {
+        return parser.parse(new ByteArrayInputStream(content));
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.thread.ThreadPool;
+import org.fujion.thread.ThreadPoolFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates the thread pool load of many concurrent sessions. Each session's thread pool runs a
+ * task and schedules a keepalive that is cancelled when the session ends.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SessionThreadPoolBenchmark {
+
+    @Param({ "1000", "5000", "10000" })
+    public int sessions;
+
+    @Setup
+    public void setup() {
+        BenchmarkEnvironment.getMockEnvironment();
+    }
+
+    @Benchmark
+    public void startAndStop() throws InterruptedException {
+        ThreadPoolFactory factory = ThreadPoolFactory.getInstance();
+        List<ThreadPool> pools = new ArrayList<>(sessions);
+        CountDownLatch latch = new CountDownLatch(sessions);
+
+        for (int i = 0; i < sessions; i++) {
+            ThreadPool pool = factory.createSessionThreadPool();
+            pool.execute(latch::countDown);
+            pool.scheduleAtFixedRate(() -> {}, 30, 30, TimeUnit.SECONDS);
+            pools.add(pool);
+        }
+
+        latch.await();
+
+        for (ThreadPool pool : pools) {
+            pool.shutdownNow();
+        }
+    }
+
+}
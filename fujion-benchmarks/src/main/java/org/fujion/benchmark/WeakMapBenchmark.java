@@ -0,0 +1,89 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.fujion.common.ConcurrentWeakMap;
+import org.fujion.common.WeakMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures purging of cleared references from a weak map. Before each measurement, the map is
+ * filled and half of its values are made collectable and cleared by garbage collection; the
+ * measured call to size() then purges them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class WeakMapBenchmark {
+
+    @Param({ "10000", "100000" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean concurrent;
+
+    private WeakMap<Integer, Object> map;
+
+    private List<Object> retained;
+
+    @Setup(Level.Iteration)
+    public void setup() throws InterruptedException {
+        map = concurrent ? new ConcurrentWeakMap<>() : new WeakMap<>();
+        retained = new ArrayList<>(size / 2);
+
+        for (int i = 0; i < size; i++) {
+            Object value = new Object();
+            map.put(i, value);
+
+            if (i % 2 == 0) {
+                retained.add(value);
+            }
+        }
+
+        // Allow the reference handler time to enqueue the cleared references.
+        System.gc();
+        Thread.sleep(100);
+    }
+
+    @Benchmark
+    public int compact() {
+        return map.size();
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary results reporting the traffic sent to the client, as rates alongside the primary
+ * result. Dividing by the primary throughput gives the bytes and messages per operation.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class WireCounters {
+
+    public long bytes;
+
+    public long messages;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        bytes = 0;
+        messages = 0;
+    }
+
+    /**
+     * Adds the traffic counted by a socket since its last reset, then resets the socket.
+     *
+     * @param socket The counting socket.
+     */
+    public void record(CountingWebSocketSession socket) {
+        bytes += socket.getByteCount();
+        messages += socket.getMessageCount();
+        socket.reset();
+    }
+
+}
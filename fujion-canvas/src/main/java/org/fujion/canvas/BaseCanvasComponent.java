@@ -21,6 +21,7 @@
 package org.fujion.canvas;
 
 import org.fujion.ancillary.Options;
+import org.fujion.client.ClientInvocation;
 import org.fujion.component.BaseUIComponent;
 
 /**
@@ -31,8 +32,12 @@ import org.fujion.component.BaseUIComponent;
  */
 public abstract class BaseCanvasComponent<C extends RenderingContextBase, O extends Options> extends BaseUIComponent {
     
+    static final int MAX_RECORDED_COMMANDS = 10000;
+
     private int resourceId;
     
+    private DrawCommandBuffer recorder;
+    
     private C context;
     
     private final O options;
@@ -80,6 +85,106 @@ public abstract class BaseCanvasComponent<C extends RenderingContextBase, O exte
      */
     protected abstract C createRenderingContext();
 
+    /**
+     * Starts recording draw commands. While recording, invocations and property assignments on
+     * this canvas' resources that do not expect a response are appended to a compact command buffer
+     * rather than sent individually. The buffer is sent to the client as a single invocation when
+     * it is flushed, when recording stops, when it reaches its capacity, or before any other
+     * invocation on this canvas.
+     */
+    public synchronized void startRecording() {
+        if (recorder == null) {
+            recorder = new DrawCommandBuffer();
+        }
+    }
+
+    /**
+     * Flushes any recorded draw commands and stops recording.
+     */
+    public synchronized void stopRecording() {
+        flush();
+        recorder = null;
+    }
+
+    /**
+     * Returns true if draw commands are being recorded.
+     *
+     * @return True if draw commands are being recorded.
+     */
+    public synchronized boolean isRecording() {
+        return recorder != null;
+    }
+
+    /**
+     * Sends any recorded draw commands to the client, which replays them in order. The commands
+     * are sent while holding this canvas' lock, so that batches drained by different threads (for
+     * example, a request thread and the thread that destroys unreachable resources) are sent in the
+     * order they were drained.
+     */
+    public synchronized void flush() {
+        if (recorder != null && !recorder.isEmpty()) {
+            invoke("replay", recorder.drain());
+        }
+    }
+
+    /**
+     * Records a resource function invocation if recording is active.
+     *
+     * @param target The target resource.
+     * @param function The name of the function.
+     * @param args The function arguments.
+     * @return True if the invocation was recorded.
+     */
+    boolean recordInvocation(CanvasResource target, String function, Object[] args) {
+        synchronized (this) {
+            if (recorder == null) {
+                return false;
+            }
+
+            recorder.addInvocation(target, function, args);
+
+            if (recorder.size() >= MAX_RECORDED_COMMANDS) {
+                flush();
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Records a resource property assignment if recording is active.
+     *
+     * @param target The target resource.
+     * @param property The name of the property.
+     * @param value The new value for the property.
+     * @return True if the assignment was recorded.
+     */
+    boolean recordAssignment(CanvasResource target, String property, Object value) {
+        synchronized (this) {
+            if (recorder == null) {
+                return false;
+            }
+
+            recorder.addAssignment(target, property, value);
+
+            if (recorder.size() >= MAX_RECORDED_COMMANDS) {
+                flush();
+            }
+
+            return true;
+        }
+    }
+
+    /**
+     * Flushes any recorded draw commands before processing the invocation, so that the client
+     * sees all canvas operations in the order they were issued.
+     */
+    @Override
+    public synchronized void invoke(ClientInvocation invocation) {
+        flush();
+        super.invoke(invocation);
+    }
+
     /**
      * Returns the next available resource id.
      *
@@ -21,12 +21,120 @@
 package org.fujion.canvas;
 
 /**
- * A canvas path.
+ * A canvas path. Path operations are recorded like other draw commands when the owning canvas is
+ * recording.
  */
 public class CanvasPath extends CanvasResource {
     
-    protected CanvasPath(BaseCanvasComponent<?, ?> canvas) {
+    /**
+     * Creates a new, empty path.
+     *
+     * @param canvas The canvas that owns the path.
+     */
+    public CanvasPath(BaseCanvasComponent<?, ?> canvas) {
         super(canvas, "initPath");
     }
     
+    /**
+     * Adds another path to this path.
+     *
+     * @param path The path to add.
+     */
+    public void addPath(CanvasPath path) {
+        invoke("addPath", path);
+    }
+    
+    /**
+     * Adds an arc to the path which is centered at (x, y) position with radius r starting at
+     * startAngle and ending at endAngle going in the given direction by anticlockwise.
+     *
+     * @param x             The x coordinate of the arc's center.
+     * @param y             The y coordinate of the arc's center.
+     * @param radius        The arc's radius.
+     * @param startAngle    The angle at which the arc starts, in radians.
+     * @param endAngle      The angle at which the arc ends, in radians.
+     * @param anticlockwise if true, causes the arc to be drawn counter-clockwise between the two
+     *                      angles.
+     */
+    public void arc(double x, double y, double radius, double startAngle, double endAngle, boolean anticlockwise) {
+        invoke("arc", x, y, radius, startAngle, endAngle, anticlockwise);
+    }
+    
+    /**
+     * Adds an arc to the path with the given control points and radius.
+     *
+     * @param x1     x-axis coordinates for the first control point.
+     * @param y1     y-axis coordinates for the first control point.
+     * @param x2     x-axis coordinates for the second control point.
+     * @param y2     y-axis coordinates for the second control point.
+     * @param radius The arc's radius.
+     */
+    public void arcTo(double x1, double y1, double x2, double y2, double radius) {
+        invoke("arcTo", x1, y1, x2, y2, radius);
+    }
+    
+    /**
+     * Adds a cubic Bézier curve to the path.
+     *
+     * @param cp1x The x-axis of the coordinate for the first control point.
+     * @param cp1y The y-axis of the coordinate for the first control point.
+     * @param cp2x The x-axis of the coordinate for the second control point.
+     * @param cp2y The y-axis of the coordinate for the second control point.
+     * @param x    The x-axis of the coordinate for the end point.
+     * @param y    The y-axis of the coordinate for the end point.
+     */
+    public void bezierCurveTo(double cp1x, double cp1y, double cp2x, double cp2y, double x, double y) {
+        invoke("bezierCurveTo", cp1x, cp1y, cp2x, cp2y, x, y);
+    }
+    
+    /**
+     * Causes the point of the pen to move back to the start of the current sub-path.
+     */
+    public void closePath() {
+        invoke("closePath");
+    }
+    
+    /**
+     * Connects the last point in the sub-path to the x, y coordinates with a straight line.
+     *
+     * @param x The x-axis of the coordinate for the end of the line.
+     * @param y The y-axis of the coordinate for the end of the line.
+     */
+    public void lineTo(double x, double y) {
+        invoke("lineTo", x, y);
+    }
+    
+    /**
+     * Moves the starting point of a new sub-path to the (x, y) coordinates.
+     *
+     * @param x The x-axis of the point.
+     * @param y The y-axis of the point.
+     */
+    public void moveTo(double x, double y) {
+        invoke("moveTo", x, y);
+    }
+    
+    /**
+     * Adds a quadratic Bézier curve to the path.
+     *
+     * @param cpx The x-axis of the coordinate for the control point.
+     * @param cpy The y-axis of the coordinate for the control point.
+     * @param x   The x-axis of the coordinate for the end point.
+     * @param y   The y-axis of the coordinate for the end point.
+     */
+    public void quadraticCurveTo(double cpx, double cpy, double x, double y) {
+        invoke("quadraticCurveTo", cpx, cpy, x, y);
+    }
+    
+    /**
+     * Adds a rectangle to the path.
+     *
+     * @param x      The x coordinate for the left side of the rectangle.
+     * @param y      The y coordinate for the left side of the rectangle.
+     * @param width  The rectangle's width.
+     * @param height The rectangle's height.
+     */
+    public void rect(double x, double y, double width, double height) {
+        invoke("rect", x, y, width, height);
+    }
 }
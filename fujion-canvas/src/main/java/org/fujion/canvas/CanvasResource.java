@@ -71,7 +71,9 @@ public abstract class CanvasResource implements IClientTransform {
     }
     
     protected void invoke(IResponseCallback<?> callback, String function, Object... args) {
-        canvas.invoke("invokeResource", callback, handle, function, args);
+        if (callback != null || !canvas.recordInvocation(this, function, args)) {
+            canvas.invoke("invokeResource", callback, handle, function, args);
+        }
     }
     
     protected void config(String property, Object value) {
@@ -79,7 +81,9 @@ public abstract class CanvasResource implements IClientTransform {
     }
 
     protected void config(IResponseCallback<?> callback, String property, Object value) {
-        canvas.invoke("configResource", callback, handle, property, value);
+        if (callback != null || !canvas.recordAssignment(this, property, value)) {
+            canvas.invoke("configResource", callback, handle, property, value);
+        }
     }
 
     protected void destroy() {
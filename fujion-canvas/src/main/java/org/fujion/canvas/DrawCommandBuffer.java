@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.canvas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact buffer for recording canvas draw commands. Each command is encoded as a sequence of
+ * integer codes: the table index of the target resource, the table index of the function or
+ * property name, the argument count (-1 for a property assignment), and one code per argument.
+ * Numeric arguments are packed into a separate array of doubles and are represented by a code of
+ * -1; all other arguments are represented by their index in a table of distinct values.
+ */
+class DrawCommandBuffer {
+
+    private final List<Object> table = new ArrayList<>();
+
+    private final Map<Object, Integer> tableIndex = new HashMap<>();
+
+    private int[] codes = new int[1024];
+
+    private int codeCount;
+
+    private double[] numbers = new double[1024];
+
+    private int numberCount;
+
+    private int commandCount;
+
+    /**
+     * Records a function invocation.
+     *
+     * @param target The resource upon which the function is to be invoked.
+     * @param function The name of the function.
+     * @param args The function arguments.
+     */
+    void addInvocation(
+            CanvasResource target,
+            String function,
+            Object[] args) {
+        ensureCodes(3 + args.length);
+        codes[codeCount++] = indexOf(target);
+        codes[codeCount++] = indexOf(function);
+        codes[codeCount++] = args.length;
+
+        for (Object arg : args) {
+            addArgument(arg);
+        }
+
+        commandCount++;
+    }
+
+    /**
+     * Records a property assignment.
+     *
+     * @param target The resource whose property is to be set.
+     * @param property The name of the property.
+     * @param value The new value for the property.
+     */
+    void addAssignment(
+            CanvasResource target,
+            String property,
+            Object value) {
+        ensureCodes(4);
+        codes[codeCount++] = indexOf(target);
+        codes[codeCount++] = indexOf(property);
+        codes[codeCount++] = -1;
+        addArgument(value);
+        commandCount++;
+    }
+
+    /**
+     * Returns the number of recorded commands.
+     *
+     * @return The number of recorded commands.
+     */
+    int size() {
+        return commandCount;
+    }
+
+    /**
+     * Returns true if no commands have been recorded.
+     *
+     * @return True if no commands have been recorded.
+     */
+    boolean isEmpty() {
+        return commandCount == 0;
+    }
+
+    /**
+     * Returns the recorded commands as arguments for the client's replay function and resets the
+     * buffer.
+     *
+     * @return The value table, the command codes, and the numeric arguments, in that order.
+     */
+    Object[] drain() {
+        Object[] result = { table.toArray(), Arrays.copyOf(codes, codeCount),
+                Arrays.copyOf(numbers, numberCount) };
+        table.clear();
+        tableIndex.clear();
+        codeCount = 0;
+        numberCount = 0;
+        commandCount = 0;
+        return result;
+    }
+
+    private void addArgument(Object arg) {
+        if (arg instanceof Number) {
+            if (numberCount == numbers.length) {
+                numbers = Arrays.copyOf(numbers, numberCount * 2);
+            }
+
+            numbers[numberCount++] = ((Number) arg).doubleValue();
+            codes[codeCount++] = -1;
+        } else {
+            codes[codeCount++] = indexOf(arg);
+        }
+    }
+
+    private int indexOf(Object value) {
+        return tableIndex.computeIfAbsent(value, key -> {
+            table.add(key);
+            return table.size() - 1;
+        });
+    }
+
+    private void ensureCodes(int count) {
+        if (codeCount + count > codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(codes.length * 2, codeCount + count));
+        }
+    }
+}
@@ -21,6 +21,7 @@
 package org.fujion.canvas.d2;
 
 import org.fujion.canvas.BaseCanvasComponent;
+import org.fujion.canvas.CanvasPath;
 import org.fujion.canvas.RenderingContextBase;
 import org.fujion.common.Assert;
 import org.fujion.component.Image;
@@ -214,6 +215,15 @@ public class RenderingContext2D extends RenderingContextBase {
         return new CanvasGradient(getCanvas(), "createLinearGradient", x0, y0, x1, y1);
     }
 
+    /**
+     * Creates a new, empty path that may be built independently and then filled or stroked.
+     *
+     * @return The new path.
+     */
+    public CanvasPath createPath() {
+        return new CanvasPath(getCanvas());
+    }
+
     /**
      * Creates a pattern using the specified image. It repeats the source in the directions
      * specified by the repetition argument. This method returns a CanvasPattern.
@@ -258,6 +268,16 @@ public class RenderingContext2D extends RenderingContextBase {
         invoke("fill", fillRule);
     }
 
+    /**
+     * Fills the given path with the current fill style using the specified winding rule.
+     *
+     * @param path The path to fill.
+     * @param fillRule The fill rule.
+     */
+    public void fill(CanvasPath path, FillRule fillRule) {
+        invoke("fill", path, fillRule);
+    }
+
     /**
      * Draws a filled rectangle whose starting point is at the coordinates (x, y) with the specified
      * width and height and whose style is determined by the fillStyle attribute.
@@ -777,6 +797,15 @@ public class RenderingContext2D extends RenderingContextBase {
         invoke("stroke");
     }
 
+    /**
+     * Strokes the given path with the current stroke style.
+     *
+     * @param path The path to stroke.
+     */
+    public void stroke(CanvasPath path) {
+        invoke("stroke", path);
+    }
+
     /**
      * Paints a rectangle which has a starting point at (x, y) and has a width w and a height h
      * onto the canvas, using the current stroke style.
@@ -22,9 +22,14 @@ package org.fujion.canvas.webgl;
 
 import org.fujion.canvas.BaseCanvasComponent;
 import org.fujion.canvas.CanvasResource;
+import org.fujion.client.BinaryData;
+import org.fujion.client.BinaryData.ElementType;
+
+import java.lang.reflect.Array;
 
 /**
- * Base class for array buffers.
+ * Base class for array buffers. Array contents are transferred to the client as binary data
+ * rather than as JSON arrays.
  */
 public abstract class ArrayBufferBase extends CanvasResource {
     
@@ -33,11 +38,106 @@ public abstract class ArrayBufferBase extends CanvasResource {
     private final int size;
     
     protected ArrayBufferBase(BaseCanvasComponent<?, ?> canvas, PixelDataType type, int size, Object data) {
-        super(canvas, "initArrayBuffer", type, data != null ? data : size);
+        super(canvas, "initArrayBuffer", type, data != null ? toBinaryData(type, data) : size);
         this.type = type;
         this.size = size;
     }
     
+    /**
+     * Converts a numeric array to binary data whose element type matches the pixel data type.
+     * Arrays whose component type does not match are converted element by element.
+     *
+     * @param type The pixel data type.
+     * @param data An array of numeric values (primitive or boxed).
+     * @return The binary data.
+     */
+    protected static BinaryData toBinaryData(PixelDataType type, Object data) {
+        ElementType elementType = type == PixelDataType.FLOAT ? ElementType.FLOAT32
+                : type == PixelDataType.UNSIGNED_BYTE ? ElementType.UINT8 : ElementType.UINT16;
+        Class<?> arrayType = elementType.getArrayType();
+
+        if (data.getClass().getComponentType() == arrayType) {
+            return new BinaryData(elementType, data);
+        }
+
+        int length = Array.getLength(data);
+        Object array = Array.newInstance(arrayType, length);
+
+        for (int i = 0; i < length; i++) {
+            Number value = (Number) Array.get(data, i);
+
+            if (arrayType == float.class) {
+                Array.setFloat(array, i, value.floatValue());
+            } else if (arrayType == byte.class) {
+                Array.setByte(array, i, value.byteValue());
+            } else {
+                Array.setShort(array, i, value.shortValue());
+            }
+        }
+
+        return new BinaryData(elementType, array);
+    }
+
+    /**
+     * Replaces elements of the client array, starting at the specified position, with the
+     * specified values. This supports partial updates prior to a call to
+     * {@link RenderingContextWebGL#bufferSubData}.
+     *
+     * @param offset The index of the first element to replace.
+     * @param data The replacement values.
+     */
+    public void set(int offset, Number[] data) {
+        _set(offset, data);
+    }
+
+    /**
+     * Replaces elements of the client array, starting at the specified position, with the
+     * specified values.
+     *
+     * @param offset The index of the first element to replace.
+     * @param data The replacement values.
+     */
+    public void set(int offset, byte[] data) {
+        _set(offset, data);
+    }
+
+    /**
+     * Replaces elements of the client array, starting at the specified position, with the
+     * specified values.
+     *
+     * @param offset The index of the first element to replace.
+     * @param data The replacement values.
+     */
+    public void set(int offset, int[] data) {
+        _set(offset, data);
+    }
+
+    /**
+     * Replaces elements of the client array, starting at the specified position, with the
+     * specified values.
+     *
+     * @param offset The index of the first element to replace.
+     * @param data The replacement values.
+     */
+    public void set(int offset, float[] data) {
+        _set(offset, data);
+    }
+
+    /**
+     * Replaces elements of the client array, starting at the specified position, with the
+     * specified values.
+     *
+     * @param offset The index of the first element to replace.
+     * @param data The replacement values.
+     */
+    public void set(int offset, double[] data) {
+        _set(offset, data);
+    }
+
+    private void _set(int offset, Object data) {
+        invoke("set", toBinaryData(type, data), offset);
+    }
+
     /**
      * The type of pixel data stored in the array buffer view.
      *
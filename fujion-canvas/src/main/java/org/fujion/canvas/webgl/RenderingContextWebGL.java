@@ -24,6 +24,8 @@ import org.fujion.ancillary.IEnumWithValue;
 import org.fujion.ancillary.IResponseCallback;
 import org.fujion.canvas.BaseCanvasComponent;
 import org.fujion.canvas.RenderingContextBase;
+import org.fujion.client.BinaryData;
+import org.fujion.client.BinaryData.ElementType;
 import org.fujion.common.Assert;
 
 import java.util.Collections;
@@ -203,7 +205,7 @@ public class RenderingContextWebGL extends RenderingContextBase {
      */
     public void bufferData(BufferBinding target, ArrayBufferBase srcData, BufferUsagePattern usage, int srcOffset,
                            int length) {
-        invoke("bufferData", target, srcData, usage, srcOffset);
+        invoke("bufferData", target, srcData, usage, srcOffset, length);
     }
     
     /**
@@ -214,7 +216,7 @@ public class RenderingContextWebGL extends RenderingContextBase {
      * @param srcData Data that will be copied into the data store.
      */
     public void bufferSubData(BufferBinding target, int offset, ArrayBufferBase srcData) {
-        invoke("bufferSubData", offset, srcData);
+        invoke("bufferSubData", target, offset, srcData);
     }
     
     /**
@@ -230,6 +232,62 @@ public class RenderingContextWebGL extends RenderingContextBase {
         invoke("bufferSubData", target, dstByteOffset, srcData, srcOffset, length);
     }
     
+    /**
+     * Updates a subset of a buffer object's data store from an array of unsigned bytes. The
+     * values are transferred to the client as binary data.
+     *
+     * @param target The binding point (target).
+     * @param dstByteOffset Offset in bytes where the data replacement will start.
+     * @param srcData Values that will be copied into the data store.
+     * @param srcOffset The index of the first value to copy.
+     * @param length The number of values to copy.
+     */
+    public void bufferSubData(BufferBinding target, int dstByteOffset, byte[] srcData, int srcOffset, int length) {
+        invoke("bufferSubData", target, dstByteOffset, new BinaryData(ElementType.UINT8, srcData, srcOffset, length));
+    }
+    
+    /**
+     * Updates a subset of a buffer object's data store from an array of unsigned shorts. The
+     * values are transferred to the client as binary data.
+     *
+     * @param target The binding point (target).
+     * @param dstByteOffset Offset in bytes where the data replacement will start.
+     * @param srcData Values that will be copied into the data store.
+     * @param srcOffset The index of the first value to copy.
+     * @param length The number of values to copy.
+     */
+    public void bufferSubData(BufferBinding target, int dstByteOffset, short[] srcData, int srcOffset, int length) {
+        invoke("bufferSubData", target, dstByteOffset, new BinaryData(ElementType.UINT16, srcData, srcOffset, length));
+    }
+    
+    /**
+     * Updates a subset of a buffer object's data store from an array of unsigned integers. The
+     * values are transferred to the client as binary data.
+     *
+     * @param target The binding point (target).
+     * @param dstByteOffset Offset in bytes where the data replacement will start.
+     * @param srcData Values that will be copied into the data store.
+     * @param srcOffset The index of the first value to copy.
+     * @param length The number of values to copy.
+     */
+    public void bufferSubData(BufferBinding target, int dstByteOffset, int[] srcData, int srcOffset, int length) {
+        invoke("bufferSubData", target, dstByteOffset, new BinaryData(ElementType.UINT32, srcData, srcOffset, length));
+    }
+    
+    /**
+     * Updates a subset of a buffer object's data store from an array of floats. The
+     * values are transferred to the client as binary data.
+     *
+     * @param target The binding point (target).
+     * @param dstByteOffset Offset in bytes where the data replacement will start.
+     * @param srcData Values that will be copied into the data store.
+     * @param srcOffset The index of the first value to copy.
+     * @param length The number of values to copy.
+     */
+    public void bufferSubData(BufferBinding target, int dstByteOffset, float[] srcData, int srcOffset, int length) {
+        invoke("bufferSubData", target, dstByteOffset, new BinaryData(ElementType.FLOAT32, srcData, srcOffset, length));
+    }
+    
     /**
      * Returns the completeness status of the WebGLFramebuffer object.
      *
@@ -16,33 +16,28 @@ define('fujion-canvas', ['fujion-core', 'fujion-widget', 'fujion-canvas-css'], f
 		},
 		
 		initArrayBuffer: function(handle, type, sizeOrData) {
-			let ary = [];
-			const data = _.isArray(sizeOrData) ? sizeOrData : null;
-			const size = data ? data.length : sizeOrData;
 			const c = this._context;
+			let ctor;
 			
 			switch (type) {
 				case c.UNSIGNED_BYTE:
-					ary = new Uint8Array(size);
+					ctor = Uint8Array;
 					break;
 					
 				case c.UNSIGNED_SHORT_5_6_5:
 				case c.UNSIGNED_SHORT_4_4_4_4:
 				case c.UNSIGNED_SHORT_5_5_5_1:
-					ary = new Uint16Array(size);
+					ctor = Uint16Array;
 					break;
 					
 				case c.FLOAT:
-					ary = new Float32Array(size);
+					ctor = Float32Array;
 					break;
 			}
 			
-			if (data) {
-				_.forEach(data, function(value, index) {
-					ary[index] = data[index];
-				});
-			}
-			
+			// Data sent as binary arrives as a typed array of the required type and is used as is.
+			const ary = !ctor ? [] : _.isNumber(sizeOrData) ? new ctor(sizeOrData)
+				: sizeOrData instanceof ctor ? sizeOrData : ctor.from(sizeOrData);
 			return this.saveResource(handle, ary);
 		},
 		
@@ -98,6 +93,41 @@ define('fujion-canvas', ['fujion-core', 'fujion-widget', 'fujion-canvas-css'], f
 			return obj[fnc].apply(obj, this._resolveResources(args));
 		}, 
 		
+		/**
+		 * Replays a batch of recorded draw commands. Each command is a sequence of codes: the
+		 * table index of the target resource, the table index of the function or property name,
+		 * the argument count (-1 for a property assignment), and one code per argument. An
+		 * argument code of -1 takes the next value from the numbers array; any other code is a
+		 * table index.
+		 */
+		replay: function(table, codes, numbers) {
+			const length = codes.length;
+			let i = 0;
+			let n = 0;
+			this._resolveResources(table);
+			
+			while (i < length) {
+				const obj = table[codes[i++]];
+				const name = table[codes[i++]];
+				const argc = codes[i++];
+				
+				if (argc < 0) {
+					const code = codes[i++];
+					obj[name] = code < 0 ? numbers[n++] : table[code];
+					continue;
+				}
+				
+				const args = new Array(argc);
+				
+				for (let j = 0; j < argc; j++) {
+					const code = codes[i++];
+					args[j] = code < 0 ? numbers[n++] : table[code];
+				}
+				
+				obj[name].apply(obj, args);
+			}
+		},
+		
 		saveResource: function(handle, obj) {
 			return this._resources[handle] = obj;
 		},
@@ -0,0 +1,209 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.canvas;
+
+import org.fujion.canvas.d2.Canvas2D;
+import org.fujion.canvas.d2.RenderingContext2D;
+import org.fujion.client.ClientInvocation;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CanvasTests {
+
+    /**
+     * A canvas that records the functions it invokes and the command codes of each replay.
+     */
+    private static class TestCanvas extends Canvas2D {
+
+        private final List<String> functions = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<int[]> replays = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void invoke(String function, Object... args) {
+            if ("replay".equals(function)) {
+                replays.add((int[]) args[1]);
+            }
+
+            super.invoke(function, args);
+        }
+
+        @Override
+        public synchronized void invoke(ClientInvocation invocation) {
+            super.invoke(invocation);
+            functions.add((String) invocation.toMap(null).get("fcn"));
+        }
+
+        private int count(String function) {
+            synchronized (functions) {
+                return Collections.frequency(functions, function);
+            }
+        }
+
+        private void clear() {
+            functions.clear();
+            replays.clear();
+        }
+
+    }
+
+    @Test
+    public void testCommandBuffer() {
+        Canvas2D canvas = new Canvas2D();
+        RenderingContext2D context = canvas.getRenderingContext();
+        DrawCommandBuffer buffer = new DrawCommandBuffer();
+        assertTrue(buffer.isEmpty());
+        buffer.addInvocation(context, "fillRect", new Object[] { 1, 2.5, 3, 4 });
+        buffer.addAssignment(context, "fillStyle", "red");
+        buffer.addInvocation(context, "fillText", new Object[] { "red", 5, 6L });
+        assertEquals(3, buffer.size());
+        Object[] commands = buffer.drain();
+        assertTrue(buffer.isEmpty());
+        assertArrayEquals(new Object[] { context, "fillRect", "fillStyle", "red", "fillText" }, (Object[]) commands[0]);
+        assertArrayEquals(new int[] { 0, 1, 4, -1, -1, -1, -1, 0, 2, -1, 3, 0, 4, 3, 3, -1, -1 }, (int[]) commands[1]);
+        assertArrayEquals(new double[] { 1, 2.5, 3, 4, 5, 6 }, (double[]) commands[2], 0);
+        // The value table is reset by draining.
+        buffer.addAssignment(context, "lineWidth", 2);
+        commands = buffer.drain();
+        assertArrayEquals(new Object[] { context, "lineWidth" }, (Object[]) commands[0]);
+        assertArrayEquals(new int[] { 0, 1, -1, -1 }, (int[]) commands[1]);
+        // The buffers grow as needed.
+        int count = 1000;
+
+        for (int i = 0; i < count; i++) {
+            buffer.addInvocation(context, "fillRect", new Object[] { i, i, 1, 1 });
+        }
+
+        commands = buffer.drain();
+        assertEquals(count * 7, ((int[]) commands[1]).length);
+        double[] numbers = (double[]) commands[2];
+        assertEquals(count * 4, numbers.length);
+        assertEquals(count - 1, numbers[numbers.length - 4], 0);
+    }
+
+    @Test
+    public void testAutoFlush() {
+        TestCanvas canvas = new TestCanvas();
+        RenderingContext2D context = canvas.getRenderingContext();
+        canvas.startRecording();
+        assertTrue(canvas.isRecording());
+        canvas.clear();
+
+        for (int i = 1; i < BaseCanvasComponent.MAX_RECORDED_COMMANDS; i++) {
+            context.fillRect(i, i, 1, 1);
+        }
+
+        assertEquals(0, canvas.count("replay"));
+        context.fillRect(0, 0, 1, 1);
+        assertEquals(1, canvas.count("replay"));
+        assertEquals(BaseCanvasComponent.MAX_RECORDED_COMMANDS, countCommands(canvas.replays.get(0)));
+        context.setLineWidth(2);
+        assertTrue(canvas.isRecording());
+        assertEquals(1, canvas.count("replay"));
+        canvas.stopRecording();
+        assertFalse(canvas.isRecording());
+        assertEquals(2, canvas.count("replay"));
+        assertEquals(1, countCommands(canvas.replays.get(1)));
+        canvas.stopRecording();
+        assertEquals(2, canvas.count("replay"));
+        context.fillRect(0, 0, 1, 1);
+        assertEquals(1, canvas.count("invokeResource"));
+    }
+
+    @Test
+    public void testFlushOrder() throws Exception {
+        TestCanvas canvas = new TestCanvas();
+        RenderingContext2D context = canvas.getRenderingContext();
+        canvas.startRecording();
+        canvas.clear();
+        context.beginPath();
+        context.setLineWidth(2);
+        canvas.invoke("direct");
+        assertEquals(List.of("replay", "direct"), canvas.functions);
+        // Recorded commands are flushed before an invocation from another thread.
+        canvas.clear();
+        context.fillRect(0, 0, 1, 1);
+        Thread thread = new Thread(() -> canvas.invoke("destroyResource", 0));
+        thread.start();
+        thread.join();
+        assertEquals(List.of("replay", "destroyResource"), canvas.functions);
+        // Concurrent flushes send every recorded command exactly once.
+        canvas.clear();
+        int threadCount = 4;
+        int commandCount = 5000;
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < threadCount; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < commandCount; j++) {
+                    context.fillRect(j, j, 1, 1);
+
+                    if (j % 100 == 0) {
+                        canvas.flush();
+                    }
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        canvas.stopRecording();
+        int total = 0;
+
+        synchronized (canvas.replays) {
+            for (int[] codes : canvas.replays) {
+                total += countCommands(codes);
+            }
+        }
+
+        assertEquals(threadCount * commandCount, total);
+        assertEquals(canvas.replays.size(), canvas.count("replay"));
+    }
+
+    /**
+     * Returns the number of commands encoded in a command buffer's codes.
+     *
+     * @param codes The command codes.
+     * @return The number of commands.
+     */
+    private int countCommands(int[] codes) {
+        int count = 0;
+        int i = 0;
+
+        while (i < codes.length) {
+            int argCount = codes[i + 2];
+            i += 3 + (argCount < 0 ? 1 : argCount);
+            count++;
+        }
+
+        return count;
+    }
+
+}
@@ -20,75 +20,129 @@
  */
 package org.fujion.common;
 
-import java.util.HashSet;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Abstract class for managing globally cached data. Subclasses must implement the fetch logic for
  * retrieving the data object into the cache.
+ * <p>
+ * By default, the cache is unbounded. It may be bounded by setting a {@link #setMaximumSize
+ * maximum size}, in which case entries are evicted according to the configured
+ * {@link #setEvictionPolicy eviction policy}. Entries may also be expired after a period without
+ * access. Concurrent requests for the same uncached key result in a single fetch. Requests for
+ * different keys never block one another.
+ * </p>
  *
  * @param <KEY> The class of the indexing key.
  * @param <VALUE> The class of the cached item.
  */
 public abstract class AbstractCache<KEY, VALUE> implements Iterable<VALUE> {
 
+    /**
+     * Policies for selecting entries to evict from a bounded cache.
+     */
+    public enum EvictionPolicy {
+        /**
+         * Evict the least recently used entry.
+         */
+        LRU,
+        /**
+         * Window TinyLFU: admit new entries to the main cache region based on their estimated
+         * access frequency relative to the entry that would be evicted.
+         */
+        TINY_LFU
+    }
+
     private static class CachedObject<VALUE> {
 
-        private VALUE object;
+        private final CountDownLatch latch = new CountDownLatch(1);
 
-        private RuntimeException exception;
+        private volatile Thread loader = Thread.currentThread();
 
-        private ReentrantLock lock = new ReentrantLock();
+        private volatile VALUE object;
 
-        private CachedObject() {
-            lock.lock();
-        }
+        private volatile RuntimeException exception;
+
+        private volatile long lastAccess = System.currentTimeMillis();
 
         void setObject(VALUE object) {
             this.object = object;
-            removeLock();
+            loaded();
         }
 
         void setException(RuntimeException exception) {
             this.exception = exception;
-            removeLock();
+            loaded();
+        }
+
+        private void loaded() {
+            loader = null;
+            latch.countDown();
         }
 
         VALUE getObject() {
+            awaitLoad();
+
             if (exception != null) {
                 throw exception;
             }
 
-            lock();
-            unlock();
             return object;
         }
 
-        private void removeLock() {
-            ReentrantLock lock = this.lock;
-            this.lock = null;
-            lock.unlock();
-        }
+        /**
+         * Waits for a fetch in progress on another thread to complete.
+         */
+        private void awaitLoad() {
+            if (latch.getCount() == 0 || loader == Thread.currentThread()) {
+                return;
+            }
 
-        private void lock() {
-            if (lock != null) {
-                lock.lock();
+            boolean interrupted = false;
+
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
             }
-        }
 
-        private void unlock() {
-            if (lock != null) {
-                lock.unlock();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
             }
         }
     }
 
     private final Map<KEY, CachedObject<VALUE>> map = new ConcurrentHashMap<>();
 
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder loadCount = new LongAdder();
+
+    private final LongAdder totalLoadTime = new LongAdder();
+
+    private volatile int maximumSize;
+
+    private volatile long expireAfterAccess;
+
+    private volatile EvictionPolicy evictionPolicy = EvictionPolicy.LRU;
+
+    private volatile CacheEvictor<KEY> evictor;
+
+    private volatile long lastPurge = System.currentTimeMillis();
+
     /**
      * Logic to retrieve the data item from its primary store based on the provided key. The
      * returned item will be stored in the cache for future retrieval. Note that it is acceptable to
@@ -107,7 +161,15 @@ public abstract class AbstractCache<KEY, VALUE> implements Iterable<VALUE> {
      * @return The associated value.
      */
     public VALUE get(KEY key) {
-        return isCached(key) ? map.get(key).getObject() : internalGet(key);
+        CachedObject<VALUE> cachedObject = getCachedObject(key);
+
+        if (cachedObject == null) {
+            return internalGet(key);
+        }
+
+        hitCount.increment();
+        touch(key, cachedObject);
+        return cachedObject.getObject();
     }
 
     /**
@@ -117,53 +179,150 @@ public abstract class AbstractCache<KEY, VALUE> implements Iterable<VALUE> {
      * @return True if associated item has been cached.
      */
     public boolean isCached(KEY key) {
-        return map.containsKey(key);
+        return getCachedObject(key) != null;
+    }
+
+    /**
+     * Returns the cache entry for the specified key, removing it if it has expired.
+     *
+     * @param key The key.
+     * @return The cache entry, or null if not present.
+     */
+    private CachedObject<VALUE> getCachedObject(KEY key) {
+        CachedObject<VALUE> cachedObject = map.get(key);
+
+        if (cachedObject != null && isExpired(cachedObject, System.currentTimeMillis())) {
+            evict(key, cachedObject);
+            return null;
+        }
+
+        return cachedObject;
     }
 
     /**
-     * Internal, thread-safe method for loading result into cache.
+     * Internal, thread-safe method for loading result into cache. Only the thread that succeeds in
+     * inserting the placeholder entry performs the fetch. Other threads wait on that entry alone.
      *
      * @param key The key.
      * @return The associated value.
      */
     private VALUE internalGet(KEY key) {
-        CachedObject<VALUE> cachedObject;
-        boolean needsFetch;
+        CachedObject<VALUE> newObject = new CachedObject<>();
+        CachedObject<VALUE> cachedObject = map.putIfAbsent(key, newObject);
+
+        if (cachedObject != null) {
+            hitCount.increment();
+            touch(key, cachedObject);
+            return cachedObject.getObject();
+        }
+
+        missCount.increment();
+        long start = System.nanoTime();
+
+        try {
+            newObject.setObject(fetch(key));
+        } catch (Throwable e) {
+            RuntimeException e2 = MiscUtil.toUnchecked(e);
+            newObject.setException(e2);
+            throw e2;
+        } finally {
+            loadCount.increment();
+            totalLoadTime.add(System.nanoTime() - start);
+            afterInsert(key, newObject);
+        }
+
+        return newObject.getObject();
+    }
 
-        synchronized (map) {
-            needsFetch = !map.containsKey(key);
+    private void touch(KEY key, CachedObject<VALUE> cachedObject) {
+        CacheEvictor<KEY> evictor = this.evictor;
 
-            if (needsFetch) {
-                cachedObject = new CachedObject<>();
-                map.put(key, cachedObject);
-            } else {
-                cachedObject = map.get(key);
+        if (expireAfterAccess > 0) {
+            cachedObject.lastAccess = System.currentTimeMillis();
+        }
+
+        if (evictor != null) {
+            evictor.recordAccess(key);
+        }
+    }
+
+    /**
+     * Applies the size bound and purges expired entries following an insertion.
+     *
+     * @param key The inserted key.
+     * @param cachedObject The inserted entry.
+     */
+    private void afterInsert(KEY key, CachedObject<VALUE> cachedObject) {
+        CacheEvictor<KEY> evictor = this.evictor;
+
+        if (evictor != null && map.get(key) == cachedObject) {
+            for (KEY victim : evictor.recordInsert(key)) {
+                if (map.remove(victim) != null) {
+                    evictionCount.increment();
+                }
             }
         }
 
-        if (needsFetch) {
-            try {
-                cachedObject.setObject(fetch(key));
-            } catch (Throwable e) {
-                RuntimeException e2 = MiscUtil.toUnchecked(e);
-                cachedObject.setException(e2);
-                throw e2;
+        long expire = expireAfterAccess;
+        long now = System.currentTimeMillis();
+
+        if (expire > 0 && now - lastPurge >= expire) {
+            lastPurge = now;
+            map.forEach((k, v) -> {
+                if (isExpired(v, now)) {
+                    evict(k, v);
+                }
+            });
+        }
+    }
+
+    private boolean isExpired(CachedObject<VALUE> cachedObject, long now) {
+        long expire = expireAfterAccess;
+        return expire > 0 && cachedObject.latch.getCount() == 0 && now - cachedObject.lastAccess > expire;
+    }
+
+    private void evict(KEY key, CachedObject<VALUE> cachedObject) {
+        if (map.remove(key, cachedObject)) {
+            evictionCount.increment();
+            CacheEvictor<KEY> evictor = this.evictor;
+
+            if (evictor != null) {
+                evictor.recordRemove(key);
             }
         }
+    }
 
-        return cachedObject.getObject();
+    /**
+     * Removes the entry for the specified key, if present.
+     *
+     * @param key The key.
+     * @return True if an entry was removed.
+     */
+    public boolean invalidate(KEY key) {
+        boolean removed = map.remove(key) != null;
+        CacheEvictor<KEY> evictor = this.evictor;
+
+        if (removed && evictor != null) {
+            evictor.recordRemove(key);
+        }
+
+        return removed;
     }
 
     /**
      * Refresh the cache. Any existing entries in the cache will be re-fetched after it is cleared.
+     * Entries are re-fetched individually, so concurrent requests are not blocked for the
+     * duration of the refresh.
      */
     public void refresh() {
-        synchronized (map) {
-            Set<KEY> contents = new HashSet<>(map.keySet());
-            clear();
+        List<KEY> contents = new ArrayList<>(map.keySet());
+        clear();
 
-            for (KEY key : contents) {
-                internalGet(key);
+        for (KEY key : contents) {
+            try {
+                get(key);
+            } catch (RuntimeException e) {
+                // The exception is cached with the entry and will be thrown to the next requester.
             }
         }
     }
@@ -173,6 +332,96 @@ public abstract class AbstractCache<KEY, VALUE> implements Iterable<VALUE> {
      */
     public void clear() {
         map.clear();
+        CacheEvictor<KEY> evictor = this.evictor;
+
+        if (evictor != null) {
+            evictor.clear();
+        }
+    }
+
+    /**
+     * Returns the maximum number of entries.
+     *
+     * @return The maximum number of entries, or &lt;= 0 if unbounded.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of entries. When exceeded, entries are evicted according to the
+     * eviction policy. Changing the bound clears the cache.
+     *
+     * @param maximumSize The maximum number of entries. A value &lt;= 0 means unbounded.
+     */
+    public synchronized void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+        resetEvictor();
+    }
+
+    /**
+     * Returns the eviction policy.
+     *
+     * @return The eviction policy.
+     */
+    public EvictionPolicy getEvictionPolicy() {
+        return evictionPolicy;
+    }
+
+    /**
+     * Sets the eviction policy for a bounded cache. Changing the policy clears the cache.
+     *
+     * @param evictionPolicy The eviction policy.
+     */
+    public synchronized void setEvictionPolicy(EvictionPolicy evictionPolicy) {
+        Assert.notNull(evictionPolicy, "Eviction policy must not be null.");
+        this.evictionPolicy = evictionPolicy;
+        resetEvictor();
+    }
+
+    /**
+     * Returns the interval after which an entry that has not been accessed expires.
+     *
+     * @return The expiration interval in milliseconds, or &lt;= 0 if entries do not expire.
+     */
+    public long getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    /**
+     * Sets the interval after which an entry that has not been accessed expires.
+     *
+     * @param expireAfterAccess The expiration interval in milliseconds. A value &lt;= 0 means
+     *            entries do not expire.
+     */
+    public void setExpireAfterAccess(long expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    private void resetEvictor() {
+        evictor = maximumSize > 0 ? CacheEvictor.create(evictionPolicy, maximumSize) : null;
+        map.clear();
+    }
+
+    /**
+     * Returns a snapshot of the cache's performance counters.
+     *
+     * @return The cache statistics.
+     */
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hitCount.sum(), missCount.sum(), evictionCount.sum(), loadCount.sum(),
+                totalLoadTime.sum());
+    }
+
+    /**
+     * Resets the cache's performance counters.
+     */
+    public void resetStatistics() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+        loadCount.reset();
+        totalLoadTime.reset();
     }
 
     /**
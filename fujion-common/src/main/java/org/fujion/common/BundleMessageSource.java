@@ -22,12 +22,13 @@ package org.fujion.common;
 
 import java.text.MessageFormat;
 import java.util.Locale;
+import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 
 /**
  * Support for resource bundles as a message source.
  */
-public class BundleMessageSource implements Localizer.IMessageSource {
+public class BundleMessageSource implements Localizer.IMessagePatternSource {
     
     /**
      * The first "."-delimited piece of the id is the bundle base with the remainder being the
@@ -35,13 +36,32 @@ public class BundleMessageSource implements Localizer.IMessageSource {
      */
     @Override
     public String getMessage(String id, Locale locale, Object... args) {
+        String message = getPattern(id, locale);
+        return message == null ? null : format(message, locale, args);
+    }
+    
+    /**
+     * The first "."-delimited piece of the id is the bundle base with the remainder being the
+     * message key.
+     */
+    @Override
+    public String getPattern(String id, Locale locale) {
+        int i = id.indexOf('.');
+        
+        if (i < 0) {
+            return null;
+        }
+        
+        String key = id.substring(i + 1);
+        ResourceBundle bundle;
+        
         try {
-            String[] pcs = id.split("\\.", 2);
-            String message = pcs.length < 2 ? null : ResourceBundle.getBundle(pcs[0], locale).getString(pcs[1]);
-            return message == null ? null : format(message, locale, args);
-        } catch (Exception e) {
+            bundle = ResourceBundle.getBundle(id.substring(0, i), locale);
+        } catch (MissingResourceException e) {
             return null;
         }
+        
+        return bundle.containsKey(key) ? bundle.getString(key) : null;
     }
     
     /**
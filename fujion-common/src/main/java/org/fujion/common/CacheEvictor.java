@@ -0,0 +1,349 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tracks the keys of a size-bounded cache and selects entries for eviction. Access recording is
+ * lossy: if another thread holds the policy lock, the access is simply not recorded, so readers
+ * never block on one another.
+ *
+ * @param <KEY> The class of the indexing key.
+ */
+abstract class CacheEvictor<KEY> {
+
+    /**
+     * Creates an evictor for the specified policy.
+     *
+     * @param <KEY> The class of the indexing key.
+     * @param policy The eviction policy.
+     * @param maximumSize The maximum number of entries (must be &gt; 0).
+     * @return A new evictor.
+     */
+    static <KEY> CacheEvictor<KEY> create(AbstractCache.EvictionPolicy policy, int maximumSize) {
+        return policy == AbstractCache.EvictionPolicy.TINY_LFU ? new TinyLfu<>(maximumSize) : new Lru<>(maximumSize);
+    }
+
+    protected final ReentrantLock lock = new ReentrantLock();
+
+    protected final int maximumSize;
+
+    protected CacheEvictor(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Records an access to an existing entry. Skipped if the policy is busy.
+     *
+     * @param key The key that was accessed.
+     */
+    void recordAccess(KEY key) {
+        if (lock.tryLock()) {
+            try {
+                onAccess(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Records the insertion of a new entry.
+     *
+     * @param key The key that was inserted.
+     * @return The keys of entries that must be evicted (may include the inserted key).
+     */
+    List<KEY> recordInsert(KEY key) {
+        lock.lock();
+
+        try {
+            return onInsert(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the removal of an entry.
+     *
+     * @param key The key that was removed.
+     */
+    void recordRemove(KEY key) {
+        lock.lock();
+
+        try {
+            onRemove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets all keys.
+     */
+    void clear() {
+        lock.lock();
+
+        try {
+            onClear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    protected abstract void onAccess(KEY key);
+
+    protected abstract List<KEY> onInsert(KEY key);
+
+    protected abstract void onRemove(KEY key);
+
+    protected abstract void onClear();
+
+    /**
+     * Creates an access-ordered set of keys.
+     *
+     * @param <KEY> The class of the indexing key.
+     * @return An access-ordered map used as a set.
+     */
+    protected static <KEY> LinkedHashMap<KEY, Boolean> newAccessOrder() {
+        return new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Removes and returns the least recently used key.
+     *
+     * @param <KEY> The class of the indexing key.
+     * @param order The access-ordered keys.
+     * @return The least recently used key, or null if none.
+     */
+    protected static <KEY> KEY removeEldest(LinkedHashMap<KEY, Boolean> order) {
+        Iterator<KEY> iterator = order.keySet().iterator();
+
+        if (!iterator.hasNext()) {
+            return null;
+        }
+
+        KEY key = iterator.next();
+        iterator.remove();
+        return key;
+    }
+
+    /**
+     * Least recently used eviction.
+     *
+     * @param <KEY> The class of the indexing key.
+     */
+    private static class Lru<KEY> extends CacheEvictor<KEY> {
+
+        private final LinkedHashMap<KEY, Boolean> order = newAccessOrder();
+
+        Lru(int maximumSize) {
+            super(maximumSize);
+        }
+
+        @Override
+        protected void onAccess(KEY key) {
+            order.get(key);
+        }
+
+        @Override
+        protected List<KEY> onInsert(KEY key) {
+            order.put(key, Boolean.TRUE);
+
+            if (order.size() <= maximumSize) {
+                return Collections.emptyList();
+            }
+
+            List<KEY> victims = new ArrayList<>();
+
+            while (order.size() > maximumSize) {
+                victims.add(removeEldest(order));
+            }
+
+            return victims;
+        }
+
+        @Override
+        protected void onRemove(KEY key) {
+            order.remove(key);
+        }
+
+        @Override
+        protected void onClear() {
+            order.clear();
+        }
+
+    }
+
+    /**
+     * Window TinyLFU eviction. New entries enter a small LRU admission window. An entry leaving
+     * the window is admitted to the main LRU region only if it has been requested more often than
+     * the main region's eviction victim, as estimated by a frequency sketch. This protects
+     * frequently used entries from being flushed by bursts of one-time requests.
+     *
+     * @param <KEY> The class of the indexing key.
+     */
+    private static class TinyLfu<KEY> extends CacheEvictor<KEY> {
+
+        private final LinkedHashMap<KEY, Boolean> window = newAccessOrder();
+
+        private final LinkedHashMap<KEY, Boolean> main = newAccessOrder();
+
+        private final FrequencySketch sketch;
+
+        private final int windowSize;
+
+        private final int mainSize;
+
+        TinyLfu(int maximumSize) {
+            super(maximumSize);
+            windowSize = Math.max(1, maximumSize / 100);
+            mainSize = maximumSize - windowSize;
+            sketch = new FrequencySketch(maximumSize);
+        }
+
+        @Override
+        protected void onAccess(KEY key) {
+            sketch.increment(key);
+
+            if (window.get(key) == null) {
+                main.get(key);
+            }
+        }
+
+        @Override
+        protected List<KEY> onInsert(KEY key) {
+            sketch.increment(key);
+            window.put(key, Boolean.TRUE);
+
+            if (window.size() <= windowSize) {
+                return Collections.emptyList();
+            }
+
+            KEY candidate = removeEldest(window);
+
+            if (main.size() < mainSize) {
+                main.put(candidate, Boolean.TRUE);
+                return Collections.emptyList();
+            }
+
+            KEY victim = mainSize == 0 ? null : main.keySet().iterator().next();
+
+            if (victim != null && sketch.frequency(candidate) > sketch.frequency(victim)) {
+                main.remove(victim);
+                main.put(candidate, Boolean.TRUE);
+                return Collections.singletonList(victim);
+            }
+
+            return Collections.singletonList(candidate);
+        }
+
+        @Override
+        protected void onRemove(KEY key) {
+            if (window.remove(key) == null) {
+                main.remove(key);
+            }
+        }
+
+        @Override
+        protected void onClear() {
+            window.clear();
+            main.clear();
+        }
+
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters used to estimate access frequencies. Counters are halved
+     * periodically so that the estimates favor recent history.
+     */
+    private static class FrequencySketch {
+
+        private static final int DEPTH = 4;
+
+        private static final int[] SEEDS = { 0x97cb3127, 0x2e8a4d1b, 0x5bd1e995, 0x7ed55d16 };
+
+        private final byte[][] table;
+
+        private final int mask;
+
+        private final int sampleSize;
+
+        private int additions;
+
+        FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(16, maximumSize - 1) << 1);
+            table = new byte[DEPTH][width];
+            mask = width - 1;
+            sampleSize = 10 * Math.max(16, maximumSize);
+        }
+
+        private int index(Object key, int row) {
+            int hash = key.hashCode() * SEEDS[row];
+            hash ^= hash >>> 16;
+            return hash & mask;
+        }
+
+        void increment(Object key) {
+            boolean added = false;
+
+            for (int row = 0; row < DEPTH; row++) {
+                int i = index(key, row);
+
+                if (table[row][i] < 15) {
+                    table[row][i]++;
+                    added = true;
+                }
+            }
+
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int frequency = Integer.MAX_VALUE;
+
+            for (int row = 0; row < DEPTH; row++) {
+                frequency = Math.min(frequency, table[row][index(key, row)]);
+            }
+
+            return frequency;
+        }
+
+        private void reset() {
+            additions /= 2;
+
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+        }
+
+    }
+}
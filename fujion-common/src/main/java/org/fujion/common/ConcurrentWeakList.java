@@ -0,0 +1,48 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.common;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A {@link WeakList} that may be safely accessed from multiple threads. References are stored in a
+ * {@link CopyOnWriteArrayList}, making this best suited to lists that are read far more often than
+ * they are modified, such as listener lists. Iterators operate on a snapshot of the list.
+ *
+ * @param <E> Class of element.
+ */
+public class ConcurrentWeakList<E> extends WeakList<E> {
+    
+    public ConcurrentWeakList() {
+        super(new CopyOnWriteArrayList<WeakReference<E>>());
+    }
+    
+    /**
+     * Copy constructor
+     * 
+     * @param source Instance to be copied.
+     */
+    public ConcurrentWeakList(WeakList<E> source) {
+        super(source, new CopyOnWriteArrayList<WeakReference<E>>());
+    }
+    
+}
@@ -0,0 +1,50 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.common;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link WeakMap} that may be safely accessed from multiple threads. References are stored in a
+ * {@link ConcurrentHashMap}, so null keys are not permitted and iteration is weakly consistent.
+ * Individual operations are thread-safe, but compound operations (e.g., check-then-put) are not
+ * atomic.
+ *
+ * @param <K> Class of key.
+ * @param <E> Class of element.
+ */
+public class ConcurrentWeakMap<K, E> extends WeakMap<K, E> {
+    
+    public ConcurrentWeakMap() {
+        super(new ConcurrentHashMap<K, WeakReference<E>>());
+    }
+    
+    /**
+     * Copy constructor
+     * 
+     * @param source Instance to be copied.
+     */
+    public ConcurrentWeakMap(WeakMap<K, E> source) {
+        super(source, new ConcurrentHashMap<K, WeakReference<E>>());
+    }
+    
+}
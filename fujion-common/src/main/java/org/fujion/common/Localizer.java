@@ -20,9 +20,11 @@
  */
 package org.fujion.common;
 
+import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.TimeZone;
 
 /**
@@ -47,6 +49,140 @@ public class Localizer {
         
     }
     
+    /**
+     * A message source that can supply unformatted message patterns. Patterns resolved from such
+     * sources are compiled once and cached by the Localizer, as are failed lookups.
+     */
+    public interface IMessagePatternSource extends IMessageSource {
+        
+        /**
+         * Retrieve the unformatted message pattern for the specified locale given its id. This must
+         * not throw an exception if no pattern is found.
+         *
+         * @param id The message identifier.
+         * @param locale The locale.
+         * @return The message pattern, or null if none was found.
+         */
+        String getPattern(String id, Locale locale);
+        
+        /**
+         * Returns true if a pattern should be formatted even when no arguments are supplied.
+         *
+         * @return True to always format the pattern.
+         */
+        default boolean isAlwaysFormatted() {
+            return true;
+        }
+        
+        /**
+         * Returns how long, in milliseconds, a lookup against this source may be cached. A
+         * negative value means indefinitely; zero disables caching.
+         *
+         * @return The cache duration in milliseconds.
+         */
+        default long getCacheDuration() {
+            return -1;
+        }
+        
+    }
+    
+    /**
+     * Key for a cached message lookup.
+     */
+    private static class MessageKey {
+        
+        private final String id;
+        
+        private final Locale locale;
+        
+        MessageKey(String id, Locale locale) {
+            this.id = id;
+            this.locale = locale;
+        }
+        
+        @Override
+        public boolean equals(Object object) {
+            return object instanceof MessageKey && ((MessageKey) object).id.equals(id)
+                    && ((MessageKey) object).locale.equals(locale);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, locale);
+        }
+        
+    }
+    
+    /**
+     * Cache of message lookups. Fetching an entry consults only the pattern sources that precede
+     * the first source of any other kind.
+     */
+    private static class MessageCache extends AbstractCache<MessageKey, CachedMessage> {
+        
+        @Override
+        protected CachedMessage fetch(MessageKey key) {
+            return resolvePattern(key.id, key.locale);
+        }
+        
+    }
+    
+    /**
+     * A cached message lookup. A null pattern indicates that no message was found.
+     */
+    private static class CachedMessage {
+        
+        private final String pattern;
+        
+        private final MessageFormat format;
+        
+        private final boolean alwaysFormatted;
+        
+        private final long expires;
+        
+        CachedMessage(String pattern, Locale locale, boolean alwaysFormatted, long expires) {
+            this.pattern = pattern;
+            this.format = pattern == null ? null : compile(pattern, locale);
+            this.alwaysFormatted = alwaysFormatted;
+            this.expires = expires;
+        }
+        
+        private static MessageFormat compile(String pattern, Locale locale) {
+            // A pattern without format elements or quotes formats to itself.
+            if (pattern.indexOf('{') < 0 && pattern.indexOf('\'') < 0) {
+                return null;
+            }
+            
+            try {
+                return new MessageFormat(pattern, locale);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+        
+        boolean isExpired(long now) {
+            return expires >= 0 && now >= expires;
+        }
+        
+        /**
+         * Formats the message. If the pattern requires no formatting or could not be compiled, it is
+         * returned unformatted.
+         *
+         * @param args The message arguments.
+         * @return The formatted message, or null if no message was found.
+         */
+        String format(Object[] args) {
+            if (format == null || (!alwaysFormatted && (args == null || args.length == 0))) {
+                return pattern;
+            }
+            
+            // MessageFormat instances are not thread-safe.
+            synchronized (format) {
+                return format.format(args);
+            }
+        }
+        
+    }
+    
     /**
      * Resolves the default locale.
      */
@@ -78,6 +214,23 @@ public class Localizer {
     
     private static final List<IMessageSource> messageSources = new ArrayList<>();
     
+    /**
+     * Upper bound on the number of cached lookups. Protects against unbounded growth from negative
+     * entries for arbitrary identifiers. The least recently used entries are evicted first.
+     */
+    private static final int MAX_CACHE_SIZE = 20000;
+    
+    private static final MessageCache messageCache = new MessageCache();
+    
+    /**
+     * Marks a lookup that cannot be cached and must be resolved on every request.
+     */
+    private static final CachedMessage UNCACHEABLE = new CachedMessage(null, null, false, -1);
+    
+    static {
+        messageCache.setMaximumSize(MAX_CACHE_SIZE);
+    }
+    
     private static ILocaleResolver localeResolver = Locale::getDefault;
     
     private static ITimeZoneResolver timeZoneResolver = TimeZone::getDefault;
@@ -89,6 +242,26 @@ public class Localizer {
      */
     public static void registerMessageSource(IMessageSource messageSource) {
         messageSources.add(messageSource);
+        clearMessageCache();
+    }
+    
+    /**
+     * Unregisters a previously registered message source.
+     *
+     * @param messageSource The message source.
+     */
+    public static void unregisterMessageSource(IMessageSource messageSource) {
+        if (messageSources.remove(messageSource)) {
+            clearMessageCache();
+        }
+    }
+    
+    /**
+     * Discards all cached message lookups. Message sources should call this when their content
+     * changes.
+     */
+    public static void clearMessageCache() {
+        messageCache.clear();
     }
     
     /**
@@ -102,19 +275,102 @@ public class Localizer {
      */
     public static String getMessage(String id, Locale locale, Object... args) {
         locale = locale == null ? getDefaultLocale() : locale;
+        MessageKey key = new MessageKey(id, locale);
+        CachedMessage cached = messageCache.get(key);
+        
+        if (cached.isExpired(System.currentTimeMillis())) {
+            messageCache.invalidate(key);
+            cached = messageCache.get(key);
+        }
+        
+        return cached == UNCACHEABLE ? resolveMessage(id, locale, args) : cached.format(args);
+    }
+    
+    /**
+     * Resolves a message pattern for caching by consulting each pattern source in turn. The lookup
+     * (including a failed one) is cacheable only if every source consulted was a pattern source
+     * that permits caching.
+     *
+     * @param id A label identifier.
+     * @param locale The locale.
+     * @return The cached lookup, or {@link #UNCACHEABLE} if the lookup cannot be cached.
+     */
+    private static CachedMessage resolvePattern(String id, Locale locale) {
+        long now = System.currentTimeMillis();
+        long duration = -1;
         
         for (IMessageSource messageSource : messageSources) {
-            try {
-                return messageSource.getMessage(id, locale, args).replace("\\\n", "");
-            } catch (Exception e) {
-                // Ignore and try next message source.
+            if (!(messageSource instanceof IMessagePatternSource)) {
+                return UNCACHEABLE;
+            }
+            
+            IMessagePatternSource patternSource = (IMessagePatternSource) messageSource;
+            duration = minDuration(duration, patternSource.getCacheDuration());
+            
+            if (duration == 0) {
+                return UNCACHEABLE;
+            }
+            
+            String pattern = getPattern(patternSource, id, locale);
+            
+            if (pattern != null) {
+                return new CachedMessage(pattern.replace("\\\n", ""), locale, patternSource.isAlwaysFormatted(),
+                        duration < 0 ? -1 : now + duration);
             }
         }
+        
+        log.warn(() -> "Label not found for identifier: " + id);
+        return new CachedMessage(null, locale, false, duration < 0 ? -1 : now + duration);
+    }
+    
+    /**
+     * Resolves a message without caching by consulting each message source in turn.
+     *
+     * @param id A label identifier.
+     * @param locale The locale.
+     * @param args Optional replaceable parameters.
+     * @return The formatted label, or null if not found.
+     */
+    private static String resolveMessage(String id, Locale locale, Object[] args) {
+        for (IMessageSource messageSource : messageSources) {
+            if (messageSource instanceof IMessagePatternSource) {
+                IMessagePatternSource patternSource = (IMessagePatternSource) messageSource;
+                String pattern = getPattern(patternSource, id, locale);
+                
+                if (pattern != null) {
+                    return new CachedMessage(pattern.replace("\\\n", ""), locale, patternSource.isAlwaysFormatted(), -1)
+                            .format(args);
+                }
+            } else {
+                try {
+                    String message = messageSource.getMessage(id, locale, args);
+                    
+                    if (message != null) {
+                        return message.replace("\\\n", "");
+                    }
+                } catch (Exception e) {
+                    // Ignore and try next message source.
+                }
+            }
+        }
+        
         // Failing resolution, just return null.
         log.warn(() -> "Label not found for identifier: " + id);
         return null;
     }
     
+    private static String getPattern(IMessagePatternSource patternSource, String id, Locale locale) {
+        try {
+            return patternSource.getPattern(id, locale);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    private static long minDuration(long duration1, long duration2) {
+        return duration1 < 0 ? duration2 : duration2 < 0 ? duration1 : Math.min(duration1, duration2);
+    }
+    
     /**
      * Returns the default locale.
      *
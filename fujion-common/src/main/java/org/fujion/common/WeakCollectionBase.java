@@ -35,18 +35,89 @@ public abstract class WeakCollectionBase<E> {
     
     private transient final ReferenceQueue<E> referenceQueue = new ReferenceQueue<>();
     
+    /**
+     * Weak reference that carries the key under which it is stored, allowing a cleared reference
+     * to be removed from its collection without a search.
+     *
+     * @param <E> Class of element.
+     */
+    protected static class KeyedReference<E> extends WeakReference<E> {
+        
+        private final Object key;
+        
+        private volatile boolean purged;
+        
+        protected KeyedReference(Object key, E element, ReferenceQueue<? super E> queue) {
+            super(element, queue);
+            this.key = key;
+        }
+        
+        /**
+         * Returns the key under which this reference is stored.
+         *
+         * @return The key (may be null).
+         */
+        public Object getKey() {
+            return key;
+        }
+        
+        /**
+         * Returns true if this reference has been dequeued after its referent was collected.
+         *
+         * @return True if the reference has been purged.
+         */
+        public boolean isPurged() {
+            return purged;
+        }
+        
+        @Override
+        public boolean equals(Object object) {
+            if (this == object) {
+                return true;
+            }
+            
+            Object val1 = get();
+            
+            if (val1 != null && object instanceof WeakReference) {
+                return val1.equals(((WeakReference<?>) object).get());
+            }
+            
+            return false;
+        }
+        
+    }
+    
     /**
      * Remove any garbage-collected entries.
      */
     public void compact() {
         Reference<? extends E> ref;
+        boolean purged = false;
         
         while ((ref = referenceQueue.poll()) != null) {
-            removeReference(ref);
+            ((KeyedReference<? extends E>) ref).purged = true;
+            removeReference((KeyedReference<? extends E>) ref);
+            purged = true;
+        }
+        
+        if (purged) {
+            afterCompact();
         }
     }
     
-    protected abstract void removeReference(Reference<? extends E> reference);
+    /**
+     * Removes a reference whose referent has been garbage-collected.
+     *
+     * @param reference The cleared reference.
+     */
+    protected abstract void removeReference(KeyedReference<? extends E> reference);
+    
+    /**
+     * Called once after one or more cleared references have been dequeued by {@link #compact}.
+     * Subclasses that cannot remove individual references cheaply may do so here in a single pass.
+     */
+    protected void afterCompact() {
+    }
     
     protected Iterator<E> getIterator(Iterable<WeakReference<E>> iterable) {
         compact();
@@ -79,23 +150,19 @@ public abstract class WeakCollectionBase<E> {
      * @return Weak reference for the element.
      */
     protected WeakReference<E> createWeakReference(E element) {
-        return new WeakReference<>(element, referenceQueue) {
-
-            @Override
-            public boolean equals(Object object) {
-                if (this == object) {
-                    return true;
-                }
-
-                E val1 = get();
-
-                if (val1 != null && object instanceof WeakReference) {
-                    return val1.equals(((WeakReference<?>) object).get());
-                }
-
-                return false;
-            }
-        };
+        return createWeakReference(null, element);
+    }
+    
+    /**
+     * Creates a weak reference for the specified element, associating it with the internal
+     * reference queue and the key under which it will be stored.
+     * 
+     * @param key The key under which the reference will be stored.
+     * @param element The element.
+     * @return Weak reference for the element.
+     */
+    protected WeakReference<E> createWeakReference(Object key, E element) {
+        return new KeyedReference<>(key, element, referenceQueue);
     }
     
     protected boolean contains(Collection<WeakReference<E>> c, Object item) {
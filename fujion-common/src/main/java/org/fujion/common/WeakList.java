@@ -20,21 +20,34 @@
  */
 package org.fujion.common;
 
-import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.util.*;
 
 /**
  * Implements the equivalent of an array list with weakly referenced elements.
+ * <p>
+ * References whose elements have been garbage-collected are removed in a single pass per
+ * compaction, regardless of how many were cleared. This implementation is not synchronized; use
+ * {@link ConcurrentWeakList} for access from multiple threads.
  * 
  * @param <E> Class of element.
  */
 public class WeakList<E> extends WeakCollectionBase<E>implements List<E> {
     
-    private final List<WeakReference<E>> referenceList = new ArrayList<>();
+    private final List<WeakReference<E>> referenceList;
     
     public WeakList() {
+        this(new ArrayList<>());
+    }
+    
+    /**
+     * Creates a weak list using the specified list to store references.
+     *
+     * @param referenceList The (empty) backing list.
+     */
+    protected WeakList(List<WeakReference<E>> referenceList) {
         super();
+        this.referenceList = referenceList;
     }
     
     /**
@@ -43,7 +56,17 @@ public class WeakList<E> extends WeakCollectionBase<E>implements List<E> {
      * @param source Instance to be copied.
      */
     public WeakList(WeakList<E> source) {
-        super();
+        this(source, new ArrayList<>());
+    }
+    
+    /**
+     * Copy constructor using the specified list to store references.
+     * 
+     * @param source Instance to be copied.
+     * @param referenceList The (empty) backing list.
+     */
+    protected WeakList(WeakList<E> source, List<WeakReference<E>> referenceList) {
+        this(referenceList);
         
         for (E element : source) {
             if (element != null) {
@@ -218,7 +241,12 @@ public class WeakList<E> extends WeakCollectionBase<E>implements List<E> {
     }
     
     @Override
-    protected void removeReference(Reference<? extends E> reference) {
-        referenceList.remove(reference);
+    protected void removeReference(KeyedReference<? extends E> reference) {
+        // Purged references are removed together in afterCompact.
+    }
+    
+    @Override
+    protected void afterCompact() {
+        referenceList.removeIf(ref -> ((KeyedReference<E>) ref).isPurged());
     }
 }
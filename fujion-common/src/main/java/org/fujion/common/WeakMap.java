@@ -20,23 +20,36 @@
  */
 package org.fujion.common;
 
-import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.util.*;
 
 /**
  * Implements the equivalent of a map with weakly referenced values. Note: this differs from a
  * WeakHashMap which uses weakly referenced keys.
+ * <p>
+ * Each reference carries its key, so purging an entry whose value has been garbage-collected is a
+ * constant-time operation. This implementation is not synchronized; use {@link ConcurrentWeakMap}
+ * for access from multiple threads.
  * 
  * @param <K> Class of key.
  * @param <E> Class of element.
  */
 public class WeakMap<K, E> extends WeakCollectionBase<E>implements Map<K, E> {
     
-    private final Map<K, WeakReference<E>> referenceMap = new HashMap<>();
+    private final Map<K, WeakReference<E>> referenceMap;
     
     public WeakMap() {
+        this(new HashMap<>());
+    }
+    
+    /**
+     * Creates a weak map using the specified map to store references.
+     *
+     * @param referenceMap The (empty) backing map.
+     */
+    protected WeakMap(Map<K, WeakReference<E>> referenceMap) {
         super();
+        this.referenceMap = referenceMap;
     }
     
     /**
@@ -45,7 +58,17 @@ public class WeakMap<K, E> extends WeakCollectionBase<E>implements Map<K, E> {
      * @param source Instance to be copied.
      */
     public WeakMap(WeakMap<K, E> source) {
-        super();
+        this(source, new HashMap<>());
+    }
+    
+    /**
+     * Copy constructor using the specified map to store references.
+     * 
+     * @param source Instance to be copied.
+     * @param referenceMap The (empty) backing map.
+     */
+    protected WeakMap(WeakMap<K, E> source, Map<K, WeakReference<E>> referenceMap) {
+        this(referenceMap);
         
         for (Entry<K, E> entry : source.entrySet()) {
             if (entry.getValue() != null) {
@@ -88,7 +111,7 @@ public class WeakMap<K, E> extends WeakCollectionBase<E>implements Map<K, E> {
     
     @Override
     public E put(K key, E value) {
-        return getReferent(referenceMap.put(key, createWeakReference(value)));
+        return getReferent(referenceMap.put(key, createWeakReference(key, value)));
     }
     
     @Override
@@ -133,7 +156,7 @@ public class WeakMap<K, E> extends WeakCollectionBase<E>implements Map<K, E> {
 
                             @Override
                             public E setValue(E value) {
-                                return getReferent(entry.setValue(createWeakReference(value)));
+                                return getReferent(entry.setValue(createWeakReference(entry.getKey(), value)));
                             }
 
                         };
@@ -191,8 +214,8 @@ public class WeakMap<K, E> extends WeakCollectionBase<E>implements Map<K, E> {
     }
     
     @Override
-    protected void removeReference(Reference<? extends E> reference) {
-        referenceMap.values().remove(reference);
+    protected void removeReference(KeyedReference<? extends E> reference) {
+        referenceMap.remove(reference.getKey(), reference);
     }
     
 }
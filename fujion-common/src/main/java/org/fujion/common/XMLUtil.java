@@ -29,6 +29,9 @@ import org.xml.sax.InputSource;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
@@ -55,9 +58,12 @@ public class XMLUtil {
     
     private static final DocumentBuilderFactory nsAwareFactory = DocumentBuilderFactory.newInstance();
     
+    private static final XMLInputFactory streamFactory = XMLInputFactory.newInstance();
+
     static {
         initFactory(nsUnawareFactory, false);
         initFactory(nsAwareFactory, true);
+        initFactory(streamFactory);
     }
 
     private static void initFactory(DocumentBuilderFactory factory, boolean nsAware) {
@@ -69,6 +75,30 @@ public class XMLUtil {
         }
     }
 
+    private static void initFactory(XMLInputFactory factory) {
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
+        String ignoreExternalDTD = "http://java.sun.com/xml/stream/properties/ignore-external-dtd";
+
+        if (factory.isPropertySupported(ignoreExternalDTD)) {
+            factory.setProperty(ignoreExternalDTD, true);
+        }
+    }
+
+    /**
+     * Returns a new namespace-aware streaming reader for the XML content of an input stream.
+     * External entities and DTDs are not loaded. The caller is responsible for closing both the
+     * reader and the stream.
+     *
+     * @param stream Input stream containing XML.
+     * @return New streaming reader instance.
+     * @throws XMLStreamException Error creating the reader.
+     */
+    public static XMLStreamReader newStreamReader(InputStream stream) throws XMLStreamException {
+        return streamFactory.createXMLStreamReader(stream);
+    }
+
     /**
      * Returns a new document builder instance.
      *
@@ -26,6 +26,7 @@ import org.junit.Test;
 import org.junit.function.ThrowingRunnable;
 
 import java.awt.*;
+import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -33,6 +34,7 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.Temporal;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
@@ -585,24 +587,104 @@ public class CommonTest {
         assertEquals("clavier", StrUtil.getLabel("message.test1", locale2));
     }
 
+    @Test
+    public void testMessageCache() {
+        AtomicInteger lookups = new AtomicInteger();
+        Localizer.IMessagePatternSource messageSource = new Localizer.IMessagePatternSource() {
+
+            @Override
+            public String getPattern(String id, Locale locale) {
+                lookups.incrementAndGet();
+                return "cached.test".equals(id) ? "value is {0}" : null;
+            }
+
+            @Override
+            public String getMessage(String id, Locale locale, Object... args) {
+                String pattern = getPattern(id, locale);
+                return pattern == null ? null : new MessageFormat(pattern, locale).format(args);
+            }
+
+        };
+
+        Localizer.registerMessageSource(messageSource);
+
+        try {
+            Locale locale = new Locale("en");
+            assertEquals("value is 1", Localizer.getMessage("cached.test", locale, 1));
+            assertEquals("value is 2", Localizer.getMessage("cached.test", locale, 2));
+            assertEquals(1, lookups.get());
+            assertNull(Localizer.getMessage("cached.missing", locale));
+            assertNull(Localizer.getMessage("cached.missing", locale));
+            assertEquals(2, lookups.get());
+            Localizer.clearMessageCache();
+            assertEquals("value is 3", Localizer.getMessage("cached.test", locale, 3));
+            assertEquals(3, lookups.get());
+            assertEquals("value is 4", messageSource.getMessage("cached.test", locale, 4));
+        } finally {
+            Localizer.unregisterMessageSource(messageSource);
+        }
+
+        assertNull(Localizer.getMessage("cached.test", new Locale("en"), 5));
+    }
+
     @Test
     public void testWeakCollections() {
-        List<Object> list = new WeakList<>();
-        Map<String, Object> map = new WeakMap<>();
+        testWeakCollections(new WeakList<>(), new WeakMap<>());
+        testWeakCollections(new ConcurrentWeakList<>(), new ConcurrentWeakMap<>());
+    }
 
+    private void testWeakCollections(List<Object> list, Map<String, Object> map) {
         Object o1 = new Object();
         Object o2 = new Object();
+        Object o3 = new Object();
         list.add(o1);
         list.add(o2);
         map.put("o1", o1);
         map.put("o2", o2);
+        map.put("o3", o1);
+        map.put("o3", o3);
         assertEquals(2, list.size());
-        assertEquals(2, map.size());
+        assertEquals(3, map.size());
         o1 = null;
         System.gc();
         wait(3000);
         assertEquals(1, list.size());
-        assertEquals(1, map.size());
+        assertEquals(2, map.size());
+        assertSame(o3, map.get("o3"));
+        assertSame(o2, list.get(0));
+    }
+
+    @Test
+    public void testCache() {
+        AbstractCache<Integer, String> cache = new AbstractCache<>() {
+
+            @Override
+            protected String fetch(Integer key) {
+                return "value" + key;
+            }
+
+        };
+
+        cache.setMaximumSize(3);
+        cache.get(1);
+        cache.get(2);
+        cache.get(3);
+        cache.get(1);
+        assertEquals("value4", cache.get(4));
+        assertEquals(3, cache.size());
+        assertTrue(cache.isCached(1));
+        assertFalse(cache.isCached(2));
+        CacheStatistics stats = cache.getStatistics();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(4, stats.getMissCount());
+        assertEquals(1, stats.getEvictionCount());
+        cache.setEvictionPolicy(AbstractCache.EvictionPolicy.TINY_LFU);
+
+        for (int i = 0; i < 100; i++) {
+            cache.get(i);
+        }
+
+        assertEquals(3, cache.size());
     }
 
     private static final String CAMEL_UCASE_RESULT = "TestOfCamelCase";
@@ -55,21 +55,21 @@ public abstract class AbstractFieldScanner<T, A extends Annotation> {
      */
     public void scan(T instance, BiFunction<A, Field, Boolean> processor) {
         if (instance != null) {
-            scan(processor, instance.getClass());
+            scan(instance.getClass(), processor);
         }
     }
 
     /**
      * Scan class and superclasses for annotated fields, calling the processor for each annotated
-     * field. Superclasses are scanned first.
+     * field. Superclasses are scanned first. Scanned fields are made accessible.
      *
-     * @param processor Field processor.
      * @param clazz The class to be scanned.
+     * @param processor Field processor.
      * @return Returns false to stop further scanning.
      */
-    private boolean scan(BiFunction<A, Field, Boolean> processor, Class<?> clazz) {
-        if (clazz != Object.class && instanceClass.isAssignableFrom(clazz)) {
-            if (!scan(processor, clazz.getSuperclass())) {
+    protected boolean scan(Class<?> clazz, BiFunction<A, Field, Boolean> processor) {
+        if (clazz != null && clazz != Object.class && instanceClass.isAssignableFrom(clazz)) {
+            if (!scan(clazz.getSuperclass(), processor)) {
                 return false;
             }
 
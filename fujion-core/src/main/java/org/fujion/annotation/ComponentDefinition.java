@@ -20,6 +20,7 @@
  */
 package org.fujion.annotation;
 
+import org.apache.commons.lang3.ClassUtils;
 import org.apache.commons.lang3.reflect.ConstructorUtils;
 import org.fujion.ancillary.ComponentException;
 import org.fujion.ancillary.ComponentFactory;
@@ -29,14 +30,19 @@ import org.fujion.annotation.Component.*;
 import org.fujion.common.Assert;
 import org.fujion.common.MiscUtil;
 import org.fujion.component.BaseComponent;
-import org.fujion.core.BeanUtil;
+import org.fujion.convert.ConversionService;
 import org.fujion.model.IBinding;
 import org.fujion.model.IBinding.IReadBinding;
 import org.fujion.model.IBinding.IWriteBinding;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.IntSupplier;
 
 /**
@@ -105,6 +111,132 @@ public class ComponentDefinition {
         }
     }
 
+    /**
+     * A property of this component type with its getter and setter resolved in advance. Setters
+     * are invoked through method handles, and literal values may be converted to the setter's type
+     * once, rather than on every invocation.
+     */
+    public class CompiledProperty {
+        
+        private final String name;
+        
+        private final String qualifier;
+        
+        private final Method getter;
+        
+        private final Method setter;
+        
+        private final MethodHandle setterHandle;
+        
+        private final Class<?> valueType;
+        
+        private final boolean defer;
+        
+        private CompiledProperty(String name) {
+            QualifiedName pname = new QualifiedName(name);
+            this.name = name;
+            this.qualifier = pname.getQualifier();
+            this.getter = getters.get(pname.getName());
+            this.setter = setters.get(pname.getName());
+            
+            if (setter == null) {
+                this.setterHandle = null;
+                this.valueType = null;
+                this.defer = false;
+            } else {
+                boolean qualified = setter.getParameterCount() == 2;
+                this.valueType = setter.getParameterTypes()[qualified ? 1 : 0];
+                this.defer = setter.getAnnotation(PropertySetter.class).defer();
+                this.setterHandle = defer ? null : unreflect(setter, qualified);
+            }
+        }
+        
+        private MethodHandle unreflect(Method method, boolean qualified) {
+            try {
+                method.setAccessible(true);
+                MethodHandle handle = MethodHandles.lookup().unreflect(method);
+                handle = qualified ? MethodHandles.insertArguments(handle, 1, qualifier) : handle;
+                return handle.asType(MethodType.methodType(void.class, BaseComponent.class, Object.class));
+            } catch (Exception e) {
+                throw MiscUtil.toUnchecked(e);
+            }
+        }
+        
+        /**
+         * Returns the property name, including any qualifier.
+         *
+         * @return The property name.
+         */
+        public String getName() {
+            return name;
+        }
+        
+        /**
+         * Converts a literal value to the setter's type in advance, if the result is immutable and
+         * does not depend on the target component.
+         *
+         * @param value The literal value.
+         * @return The converted value, or the original value if it could not be converted in
+         *         advance.
+         */
+        public Object preconvert(String value) {
+            Class<?> type = valueType == null ? null : ClassUtils.primitiveToWrapper(valueType);
+            
+            if (type == null || value == null || !(type == String.class || type.isEnum()
+                    || ClassUtils.isPrimitiveWrapper(type))) {
+                return value;
+            }
+            
+            try {
+                return ConversionService.getInstance().convert(value, type);
+            } catch (Exception e) {
+                // Defer to conversion at invocation time, where errors can be reported in context.
+                return value;
+            }
+        }
+        
+        /**
+         * Sets the property value or defers that operation if the property is marked as such.
+         *
+         * @param instance Instance containing the property.
+         * @param value The value to set.
+         * @return Null if the operation occurred, or a DeferredInvocation object if deferred.
+         */
+        public DeferredInvocation<?> setValue(BaseComponent instance, Object value) {
+            if (value instanceof IBinding) {
+                assertTrue(
+                    getter == null || !(value instanceof IWriteBinding) || getter.getAnnotation(PropertyGetter.class).bindable(),
+                    "Property \"%s\" does not support a write binding", name);
+                assertTrue(
+                    setter == null || !(value instanceof IReadBinding) || setter.getAnnotation(PropertySetter.class).bindable(),
+                    "Property \"%s\" does not support a read binding", name);
+                ((IBinding) value).init(instance, name, getter, setter);
+                return null;
+            }
+            
+            if (setter == null) {
+                assertTrue(parameters.containsKey(name),
+                    getter != null ? "Property \"%s\" is read-only" : "Property \"%s\" is not recognized", name);
+                return null;
+            }
+            
+            if (defer) {
+                Object[] args = setter.getParameterCount() == 1 ? new Object[] { value } : new Object[] { qualifier, value };
+                return new DeferredInvocation<>(instance, setter, args);
+            }
+            
+            try {
+                setterHandle.invokeExact(instance, ConversionService.getInstance().convert(value, valueType, instance));
+            } catch (Throwable e) {
+                throw new ComponentException(e, "Exception invoking method \"%s\" on component \"%s\"", setter.getName(),
+                        instance.getClass().getName());
+            }
+            
+            return null;
+        }
+        
+    }
+    
     public static final Cardinality CARDINALITY_NOT_SPECIFIED = new Cardinality(0, Integer.MAX_VALUE);
 
     private final ContentHandling contentHandling;
@@ -131,6 +263,10 @@ public class ComponentDefinition {
     
     private final Map<String, Method> parameters = new HashMap<>();
     
+    private final Map<String, CompiledProperty> compiledProperties = new ConcurrentHashMap<>();
+    
+    private volatile Constructor<? extends ComponentFactory> factoryConstructor;
+    
     /**
      * Creates a component definition derived from annotation information within the specified
      * class.
@@ -198,36 +334,17 @@ public class ComponentDefinition {
      * @return Null if the operation occurred, or a DeferredInvocation object if deferred.
      */
     public DeferredInvocation<?> setProperty(BaseComponent instance, String name, Object value) {
-        QualifiedName pname = new QualifiedName(name);
-        Method setter = setters.get(pname.getName());
-        Method getter = getters.get(pname.getName());
-        
-        if (value instanceof IBinding) {
-            assertTrue(
-                getter == null || !(value instanceof IWriteBinding) || getter.getAnnotation(PropertyGetter.class).bindable(),
-                "Property \"%s\" does not support a write binding", name);
-            assertTrue(
-                setter == null || !(value instanceof IReadBinding) || setter.getAnnotation(PropertySetter.class).bindable(),
-                "Property \"%s\" does not support a read binding", name);
-            ((IBinding) value).init(instance, name, getter, setter);
-            return null;
-        }
-
-        if (setter == null) {
-            assertTrue(parameters.containsKey(name),
-                getter != null ? "Property \"%s\" is read-only" : "Property \"%s\" is not recognized", name);
-            return null;
-        }
-        
-        Object[] args = setter.getParameterCount() == 1 ? new Object[] { value }
-                : new Object[] { pname.getQualifier(), value };
-        
-        if (setter.getAnnotation(PropertySetter.class).defer()) {
-            return new DeferredInvocation<>(instance, setter, args);
-        }
-
-        BeanUtil.invokeMethod(instance, setter, args);
-        return null;
+        return getCompiledProperty(name).setValue(instance, value);
+    }
+    
+    /**
+     * Returns the named property with its getter and setter resolved.
+     *
+     * @param name Name of property.
+     * @return The compiled property.
+     */
+    public CompiledProperty getCompiledProperty(String name) {
+        return compiledProperties.computeIfAbsent(name, CompiledProperty::new);
     }
     
     /**
@@ -285,7 +402,12 @@ public class ComponentDefinition {
      */
     public ComponentFactory getFactory() {
         try {
-            return ConstructorUtils.invokeConstructor(factoryClass, this);
+            if (factoryConstructor == null) {
+                factoryConstructor = ConstructorUtils.getMatchingAccessibleConstructor(factoryClass, ComponentDefinition.class);
+                Assert.notNull(factoryConstructor, "No suitable constructor found for factory class %s", factoryClass.getName());
+            }
+            
+            return factoryConstructor.newInstance(this);
         } catch (Exception e) {
             throw MiscUtil.toUnchecked(e);
         }
@@ -438,6 +560,7 @@ public class ComponentDefinition {
                 Assert.isFalse(isStatic(method) || method.getReturnType() == Void.TYPE || method.getParameterTypes().length > 0,
                         "Bad signature for getter method: %s", method.getName());
                 this.getters.put(name, getter.hide() ? null : method);
+                compiledProperties.clear();
             }
         }
     }
@@ -468,6 +591,7 @@ public class ComponentDefinition {
                         || (length == 2 && method.getParameterTypes()[0] != String.class),
                         "Bad signature for setter method: %s", method.getName());
                 setters.put(name, setter.hide() ? null : method);
+                compiledProperties.clear();
             }
         }
     }
@@ -496,6 +620,7 @@ public class ComponentDefinition {
                 Assert.isFalse(isStatic(method) || method.getParameterTypes().length != 1,
                         "Bad signature for factory parameter method: %s", method.getName());
                 parameters.put(name, method);
+                compiledProperties.clear();
             }
         }
     }
@@ -32,14 +32,25 @@ import org.fujion.event.EventUtil;
 import org.fujion.event.IEventListener;
 import org.springframework.util.ReflectionUtils;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 /**
  * Wires {@literal @EventHandler}-annotated methods.
+ * <p>
+ * The annotated methods of a class are discovered once, when an instance of the class is first
+ * wired, and compiled into an immutable wiring plan. Handler methods are bound as method handles.
+ * Wiring subsequent instances involves only resolving targets and registering listeners.
  */
 public class EventHandlerScanner {
 
@@ -51,11 +62,11 @@ public class EventHandlerScanner {
 
         private final Object target;
 
-        private final Method method;
+        private final HandlerMethod handler;
 
-        EventListener(Object target, Method method) {
+        EventListener(Object target, HandlerMethod handler) {
             this.target = target;
-            this.method = method;
+            this.handler = handler;
         }
 
         /**
@@ -64,11 +75,7 @@ public class EventHandlerScanner {
         @Override
         public void onEvent(Event event) {
             try {
-                if (method.getParameterTypes().length == 0) {
-                    method.invoke(target);
-                } else {
-                    method.invoke(target, event);
-                }
+                handler.handle.invokeExact(target, event);
             } catch (Throwable e) {
                 throw MiscUtil.toUnchecked(e);
             }
@@ -84,15 +91,134 @@ public class EventHandlerScanner {
                 return false;
             }
 
-            return target == el.target && method.equals(el.method);
+            return target == el.target && handler.method.equals(el.handler.method);
         }
 
         @Override
         public int hashCode() {
-            return target.hashCode() ^ method.hashCode();
+            return target.hashCode() ^ handler.method.hashCode();
+        }
+    }
+
+    /**
+     * An event handler method together with a method handle that accepts the target object and the
+     * event, regardless of whether the method itself takes an event argument.
+     */
+    private static class HandlerMethod {
+
+        private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Event.class);
+
+        private final Method method;
+
+        private final MethodHandle handle;
+
+        HandlerMethod(Method method) {
+            this.method = method;
+
+            try {
+                MethodHandle mh = MethodHandles.lookup().unreflect(method);
+
+                if (Modifier.isStatic(method.getModifiers())) {
+                    mh = MethodHandles.dropArguments(mh, 0, Object.class);
+                }
+
+                if (method.getParameterCount() == 0) {
+                    mh = MethodHandles.dropArguments(mh, 1, Event.class);
+                }
+
+                this.handle = mh.asType(HANDLER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw MiscUtil.toUnchecked(e);
+            }
+        }
+    }
+
+    /**
+     * The compiled form of a single {@literal @EventHandler} annotation.
+     */
+    private static class HandlerBinding {
+
+        private final String[] modes;
+
+        private final OnFailure onFailure;
+
+        private final boolean syncToClient;
+
+        private final Set<String> types;
+
+        private final Set<String> targets;
+
+        HandlerBinding(EventHandler annotation) {
+            modes = annotation.mode();
+            onFailure = annotation.onFailure();
+            syncToClient = annotation.syncToClient();
+            types = ConversionService.getInstance().convertToSet(annotation.value(), true);
+            Set<String> targets = ConversionService.getInstance().convertToSet(annotation.target(), true);
+
+            if (targets.isEmpty()) {
+                targets.add("self");
+            }
+
+            this.targets = targets;
+        }
+    }
+
+    /**
+     * The compiled form of an {@literal @EventHandler}-annotated method. The handler is null if the
+     * method signature is not valid for an event handler.
+     */
+    private static class MethodPlan {
+
+        private final String name;
+
+        private final HandlerMethod handler;
+
+        private final List<HandlerBinding> bindings = new ArrayList<>();
+
+        MethodPlan(Method method) {
+            name = method.getName();
+            handler = validateSignature(method) ? new HandlerMethod(method) : null;
+        }
+    }
+
+    /**
+     * The wiring plan for a class.
+     */
+    private static class WiringPlan {
+
+        private final boolean isComponent;
+
+        private final List<MethodPlan> methods;
+
+        WiringPlan(Class<?> clazz) {
+            isComponent = isComponent(clazz);
+            List<MethodPlan> methods = new ArrayList<>();
+
+            MethodScanner.scan(clazz, method -> {
+                EventHandler[] annotations = method.getAnnotationsByType(EventHandler.class);
+
+                if (annotations.length > 0) {
+                    MethodPlan plan = new MethodPlan(method);
+                    methods.add(plan);
+
+                    for (EventHandler annotation : annotations) {
+                        plan.bindings.add(new HandlerBinding(annotation));
+                    }
+                }
+            });
+
+            this.methods = methods.isEmpty() ? Collections.emptyList() : methods;
         }
     }
 
+    private static final ClassValue<WiringPlan> plans = new ClassValue<WiringPlan>() {
+
+        @Override
+        protected WiringPlan computeValue(Class<?> clazz) {
+            return new WiringPlan(clazz);
+        }
+    };
+
     /**
      * Wires onEvent style event handlers.
      *
@@ -109,7 +235,8 @@ public class EventHandlerScanner {
             handler = handler == null ? ReflectionUtils.findMethod(instance.getClass(), methodName) : handler;
             ComponentException.assertTrue(handler != null, "A suitable event handler named \"%s\" could not be found",
                     methodName);
-            EventListener eventListener = new EventListener(instance, handler);
+            ReflectionUtils.makeAccessible(handler);
+            EventListener eventListener = new EventListener(instance, new HandlerMethod(handler));
             component.addEventListener(eventType, eventListener);
         }
     }
@@ -117,7 +244,8 @@ public class EventHandlerScanner {
     private static final String[] DEFAULT_MODE = { "" };
 
     /**
-     * Scans the specified class for {@literal @EventHandler}-annotated methods.
+     * Wires the specified instance's {@literal @EventHandler}-annotated methods, using the wiring
+     * plan for its class.
      *
      * @param instance Controller to be wired.
      * @param root The root component used to resolve component names.
@@ -125,39 +253,32 @@ public class EventHandlerScanner {
      */
     public static void wire(Object instance, BaseComponent root, String... mode) {
         Class<?> clazz = instance.getClass();
+        WiringPlan plan = plans.get(clazz);
         String[] activeModes = mode == null || mode.length == 0 ? DEFAULT_MODE : mode;
 
-        MethodScanner.scan(clazz, method -> {
-            EventHandler[] annotations = method.getAnnotationsByType(EventHandler.class);
-
-            for (EventHandler annotation : annotations) {
-                if (!CollectionUtil.intersects(annotation.mode(), activeModes)) {
+        for (MethodPlan methodPlan : plan.methods) {
+            for (HandlerBinding binding : methodPlan.bindings) {
+                if (!CollectionUtil.intersects(binding.modes, activeModes)) {
                     continue;
                 }
                 
-                OnFailure onFailure = annotation.onFailure();
+                OnFailure onFailure = binding.onFailure;
                 
-                if (!validateSignature(method)) {
+                if (methodPlan.handler == null) {
                     onFailure.doAction("Signature for method \"%s\" does not conform to that required of an event handler",
-                        method.getName());
+                        methodPlan.name);
                     break;
                 }
 
-                Set<String> targets = ConversionService.getInstance().convertToSet(annotation.target(), true);
-                Set<String> types = ConversionService.getInstance().convertToSet(annotation.value(), true);
                 BaseComponent component = null;
 
-                if (types.isEmpty()) {
+                if (binding.types.isEmpty()) {
                     onFailure.doAction("At least one event type must be specified");
                 }
 
-                if (targets.isEmpty()) {
-                    targets.add("self");
-                }
-
-                for (String target : targets) {
+                for (String target : binding.targets) {
                     if ("self".equals(target)) {
-                        component = isComponent(clazz) ? (BaseComponent) instance : root;
+                        component = plan.isComponent ? (BaseComponent) instance : root;
                     } else if (target.startsWith("@")) {
                         String[] fld = target.substring(1).split("\\.", 2);
                         Field field = findField(clazz, fld[0]);
@@ -183,13 +304,14 @@ public class EventHandlerScanner {
                     if (component == null) {
                         onFailure.doAction("No suitable event handler target found for \"%s\"", target);
                     } else {
-                        for (String type : types) {
-                            component.addEventListener(type, new EventListener(instance, method), annotation.syncToClient());
+                        for (String type : binding.types) {
+                            component.addEventListener(type, new EventListener(instance, methodPlan.handler),
+                                binding.syncToClient);
                         }
                     }
                 }
             }
-        });
+        }
     }
     
     /**
@@ -26,21 +26,91 @@ import org.fujion.client.ClientRequest;
 import org.fujion.common.MiscUtil;
 import org.fujion.event.Event;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Scans an event object's class and superclasses for fields annotated for wiring.
+ * <p>
+ * The annotated fields of an event class are discovered once, when an event of that class is
+ * first wired, and compiled into a list of parameter bindings whose field setters are bound as
+ * method handles.
  */
 public class EventParameterScanner extends AbstractFieldScanner<Event, EventParameter> {
 
+    /**
+     * The compiled form of a single {@literal @EventParameter} annotation.
+     */
+    private static class ParameterBinding {
+
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Event.class, Object.class);
+
+        private final String name;
+
+        private final Class<?> type;
+
+        private final OnFailure onFailure;
+
+        private final MethodHandle setter;
+
+        ParameterBinding(EventParameter annotation, Field field) {
+            String name = annotation.value();
+            this.name = name.isEmpty() ? field.getName() : name;
+            this.type = field.getType();
+            this.onFailure = annotation.onFailure();
+
+            try {
+                this.setter = MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw MiscUtil.toUnchecked(e);
+            }
+        }
+
+        void wire(Event event, ClientRequest request) throws Throwable {
+            Object value = request.getParam(name, type);
+
+            if (value == null) {
+                onFailure.doAction("Request contains no valid value for field  \"%s\"", name);
+            } else {
+                setter.invokeExact(event, value);
+            }
+        }
+    }
+
     private static final EventParameterScanner instance = new EventParameterScanner();
     
-    private static final Method afterInitialized = MethodUtils.getMatchingMethod(Event.class, "afterInitialized");
+    private static final MethodHandle afterInitialized;
 
     static {
-        afterInitialized.setAccessible(true);
+        try {
+            Method method = MethodUtils.getMatchingMethod(Event.class, "afterInitialized");
+            method.setAccessible(true);
+            afterInitialized = MethodHandles.lookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw MiscUtil.toUnchecked(e);
+        }
     }
 
+    private static final ClassValue<ParameterBinding[]> bindings = new ClassValue<ParameterBinding[]>() {
+
+        @Override
+        protected ParameterBinding[] computeValue(Class<?> clazz) {
+            List<ParameterBinding> list = new ArrayList<>();
+
+            instance.scan(clazz, (annotation, field) -> {
+                list.add(new ParameterBinding(annotation, field));
+                return true;
+            });
+
+            return list.toArray(new ParameterBinding[0]);
+        }
+    };
+
     /**
      * Wire an event object with parameters from a client request.
      *
@@ -48,41 +118,17 @@ public class EventParameterScanner extends AbstractFieldScanner<Event, EventPara
      * @param request The client request from which parameter values will be derived.
      */
     public static void wire(Event event, ClientRequest request) {
-        instance.scan(event, (annotation, field) -> {
-            try {
-                String name = annotation.value();
-                OnFailure onFailure = annotation.onFailure();
-
-                name = name.isEmpty() ? field.getName() : name;
-                Object value = request.getParam(name, field.getType());
-
-                if (value == null) {
-                    onFailure.doAction("Request contains no valid value for field  \"%s\"", name);
-                } else {
-                    field.set(event, value);
-                }
-            } catch (Exception e) {
-                throw MiscUtil.toUnchecked(e);
+        try {
+            for (ParameterBinding binding : bindings.get(event.getClass())) {
+                binding.wire(event, request);
             }
-            return true;
-        });
-        
-        afterInitialized(event);
-    }
 
-    /**
-     * Invoke an event's afterInitialized method.
-     * 
-     * @param event The event.
-     */
-    private static void afterInitialized(Event event) {
-        try {
-            afterInitialized.invoke(event);
-        } catch (Exception e) {
+            afterInitialized.invokeExact(event);
+        } catch (Throwable e) {
             throw MiscUtil.toUnchecked(e);
         }
     }
-    
+
     private EventParameterScanner() {
         super(Event.class, EventParameter.class);
     }
@@ -28,11 +28,22 @@ import org.fujion.common.MiscUtil;
 import org.fujion.convert.ConversionService;
 import org.fujion.expression.ELEvaluator;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Builds an OptionMap from Option annotations.
+ * <p>
+ * The annotated fields of a class are discovered once, when the class is first serialized, and
+ * compiled into a list of accessors holding a method handle for reading the field and the
+ * preprocessed option name. Subsequent serialization of instances of that class involves no
+ * reflective lookups.
  */
 public class OptionScanner extends AbstractFieldScanner<Object, Option> {
     
@@ -53,58 +64,104 @@ public class OptionScanner extends AbstractFieldScanner<Object, Option> {
         }
     }
 
+    /**
+     * Compiled form of a single annotated field.
+     */
+    private static class OptionAccessor {
+        
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+        private final MethodHandle getter;
+        
+        private final String name;
+        
+        private final String[] path;
+        
+        private final boolean required;
+        
+        private final Class<?> convertTo;
+        
+        private final String convertUsing;
+        
+        OptionAccessor(Option annotation, Field field) throws IllegalAccessException {
+            getter = MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+            String name = annotation.value();
+            this.name = name.isEmpty() ? field.getName() : name;
+            path = this.name.contains("${") ? null : toPath(this.name);
+            required = annotation.required();
+            convertTo = annotation.convertTo() == Object.class ? null : annotation.convertTo();
+            convertUsing = annotation.convertUsing().isEmpty() ? null : annotation.convertUsing();
+        }
+
+        /**
+         * Reads the field value from the object and, if not empty, stores it into the map.
+         *
+         * @param object The object whose field is to be read.
+         * @param map Map to receive the value.
+         */
+        void apply(Object object, Map<String, Object> map) throws Throwable {
+            Object value = getter.invokeExact(object);
+            
+            if (value == null) {
+                Assert.isFalse(required, "The field '%s' must have a value.", name);
+                return;
+            }
+            
+            String[] path = this.path;
+            
+            if (path == null) {
+                path = toPath(convertWith(value, name).toString());
+            }
+            
+            if (value instanceof IOptionMapTransform) {
+                value = ((IOptionMapTransform) value).toMap();
+            }
+            
+            if (value instanceof Collection && ((Collection<?>) value).isEmpty()) {
+                return;
+            }
+            
+            if (value instanceof Map && ((Map<?, ?>) value).isEmpty()) {
+                return;
+            }
+            
+            if (convertTo != null) {
+                value = ConversionService.getInstance().convert(value, convertTo);
+            }
+            
+            if (convertUsing != null) {
+                value = convertWith(value, convertUsing);
+            }
+            
+            setValue(path, value, map);
+        }
+    }
+
     private static final Logger log = Logger.create(OptionScanner.class);
 
     private static final OptionScanner instance = new OptionScanner();
     
+    private static final ClassValue<List<OptionAccessor>> accessors = new ClassValue<List<OptionAccessor>>() {
+        
+        @Override
+        protected List<OptionAccessor> computeValue(Class<?> clazz) {
+            return instance.compile(clazz);
+        }
+    };
+    
     public static void scan(Object object, OptionMap map) {
-        instance.scan(object, (annotation, field) -> {
+        if (object == null) {
+            return;
+        }
+        
+        for (OptionAccessor accessor : accessors.get(object.getClass())) {
             try {
-                if (annotation.ignore()) {
-                    return true;
-                }
-                
-                String name = annotation.value();
-                name = name.isEmpty() ? field.getName() : name;
-                Object value = field.get(object);
-                
-                if (value == null) {
-                    Assert.isFalse(annotation.required(), "The field '%s' must have a value.", name);
-                    return true;
-                }
-                
-                if (name.contains("${")) {
-                    name = instance.convertWith(value, name).toString();
-                }
-
-                if (value instanceof IOptionMapTransform) {
-                    value = ((IOptionMapTransform) value).toMap();
-                }
-                
-                if (value instanceof Collection && ((Collection<?>) value).isEmpty()) {
-                    return true;
-                }
-                
-                if (value instanceof Map && ((Map<?, ?>) value).isEmpty()) {
-                    return true;
-                }
-                
-                if (annotation.convertTo() != Object.class) {
-                    value = ConversionService.getInstance().convert(value, annotation.convertTo());
-                }
-                
-                if (!annotation.convertUsing().isEmpty()) {
-                    value = instance.convertWith(value, annotation.convertUsing());
-                }
-                
-                instance.setValue(name, value, map);
-            } catch (Exception e) {
+                accessor.apply(object, map);
+            } catch (Throwable e) {
                 log.error("Exception transforming option map.", e);
                 throw MiscUtil.toUnchecked(e);
             }
-            
-            return true;
-        });
+        }
     }
     
     private OptionScanner() {
@@ -112,7 +169,31 @@ public class OptionScanner extends AbstractFieldScanner<Object, Option> {
     }
 
     /**
-     * Sets the name/value pair into the specified map.
+     * Builds the list of accessors for the annotated fields of a class and its superclasses.
+     *
+     * @param clazz The class.
+     * @return The list of accessors, in the order in which their fields were scanned.
+     */
+    private List<OptionAccessor> compile(Class<?> clazz) {
+        List<OptionAccessor> list = new ArrayList<>();
+        
+        scan(clazz, (annotation, field) -> {
+            if (!annotation.ignore()) {
+                try {
+                    list.add(new OptionAccessor(annotation, field));
+                } catch (IllegalAccessException e) {
+                    throw MiscUtil.toUnchecked(e);
+                }
+            }
+            
+            return true;
+        });
+        
+        return List.copyOf(list);
+    }
+
+    /**
+     * Splits an option name into the sequence of keys under which its value is stored.
      * <p>
      * If the name contains a period, the value is stored in a sub-map using the first part of the
      * name as the top level key and the second part as the sub-key.
@@ -121,35 +202,65 @@ public class OptionScanner extends AbstractFieldScanner<Object, Option> {
      * representing alternate forms of the same variable. For such variables, only the
      * last non-null instance will be passed.
      *
-     * @param name  Key name.
-     * @param value Value.
-     * @param map   Map to receive key/value pair.
+     * @param name Option name.
+     * @return The keys, outermost first, or an empty array if the name ends with a period (in which
+     *         case the value is discarded).
      */
-    private void setValue(String name, Object value, Map<String, Object> map) {
-        if (name.contains(".")) {
+    private static String[] toPath(String name) {
+        List<String> path = new ArrayList<>();
+        
+        while (name.contains(".")) {
             String[] pcs = name.split("\\.", 2);
-            name = pcs[0];
-            String rest = pcs[1];
+            path.add(pcs[0]);
+            name = pcs[1];
+            
+            if (name.isEmpty()) {
+                return new String[0];
+            }
+        }
+        
+        path.add(name.split("\\$")[0]);
+        return path.toArray(new String[0]);
+    }
 
-            if (!rest.isEmpty()) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> submap = (Map<String, Object>) map.get(name);
-                Map<String, Object> newmap = submap == null ? new OptionMap() : submap;
-                setValue(rest, value, newmap);
-                
-                if (submap == null && !newmap.isEmpty()) {
-                    map.put(name, newmap);
-                }
+    /**
+     * Stores a value into the specified map, creating sub-maps as needed for all but the last key.
+     * Sub-maps are created only as part of storing the value, so a value that is discarded never
+     * leaves an empty sub-map behind.
+     *
+     * @param path  The keys, outermost first.
+     * @param value Value.
+     * @param map   Map to receive the value.
+     */
+    @SuppressWarnings("unchecked")
+    private static void setValue(String[] path, Object value, Map<String, Object> map) {
+        int last = path.length - 1;
+        int i = 0;
+        
+        if (last < 0) {
+            return;
+        }
+        
+        for (; i < last; i++) {
+            Map<String, Object> submap = (Map<String, Object>) map.get(path[i]);
+            
+            if (submap == null) {
+                break;
             }
             
-            return;
+            map = submap;
         }
-
-        name = name.split("\\$")[0];
-        map.put(name, value);
+        
+        for (int j = last; j > i; j--) {
+            OptionMap submap = new OptionMap();
+            submap.put(path[j], value);
+            value = submap;
+        }
+        
+        map.put(path[i], value);
     }
     
-    private Object convertWith(Object value, String expression) {
+    private static Object convertWith(Object value, String expression) {
         if (!expression.contains("${")) {
             expression = "${" + expression + "}";
         }
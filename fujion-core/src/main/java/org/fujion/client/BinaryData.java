@@ -0,0 +1,245 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.client;
+
+import org.fujion.common.Assert;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wraps a primitive array for transfer to the client as a typed array. When serialized for a web
+ * socket, the contents are not written as a JSON array but are sent as a separate binary message
+ * that immediately precedes the JSON payload and which the client wraps directly as a typed array.
+ * The binary message consists of a 16-byte little-endian header followed by the array contents:
+ * <table style="padding-left:20px">
+ * <caption>Header layout</caption>
+ * <tr><td>0-3</td><td>The signature "FJBD".</td></tr>
+ * <tr><td>4-7</td><td>The identifier referenced by the JSON payload.</td></tr>
+ * <tr><td>8</td><td>The element type (ordinal of {@link ElementType}).</td></tr>
+ * <tr><td>9-11</td><td>Reserved.</td></tr>
+ * <tr><td>12-15</td><td>The number of elements.</td></tr>
+ * </table>
+ * If serialized by other means, the contents are transferred as a JSON array.
+ */
+public class BinaryData implements IClientTransform {
+
+    /**
+     * Typed array element types, in the order known to the client.
+     */
+    public enum ElementType {
+        INT8(byte.class, 1), UINT8(byte.class, 1), INT16(short.class, 2), UINT16(short.class, 2),
+        INT32(int.class, 4), UINT32(int.class, 4), FLOAT32(float.class, 4), FLOAT64(double.class, 8);
+
+        private final Class<?> arrayType;
+
+        private final int size;
+
+        ElementType(Class<?> arrayType, int size) {
+            this.arrayType = arrayType;
+            this.size = size;
+        }
+
+        /**
+         * Returns the primitive component type of arrays holding elements of this type.
+         *
+         * @return The primitive component type.
+         */
+        public Class<?> getArrayType() {
+            return arrayType;
+        }
+
+        /**
+         * Returns the size of an element, in bytes.
+         *
+         * @return The element size.
+         */
+        public int getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * Size of the binary message header, in bytes. This is a multiple of the largest element size,
+     * so that the client can create a typed array view of the message without copying.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    private static final byte[] SIGNATURE = { 'F', 'J', 'B', 'D' };
+
+    private static final AtomicInteger nextId = new AtomicInteger();
+
+    private static final ThreadLocal<List<byte[]>> captured = new ThreadLocal<>();
+
+    private final ElementType type;
+
+    private final Object array;
+
+    private final int offset;
+
+    private final int length;
+
+    /**
+     * Returns true if the payload is a binary message produced by this class.
+     *
+     * @param payload The message payload.
+     * @return True if the payload is a binary data message.
+     */
+    public static boolean isBinaryData(byte[] payload) {
+        if (payload.length < HEADER_SIZE) {
+            return false;
+        }
+
+        for (int i = 0; i < SIGNATURE.length; i++) {
+            if (payload[i] != SIGNATURE[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Starts capturing binary data serialized on the current thread. While capturing, instances
+     * are transformed into references to binary messages, and the binary messages are added to the
+     * target list in the order serialized. The caller is responsible for sending the captured
+     * messages before the payload referencing them.
+     *
+     * @param target Receives the binary messages. If null, instances are serialized as JSON arrays.
+     * @return The previous capture target, which must be passed to {@link #endCapture}.
+     */
+    public static List<byte[]> startCapture(List<byte[]> target) {
+        List<byte[]> previous = captured.get();
+        captured.set(target);
+        return previous;
+    }
+
+    /**
+     * Ends capturing binary data on the current thread, restoring the previous capture target.
+     *
+     * @param previous The value returned by {@link #startCapture}.
+     */
+    public static void endCapture(List<byte[]> previous) {
+        if (previous == null) {
+            captured.remove();
+        } else {
+            captured.set(previous);
+        }
+    }
+
+    /**
+     * Wraps an entire primitive array.
+     *
+     * @param type The element type of the typed array to be created on the client.
+     * @param array A primitive array whose component type matches the element type.
+     */
+    public BinaryData(ElementType type, Object array) {
+        this(type, array, 0, Array.getLength(array));
+    }
+
+    /**
+     * Wraps a range of a primitive array.
+     *
+     * @param type The element type of the typed array to be created on the client.
+     * @param array A primitive array whose component type matches the element type.
+     * @param offset The index of the first element to transfer.
+     * @param length The number of elements to transfer.
+     */
+    public BinaryData(ElementType type, Object array, int offset, int length) {
+        Assert.notNull(array, () -> "Array may not be null");
+        Assert.isTrue(array.getClass().getComponentType() == type.arrayType,
+            () -> "Element type " + type + " requires an array of " + type.arrayType);
+        Assert.isTrue(offset >= 0 && length >= 0 && offset + length <= Array.getLength(array),
+            () -> "Range is outside the bounds of the array");
+        this.type = type;
+        this.array = array;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns the element type.
+     *
+     * @return The element type.
+     */
+    public ElementType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the number of elements to be transferred.
+     *
+     * @return The number of elements.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Encodes the contents as a binary message.
+     *
+     * @param id The identifier referenced by the JSON payload.
+     * @return The binary message.
+     */
+    public byte[] toBinaryMessage(int id) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + length * type.size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(SIGNATURE).putInt(id).put((byte) type.ordinal()).position(12);
+        buffer.putInt(length);
+
+        if (array instanceof byte[]) {
+            buffer.put((byte[]) array, offset, length);
+        } else if (array instanceof short[]) {
+            buffer.asShortBuffer().put((short[]) array, offset, length);
+        } else if (array instanceof int[]) {
+            buffer.asIntBuffer().put((int[]) array, offset, length);
+        } else if (array instanceof float[]) {
+            buffer.asFloatBuffer().put((float[]) array, offset, length);
+        } else {
+            buffer.asDoubleBuffer().put((double[]) array, offset, length);
+        }
+
+        return buffer.array();
+    }
+
+    /**
+     * If binary data is being captured, returns a reference to the binary message to be sent.
+     * Otherwise, returns the contents as a primitive array.
+     *
+     * @see org.fujion.client.IClientTransform#transformForClient()
+     */
+    @Override
+    public Object transformForClient() {
+        List<byte[]> target = captured.get();
+
+        if (target == null) {
+            Object copy = Array.newInstance(type.arrayType, length);
+            System.arraycopy(array, offset, copy, 0, length);
+            return copy;
+        }
+
+        int id = nextId.incrementAndGet() & Integer.MAX_VALUE;
+        target.add(toBinaryMessage(id));
+        return new CustomDatatype("bin", id);
+    }
+}
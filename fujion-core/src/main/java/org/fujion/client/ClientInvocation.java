@@ -20,12 +20,14 @@
  */
 package org.fujion.client;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.fujion.ancillary.IElementIdentifier;
 import org.fujion.ancillary.IResponseCallback;
 import org.fujion.ancillary.OptionMap;
 import org.fujion.component.Page;
 import org.springframework.util.ClassUtils;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
@@ -146,6 +148,18 @@ public class ClientInvocation {
         return key == null ? "" + hashCode() : target == null ? key : key + "^" + target.hashCode();
     }
 
+    /**
+     * Returns a key identifying the widget state set by this client invocation request, if it is a
+     * state update. Successive state updates sharing the same key may be coalesced into one, the
+     * last value winning.
+     *
+     * @return The state key, or null if this is not a state update.
+     */
+    public String getStateKey() {
+        return target != null && "updateState".equals(function) && arguments.length > 0 && arguments[0] instanceof String
+                ? target.getId() + "^" + arguments[0] : null;
+    }
+
     /**
      * Packages the client invocation request as a map for serialization and transport.
      *
@@ -161,6 +175,41 @@ public class ClientInvocation {
         return data;
     }
 
+    /**
+     * Streams the client invocation request directly to a JSON generator. This produces the same
+     * output as serializing the result of {@link #toMap}, but without the intermediate map. Any
+     * Jackson generator may be used, including binary ones such as CBOR.
+     *
+     * @param page The page that is the target of the invocation.
+     * @param generator The JSON generator to receive the output.
+     * @throws IOException Exception writing to the generator.
+     */
+    public void writeTo(Page page, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("fcn", function);
+
+        String tgt = target == null ? null : target.getId();
+
+        if (tgt != null) {
+            generator.writeStringField("tgt", tgt);
+        }
+
+        generator.writeFieldName("arg");
+        generator.writeStartArray();
+
+        for (Object argument : transformArray(arguments, false)) {
+            generator.writeObject(argument);
+        }
+
+        generator.writeEndArray();
+
+        if (callback != null) {
+            generator.writeNumberField("cbk", page.registerCallback(callback));
+        }
+
+        generator.writeEndObject();
+    }
+
     /**
      * Transforms a component or subcomponent by replacing it with its selector. This only effects
      * IElementIdentifier implementations. All other source objects are returned unchanged.
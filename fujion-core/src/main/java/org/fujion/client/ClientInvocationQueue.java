@@ -31,11 +31,19 @@ import java.util.Map;
  * the client invocation being queued while maintaining its original position in the queue. This
  * minimizes the traffic between the server and the client for cases where processing the preceding
  * client invocations would be unnecessary.
+ * <p>
+ * State updates for the same widget and state are likewise coalesced, the last value winning, but
+ * only within a run of consecutive state updates. Any other client invocation (e.g., one that adds
+ * or destroys a widget) acts as a barrier, so a state update is never moved across it.
  */
 public class ClientInvocationQueue {
     
     private final Map<String, ClientInvocation> queue = new LinkedHashMap<>();
     
+    private long barrier;
+    
+    private int coalesced;
+    
     public ClientInvocationQueue() {
     }
     
@@ -46,7 +54,7 @@ public class ClientInvocationQueue {
      */
     public void queue(ClientInvocation invocation) {
         synchronized (queue) {
-            queue.put(invocation.getKey(), invocation);
+            _queue(invocation);
         }
     }
     
@@ -58,11 +66,55 @@ public class ClientInvocationQueue {
     public void queue(Iterable<ClientInvocation> invocations) {
         synchronized (queue) {
             for (ClientInvocation invocation : invocations) {
-                queue.put(invocation.getKey(), invocation);
+                _queue(invocation);
             }
         }
     }
     
+    /**
+     * Queue a client invocation request, replacing any existing request that it supersedes.
+     * 
+     * @param invocation A client invocation request.
+     */
+    private void _queue(ClientInvocation invocation) {
+        String stateKey = invocation.getStateKey();
+        String key;
+        
+        if (stateKey == null) {
+            barrier++;
+            key = invocation.getKey();
+        } else {
+            key = stateKey + "@" + barrier;
+        }
+        
+        if (queue.put(key, invocation) != null) {
+            coalesced++;
+        }
+    }
+    
+    /**
+     * Returns the number of queued requests that were superseded by later ones since the queue was
+     * last flushed or cleared.
+     * 
+     * @return The number of superseded requests.
+     */
+    public int getCoalescedCount() {
+        synchronized (queue) {
+            return coalesced;
+        }
+    }
+    
+    /**
+     * Returns the number of queued requests.
+     * 
+     * @return The number of queued requests.
+     */
+    public int size() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+    
     /**
      * Flush the queue, returning all dequeued requests.
      * 
@@ -74,6 +126,7 @@ public class ClientInvocationQueue {
         synchronized (queue) {
             invocations = new ArrayList<>(queue.values());
             queue.clear();
+            coalesced = 0;
         }
         
         return invocations;
@@ -85,6 +138,7 @@ public class ClientInvocationQueue {
     public void clear() {
         synchronized (queue) {
             queue.clear();
+            coalesced = 0;
         }
     }
 }
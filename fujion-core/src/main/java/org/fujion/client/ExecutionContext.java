@@ -147,7 +147,10 @@ public class ExecutionContext {
     }
 
     /**
-     * Invoke a callback in the execution context of the specified page.
+     * Invoke a callback in the execution context of the specified page. If not already in that
+     * context, client invocations resulting from the callback are batched and sent when it
+     * completes. A long-running callback (for example, a background task) still shows progress,
+     * since the batch is sent early when it reaches the configured size or age.
      *
      * @param pid The id of the page.
      * @param callback The callback to invoke.
@@ -156,15 +159,22 @@ public class ExecutionContext {
         Page page = PageRegistry.getPage(pid);
         Page current = getPage();
         Assert.isTrue(current == null || current == page, () -> "Cannot switch current page execution context");
+        Synchronizer synchronizer = current == null ? page.getSynchronizer() : null;
+        boolean batch = false;
 
         try {
             if (current == null) {
                 clear();
                 put(ExecutionContext.ATTR_REQUEST, new ClientRequest(page.getSession(), Collections.emptyMap()));
+                batch = synchronizer != null && synchronizer.beginBatch();
             }
             
             callback.run();
         } finally {
+            if (batch) {
+                synchronizer.endBatch();
+            }
+
             if (current == null) {
                 destroy();
             }
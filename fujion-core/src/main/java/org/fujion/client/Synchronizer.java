@@ -23,14 +23,31 @@ package org.fujion.client;
 import org.fujion.ancillary.IElementIdentifier;
 import org.fujion.ancillary.IResponseCallback;
 import org.fujion.ancillary.OptionMap;
+import org.fujion.common.Assert;
 import org.fujion.component.BaseComponent;
+import org.fujion.websocket.WebSocketConfiguration;
 import org.fujion.websocket.WebSocketHandler;
 import org.springframework.web.socket.WebSocketSession;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Synchronizes state changes from the server to the client.
+ * <p>
+ * Client invocations are queued, rather than sent individually, while queueing is active or a
+ * batch is open. Queueing is explicit and may be nested; queued invocations are sent only when the
+ * outermost level is deactivated. A batch is opened implicitly for each request cycle and is sent
+ * as a single message when the cycle completes. So that long-running requests still show progress,
+ * a batch is also sent early when it reaches a configured size or age, unless explicit queueing is
+ * active.
+ * <p>
+ * A batch belongs to the thread that opened it. Only that thread's client invocations are held by
+ * the batch, and only that thread may send it, early or on closing it. Client invocations from
+ * other threads are sent immediately unless explicit queueing is active, but any invocations held
+ * by the batch are sent first, so that the client receives invocations in the order they were
+ * made. All state is guarded by the session lock, which is also held while queued invocations are
+ * sent, so that batches from different threads are never sent out of order.
  */
 public class Synchronizer {
     
@@ -38,7 +55,17 @@ public class Synchronizer {
     
     private final WebSocketSession session;
     
-    private boolean queueing;
+    private final Object lock;
+    
+    private int queueDepth;
+    
+    private Thread batchOwner;
+    
+    private long batchStart;
+    
+    private int sentCount;
+    
+    private int coalescedCount;
     
     /**
      * Create a synchronizer for the specific web socket session.
@@ -46,30 +73,124 @@ public class Synchronizer {
      * @param session The web socket session.
      */
     public Synchronizer(WebSocketSession session) {
+        this(session, null);
+    }
+    
+    /**
+     * Create a synchronizer for the specific web socket session, guarded by the specified lock.
+     *
+     * @param session The web socket session.
+     * @param lock The lock guarding the synchronizer's state. If null, the synchronizer itself is
+     *            used.
+     */
+    public Synchronizer(WebSocketSession session, Object lock) {
         this.session = session;
+        this.lock = lock == null ? this : lock;
         queue = new ClientInvocationQueue();
     }
     
     /**
      * Activate queueing. All client invocations will be queued until queueing is deactivated.
+     * Calls may be nested, each requiring a matching call to {@link #stopQueueing()}.
      */
     public void startQueueing() {
-        queueing = true;
+        synchronized (lock) {
+            queueDepth++;
+        }
     }
     
     /**
-     * Deactivate queueing. Any queued invocations will be immediately sent to the client.
+     * Deactivate queueing. If this is the outermost level of queueing and no batch is open, any
+     * queued invocations will be immediately sent to the client. If a batch is open, they will be
+     * sent with the batch.
      */
     public void stopQueueing() {
-        queueing = false;
-        sendToClient(queue.flush());
+        synchronized (lock) {
+            queueDepth = Math.max(0, queueDepth - 1);
+            
+            if (queueDepth == 0 && batchOwner == null) {
+                flushQueue();
+            }
+        }
+    }
+    
+    /**
+     * Opens a batch owned by the calling thread if no batch is open. All client invocations from
+     * the calling thread will be queued until the batch is closed, subject to the early flush
+     * thresholds. Opening a batch also resets the invocation counts.
+     *
+     * @return True if a batch was opened, in which case the caller must close it by calling
+     *         {@link #endBatch()} from the same thread. False if a batch was already open, whether
+     *         owned by the calling thread or another.
+     */
+    public boolean beginBatch() {
+        synchronized (lock) {
+            if (batchOwner != null) {
+                return false;
+            }
+            
+            batchOwner = Thread.currentThread();
+            batchStart = System.currentTimeMillis();
+            sentCount = 0;
+            coalescedCount = 0;
+            return true;
+        }
+    }
+    
+    /**
+     * Closes the batch owned by the calling thread. Unless queueing is active, any queued
+     * invocations will be immediately sent to the client.
+     *
+     * @throws IllegalStateException If the calling thread does not own the open batch.
+     */
+    public void endBatch() {
+        synchronized (lock) {
+            Assert.state(batchOwner == Thread.currentThread(), "The open batch is not owned by this thread");
+            batchOwner = null;
+            
+            if (queueDepth == 0) {
+                flushQueue();
+            }
+        }
+    }
+    
+    /**
+     * Returns true if client invocations from the calling thread are currently being queued.
+     *
+     * @return True if client invocations are currently being queued.
+     */
+    public boolean isQueueing() {
+        synchronized (lock) {
+            return queueDepth > 0 || batchOwner == Thread.currentThread();
+        }
+    }
+    
+    /**
+     * Sends the open batch early if it has reached the configured size or age. This applies only
+     * to the batch owner and not while explicit queueing is active. The caller must hold the lock.
+     */
+    private void checkBatch() {
+        if (batchOwner != Thread.currentThread() || queueDepth > 0) {
+            return;
+        }
+        
+        int maxSize = WebSocketConfiguration.getMaxBatchSize();
+        long maxDelay = WebSocketConfiguration.getMaxBatchDelay();
+        long now = System.currentTimeMillis();
+        
+        if ((maxSize > 0 && queue.size() >= maxSize) || (maxDelay > 0 && now - batchStart >= maxDelay)) {
+            batchStart = now;
+            flushQueue();
+        }
     }
     
     /**
      * Clear the client invocation queue.
      */
     public void clear() {
-        queue.clear();
+        synchronized (lock) {
+            queue.clear();
+        }
     }
     
     /**
@@ -91,7 +212,58 @@ public class Synchronizer {
      * @return This synchronizer instance (for chaining).
      */
     public Synchronizer processQueue(ClientInvocationQueue queue) {
-        return sendToClient(queue.flush());
+        return flush(queue);
+    }
+    
+    /**
+     * Sends (or queues) the contents of a client invocation queue, accumulating the number of
+     * invocations that were coalesced while queued.
+     *
+     * @param queue A client invocation queue.
+     * @return This synchronizer instance (for chaining).
+     */
+    private Synchronizer flush(ClientInvocationQueue queue) {
+        synchronized (lock) {
+            coalescedCount += queue.getCoalescedCount();
+            return sendToClient(queue.flush());
+        }
+    }
+    
+    /**
+     * Sends the contents of this synchronizer's queue to the client. The caller must hold the
+     * lock.
+     */
+    private void flushQueue() {
+        coalescedCount += queue.getCoalescedCount();
+        List<ClientInvocation> invocations = queue.flush();
+        
+        if (!invocations.isEmpty()) {
+            sentCount += invocations.size();
+            WebSocketHandler.send(session, invocations);
+        }
+    }
+    
+    /**
+     * Returns the number of client invocations sent to the client since a batch was last opened.
+     *
+     * @return The number of client invocations sent.
+     */
+    public int getSentCount() {
+        synchronized (lock) {
+            return sentCount;
+        }
+    }
+    
+    /**
+     * Returns the number of client invocations that were superseded by later ones, and therefore
+     * never sent, since a batch was last opened.
+     *
+     * @return The number of client invocations coalesced.
+     */
+    public int getCoalescedCount() {
+        synchronized (lock) {
+            return coalescedCount;
+        }
     }
     
     /**
@@ -129,10 +301,16 @@ public class Synchronizer {
      * @return This synchronizer instance (for chaining).
      */
     public Synchronizer sendToClient(ClientInvocation invocation) {
-        if (queueing) {
-            queue.queue(invocation);
-        } else {
-            WebSocketHandler.send(session, invocation);
+        synchronized (lock) {
+            if (isQueueing()) {
+                queue.queue(invocation);
+                checkBatch();
+            } else {
+                // Send any invocations held by another thread's batch first, preserving order.
+                flushQueue();
+                sentCount++;
+                WebSocketHandler.send(session, invocation);
+            }
         }
         
         return this;
@@ -145,10 +323,16 @@ public class Synchronizer {
      * @return This synchronizer instance (for chaining).
      */
     public Synchronizer sendToClient(Collection<ClientInvocation> invocations) {
-        if (queueing) {
-            queue.queue(invocations);
-        } else {
-            WebSocketHandler.send(session, invocations);
+        synchronized (lock) {
+            if (isQueueing()) {
+                queue.queue(invocations);
+                checkBatch();
+            } else {
+                // Send any invocations held by another thread's batch first, preserving order.
+                flushQueue();
+                sentCount += invocations.size();
+                WebSocketHandler.send(session, invocations);
+            }
         }
         
         return this;
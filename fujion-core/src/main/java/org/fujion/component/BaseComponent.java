@@ -82,19 +82,38 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
     /**
      * Manages child components. The component list should only be manipulated through this wrapper,
      * never directly.
+     * <p>
+     * Children are held in an array-backed list, and each child caches its position within the
+     * list. Cached positions at or beyond the lowest position affected by an insertion or removal
+     * are considered stale and are recomputed in a single pass when next needed, so locating a
+     * child is a constant time operation in the usual case.
      */
     private static class ChildList implements List<BaseComponent> {
 
-        private final LinkedList<BaseComponent> delegate = new LinkedList<>();
+        private final ArrayList<BaseComponent> delegate = new ArrayList<>();
 
         private final BaseComponent parent;
 
         private int modCount;
 
+        /**
+         * Cached child positions below this index are known to be current.
+         */
+        private int validIndices;
+
         private ChildList(BaseComponent parent) {
             this.parent = parent;
         }
 
+        /**
+         * Marks cached child positions at or beyond the specified index as stale.
+         *
+         * @param index The lowest position affected by a change.
+         */
+        private void invalidateIndices(int index) {
+            validIndices = Math.min(validIndices, index);
+        }
+
         @Override
         public int size() {
             return delegate.size();
@@ -107,7 +126,7 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
 
         @Override
         public boolean contains(Object o) {
-            return delegate.contains(o);
+            return indexOf(o) >= 0;
         }
 
         @Override
@@ -186,7 +205,9 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
                 parent.beforeRemoveChild(child);
                 parent.nameIndex.remove(child);
                 child.parent = null;
-                delegate.remove(child);
+                delegate.remove(index);
+                child.childIndex = -1;
+                invalidateIndices(index);
                 modCount++;
 
                 if (!noSync) {
@@ -205,20 +226,166 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
 
         @Override
         public boolean addAll(Collection<? extends BaseComponent> c) {
-            return addAll(delegate.size(), c);
+            return addAll(-1, c);
         }
 
+        /**
+         * Adds a collection of children at the specified position. If none of the children is a
+         * composite or already has a parent, they are added as a batch: all are validated before
+         * any is added, the child list is updated in a single operation, and contiguous runs of
+         * children requiring client synchronization are synchronized with a single client
+         * invocation. Otherwise, the children are added individually.
+         * <p>
+         * Appended children that are not yet attached to a page are not part of these runs. The
+         * client attaches each of them to its parent when its widget is created, as when such a
+         * child is added individually.
+         *
+         * @param index The position at which to insert the children. If negative, the children are
+         *            appended.
+         * @param c The children to add.
+         * @return True if any children were added.
+         * @throws IndexOutOfBoundsException If the index is greater than the number of children.
+         */
         @Override
         public boolean addAll(
                 int index,
                 Collection<? extends BaseComponent> c) {
+            if (index > delegate.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + delegate.size());
+            }
+
+            if (c.isEmpty()) {
+                return false;
+            }
+
+            if (!canAddBatch(c)) {
+                for (BaseComponent child : c) {
+                    add(index < 0 ? -1 : index++, child);
+                }
+
+                return true;
+            }
+
+            List<BaseComponent> batch = new ArrayList<>(c);
+            Set<String> names = new HashSet<>();
+
+            for (BaseComponent child : batch) {
+                child.validate();
+                child.validateParent(parent);
+                parent.validateChild(child);
+                parent.nameIndex.validate(child);
+                child.validatePage(parent.page);
+                validateBatchName(child.getName(), names);
+
+                if (!child.isNamespace() && child.nameIndex.names != null) {
+                    for (String name : child.nameIndex.names.keySet()) {
+                        validateBatchName(name, names);
+                    }
+                }
+            }
+
+            for (BaseComponent child : batch) {
+                child.beforeSetParent(parent);
+                parent.beforeAddChild(child);
+            }
+
+            int start = index < 0 ? delegate.size() : index;
+            boolean[] noSync = new boolean[batch.size()];
+
+            for (int i = 0; i < noSync.length; i++) {
+                noSync[i] = batch.get(i).getPage() == null && index < 0;
+            }
+
+            delegate.addAll(start, batch);
+            invalidateIndices(start);
+            modCount++;
+
+            for (BaseComponent child : batch) {
+                child.parent = parent;
+            }
+
+            List<BaseComponent> run = new ArrayList<>();
+            int runStart = -1;
+
+            for (int i = 0; i < noSync.length; i++) {
+                BaseComponent child = batch.get(i);
+
+                if (noSync[i]) {
+                    syncBatch(run, runStart);
+                }
+
+                if (parent.page != null) {
+                    child._attach(parent.page);
+                }
+
+                parent.nameIndex.add(child);
+
+                if (!noSync[i]) {
+                    runStart = run.isEmpty() ? index < 0 ? -1 : start + i : runStart;
+                    run.add(child);
+                }
+            }
+
+            syncBatch(run, runStart);
+
+            for (BaseComponent child : batch) {
+                parent.afterAddChild(child);
+                child.afterSetParent(parent);
+            }
+
+            return true;
+        }
+
+        /**
+         * Returns true if a collection of children qualifies to be added as a batch.
+         *
+         * @param c The children to add.
+         * @return True if the children may be added as a batch.
+         */
+        private boolean canAddBatch(Collection<? extends BaseComponent> c) {
+            Set<BaseComponent> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
             for (BaseComponent child : c) {
-                add(index++, child);
+                if (child instanceof IComposite || child.getParent() != null || !seen.add(child)) {
+                    return false;
+                }
             }
 
             return true;
         }
 
+        /**
+         * Validates that a name does not occur more than once within a batch of children.
+         *
+         * @param name The name (may be null).
+         * @param names The names already occurring within the batch.
+         * @throws ComponentException Thrown if a name collision is detected.
+         */
+        private void validateBatchName(
+                String name,
+                Set<String> names) {
+            ComponentException.assertTrue(name == null || names.add(name),
+                    "Name \"%s\"already exists in enclosing namespace", name);
+        }
+
+        /**
+         * Synchronizes a contiguous run of added children with the client and clears the run.
+         *
+         * @param run The run of children.
+         * @param index The position of the first child in the run, or -1 if appended.
+         */
+        private void syncBatch(
+                List<BaseComponent> run,
+                int index) {
+            if (run.size() == 1) {
+                parent.invokeIfAttached("addChild", run.get(0), index);
+            } else if (!run.isEmpty()) {
+                parent.invokeIfAttached("addChildren", new ArrayList<>(run), index);
+            }
+
+            run.clear();
+        }
+
         @Override
         public boolean removeAll(Collection<?> c) {
             for (Object child : c) {
@@ -242,7 +409,7 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
 
         public void clear(boolean destroy) {
             while (!isEmpty()) {
-                remove(get(0), false, destroy);
+                remove(get(size() - 1), false, destroy);
             }
         }
 
@@ -292,28 +459,25 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
             child.validatePage(parent.page);
 
             if (oldParent == parent) {
-                int i = child.getIndex();
-
-                if (i == index) {
-                    return;
-                }
-
-                if (index > i) {
-                    index--;
-                }
-            } else {
-                child.beforeSetParent(parent);
-                parent.beforeAddChild(child);
+                move(child, index, noSync);
+                return;
             }
 
+            child.beforeSetParent(parent);
+            parent.beforeAddChild(child);
+
             if (oldParent != null) {
                 oldParent.children.remove(child, true, false);
             }
 
-            if (index < 0) {
-                delegate.add(child);
+            int position = index < 0 ? delegate.size() : index;
+            delegate.add(position, child);
+
+            if (position == validIndices && position == delegate.size() - 1) {
+                child.childIndex = position;
+                validIndices = delegate.size();
             } else {
-                delegate.add(index, child);
+                invalidateIndices(position);
             }
 
             child.parent = parent;
@@ -334,6 +498,43 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
             }
         }
 
+        /**
+         * Moves a child to a new position within this list. The child's name scope, page and
+         * parent are unchanged, so its names are not reindexed and no add or remove callbacks are
+         * fired.
+         *
+         * @param child The child to move.
+         * @param index The new position, before the move, or -1 to move to the end.
+         * @param noSync If true, the client is not notified.
+         */
+        private void move(
+                BaseComponent child,
+                int index,
+                boolean noSync) {
+            int i = indexOf(child);
+
+            if (index > delegate.size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + delegate.size());
+            }
+
+            if (i == index) {
+                return;
+            }
+
+            if (index > i) {
+                index--;
+            }
+
+            delegate.remove(i);
+            int position = index < 0 ? delegate.size() : index;
+            delegate.add(position, child);
+            invalidateIndices(Math.min(i, position));
+
+            if (!noSync) {
+                parent.invokeIfAttached("addChild", child, index);
+            }
+        }
+
         @Override
         public BaseComponent remove(int index) {
             BaseComponent old = get(index);
@@ -343,7 +544,22 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
 
         @Override
         public int indexOf(Object o) {
-            return delegate.indexOf(o);
+            if (!(o instanceof BaseComponent) || ((BaseComponent) o).parent != parent) {
+                return -1;
+            }
+
+            int size = delegate.size();
+
+            if (validIndices < size) {
+                for (int i = validIndices; i < size; i++) {
+                    delegate.get(i).childIndex = i;
+                }
+
+                validIndices = size;
+            }
+
+            int index = ((BaseComponent) o).childIndex;
+            return index >= 0 && index < size && delegate.get(index) == o ? index : -1;
         }
 
         @Override
@@ -388,6 +604,8 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
                 BaseComponent child2 = delegate.get(index2);
                 delegate.set(index1, child2);
                 delegate.set(index2, child1);
+                child1.childIndex = index2;
+                child2.childIndex = index1;
                 parent.invokeIfAttached("swapChildren", index1, index2);
                 modCount++;
             }
@@ -524,80 +742,192 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
     }
 
     /**
-     * An index of child component names maintained by a parent component.
+     * An index of component names. A component that is the root of a name scope (i.e., a namespace
+     * or a component without a parent) indexes every named component within that scope, so that
+     * lookups and name collision checks do not require a search of the component tree. The index
+     * is maintained incrementally as components are added, removed, and renamed. When a subtree is
+     * removed from a scope, its names are transferred to the index of the subtree's root, which
+     * becomes the root of a new scope, and are transferred back when the subtree is added to
+     * another scope.
      */
     private class NameIndex {
 
         private Map<String, BaseComponent> names;
 
-        /**
-         * Add a component's name (if any).
-         *
-         * @param component Component whose name is to be added.
-         */
-        public void add(BaseComponent component) {
-            String name = component.getName();
+        private BaseComponent _get(String name) {
+            return names == null ? null : names.get(name);
+        }
 
+        private void _put(
+                String name,
+                BaseComponent component) {
             if (name != null) {
                 names = names == null ? new HashMap<>() : names;
                 names.put(name, component);
             }
         }
 
+        private void _remove(
+                String name,
+                BaseComponent component) {
+            if (name != null && names != null) {
+                names.remove(name, component);
+            }
+        }
+
         /**
-         * Remove a component's name (if any).
+         * Adds a child of this component to the enclosing name scope. Unless the child is itself a
+         * namespace, the names indexed by the child are transferred as well.
          *
-         * @param component Component whose name is to be removed.
+         * @param child Child component whose names are to be added.
          */
-        public void remove(BaseComponent component) {
-            String name = component.getName();
+        public void add(BaseComponent child) {
+            NameIndex index = getNameRoot().nameIndex;
+            index._put(child.getName(), child);
 
-            if (name != null && names != null) {
-                names.remove(name);
+            if (!child.isNamespace() && child.nameIndex.names != null) {
+                Map<String, BaseComponent> childNames = child.nameIndex.names;
+                child.nameIndex.names = null;
+
+                for (Map.Entry<String, BaseComponent> entry : childNames.entrySet()) {
+                    index._put(entry.getKey(), entry.getValue());
+                }
             }
         }
 
-        private BaseComponent _get(String name) {
-            return names == null ? null : names.get(name);
+        /**
+         * Removes a child of this component from the enclosing name scope. Unless the child is itself
+         * a namespace, the names of its descendants are transferred to the child's index.
+         *
+         * @param child Child component whose names are to be removed.
+         */
+        public void remove(BaseComponent child) {
+            NameIndex index = getNameRoot().nameIndex;
+            index._remove(child.getName(), child);
+
+            if (!child.isNamespace()) {
+                for (BaseComponent descendant : child.children) {
+                    transfer(descendant, index, child.nameIndex);
+                }
+            }
+        }
+
+        private void transfer(
+                BaseComponent component,
+                NameIndex from,
+                NameIndex to) {
+            String name = component.getName();
+
+            if (name != null) {
+                from._remove(name, component);
+                to._put(name, component);
+            }
+
+            if (!component.isNamespace()) {
+                for (BaseComponent child : component.children) {
+                    transfer(child, from, to);
+                }
+            }
         }
 
         /**
-         * Validate that a component's name does not conflict with an existing name.
+         * Validate that the names of a prospective child of this component and, unless the child is
+         * a namespace, of its descendants do not conflict with existing names in the enclosing
+         * name scope.
          *
-         * @param component Component to be validated.
+         * @param child Component to be validated.
          * @throws ComponentException Thrown if a name collision is detected.
          */
-        public void validate(BaseComponent component) {
-            _validate(component, getNameRoot());
+        public void validate(BaseComponent child) {
+            NameIndex index = getNameRoot().nameIndex;
+            _validate(child.getName(), index, child);
+
+            if (child.isNamespace()) {
+                return;
+            }
+
+            if (child.getParent() == null) {
+                Map<String, BaseComponent> childNames = child.nameIndex.names;
+
+                if (childNames != null) {
+                    _validate(child.getName(), child.nameIndex, child);
+
+                    for (Map.Entry<String, BaseComponent> entry : childNames.entrySet()) {
+                        _validate(entry.getKey(), index, entry.getValue());
+                    }
+                }
+            } else {
+                for (BaseComponent descendant : child.children) {
+                    _validateTree(descendant, index);
+                }
+            }
         }
 
-        private void _validate(
+        private void _validateTree(
                 BaseComponent component,
-                BaseComponent root) {
-            _validate(component.getName(), root, component);
+                NameIndex index) {
+            _validate(component.getName(), index, component);
 
-            if (!(component.isNamespace())) {
+            if (!component.isNamespace()) {
                 for (BaseComponent child : component.children) {
-                    _validate(child, root);
+                    _validateTree(child, index);
                 }
             }
         }
 
+        /**
+         * Validate that a new name for this component does not conflict with an existing name in
+         * the enclosing name scope.
+         *
+         * @param name The new name.
+         * @throws ComponentException Thrown if a name collision is detected.
+         */
         private void validate(String name) {
-            _validate(name, getNameRoot(), null);
+            NameIndex index = getScope();
+            index = index == null && !isNamespace() ? this : index;
+
+            if (index != null) {
+                _validate(name, index, BaseComponent.this);
+            }
         }
 
         private void _validate(
                 String name,
-                BaseComponent root,
+                NameIndex index,
                 BaseComponent component) {
             if (name != null) {
-                BaseComponent cmp = _find(name, root);
+                BaseComponent cmp = index._get(name);
                 ComponentException.assertTrue(cmp == null || cmp == component,
                         "Name \"%s\"already exists in enclosing namespace", name);
             }
         }
 
+        /**
+         * Updates the enclosing name scope to reflect a change in this component's name.
+         *
+         * @param oldName The old name.
+         * @param newName The new name.
+         */
+        private void rename(
+                String oldName,
+                String newName) {
+            NameIndex index = getScope();
+
+            if (index != null) {
+                index._remove(oldName, BaseComponent.this);
+                index._put(newName, BaseComponent.this);
+            }
+        }
+
+        /**
+         * Returns the index in which this component's own name is registered.
+         *
+         * @return The index of the enclosing name scope, or null if this component has no parent.
+         */
+        private NameIndex getScope() {
+            return parent == null ? null : parent.nameIndex.getNameRoot().nameIndex;
+        }
+
         private BaseComponent getNameRoot() {
             BaseComponent root = getNamespace();
             return root == null ? getRoot() : root;
@@ -610,29 +940,7 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
          * @return The corresponding component, or null if none found.
          */
         public BaseComponent find(String name) {
-            return _find(name, getNameRoot());
-        }
-
-        private BaseComponent _find(
-                String name,
-                BaseComponent root) {
-            BaseComponent component = root.nameIndex._get(name);
-
-            if (component != null) {
-                return component;
-            }
-
-            for (BaseComponent child : root.children) {
-                if (!(child.isNamespace())) {
-                    component = _find(name, child);
-
-                    if (component != null) {
-                        break;
-                    }
-                }
-            }
-
-            return component;
+            return getNameRoot().nameIndex._get(name);
         }
 
         /**
@@ -641,23 +949,8 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
          * @return A map of all named components in this namespace.
          */
         public Map<String, BaseComponent> findAll() {
-            Map<String, BaseComponent> results = new HashMap<>();
-            _findAll(getNameRoot(), results);
-            return results;
-        }
-
-        private void _findAll(
-                BaseComponent root,
-                Map<String, BaseComponent> results) {
-            if (root.nameIndex.names != null) {
-                results.putAll(root.nameIndex.names);
-            }
-
-            for (BaseComponent child : root.children) {
-                if (!(child.isNamespace())) {
-                    _findAll(child, results);
-                }
-            }
+            Map<String, BaseComponent> names = getNameRoot().nameIndex.names;
+            return names == null ? new HashMap<>() : new HashMap<>(names);
         }
 
     }
@@ -678,6 +971,8 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
 
     private final NameIndex nameIndex = new NameIndex();
 
+    private int childIndex = -1;
+
     private String name;
 
     private String id;
@@ -790,9 +1085,9 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
     public void setName(String name) {
         if (!areEqual(name = nullify(name), this.name)) {
             _validateName(name);
-            nameIndex.remove(this);
-            propertyChange("name", this.name, this.name = name, true);
-            nameIndex.add(this);
+            String oldName = this.name;
+            propertyChange("name", oldName, this.name = name, true);
+            nameIndex.rename(oldName, name);
         }
     }
 
@@ -1143,7 +1438,7 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
     }
 
     /**
-     * Adds a list of children.
+     * Adds a list of children to the end of the child list.
      *
      * @param children List of children to add.
      */
@@ -1151,6 +1446,20 @@ public abstract class BaseComponent implements IElementIdentifier, IAttributeMap
         this.children.addAll(children);
     }
 
+    /**
+     * Adds a list of children to the child list at the specified position. Children that do not
+     * yet have a parent are validated, added, and synchronized with the client as a batch.
+     *
+     * @param children List of children to add.
+     * @param index The position in the child list where the children will be inserted. If
+     *            negative, the children are appended.
+     */
+    public void addChildren(
+            Collection<? extends BaseComponent> children,
+            int index) {
+        this.children.addAll(index, children);
+    }
+
     /**
      * Removes a child from this parent.
      *
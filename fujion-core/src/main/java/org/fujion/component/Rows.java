@@ -24,8 +24,11 @@ import org.fujion.annotation.Component;
 import org.fujion.annotation.Component.ChildTag;
 import org.fujion.annotation.Component.PropertyGetter;
 import org.fujion.annotation.Component.PropertySetter;
+import org.fujion.annotation.EventHandler;
+import org.fujion.event.ViewportEvent;
 import org.fujion.model.IModelAndView;
 import org.fujion.model.ISupportsModel;
+import org.fujion.model.ISupportsVirtual;
 import org.fujion.model.ModelAndView;
 
 import java.util.Collections;
@@ -43,7 +46,7 @@ import java.util.Set;
         parentTag = "grid",
         childTag = @ChildTag("row"),
         description = "A container for a grid's rows.")
-public class Rows extends BaseUIComponent implements ISupportsModel<Row> {
+public class Rows extends BaseUIComponent implements ISupportsModel<Row>, ISupportsVirtual {
     
     /**
      * Specifies the selection mode for rows.
@@ -104,6 +107,32 @@ public class Rows extends BaseUIComponent implements ISupportsModel<Row> {
         }
     }
     
+    /**
+     * Returns the virtual rendering setting.
+     *
+     * @return If true, only rows within or near the visible area are rendered.
+     * @see IModelAndView#isVirtual()
+     */
+    @PropertyGetter(value = "virtual", description = "If true, only rows within or near the visible area are rendered.")
+    public boolean isVirtual() {
+        return modelAndView.isVirtual();
+    }
+
+    /**
+     * Sets the virtual rendering setting. This applies only to rows rendered from a model. Because
+     * rows are destroyed as they scroll out of view, selection state that must survive scrolling
+     * should be maintained in the model and restored by the renderer.
+     *
+     * @param virtual If true, only rows within or near the visible area are rendered.
+     * @see IModelAndView#setVirtual(boolean)
+     */
+    @PropertySetter(value = "virtual", defaultValue = "false", description = "If true, only rows within or near the visible area are rendered.")
+    public void setVirtual(boolean virtual) {
+        if (propertyChange("virtual", isVirtual(), virtual, true)) {
+            modelAndView.setVirtual(virtual);
+        }
+    }
+
     /**
      * Returns the currently selected row, or null if none. If multiple rows are selected, only the
      * first will be returned.
@@ -169,6 +198,16 @@ public class Rows extends BaseUIComponent implements ISupportsModel<Row> {
         }
     }
     
+    /**
+     * Handles a change in the visible range of rows on the client.
+     *
+     * @param event The viewport event.
+     */
+    @EventHandler(value = "viewport", syncToClient = false, mode = "init")
+    private void _onViewport(ViewportEvent event) {
+        modelAndView.setViewport(Math.max(0, event.getFirst()), Math.max(1, event.getCount()));
+    }
+
     /**
      * If the removed child row was selected, remove it from the set.
      *
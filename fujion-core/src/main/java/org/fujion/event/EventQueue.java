@@ -25,7 +25,12 @@ import org.fujion.common.Assert;
 import org.fujion.component.Page;
 import org.fujion.websocket.Session;
 
-import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A page's queue for posted events. Queued (posted) events are delivered at the end of an execution
@@ -33,10 +38,42 @@ import java.util.LinkedList;
  * at the end of the next execution cycle for that page. To ensure timely delivery in such an
  * instance, a ping request is sent to the client in order to trigger an execution cycle for the
  * target page.
+ * <p>
+ * The queue is lock-free. Any number of threads may queue events while the page's execution
+ * thread drains the queue, and producers never wait for event delivery to complete. Flush pings
+ * are coalesced so that at most one is outstanding for the page at any time.
  */
 public class EventQueue {
 
-    private final LinkedList<Event> queue = new LinkedList<>();
+    /**
+     * A queued event and the time at which it was queued.
+     */
+    private static class QueuedEvent {
+
+        private final Event event;
+
+        private final long queuedAt = System.nanoTime();
+
+        QueuedEvent(Event event) {
+            this.event = event;
+        }
+    }
+
+    private final Queue<QueuedEvent> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private final AtomicBoolean pingPending = new AtomicBoolean();
+
+    private final AtomicInteger maxDepth = new AtomicInteger();
+
+    private final AtomicLong processedCount = new AtomicLong();
+
+    private final AtomicLong totalWaitTime = new AtomicLong();
+
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    private final AtomicLong pingCount = new AtomicLong();
 
     private final Page page;
 
@@ -54,25 +91,45 @@ public class EventQueue {
      *
      * @param event Event to queue.
      */
-    public synchronized void queue(Event event) {
+    public void queue(Event event) {
         Assert.isTrue(event.getPage() == page, () -> "Event does not belong to this queue's page");
-        queue.add(event);
-        
-        if (queue.size() == 1 && (!ExecutionContext.isProcessing() || ExecutionContext.getPage() != page)) {
+        // Count the event before it becomes visible to a consumer, so the depth never goes negative.
+        int size = depth.incrementAndGet();
+        maxDepth.accumulateAndGet(size, Math::max);
+        queue.add(new QueuedEvent(event));
+
+        if ((!ExecutionContext.isProcessing() || ExecutionContext.getPage() != page)
+                && pingPending.compareAndSet(false, true)) {
             Session session = page.getSession();
 
-            if (session != null) {
-                session.ping("flush");
+            try {
+                if (session != null) {
+                    session.ping("flush");
+                    pingCount.incrementAndGet();
+                } else {
+                    pingPending.set(false);
+                }
+            } catch (RuntimeException e) {
+                pingPending.set(false);
+                throw e;
             }
         }
     }
 
     /**
-     * Process all queued events.
+     * Process all queued events, including any queued while processing is underway.
      */
-    public synchronized void processAll() {
-        while (!queue.isEmpty()) {
-            Event event = queue.removeFirst();
+    public void processAll() {
+        pingPending.set(false);
+        QueuedEvent queued;
+
+        while ((queued = queue.poll()) != null) {
+            depth.decrementAndGet();
+            long waitTime = System.nanoTime() - queued.queuedAt;
+            processedCount.incrementAndGet();
+            totalWaitTime.addAndGet(waitTime);
+            maxWaitTime.accumulateAndGet(waitTime, Math::max);
+            Event event = queued.event;
             EventUtil.send(event, event.getTarget() == null ? page : event.getTarget());
         }
     }
@@ -80,8 +137,10 @@ public class EventQueue {
     /**
      * Clear all queued events.
      */
-    public synchronized void clearAll() {
-        queue.clear();
+    public void clearAll() {
+        while (queue.poll() != null) {
+            depth.decrementAndGet();
+        }
     }
 
     /**
@@ -92,4 +151,60 @@ public class EventQueue {
     public boolean isEmpty() {
         return queue.isEmpty();
     }
+
+    /**
+     * Returns the number of events currently queued.
+     *
+     * @return The number of events currently queued.
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Returns the largest number of events that have been queued at one time.
+     *
+     * @return The largest number of events that have been queued at one time.
+     */
+    public int getMaxDepth() {
+        return maxDepth.get();
+    }
+
+    /**
+     * Returns the number of queued events that have been processed.
+     *
+     * @return The number of queued events that have been processed.
+     */
+    public long getProcessedCount() {
+        return processedCount.get();
+    }
+
+    /**
+     * Returns the average time a processed event waited in the queue.
+     *
+     * @return The average wait time in milliseconds.
+     */
+    public double getAverageWaitTime() {
+        long count = processedCount.get();
+        return count == 0 ? 0 : (double) totalWaitTime.get() / count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Returns the longest time a processed event waited in the queue.
+     *
+     * @return The maximum wait time in milliseconds.
+     */
+    public long getMaxWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitTime.get());
+    }
+
+    /**
+     * Returns the number of flush pings sent to the client. Events queued while a ping is
+     * outstanding do not generate additional pings.
+     *
+     * @return The number of flush pings sent to the client.
+     */
+    public long getPingCount() {
+        return pingCount.get();
+    }
 }
@@ -33,9 +33,14 @@ import org.fujion.common.MiscUtil;
 import org.fujion.component.BaseComponent;
 import org.fujion.component.Page;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Static methods for manipulating events.
@@ -44,6 +49,61 @@ public class EventUtil {
 
     private static final Class<?>[] CTOR_PARAM_TYPES = {BaseComponent.class, Object.class};
 
+    /**
+     * Constructors for an event class, bound as method handles. A null handle indicates that the
+     * event class has no suitable constructor.
+     */
+    private static class EventConstructors {
+
+        private final MethodHandle defaultCtor;
+
+        private final MethodHandle dataCtor;
+
+        EventConstructors(Class<?> clazz) {
+            MethodHandle defaultCtor = null;
+            MethodHandle dataCtor = null;
+
+            try {
+                if (Event.class.isAssignableFrom(clazz)) {
+                    Constructor<?> ctor = ConstructorUtils.getMatchingAccessibleConstructor(clazz, CTOR_PARAM_TYPES);
+                    dataCtor = ctor == null ? null : MethodHandles.lookup().unreflectConstructor(ctor)
+                            .asType(MethodType.methodType(Event.class, BaseComponent.class, Object.class));
+                    ctor = clazz.getDeclaredConstructor();
+                    ctor.setAccessible(true);
+                    defaultCtor = MethodHandles.lookup().unreflectConstructor(ctor)
+                            .asType(MethodType.methodType(Event.class));
+                }
+            } catch (NoSuchMethodException e) {
+                // No default constructor.
+            } catch (Exception e) {
+                throw MiscUtil.toUnchecked(e);
+            }
+
+            this.defaultCtor = defaultCtor;
+            this.dataCtor = dataCtor;
+        }
+    }
+
+    private static final ClassValue<EventConstructors> constructors = new ClassValue<EventConstructors>() {
+
+        @Override
+        protected EventConstructors computeValue(Class<?> clazz) {
+            return new EventConstructors(clazz);
+        }
+    };
+
+    /**
+     * Handler methods for an instance class, keyed by handler name and event class. An empty value
+     * indicates that no suitable handler exists.
+     */
+    private static final ClassValue<Map<String, Map<Class<?>, Optional<Method>>>> handlers = new ClassValue<>() {
+
+        @Override
+        protected Map<String, Map<Class<?>, Optional<Method>>> computeValue(Class<?> clazz) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private static final IEventListener deferredDelivery = EventUtil::send;
 
     /**
@@ -207,7 +267,7 @@ public class EventUtil {
     /**
      * Returns a suitable handler method for an event. First, it searches for a method with a single
      * argument that assignment-compatible with the event. Failing that, it searches for a method
-     * with no arguments. Failing that, it returns null.
+     * with no arguments. Failing that, it returns null. The result of the search is cached.
      *
      * @param handlerName The name of the handler method (defaults to a method with the same name as
      *            the event type).
@@ -217,10 +277,26 @@ public class EventUtil {
      */
     public static Method getHandler(String handlerName, Object instance, Event event) {
         handlerName = handlerName != null ? handlerName : event.getType();
-        Method method = MethodUtils.getMatchingAccessibleMethod(instance.getClass(), handlerName, event.getClass());
-        return method != null ? method
-                : MethodUtils.getAccessibleMethod(instance.getClass(), handlerName, ArrayUtils.EMPTY_CLASS_ARRAY);
+        Class<?> clazz = instance.getClass();
+        Map<String, Map<Class<?>, Optional<Method>>> byName = handlers.get(clazz);
+        Map<Class<?>, Optional<Method>> byEvent = byName.get(handlerName);
 
+        if (byEvent == null) {
+            byName.putIfAbsent(handlerName, new ConcurrentHashMap<>());
+            byEvent = byName.get(handlerName);
+        }
+
+        Optional<Method> handler = byEvent.get(event.getClass());
+
+        if (handler == null) {
+            Method method = MethodUtils.getMatchingAccessibleMethod(clazz, handlerName, event.getClass());
+            method = method != null ? method
+                    : MethodUtils.getAccessibleMethod(clazz, handlerName, ArrayUtils.EMPTY_CLASS_ARRAY);
+            handler = Optional.ofNullable(method);
+            byEvent.put(event.getClass(), handler);
+        }
+
+        return handler.orElse(null);
     }
 
     /**
@@ -296,18 +372,34 @@ public class EventUtil {
                 return new Event(type, target, data);
             }
 
+            EventConstructors ctors = constructors.get(eventClass);
+
             if (target == null && data == null) {
-                return MiscUtil.newInstance(eventClass);
+                return newInstance(ctors, eventClass);
             }
             
-            Constructor<?> ctor = ConstructorUtils.getMatchingAccessibleConstructor(eventClass, CTOR_PARAM_TYPES);
+            MethodHandle ctor = ctors.dataCtor;
             Assert.notNull(ctor, () -> "Cannot find compatible constructor for event type " + type);
-            return (Event) ctor.newInstance(target, data);
-        } catch (Exception e) {
+            return (Event) ctor.invokeExact(target, data);
+        } catch (Throwable e) {
             throw MiscUtil.toUnchecked(e);
         }
     }
 
+    /**
+     * Creates an event using its class's default constructor.
+     *
+     * @param ctors The constructors for the event class.
+     * @param clazz The event class.
+     * @return The newly created event.
+     * @throws Throwable Exception thrown by the constructor.
+     */
+    private static Event newInstance(EventConstructors ctors, Class<?> clazz) throws Throwable {
+        MethodHandle ctor = ctors.defaultCtor;
+        Assert.notNull(ctor, () -> "Cannot find default constructor for event class " + clazz.getName());
+        return (Event) ctor.invokeExact();
+    }
+
     /**
      * Extracts an event of the expected class from the client request.
      *
@@ -319,11 +411,13 @@ public class EventUtil {
     private static Event toEvent(Class<?> clazz, ClientRequest request) {
         try {
             if (Event.class.isAssignableFrom(clazz)) {
-                Event event = (Event) MiscUtil.newInstance(clazz);
+                Event event = newInstance(constructors.get(clazz), clazz);
                 EventParameterScanner.wire(event, request);
                 return event;
             }
-        } catch (Exception e) {
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             return toEvent(clazz.getSuperclass(), request);
         }
 
@@ -100,7 +100,9 @@ public class UploadEvent extends MouseEvent {
     }
     
     /**
-     * Returns the file contents as an input stream.
+     * Returns the file contents as an input stream. Large files are spooled to a temporary file
+     * that is opened on first read. The stream should be consumed during processing of the event,
+     * after which the temporary file is released.
      *
      * @return The file contents as an input stream.
      */
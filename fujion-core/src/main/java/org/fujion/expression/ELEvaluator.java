@@ -30,6 +30,7 @@ import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.expression.BeanResolver;
 import org.springframework.expression.ConstructorResolver;
+import org.springframework.expression.Expression;
 import org.springframework.expression.MethodResolver;
 import org.springframework.expression.PropertyAccessor;
 import org.springframework.expression.spel.support.StandardEvaluationContext;
@@ -74,6 +75,30 @@ public class ELEvaluator extends StandardEvaluationContext implements BeanPostPr
         return value instanceof MessageContext ? value.toString() : value;
     }
 
+    /**
+     * Evaluate a parsed EL expression against the specified root object.
+     *
+     * @param expression A parsed EL expression (see {@link #parse}).
+     * @param root       The root object against which to evaluate the expression.
+     * @return The result of the evaluation.
+     */
+    public Object evaluate(
+            Expression expression,
+            Object root) {
+        Object value = expression.getValue(this, root);
+        return value instanceof MessageContext ? value.toString() : value;
+    }
+
+    /**
+     * Returns the parsed form of a value if it contains an EL expression.
+     *
+     * @param value The value to parse.
+     * @return The parsed expression, or null if the value does not contain an EL expression.
+     */
+    public Expression parse(String value) {
+        return cache.hasExpression(value) ? cache.get(value) : null;
+    }
+
     /**
      * Evaluate an EL expression.
      *
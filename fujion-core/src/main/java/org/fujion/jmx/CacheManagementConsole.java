@@ -25,6 +25,7 @@ import com.udojava.jmx.wrapper.JMXBeanAttribute;
 import com.udojava.jmx.wrapper.JMXBeanOperation;
 import com.udojava.jmx.wrapper.JMXBeanOperation.IMPACT_TYPES;
 import jakarta.servlet.ServletContext;
+import org.fujion.common.CacheStatistics;
 import org.fujion.common.StrUtil;
 import org.fujion.expression.ExpressionCache;
 import org.fujion.jmx.JMXConsole.IJMXConsolePlugin;
@@ -83,6 +84,28 @@ public class CacheManagementConsole implements IJMXConsolePlugin, ServletContext
         return formatResult("fsp.refresh", size);
     }
 
+    /**
+     * Returns the performance counters of the page definition cache.
+     *
+     * @return The cache statistics.
+     */
+    @JMXBeanAttribute(sortValue = "13", nameKey = "org.fujion.console.cache.fsp.stats.name", descriptionKey = "org.fujion.console.cache.fsp.stats.description")
+    public String getFSPCacheStatistics() {
+        return formatResult("fsp.stats", fspCache.getStatistics());
+    }
+
+    /**
+     * Resets the performance counters of the page definition cache.
+     *
+     * @return The result of the operation.
+     */
+    @JMXBeanOperation(sortValue = "14", nameKey = "org.fujion.console.cache.fsp.reset.name", impactType = IMPACT_TYPES.ACTION, descriptionKey = "org.fujion.console.cache.fsp.reset.description")
+    public String resetFSPCacheStatistics() {
+        CacheStatistics stats = fspCache.getStatistics();
+        fspCache.resetStatistics();
+        return formatResult("fsp.reset", stats);
+    }
+
     /**
      * Returns the size of the expression cache.
      *
@@ -106,6 +129,28 @@ public class CacheManagementConsole implements IJMXConsolePlugin, ServletContext
         return formatResult("exp.clear", size);
     }
 
+    /**
+     * Returns the performance counters of the expression cache.
+     *
+     * @return The cache statistics.
+     */
+    @JMXBeanAttribute(sortValue = "22", nameKey = "org.fujion.console.cache.exp.stats.name", descriptionKey = "org.fujion.console.cache.exp.stats.description")
+    public String getELCacheStatistics() {
+        return formatResult("exp.stats", elCache.getStatistics());
+    }
+
+    /**
+     * Resets the performance counters of the expression cache.
+     *
+     * @return The result of the operation.
+     */
+    @JMXBeanOperation(sortValue = "23", nameKey = "org.fujion.console.cache.exp.reset.name", impactType = IMPACT_TYPES.ACTION, descriptionKey = "org.fujion.console.cache.exp.reset.description")
+    public String resetELCacheStatistics() {
+        CacheStatistics stats = elCache.getStatistics();
+        elCache.resetStatistics();
+        return formatResult("exp.reset", stats);
+    }
+
     private String formatResult(String id, Object... args) {
         return StrUtil.getLabel("org.fujion.console.cache." + id + ".result", args);
     }
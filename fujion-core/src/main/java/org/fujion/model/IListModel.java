@@ -36,6 +36,17 @@ public interface IListModel<M> extends List<M> {
     interface IListModelListener {
 
         void onListChange(ListEventType type, int startIndex, int endIndex);
+
+        /**
+         * Called once when the list has been reordered as a whole, as by sorting. The default
+         * implementation reports this as a {@link ListEventType#SORT SORT} event.
+         *
+         * @param permutation For each index in the reordered list, the index that the element
+         *            occupied before the reordering.
+         */
+        default void onListPermute(int[] permutation) {
+            onListChange(ListEventType.SORT, -1, -1);
+        }
     }
 
     /**
@@ -66,6 +77,22 @@ public interface IListModel<M> extends List<M> {
      */
     boolean removeEventListener(IListModelListener listener);
 
+    /**
+     * Suspends change notifications until a matching call to {@link #endUpdate()}. Calls may be
+     * nested. The default implementation does nothing.
+     */
+    default void beginUpdate() {
+    }
+
+    /**
+     * Resumes change notifications suspended by {@link #beginUpdate()}. When the outermost update
+     * ends, listeners receive a single event: the original event if only one change occurred, or a
+     * {@link ListEventType#CHANGE CHANGE} event if there were several. The default implementation
+     * does nothing.
+     */
+    default void endUpdate() {
+    }
+
     /**
      * Removes a range of elements by index.
      *
@@ -106,4 +106,64 @@ public interface IModelAndView<T extends BaseComponent, M> {
      * @param value The deferred rendering setting.
      */
     void setDeferredRendering(boolean value);
+
+    /**
+     * Returns the virtual rendering setting. If true, only those model objects within the
+     * viewport, plus a margin on either side (the overscan), are rendered. Children are destroyed
+     * as they leave the viewport and rendered as they enter it, so the number of components is
+     * bounded by the viewport size rather than the model size.
+     *
+     * @return The virtual rendering setting.
+     */
+    boolean isVirtual();
+
+    /**
+     * Sets the virtual rendering setting. If true, only those model objects within the viewport,
+     * plus a margin on either side (the overscan), are rendered. Children are destroyed as they
+     * leave the viewport and rendered as they enter it, so any state held only by a child (e.g.,
+     * its selection state) should be reflected in the model if it is to survive scrolling.
+     * Virtual rendering requires a parent component that implements {@link ISupportsVirtual}.
+     *
+     * @param value The virtual rendering setting.
+     * @throws IllegalStateException If enabling virtual rendering for an unsupported parent.
+     */
+    void setVirtual(boolean value);
+
+    /**
+     * Returns the number of model objects rendered on either side of the viewport in virtual
+     * mode.
+     *
+     * @return The overscan.
+     */
+    int getOverscan();
+
+    /**
+     * Sets the number of model objects rendered on either side of the viewport in virtual mode.
+     *
+     * @param overscan The overscan (may not be negative).
+     */
+    void setOverscan(int overscan);
+
+    /**
+     * Returns the index, relative to the current page, of the first model object in the viewport.
+     *
+     * @return Index of the first model object in the viewport.
+     */
+    int getViewportStart();
+
+    /**
+     * Returns the number of model objects in the viewport.
+     *
+     * @return The number of model objects in the viewport.
+     */
+    int getViewportSize();
+
+    /**
+     * Sets the viewport, typically in response to scrolling on the client. In virtual mode, the
+     * rendering is updated to reflect the new viewport.
+     *
+     * @param start Index, relative to the current page, of the first model object in the viewport.
+     * @param size The number of model objects in the viewport.
+     */
+    void setViewport(int start, int size);
 }
@@ -0,0 +1,33 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.model;
+
+/**
+ * Marker interface for components whose client widget supports virtual rendering of children
+ * rendered from a model. Such a widget must implement the <code>virtualRange</code> action, which
+ * accounts for the children that are not rendered, and should report its viewport so that the
+ * rendering can follow scrolling.
+ *
+ * @see IModelAndView#setVirtual(boolean)
+ */
+public interface ISupportsVirtual {
+
+}
@@ -26,16 +26,29 @@ import org.apache.commons.collections4.IteratorUtils;
 import java.util.*;
 
 /**
- * Implementation of a list model.
+ * Implementation of a list model. Model objects are stored in an array-backed list, so indexed
+ * access is constant-time.
  *
  * @param <M> The class of the model object.
  */
 public class ListModel<M> implements IListModel<M> {
 
-    private final LinkedList<M> list = new LinkedList<>();
+    private final ArrayList<M> list = new ArrayList<>();
 
     private final List<IListModelListener> listeners = new ArrayList<>();
 
+    private int updateDepth;
+
+    private int pendingEvents;
+
+    private ListEventType pendingType;
+
+    private int pendingStart;
+
+    private int pendingEnd;
+
+    private int[] pendingPermutation;
+
     /**
      * Convenience method for converting a list to a list model. If the list is already a list
      * model, it is returned as is. Otherwise, a list model is created and populated with the
@@ -80,11 +93,8 @@ public class ListModel<M> implements IListModel<M> {
 
     @Override
     public boolean addAll(int index, Collection<? extends M> c) {
-        int i = list.size();
-
-        if (list.addAll(c)) {
-            int delta = list.size() - i;
-            fireEvent(ListEventType.ADD, index, index + delta - 1);
+        if (list.addAll(index, c)) {
+            fireEvent(ListEventType.ADD, index, index + c.size() - 1);
             return true;
         }
 
@@ -96,6 +106,29 @@ public class ListModel<M> implements IListModel<M> {
         return listeners.add(listener);
     }
 
+    @Override
+    public void beginUpdate() {
+        updateDepth++;
+    }
+
+    @Override
+    public void endUpdate() {
+        if (updateDepth > 0 && --updateDepth == 0 && pendingEvents > 0) {
+            int[] permutation = pendingPermutation;
+            boolean single = pendingEvents == 1;
+            pendingEvents = 0;
+            pendingPermutation = null;
+
+            if (!single) {
+                fireEvent(ListEventType.CHANGE, -1, -1);
+            } else if (permutation != null) {
+                firePermutation(permutation);
+            } else {
+                fireEvent(pendingType, pendingStart, pendingEnd);
+            }
+        }
+    }
+
     @Override
     public void clear() {
         int i = list.size();
@@ -117,18 +150,43 @@ public class ListModel<M> implements IListModel<M> {
     }
 
     /**
-     * Fires a list event to all listeners.
+     * Fires a list event to all listeners, or records it if updates are suspended.
      *
      * @param type The type of event.
      * @param startIndex Index of the first affected element.
      * @param endIndex Index of last affected element.
      */
     private void fireEvent(ListEventType type, int startIndex, int endIndex) {
+        if (updateDepth > 0) {
+            pendingEvents++;
+            pendingType = type;
+            pendingStart = startIndex;
+            pendingEnd = endIndex;
+            return;
+        }
+
         for (IListModelListener listener : listeners) {
             listener.onListChange(type, startIndex, endIndex);
         }
     }
 
+    /**
+     * Fires a permutation event to all listeners, or records it if updates are suspended.
+     *
+     * @param permutation For each new index, the index previously occupied by the element.
+     */
+    private void firePermutation(int[] permutation) {
+        if (updateDepth > 0) {
+            pendingEvents++;
+            pendingPermutation = permutation;
+            return;
+        }
+
+        for (IListModelListener listener : listeners) {
+            listener.onListPermute(permutation);
+        }
+    }
+
     @Override
     public M get(int index) {
         return list.get(index);
@@ -197,18 +255,14 @@ public class ListModel<M> implements IListModel<M> {
     public boolean removeRange(int start, int end) {
         validateIndex(start);
         validateIndex(end);
-        boolean result = false;
-
-        for (int i = end; i >= start; i--) {
-            list.remove(i);
-            result = true;
-        }
 
-        if (result) {
-            fireEvent(ListEventType.DELETE, start, end);
+        if (end < start) {
+            return false;
         }
 
-        return result;
+        list.subList(start, end + 1).clear();
+        fireEvent(ListEventType.DELETE, start, end);
+        return true;
     }
 
     /**
@@ -259,23 +313,41 @@ public class ListModel<M> implements IListModel<M> {
         return list.size();
     }
 
+    /**
+     * Sorts the list, notifying listeners with a single permutation event if the order changed.
+     * The sort is stable and runs in O(n log n) time.
+     */
     @SuppressWarnings({ "unchecked" })
     @Override
     public void sort(Comparator<? super M> comparator, boolean ascending) {
-        comparator = comparator != null ? comparator : ComparatorUtils.NATURAL_COMPARATOR;
-        comparator = ascending ? comparator : ComparatorUtils.reversedComparator(comparator);
+        Comparator<? super M> cmp = comparator != null ? comparator : ComparatorUtils.NATURAL_COMPARATOR;
+        cmp = ascending ? cmp : ComparatorUtils.reversedComparator(cmp);
+        int size = list.size();
+        Integer[] order = new Integer[size];
+
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+
+        Comparator<? super M> elementComparator = cmp;
+        Arrays.sort(order, (i1, i2) -> elementComparator.compare(list.get(i1), list.get(i2)));
+        int[] permutation = new int[size];
         boolean changed = false;
-        M[] a = (M[]) list.toArray();
-        Arrays.sort(a, comparator);
 
-        for (int newIndex = 0; newIndex < a.length; newIndex++) {
-            int oldIndex = list.indexOf(a[newIndex]);
-            changed |= oldIndex != newIndex;
-            swap(newIndex, oldIndex);
+        for (int i = 0; i < size; i++) {
+            permutation[i] = order[i];
+            changed |= permutation[i] != i;
         }
 
         if (changed) {
-            fireEvent(ListEventType.SORT, -1, -1);
+            Object[] items = list.toArray();
+            list.clear();
+
+            for (int oldIndex : permutation) {
+                list.add((M) items[oldIndex]);
+            }
+
+            firePermutation(permutation);
         }
     }
 
@@ -21,6 +21,7 @@
 package org.fujion.model;
 
 import org.fujion.client.Synchronizer;
+import org.fujion.common.Assert;
 import org.fujion.component.BaseComponent;
 import org.fujion.component.Page;
 import org.fujion.model.IListModel.IListModelListener;
@@ -39,6 +40,16 @@ import java.util.Map;
  */
 public class ModelAndView<T extends BaseComponent, M> implements IListModelListener, IPagingListener, IModelAndView<T, M> {
     
+    /**
+     * The number of model objects rendered in virtual mode before the client reports its viewport.
+     */
+    public static final int DEFAULT_VIEWPORT_SIZE = 50;
+
+    /**
+     * The default number of model objects rendered on either side of the viewport in virtual mode.
+     */
+    public static final int DEFAULT_OVERSCAN = 10;
+
     private BaseComponent parent;
     
     private IComponentRenderer<T, M> renderer;
@@ -51,6 +62,18 @@ public class ModelAndView<T extends BaseComponent, M> implements IListModelListe
 
     private final Paginator paginator;
     
+    private boolean virtual;
+
+    private int overscan = DEFAULT_OVERSCAN;
+
+    private int viewportStart;
+
+    private int viewportSize = DEFAULT_VIEWPORT_SIZE;
+
+    private int renderStart;
+
+    private int renderEnd;
+
     public ModelAndView(BaseComponent parent) {
         this.parent = parent;
         paginator = new Paginator();
@@ -106,7 +129,9 @@ public class ModelAndView<T extends BaseComponent, M> implements IListModelListe
     }
     
     private int getChildIndex(int modelIndex) {
-        if (paginator.isDisabled()) {
+        if (virtual) {
+            return modelIndex - renderStart;
+        } else if (paginator.isDisabled()) {
             return modelIndex;
         } else {
             return modelIndex - paginator.getModelOffset(paginator.getCurrentPage());
@@ -124,8 +149,17 @@ public class ModelAndView<T extends BaseComponent, M> implements IListModelListe
         if (model != null && parent != null && renderer != null) {
             try {
                 onRenderStart();
-                int start = adjustIndex(0);
-                int end = adjustIndex(model.size() - 1);
+                int start;
+                int end;
+
+                if (virtual) {
+                    updateWindow();
+                    start = renderStart;
+                    end = renderEnd - 1;
+                } else {
+                    start = adjustIndex(0);
+                    end = adjustIndex(model.size() - 1);
+                }
 
                 for (int i = start; i <= end; i++) {
                     renderChild(i);
@@ -133,6 +167,108 @@ public class ModelAndView<T extends BaseComponent, M> implements IListModelListe
             } finally {
                 onRenderStop();
             }
+
+            syncWindow();
+        }
+    }
+    
+    /**
+     * Returns the index of the first model object on the current page.
+     *
+     * @return Index of the first model object on the current page.
+     */
+    private int getPageStart() {
+        return paginator.isDisabled() ? 0 : paginator.getModelOffset(paginator.getCurrentPage());
+    }
+
+    /**
+     * Returns one more than the index of the last model object on the current page.
+     *
+     * @return One more than the index of the last model object on the current page.
+     */
+    private int getPageEnd() {
+        return paginator.isDisabled() ? model == null ? 0 : model.size()
+                : paginator.getModelOffset(paginator.getCurrentPage() + 1);
+    }
+
+    /**
+     * Recomputes the range of model objects to be rendered in virtual mode from the viewport and
+     * overscan settings. The range is kept within the current page and, when the viewport lies
+     * beyond the end of the model, is shifted back so that it is never empty unless the model is.
+     */
+    private void updateWindow() {
+        int pageStart = getPageStart();
+        int pageEnd = getPageEnd();
+        int size = viewportSize + overscan * 2;
+        int start = pageStart + Math.max(0, viewportStart - overscan);
+        renderStart = Math.max(pageStart, Math.min(start, pageEnd - size));
+        renderEnd = Math.min(pageEnd, renderStart + size);
+    }
+
+    /**
+     * Moves the rendered range in virtual mode to reflect the current viewport. Children that
+     * remain within the range are retained, those that fall outside it are destroyed, and only
+     * newly exposed model objects are rendered.
+     */
+    private void moveWindow() {
+        if (model == null || parent == null || renderer == null) {
+            return;
+        }
+
+        int oldStart = renderStart;
+        int oldEnd = renderEnd;
+        updateWindow();
+        int newStart = renderStart;
+        int newEnd = renderEnd;
+
+        if (newStart == oldStart && newEnd == oldEnd) {
+            return;
+        }
+
+        if (newStart >= oldEnd || newEnd <= oldStart) {
+            rerender();
+            return;
+        }
+
+        try {
+            onRenderStart();
+            renderStart = oldStart;
+            renderEnd = oldEnd;
+
+            for (int i = oldEnd - 1; i >= newEnd; i--) {
+                destroyChild(i);
+            }
+
+            for (int i = newStart - 1; i >= oldStart; i--) {
+                destroyChild(i);
+            }
+
+            renderStart = newStart;
+            renderEnd = newEnd;
+
+            for (int i = newStart; i < oldStart; i++) {
+                renderChild(i);
+            }
+
+            for (int i = Math.max(oldEnd, newStart); i < newEnd; i++) {
+                renderChild(i);
+            }
+        } finally {
+            onRenderStop();
+        }
+
+        syncWindow();
+    }
+
+    /**
+     * In virtual mode, notifies the client widget of the position of the rendered children within
+     * the current page and of the size of the page, so that it can account for the children that
+     * are not rendered.
+     */
+    private void syncWindow() {
+        if (virtual && parent != null) {
+            int pageStart = getPageStart();
+            parent.invoke("virtualRange", renderStart - pageStart, getPageEnd() - pageStart);
         }
     }
     
@@ -176,7 +312,7 @@ public class ModelAndView<T extends BaseComponent, M> implements IListModelListe
      *         pagination is active and the child falls outside the current page.
      */
     protected T renderChild(int modelIndex) {
-        if (renderer != null && paginator.inRange(modelIndex)) {
+        if (renderer != null && inRange(modelIndex)) {
             M mdl = model.get(modelIndex);
             T child = renderer.render(mdl);
             parent.addChild(child, getChildIndex(modelIndex));
@@ -197,7 +333,7 @@ public class ModelAndView<T extends BaseComponent, M> implements IListModelListe
      * @param modelIndex The index of the model object.
      */
     protected void destroyChild(int modelIndex) {
-        if (paginator.inRange(modelIndex)) {
+        if (inRange(modelIndex)) {
             BaseComponent child = parent.getChildAt(getChildIndex(modelIndex));
             ModelAndView<T, M> linkedView = linkedViews == null ? null : linkedViews.get(child);
 
@@ -245,6 +381,11 @@ public class ModelAndView<T extends BaseComponent, M> implements IListModelListe
     public void onListChange(ListEventType type, int startIndex, int endIndex) {
         paginator.setModelSize(model.size());
         
+        if (virtual) {
+            onVirtualListChange(type, startIndex, endIndex);
+            return;
+        }
+
         switch (type) {
             case ADD:
                 startIndex = adjustIndex(startIndex);
@@ -291,6 +432,89 @@ public class ModelAndView<T extends BaseComponent, M> implements IListModelListe
         }
     }
     
+    /**
+     * Updates the rendering in virtual mode when the model changes. Changes confined to model
+     * objects beyond the rendered range only alter the size reported to the client. Otherwise, the
+     * rendered range, which is bounded by the viewport size, is rerendered.
+     *
+     * @param type The type of change.
+     * @param startIndex Index of the first model object affected.
+     * @param endIndex Index of the last model object affected.
+     */
+    private void onVirtualListChange(ListEventType type, int startIndex, int endIndex) {
+        switch (type) {
+            case ADD:
+            case DELETE:
+            case REPLACE:
+                if (startIndex >= renderEnd) {
+                    syncWindow();
+                    return;
+                }
+
+                break;
+
+            case SWAP:
+                if (!inRange(startIndex) && !inRange(endIndex)) {
+                    return;
+                }
+
+                break;
+            
+            default:
+                break;
+        }
+
+        rerender();
+    }
+
+    /**
+     * Reorders the rendered children to match a reordered model. Without pagination, children are
+     * moved into place using the minimum number of swaps. With pagination, the current page is
+     * rerendered.
+     *
+     * @see org.fujion.model.IListModel.IListModelListener#onListPermute(int[])
+     */
+    @Override
+    public void onListPermute(int[] permutation) {
+        if (virtual || !paginator.isDisabled()) {
+            rerender();
+            return;
+        }
+
+        int size = permutation.length;
+        int[] current = new int[size];
+        int[] position = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            current[i] = i;
+            position[i] = i;
+        }
+
+        for (int i = 0; i < size; i++) {
+            int j = position[permutation[i]];
+
+            if (j != i) {
+                parent.swapChildren(i, j);
+                int displaced = current[i];
+                current[i] = permutation[i];
+                current[j] = displaced;
+                position[permutation[i]] = i;
+                position[displaced] = j;
+            }
+        }
+    }
+
+    /**
+     * Returns true if the model index falls within the rendered range. This is the current page
+     * or, in virtual mode, the portion of the current page surrounding the viewport.
+     *
+     * @param modelIndex Model index.
+     * @return True if the model index falls within the rendered range.
+     */
+    private boolean inRange(int modelIndex) {
+        return virtual ? modelIndex >= renderStart && modelIndex < renderEnd : paginator.inRange(modelIndex);
+    }
+
     /**
      * Force the model index to be within the current page range.
      *
@@ -315,7 +539,7 @@ public class ModelAndView<T extends BaseComponent, M> implements IListModelListe
     
     @Override
     public T rerender(int modelIndex) {
-        if (paginator.inRange(modelIndex)) {
+        if (inRange(modelIndex)) {
             destroyChild(modelIndex);
             return renderChild(modelIndex);
         } else {
@@ -333,6 +557,66 @@ public class ModelAndView<T extends BaseComponent, M> implements IListModelListe
         deferredRendering = value;
     }
     
+    @Override
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    @Override
+    public void setVirtual(boolean virtual) {
+        Assert.state(!virtual || parent == null || parent instanceof ISupportsVirtual,
+            () -> "Virtual rendering is not supported by " + parent.getClass().getSimpleName());
+
+        if (virtual != this.virtual) {
+            this.virtual = virtual;
+            viewportStart = 0;
+            rerender();
+        }
+    }
+
+    @Override
+    public int getOverscan() {
+        return overscan;
+    }
+
+    @Override
+    public void setOverscan(int overscan) {
+        Assert.isTrue(overscan >= 0, () -> "Overscan may not be less than 0");
+
+        if (overscan != this.overscan) {
+            this.overscan = overscan;
+
+            if (virtual) {
+                moveWindow();
+            }
+        }
+    }
+
+    @Override
+    public int getViewportStart() {
+        return viewportStart;
+    }
+
+    @Override
+    public int getViewportSize() {
+        return viewportSize;
+    }
+
+    @Override
+    public void setViewport(int start, int size) {
+        Assert.isTrue(start >= 0, () -> "Viewport start may not be less than 0");
+        Assert.isTrue(size > 0, () -> "Viewport size must be greater than 0");
+
+        if (start != viewportStart || size != viewportSize) {
+            viewportStart = start;
+            viewportSize = size;
+
+            if (virtual) {
+                moveWindow();
+            }
+        }
+    }
+
     @Override
     public IPaginator getPaginator() {
         return paginator;
@@ -0,0 +1,172 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.page;
+
+import org.fujion.ancillary.DeferredInvocation;
+import org.fujion.annotation.ComponentDefinition;
+import org.fujion.annotation.ComponentDefinition.CompiledProperty;
+import org.fujion.component.BaseComponent;
+import org.fujion.expression.ELContext;
+import org.fujion.expression.ELEvaluator;
+import org.springframework.expression.Expression;
+
+import java.util.*;
+import java.util.Map.Entry;
+
+/**
+ * The compiled form of a page element. Work that does not vary between materializations is done
+ * once, when the plan is created: attributes are separated into factory parameters and
+ * properties, property setters are resolved, EL expressions are parsed, and literal values are
+ * converted to their target types where possible.
+ */
+class ElementPlan {
+    
+    /**
+     * A compiled property assignment.
+     */
+    private static class PropertyPlan {
+        
+        private final CompiledProperty property;
+        
+        private final Expression expression;
+        
+        private final Object value;
+        
+        PropertyPlan(CompiledProperty property, String value) {
+            this.property = property;
+            this.expression = ELEvaluator.getInstance().parse(value);
+            this.value = expression == null ? property.preconvert(value) : value;
+        }
+        
+        Object getValue(ELContext elContext) {
+            return expression == null ? value : ELEvaluator.getInstance().evaluate(expression, elContext);
+        }
+        
+    }
+    
+    private final PageElement element;
+    
+    private final ComponentDefinition definition;
+    
+    private final Map<String, String> factoryAttributes = new HashMap<>();
+    
+    private final List<PropertyPlan> properties = new ArrayList<>();
+    
+    private final List<ElementPlan> children = new ArrayList<>();
+    
+    private boolean hasExpressions;
+    
+    /**
+     * Compiles a page element and its descendants.
+     *
+     * @param element The page element.
+     */
+    ElementPlan(PageElement element) {
+        this.element = element;
+        this.definition = element.getDefinition();
+        
+        for (Entry<String, String> attribute : element.getAttributes().entrySet()) {
+            String name = attribute.getKey();
+            String value = attribute.getValue();
+            
+            if (definition.getFactoryParameters().containsKey(name)) {
+                factoryAttributes.put(name, value);
+            } else {
+                PropertyPlan property = new PropertyPlan(definition.getCompiledProperty(name), value);
+                hasExpressions |= property.expression != null;
+                properties.add(property);
+            }
+        }
+        
+        for (PageElement child : element.getChildren()) {
+            children.add(new ElementPlan(child));
+        }
+    }
+    
+    /**
+     * Creates a plan for the children of the root page element.
+     *
+     * @param root The root page element.
+     * @return The plans for the root element's children.
+     */
+    static List<ElementPlan> compile(PageElement root) {
+        List<ElementPlan> plans = new ArrayList<>();
+        
+        for (PageElement child : root.getChildren()) {
+            plans.add(new ElementPlan(child));
+        }
+        
+        return Collections.unmodifiableList(plans);
+    }
+    
+    /**
+     * Returns the component definition for the page element.
+     *
+     * @return The component definition.
+     */
+    ComponentDefinition getDefinition() {
+        return definition;
+    }
+    
+    /**
+     * Returns the plans for the page element's children.
+     *
+     * @return The plans for the page element's children.
+     */
+    List<ElementPlan> getChildren() {
+        return children;
+    }
+    
+    /**
+     * Creates the component(s) for this page element using its factory.
+     *
+     * @param parent The component that will become the parent.
+     * @param args The argument map passed to the materializer.
+     * @return A list of newly created components (never null).
+     */
+    List<BaseComponent> create(BaseComponent parent, Map<String, Object> args) {
+        Map<String, String> attributes = factoryAttributes.isEmpty() ? Collections.emptyMap() : new HashMap<>(factoryAttributes);
+        ELContext elContext = attributes.isEmpty() ? null : new ELContext(null, parent, element, args);
+        return definition.getFactory().create(attributes, elContext, element.getConstructorArgs());
+    }
+    
+    /**
+     * Applies property values to a component created from this page element.
+     *
+     * @param component The component.
+     * @param parent The component that will become the parent.
+     * @param args The argument map passed to the materializer.
+     * @param deferrals Receives any deferred property assignments.
+     */
+    void apply(BaseComponent component, BaseComponent parent, Map<String, Object> args,
+               List<DeferredInvocation<?>> deferrals) {
+        ELContext elContext = hasExpressions ? new ELContext(component, parent, element, args) : null;
+        
+        for (PropertyPlan property : properties) {
+            DeferredInvocation<?> deferral = property.property.setValue(component, property.getValue(elContext));
+            
+            if (deferral != null) {
+                deferrals.add(deferral);
+            }
+        }
+    }
+    
+}
@@ -25,14 +25,12 @@ import org.fujion.ancillary.DeferredInvocation;
 import org.fujion.annotation.ComponentDefinition;
 import org.fujion.component.BaseComponent;
 import org.fujion.component.Page;
-import org.fujion.expression.ELContext;
-import org.fujion.expression.ELEvaluator;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 /**
  * This represents the compiled form of a single Fujion server page. It is a simple wrapper of a
@@ -44,6 +42,12 @@ public class PageDefinition {
 
     private String source;
 
+    private String hash;
+
+    private final Map<String, String> dependencies = new LinkedHashMap<>();
+
+    private volatile List<ElementPlan> plan;
+
     /**
      * The root of all page elements in this definition.
      *
@@ -71,6 +75,44 @@ public class PageDefinition {
         this.source = source;
     }
 
+    /**
+     * Returns a hash of the content from which this page definition was derived.
+     *
+     * @return A hash of the source content (possibly null).
+     */
+    public String getHash() {
+        return hash;
+    }
+
+    /**
+     * Sets a hash of the content from which this page definition was derived.
+     *
+     * @param hash A hash of the source content.
+     */
+    /*package*/ void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    /**
+     * Returns the pages that were imported into this page definition, mapped to hashes of their
+     * content. A null location indicates an import whose location is unknown.
+     *
+     * @return Map of imported page locations to content hashes.
+     */
+    public Map<String, String> getDependencies() {
+        return Collections.unmodifiableMap(dependencies);
+    }
+
+    /**
+     * Registers a page that was imported into this page definition.
+     *
+     * @param location The location of the imported page.
+     * @param hash A hash of the imported page's content.
+     */
+    /*package*/ void addDependency(String location, String hash) {
+        dependencies.put(location, hash);
+    }
+
     /**
      * Materializes this page definition under the given parent component.
      *
@@ -93,7 +135,7 @@ public class PageDefinition {
         try {
             List<DeferredInvocation<?>> deferrals = new ArrayList<>();
             List<BaseComponent> created = new ArrayList<>();
-            List<PageElement> children = root.getChildren();
+            List<ElementPlan> children = getPlan();
             
             if (!(parent instanceof Page) && children.size() == 1
                     && children.get(0).getDefinition().getComponentClass() == Page.class) {
@@ -112,54 +154,54 @@ public class PageDefinition {
         }
     }
 
-    private void materialize(Iterable<PageElement> children, BaseComponent parent, List<DeferredInvocation<?>> deferrals,
+    /**
+     * Returns the compiled form of this page definition, compiling it on first use.
+     *
+     * @return The plans for the top level page elements.
+     */
+    private List<ElementPlan> getPlan() {
+        List<ElementPlan> plan = this.plan;
+
+        if (plan == null) {
+            plan = this.plan = ElementPlan.compile(root);
+        }
+
+        return plan;
+    }
+
+    private void materialize(List<ElementPlan> children, BaseComponent parent, List<DeferredInvocation<?>> deferrals,
                              Map<String, Object> args, List<BaseComponent> created) {
-        if (children != null) {
-            for (PageElement child : children) {
-                List<BaseComponent> components = materialize(child, parent, deferrals, args);
-
-                if (created != null) {
-                    for (BaseComponent component : components) {
-                        if (args != null && !args.isEmpty()) {
-                            component.getAttributes().putAll(args);
-                        }
-                        
-                        created.add(component);
+        for (ElementPlan child : children) {
+            List<BaseComponent> components = materialize(child, parent, deferrals, args);
+
+            if (created != null) {
+                for (BaseComponent component : components) {
+                    if (args != null && !args.isEmpty()) {
+                        component.getAttributes().putAll(args);
                     }
                     
+                    created.add(component);
                 }
+                
             }
         }
     }
 
-    private List<BaseComponent> materialize(PageElement element, BaseComponent parent, List<DeferredInvocation<?>> deferrals,
+    private List<BaseComponent> materialize(ElementPlan element, BaseComponent parent, List<DeferredInvocation<?>> deferrals,
                                             Map<String, Object> args) {
         ComponentDefinition def = element.getDefinition();
         boolean merge = parent instanceof Page && def.getComponentClass() == Page.class;
-        Map<String, String> attributes = element.getAttributes();
         List<BaseComponent> components;
 
         if (merge) {
             components = Collections.singletonList(parent);
             parent = null;
         } else {
-            ELContext elContext = attributes.isEmpty() ? null : new ELContext(null, parent, element, args);
-            components = def.getFactory().create(attributes, elContext, element.getConstructorArgs());
+            components = element.create(parent, args);
         }
 
         for (BaseComponent component : components) {
-            if (!attributes.isEmpty()) {
-                ELContext elContext = new ELContext(component, parent, element, args);
-
-                for (Entry<String, String> attribute : attributes.entrySet()) {
-                    Object value = ELEvaluator.getInstance().evaluate(attribute.getValue(), elContext);
-                    DeferredInvocation<?> deferral = def.setProperty(component, attribute.getKey(), value);
-
-                    if (deferral != null) {
-                        deferrals.add(deferral);
-                    }
-                }
-            }
+            element.apply(component, parent, args, deferrals);
 
             if (parent != null) {
                 parent.addChild(component);
@@ -28,12 +28,22 @@ import org.fujion.common.StrUtil;
 import org.fujion.core.WebUtil;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.context.ServletContextAware;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A cache of all compiled page definitions. If a requested page is not in the cache, it will be
@@ -47,6 +57,8 @@ public class PageDefinitionCache extends AbstractCache<String, PageDefinition> i
 
     private Set<String> precompiled = new LinkedHashSet<>();
 
+    private final Map<String, SourceHash> sourceHashes = new ConcurrentHashMap<>();
+
     private ServletContext servletContext;
 
     public static PageDefinitionCache getInstance() {
@@ -84,9 +96,128 @@ public class PageDefinitionCache extends AbstractCache<String, PageDefinition> i
         return key != null && super.isCached(key);
     }
 
+    /**
+     * Loads the page definition from its precompiled form if one exists and is current. Otherwise,
+     * parses the page source.
+     */
     @Override
     protected PageDefinition fetch(String url) {
-        return PageParser.getInstance().parse(url);
+        Resource resource = WebUtil.getResource(url);
+        PageDefinition pageDefinition = loadPrecompiled(resource);
+        return pageDefinition != null ? pageDefinition : PageParser.getInstance().parse(new PageSource(resource));
+    }
+
+    /**
+     * Loads the precompiled form of a page definition. This is expected to reside on the classpath
+     * under {@value PageDefinitionSerializer#LOCATION}, at the same relative path as the page
+     * source, with an extension of {@value PageDefinitionSerializer#EXTENSION}. Only page sources
+     * within the web application or on the classpath may have a precompiled form.
+     *
+     * @param resource The resource containing the page source.
+     * @return The page definition, or null if there is no current precompiled form.
+     */
+    private PageDefinition loadPrecompiled(Resource resource) {
+        String path = getRelativePath(resource);
+        Resource compiled = path == null ? null : new ClassPathResource(PageDefinitionSerializer.LOCATION
+                + FilenameUtils.removeExtension(path) + "." + PageDefinitionSerializer.EXTENSION);
+
+        if (compiled == null || !compiled.exists()) {
+            return null;
+        }
+
+        try (InputStream stream = compiled.getInputStream()) {
+            PageDefinition pageDefinition = PageDefinitionSerializer.read(stream);
+
+            if (getHash(resource).equals(pageDefinition.getHash()) && isCurrent(pageDefinition.getDependencies())) {
+                return pageDefinition;
+            }
+
+            log.debug(() -> "Precompiled page definition is out of date: " + compiled.getDescription());
+        } catch (Exception e) {
+            log.warn(() -> "Error loading precompiled page definition: " + compiled.getDescription(), e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the path of a page source relative to the classpath or to the web application root.
+     *
+     * @param resource The resource containing the page source.
+     * @return The relative path, or null if the page source is in neither location.
+     */
+    private String getRelativePath(Resource resource) {
+        if (resource instanceof ClassPathResource) {
+            return ((ClassPathResource) resource).getPath();
+        }
+
+        try {
+            String url = resource.getURL().toString();
+            int i = url.lastIndexOf("!/");
+
+            if (i >= 0) {
+                return url.substring(i + 2);
+            }
+
+            List<URL> roots = Collections.list(ClassUtils.getDefaultClassLoader().getResources(""));
+
+            if (servletContext != null && servletContext.getResource("/") != null) {
+                roots.add(servletContext.getResource("/"));
+            }
+
+            for (URL root : roots) {
+                String prefix = root.toString();
+
+                if (prefix.endsWith("/") && url.startsWith(prefix)) {
+                    return url.substring(prefix.length());
+                }
+            }
+        } catch (IOException e) {
+            // NOP
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns true if the content of all imported pages is unchanged.
+     *
+     * @param dependencies Map of imported page locations to content hashes.
+     * @return True if all imported pages are unchanged.
+     * @throws IOException IO exception.
+     */
+    private boolean isCurrent(Map<String, String> dependencies) throws IOException {
+        for (Entry<String, String> dependency : dependencies.entrySet()) {
+            if (!getHash(WebUtil.getResource(dependency.getKey(), servletContext)).equals(dependency.getValue())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns a hash of a page source's content. The hash is remembered, together with the
+     * source's length and time of last modification, so that the content need not be read and
+     * hashed again unless one of these changes.
+     *
+     * @param resource The resource containing the page source.
+     * @return A hash of the page source's content.
+     * @throws IOException IO exception.
+     * @see PageSource#getHash()
+     */
+    private String getHash(Resource resource) throws IOException {
+        String key = resource.getURL().toString();
+        long length = resource.contentLength();
+        long lastModified = resource.lastModified();
+        SourceHash sourceHash = sourceHashes.get(key);
+
+        if (sourceHash == null || sourceHash.length != length || sourceHash.lastModified != lastModified) {
+            sourceHash = new SourceHash(length, lastModified, new PageSource(resource).getHash());
+            sourceHashes.put(key, sourceHash);
+        }
+
+        return sourceHash.hash;
     }
 
     /**
@@ -125,4 +256,24 @@ public class PageDefinitionCache extends AbstractCache<String, PageDefinition> i
         this.servletContext = servletContext;
     }
 
+    /**
+     * A hash of a page source's content, with the length and time of last modification of the
+     * content from which it was computed.
+     */
+    private static class SourceHash {
+
+        private final long length;
+
+        private final long lastModified;
+
+        private final String hash;
+
+        private SourceHash(long length, long lastModified, String hash) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+
+    }
+
 }
@@ -0,0 +1,203 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.page;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.fujion.ancillary.ComponentRegistry;
+import org.fujion.annotation.ComponentDefinition;
+import org.fujion.taglib.TagLibrary;
+import org.fujion.taglib.TagLibraryRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Map.Entry;
+
+/**
+ * Reads and writes the precompiled form of a page definition. This is a compact JSON
+ * representation of the page element tree, together with hashes of the page's source and of any
+ * pages it imports, allowing a precompiled definition to be checked against its sources.
+ */
+public class PageDefinitionSerializer {
+
+    /**
+     * File extension for precompiled page definitions.
+     */
+    public static final String EXTENSION = "fspc";
+
+    /**
+     * Classpath location of precompiled page definitions. A precompiled page definition resides
+     * at the same path, relative to this location, as its page source has relative to the web
+     * application root or the classpath. It is therefore not served as static web content.
+     */
+    public static final String LOCATION = "META-INF/fspc/";
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Writes a page definition in precompiled form.
+     *
+     * @param pageDefinition The page definition.
+     * @param stream The output stream.
+     * @throws IOException IO exception.
+     */
+    public static void write(PageDefinition pageDefinition, OutputStream stream) throws IOException {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("format", FORMAT_VERSION);
+        node.put("source", pageDefinition.getSource());
+        node.put("hash", pageDefinition.getHash());
+        ObjectNode dependencies = node.putObject("dependencies");
+
+        for (Entry<String, String> dependency : pageDefinition.getDependencies().entrySet()) {
+            check(dependency.getKey() != null, "Imported page has no location");
+            dependencies.put(dependency.getKey(), dependency.getValue());
+        }
+
+        writeElement(pageDefinition.getRootElement(), node.putObject("root"));
+        mapper.writeValue(stream, node);
+    }
+
+    private static void writeElement(PageElement element, ObjectNode node) {
+        ComponentDefinition def = element.getDefinition();
+
+        if (def != null) {
+            node.put("tag", def.getTag());
+            node.put("class", def.getComponentClass().getName());
+        }
+
+        Object[] args = element.getConstructorArgs();
+
+        if (args != null && args.length > 0) {
+            ArrayNode array = node.putArray("args");
+
+            for (Object arg : args) {
+                check(arg instanceof String, "Unsupported constructor argument: %s", arg);
+                array.add((String) arg);
+            }
+        }
+
+        if (!element.getAttributes().isEmpty()) {
+            ObjectNode attributes = node.putObject("attributes");
+            element.getAttributes().forEach(attributes::put);
+        }
+
+        if (!element.getTagLibraries().isEmpty()) {
+            ObjectNode tagLibraries = node.putObject("taglibs");
+            element.getTagLibraries().forEach((prefix, tagLibrary) -> tagLibraries.put(prefix, tagLibrary.getUri()));
+        }
+
+        if (!element.getChildren().isEmpty()) {
+            ArrayNode children = node.putArray("children");
+
+            for (PageElement child : element.getChildren()) {
+                writeElement(child, children.addObject());
+            }
+        }
+    }
+
+    /**
+     * Reads a page definition from its precompiled form.
+     *
+     * @param stream The input stream.
+     * @return The page definition.
+     * @throws IOException IO exception.
+     * @exception ParserException If the precompiled form is not compatible with the current
+     *                environment.
+     */
+    public static PageDefinition read(InputStream stream) throws IOException {
+        JsonNode node = mapper.readTree(stream);
+        check(node.path("format").asInt() == FORMAT_VERSION, "Unsupported precompiled format");
+        PageDefinition pageDefinition = new PageDefinition();
+        pageDefinition.setSource(node.path("source").asText(null));
+        pageDefinition.setHash(node.path("hash").asText(null));
+        Iterator<Entry<String, JsonNode>> dependencies = node.path("dependencies").fields();
+
+        while (dependencies.hasNext()) {
+            Entry<String, JsonNode> dependency = dependencies.next();
+            pageDefinition.addDependency(dependency.getKey(), dependency.getValue().asText());
+        }
+
+        readContent(node.path("root"), pageDefinition.getRootElement());
+        return pageDefinition;
+    }
+
+    private static void readElement(JsonNode node, PageElement parent) {
+        String tag = node.path("tag").asText();
+        ComponentDefinition def = ComponentRegistry.getInstance().get(tag);
+        check(def != null && def.getComponentClass().getName().equals(node.path("class").asText()),
+            "Component for tag '<%s>' has changed", tag);
+        JsonNode args = node.get("args");
+        Object[] ctorArgs = null;
+
+        if (args != null) {
+            ctorArgs = new Object[args.size()];
+
+            for (int i = 0; i < ctorArgs.length; i++) {
+                ctorArgs[i] = args.get(i).asText();
+            }
+        }
+
+        PageElement element = new PageElement(def, parent, ctorArgs);
+        Iterator<Entry<String, JsonNode>> attributes = node.path("attributes").fields();
+
+        while (attributes.hasNext()) {
+            Entry<String, JsonNode> attribute = attributes.next();
+            check(def.validateAttribute(attribute.getKey()), "Unrecognized attribute \"%s\" on tag \"<%s>\"",
+                attribute.getKey(), tag);
+            element.setAttribute(attribute.getKey(), attribute.getValue().asText());
+        }
+
+        readContent(node, element);
+        element.validate();
+    }
+
+    private static void readContent(JsonNode node, PageElement element) {
+        Iterator<Entry<String, JsonNode>> tagLibraries = node.path("taglibs").fields();
+
+        while (tagLibraries.hasNext()) {
+            Entry<String, JsonNode> entry = tagLibraries.next();
+            String uri = entry.getValue().asText();
+            TagLibrary tagLibrary = TagLibraryRegistry.getInstance().get(uri);
+            check(tagLibrary != null, "Tag library not found: %s", uri);
+            element.addTagLibrary(entry.getKey(), tagLibrary);
+        }
+
+        for (JsonNode child : node.path("children")) {
+            readElement(child, element);
+        }
+    }
+
+    private static void check(boolean condition, String message, Object... args) {
+        if (!condition) {
+            throw new ParserException(message, args);
+        }
+    }
+
+    private PageDefinitionSerializer() {
+    }
+
+}
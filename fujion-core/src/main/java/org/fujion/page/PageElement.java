@@ -192,6 +192,15 @@ public class PageElement {
         tagLibraries.put(prefix, tagLibrary);
     }
     
+    /**
+     * Returns the tag libraries registered directly to this page element.
+     *
+     * @return Map of prefixes to tag libraries, never null.
+     */
+    /*package*/ Map<String, TagLibrary> getTagLibraries() {
+        return tagLibraries == null ? Collections.emptyMap() : tagLibraries;
+    }
+
     /**
      * Returns a tag library registered to this page element or one of its ancestors.
      *
@@ -27,6 +27,7 @@ import org.fujion.annotation.ComponentDefinition;
 import org.fujion.common.Logger;
 import org.fujion.common.RegistryMap;
 import org.fujion.common.RegistryMap.DuplicateAction;
+import org.fujion.common.XMLUtil;
 import org.fujion.component.Content;
 import org.fujion.core.WebUtil;
 import org.springframework.beans.BeansException;
@@ -34,12 +35,24 @@ import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.core.io.Resource;
 import org.w3c.dom.*;
 
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
- * Parses a Fujion server page into a page definition.
+ * Parses a Fujion server page into a page definition. By default, the page is first parsed into a
+ * DOM document which is then traversed to build the page definition. In streaming mode, page
+ * elements are built directly from a StAX event stream, avoiding the construction of an
+ * intermediate document. Both modes apply the same namespace, processing instruction, and content
+ * handling rules.
  */
 public class PageParser implements BeanPostProcessor {
     
@@ -65,6 +78,10 @@ public class PageParser implements BeanPostProcessor {
     
     private final RegistryMap<String, PIParserBase> piParsers = new RegistryMap<>(DuplicateAction.ERROR);
     
+    private final ThreadLocal<PageDefinition> current = new ThreadLocal<>();
+
+    private boolean streaming;
+    
     public static PageParser getInstance() {
         return instance;
     }
@@ -117,18 +134,65 @@ public class PageParser implements BeanPostProcessor {
     public PageDefinition parse(PageSource source) {
         PageDefinition pageDefinition = new PageDefinition();
         pageDefinition.setSource(source.getSource());
-        parse(source, pageDefinition.getRootElement());
+        pageDefinition.setHash(source.getHash());
+        PageDefinition previous = current.get();
+        current.set(pageDefinition);
+        
+        try {
+            parseSource(source, pageDefinition.getRootElement());
+        } finally {
+            if (previous == null) {
+                current.remove();
+            } else {
+                current.set(previous);
+            }
+        }
+        
         return pageDefinition;
     }
     
     /**
-     * Parse the FSP document referenced by an input stream.
+     * Parse the FSP document referenced by an input stream. If this occurs while parsing another
+     * page (as when importing a page), the source is registered as a dependency of that page.
      *
      * @param source Source of the FSP.
      * @param parentElement The parent element for the parsing operation.
      */
     protected void parse(PageSource source, PageElement parentElement) {
-        parseNode(source.getDocument(), parentElement);
+        PageDefinition pageDefinition = current.get();
+        
+        if (pageDefinition != null) {
+            pageDefinition.addDependency(source.getLocation(), source.getHash());
+        }
+        
+        parseSource(source, parentElement);
+    }
+
+    /**
+     * Returns true if pages are parsed in streaming mode.
+     *
+     * @return True if pages are parsed in streaming mode.
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Sets whether pages are to be parsed in streaming mode.
+     *
+     * @param streaming If true, page elements are built directly from a StAX event stream. If
+     *            false, the page is first parsed into a DOM document.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    private void parseSource(PageSource source, PageElement parentElement) {
+        if (streaming) {
+            parseStream(source, parentElement);
+        } else {
+            parseNode(source.getDocument(), parentElement);
+        }
     }
 
     /**
@@ -157,7 +221,6 @@ public class PageParser implements BeanPostProcessor {
     }
 
     private void parseNode(Node node, PageElement parentElement) {
-        ComponentDefinition def;
         PageElement childElement;
         
         switch (node.getNodeType()) {
@@ -168,65 +231,18 @@ public class PageParser implements BeanPostProcessor {
                     break;
                 }
                 
-                if (tag.equals("fsp") && node.getParentNode() instanceof Document) {
-                    processAttributes(node, (name, value) -> badAttribute(tag, name));
-                    parseChildren(node, parentElement);
-                    return;
-                }
-
-                QualifiedName qTag = new QualifiedName(tag);
-                def = ComponentRegistry.getInstance().get(qTag.getName());
-                
-                if (def == null) {
-                    throw new ParserException("Unrecognized tag  '<%s>'", tag);
-                }
-                
-                String qualifier = qTag.getQualifier();
-                Object[] ctorArgs = qualifier == null ? null : new Object[] { qualifier };
-                childElement = new PageElement(def, parentElement, ctorArgs);
-                processAttributes(node, (name, value) -> {
-                    if (!def.validateAttribute(name)) {
-                        badAttribute(tag, name);
-                    } else {
-                        childElement.setAttribute(name, value);
-                    }
-                });
+                childElement = startElement(tag, node.getParentNode() instanceof Document, parentElement,
+                    consumer -> processAttributes(node, consumer));
                 parseChildren(node, childElement);
-                childElement.validate();
+                endElement(childElement, parentElement);
                 break;
                 
             case Node.TEXT_NODE:
             case Node.CDATA_SECTION_NODE:
-                if (isTextNode(node.getPreviousSibling())) {
-                    break;
+                if (!isTextNode(node.getPreviousSibling())) {
+                    processText(((Text) node).getWholeText(), parentElement);
                 }
 
-                String value = ((Text) node).getWholeText();
-                
-                if (value.trim().isEmpty()) {
-                    break;
-                }
-                
-                ComponentDefinition parentDef = parentElement.getDefinition();
-                
-                switch (parentDef == null ? ContentHandling.AS_CHILD : parentDef.contentHandling()) {
-                    case ERROR:
-                        throw new ParserException("Text content is not allowed for tag '<%s>'", parentDef.getTag());
-                        
-                    case IGNORE:
-                        break;
-                        
-                    case AS_ATTRIBUTE:
-                        parentElement.setAttribute(CONTENT_ATTR, normalizeText(value));
-                        break;
-                        
-                    case AS_CHILD:
-                        def = ComponentRegistry.getInstance().get(Content.class);
-                        childElement = new PageElement(def, parentElement);
-                        childElement.setAttribute(CONTENT_ATTR, normalizeText(value));
-                        break;
-                }
-                
                 break;
                 
             case Node.DOCUMENT_NODE:
@@ -237,15 +253,7 @@ public class PageParser implements BeanPostProcessor {
                 break;
                 
             case Node.PROCESSING_INSTRUCTION_NODE:
-                ProcessingInstruction pi = (ProcessingInstruction) node;
-                PIParserBase piParser = piParsers.get(pi.getTarget());
-                
-                if (piParser != null) {
-                    piParser.parse(pi, parentElement);
-                } else {
-                    throw new ParserException("Unrecognized processing instruction \"%s\"", pi.getTarget());
-                }
-                
+                processInstruction((ProcessingInstruction) node, parentElement);
                 break;
                 
             default:
@@ -253,6 +261,193 @@ public class PageParser implements BeanPostProcessor {
         }
     }
 
+    /**
+     * Builds page elements directly from a StAX event stream. Adjacent text and CDATA events are
+     * accumulated so that text content is handled exactly as the DOM path handles whole text.
+     * Elements whose namespace is not recognized are skipped along with their content.
+     *
+     * @param source Source of the FSP.
+     * @param parentElement The parent element for the parsing operation.
+     */
+    private void parseStream(PageSource source, PageElement parentElement) {
+        XMLStreamReader reader = null;
+
+        try (InputStream is = source.getContentStream()) {
+            reader = XMLUtil.newStreamReader(is);
+            Deque<PageElement> parents = new ArrayDeque<>();
+            StringBuilder text = new StringBuilder();
+            PageElement element = parentElement;
+            Document piFactory = null;
+            int skipDepth = 0;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+
+                if (skipDepth > 0) {
+                    skipDepth += event == XMLStreamConstants.START_ELEMENT ? 1
+                            : event == XMLStreamConstants.END_ELEMENT ? -1 : 0;
+                    continue;
+                }
+
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                        || event == XMLStreamConstants.SPACE) {
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    continue;
+                }
+
+                if (text.length() > 0) {
+                    processText(text.toString(), element);
+                    text.setLength(0);
+                }
+
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        String tag = normalizeName(reader.getPrefix(), reader.getNamespaceURI(), reader.getLocalName(),
+                            tagNSMap);
+
+                        if (tag == null) {
+                            skipDepth = 1;
+                            break;
+                        }
+
+                        XMLStreamReader attributeReader = reader;
+                        PageElement childElement = startElement(tag, parents.isEmpty(), element,
+                            consumer -> processAttributes(attributeReader, consumer));
+                        parents.push(element);
+                        element = childElement;
+                        break;
+
+                    case XMLStreamConstants.END_ELEMENT:
+                        PageElement parent = parents.pop();
+                        endElement(element, parent);
+                        element = parent;
+                        break;
+
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        piFactory = piFactory == null ? XMLUtil.newDocumentBuilder(true).newDocument() : piFactory;
+                        String data = reader.getPIData();
+                        processInstruction(
+                            piFactory.createProcessingInstruction(reader.getPITarget(), data == null ? "" : data.strip()),
+                            element);
+                        break;
+
+                    case XMLStreamConstants.DTD:
+                        throw new ParserException("Unrecognized document content type \"%s\"", "#doctype");
+
+                    default:
+                        break;
+                }
+            }
+        } catch (XMLStreamException | IOException | ParserConfigurationException e) {
+            throw new ParserException(e, "Exception parsing resource \"%s\"", source.getSource());
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // NOP
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a page element for a tag. If the tag is a top-level <code>fsp</code> tag, no element
+     * is created and the parent element is returned.
+     *
+     * @param tag The normalized tag name.
+     * @param isRoot True if the tag is the document's root element.
+     * @param parentElement The parent element.
+     * @param attributes Supplies the tag's attributes to a consumer.
+     * @return The page element to receive the tag's content.
+     */
+    private PageElement startElement(String tag, boolean isRoot, PageElement parentElement,
+                                     Consumer<BiConsumer<String, String>> attributes) {
+        if (isRoot && tag.equals("fsp")) {
+            attributes.accept((name, value) -> badAttribute(tag, name));
+            return parentElement;
+        }
+
+        QualifiedName qTag = new QualifiedName(tag);
+        ComponentDefinition def = ComponentRegistry.getInstance().get(qTag.getName());
+
+        if (def == null) {
+            throw new ParserException("Unrecognized tag  '<%s>'", tag);
+        }
+
+        String qualifier = qTag.getQualifier();
+        Object[] ctorArgs = qualifier == null ? null : new Object[] { qualifier };
+        PageElement childElement = new PageElement(def, parentElement, ctorArgs);
+        attributes.accept((name, value) -> {
+            if (!def.validateAttribute(name)) {
+                badAttribute(tag, name);
+            } else {
+                childElement.setAttribute(name, value);
+            }
+        });
+        return childElement;
+    }
+
+    /**
+     * Completes a page element once all of its content has been parsed.
+     *
+     * @param element The page element returned by {@link #startElement}.
+     * @param parentElement The parent element.
+     */
+    private void endElement(PageElement element, PageElement parentElement) {
+        if (element != parentElement) {
+            element.validate();
+        }
+    }
+
+    /**
+     * Processes text content according to the parent's content handling rules.
+     *
+     * @param value The text content.
+     * @param parentElement The parent element.
+     */
+    private void processText(String value, PageElement parentElement) {
+        if (value.trim().isEmpty()) {
+            return;
+        }
+
+        ComponentDefinition parentDef = parentElement.getDefinition();
+
+        switch (parentDef == null ? ContentHandling.AS_CHILD : parentDef.contentHandling()) {
+            case ERROR:
+                throw new ParserException("Text content is not allowed for tag '<%s>'", parentDef.getTag());
+
+            case IGNORE:
+                break;
+
+            case AS_ATTRIBUTE:
+                parentElement.setAttribute(CONTENT_ATTR, normalizeText(value));
+                break;
+
+            case AS_CHILD:
+                ComponentDefinition def = ComponentRegistry.getInstance().get(Content.class);
+                PageElement childElement = new PageElement(def, parentElement);
+                childElement.setAttribute(CONTENT_ATTR, normalizeText(value));
+                break;
+        }
+    }
+
+    /**
+     * Passes a processing instruction to the parser registered for its target.
+     *
+     * @param pi The processing instruction.
+     * @param parentElement The enclosing page element.
+     */
+    private void processInstruction(ProcessingInstruction pi, PageElement parentElement) {
+        PIParserBase piParser = piParsers.get(pi.getTarget());
+
+        if (piParser != null) {
+            piParser.parse(pi, parentElement);
+        } else {
+            throw new ParserException("Unrecognized processing instruction \"%s\"", pi.getTarget());
+        }
+    }
+
     /**
      * Throws a bad attribute exception.
      *
@@ -282,6 +477,23 @@ public class PageParser implements BeanPostProcessor {
         }
     }
 
+    /**
+     * Processes the current element's attributes for known namespaces.
+     *
+     * @param reader A streaming reader positioned at the start of an element.
+     * @param consumer Consumer function to process attributes.
+     */
+    private void processAttributes(XMLStreamReader reader, BiConsumer<String, String> consumer) {
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String name = normalizeName(reader.getAttributePrefix(i), reader.getAttributeNamespace(i),
+                reader.getAttributeLocalName(i), attrNSMap);
+
+            if (name != null && !"xmlns".equals(name)) {
+                consumer.accept(name, reader.getAttributeValue(i));
+            }
+        }
+    }
+
     /**
      * Returns true if the node is a text or CDATA node.
      *
@@ -303,19 +515,34 @@ public class PageParser implements BeanPostProcessor {
      */
     private String normalizeNodeName(Node node, Map<String, String> nsMap) {
         String name = node.getNodeName();
-        String pfx;
         int i = name.indexOf(":");
         
         if (i > 0) {
-            pfx = name.substring(0, i);
-            name = name.substring(i + 1);
-            String uri = node.lookupNamespaceURI(pfx);
-            pfx = uri == null ? null : nsMap.get(uri);
+            String pfx = name.substring(0, i);
+            return normalizeName(pfx, node.lookupNamespaceURI(pfx), name.substring(i + 1), nsMap);
+        }
+
+        return normalizeName(null, node.getNamespaceURI(), name, nsMap);
+    }
+
+    /**
+     * Normalizes a name by mapping its namespace's URL to a standard prefix.
+     *
+     * @param prefix The name's prefix, if any.
+     * @param uri The URL of the name's namespace, if any.
+     * @param name The local name.
+     * @param nsMap Namespace URL to standard prefix mapping.
+     * @return The normalized name. If null, the name could not be normalized.
+     */
+    private String normalizeName(String prefix, String uri, String name, Map<String, String> nsMap) {
+        String pfx;
+
+        if (uri == null || uri.isEmpty()) {
+            pfx = prefix == null || prefix.isEmpty() ? "fsp" : null;
         } else {
-            String uri = node.getNamespaceURI();
-            pfx = uri == null ? "fsp" : nsMap.get(uri);
+            pfx = nsMap.get(uri);
         }
-        
+
         return pfx == null ? null : "fsp".equals(pfx) ? name : pfx + ":" + name;
     }
 
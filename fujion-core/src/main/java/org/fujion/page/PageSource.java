@@ -21,12 +21,15 @@
 package org.fujion.page;
 
 import jakarta.servlet.ServletContext;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
 import org.fujion.common.MiscUtil;
 import org.fujion.common.XMLUtil;
 import org.fujion.core.WebUtil;
 import org.springframework.core.io.Resource;
 import org.w3c.dom.Document;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -37,8 +40,14 @@ public class PageSource {
     
     private final String source;
 
+    private String location;
+
     private InputStream stream;
 
+    private byte[] content;
+
+    private String hash;
+
     private Document document;
     
     /**
@@ -48,6 +57,7 @@ public class PageSource {
      */
     public PageSource(String src) {
         this(WebUtil.getResource(src));
+        location = src;
     }
 
     /**
@@ -58,6 +68,7 @@ public class PageSource {
      */
     public PageSource(String src, ServletContext ctx) {
         this(WebUtil.getResource(src, ctx));
+        location = src;
     }
 
     /**
@@ -102,8 +113,7 @@ public class PageSource {
      */
     public Document getDocument() {
         if (document == null) {
-            try (InputStream is = stream) {
-                stream = null;
+            try (InputStream is = getContentStream()) {
                 document = XMLUtil.newDocumentBuilder(true).parse(is);
             } catch (Exception e) {
                 throw new ParserException(e, "Exception parsing resource \"%s\"", source);
@@ -113,6 +123,48 @@ public class PageSource {
         return document;
     }
 
+    /**
+     * Returns the raw content of the FSP.
+     *
+     * @return The raw content of the FSP.
+     */
+    private byte[] getContent() {
+        if (content == null) {
+            try (InputStream is = stream) {
+                stream = null;
+                content = IOUtils.toByteArray(is);
+            } catch (Exception e) {
+                throw new ParserException(e, "Exception reading resource \"%s\"", source);
+            }
+        }
+
+        return content;
+    }
+
+    /**
+     * Returns an input stream over the raw content of the FSP. Unlike the document, this may be
+     * consumed any number of times.
+     *
+     * @return An input stream over the raw content of the FSP.
+     */
+    public InputStream getContentStream() {
+        return new ByteArrayInputStream(getContent());
+    }
+
+    /**
+     * Returns a hash of the FSP's content. This is used to determine whether a precompiled page
+     * definition is current.
+     *
+     * @return A SHA-256 hash of the FSP's content, as a hexadecimal string.
+     */
+    public String getHash() {
+        if (hash == null) {
+            hash = DigestUtils.sha256Hex(getContent());
+        }
+
+        return hash;
+    }
+
     /**
      * Returns the source of the FSP.
      *
@@ -121,4 +173,13 @@ public class PageSource {
     public String getSource() {
         return source;
     }
+
+    /**
+     * Returns the location from which the FSP was resolved, if it was created from a URL.
+     *
+     * @return The URL from which the FSP was resolved, or null if not known.
+     */
+    public String getLocation() {
+        return location;
+    }
 }
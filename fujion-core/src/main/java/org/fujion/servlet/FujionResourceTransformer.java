@@ -28,7 +28,9 @@ import org.fujion.core.RequestUtil;
 import org.fujion.core.WebUtil;
 import org.fujion.logging.LogUtil;
 import org.fujion.webjar.WebJarLocator;
+import org.fujion.websocket.CompressionCodec;
 import org.fujion.websocket.WebSocketConfiguration;
+import org.fujion.websocket.WireFormat;
 import org.springframework.core.io.AbstractFileResolvingResource;
 import org.springframework.core.io.Resource;
 import org.springframework.web.servlet.resource.ResourceTransformerChain;
@@ -134,6 +136,11 @@ public class FujionResourceTransformer extends ResourceTransformerSupport {
         map.put("debug", WebUtil.isDebugEnabled());
         map.put("logging", LogUtil.getSettingsForClient());
         map.put("keepalive", WebSocketConfiguration.getKeepaliveInterval());
+        map.put("resume", WebSocketConfiguration.getResumeGracePeriod());
+        CompressionCodec codec = WebSocketConfiguration.getCompressionCodec();
+        map.put("compression", codec == null ? "" : codec.getName());
+        WireFormat wireFormat = WebSocketConfiguration.getWireFormat();
+        map.put("wireFormat", wireFormat == null ? "" : wireFormat.getName());
         StringSubstitutor sub = new StringSubstitutor(map);
 
         for (String line : bootstrapperTemplate) {
@@ -22,11 +22,13 @@ package org.fujion.spring;
 
 import org.fujion.common.Localizer;
 import org.fujion.common.Logger;
+import org.springframework.context.MessageSource;
 import org.springframework.context.support.ReloadableResourceBundleMessageSource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Locale;
 import java.util.Properties;
 
 /**
@@ -62,7 +64,56 @@ public class ClasspathMessageSource extends ReloadableResourceBundleMessageSourc
         super();
         setBasenames("WEB-INF/messages", "classpath*:/**/messages");
         setDefaultEncoding(StandardCharsets.UTF_8.name());
-        Localizer.registerMessageSource((id, locale, args) -> getMessage(id, args, locale));
+        Localizer.registerMessageSource(new PatternSource());
+    }
+    
+    /**
+     * Exposes this message source to the Localizer as a source of message patterns, allowing
+     * resolved patterns to be compiled and cached there.
+     */
+    private class PatternSource implements Localizer.IMessagePatternSource {
+        
+        @Override
+        public String getMessage(String id, Locale locale, Object... args) {
+            return ClasspathMessageSource.this.getMessage(id, args, locale);
+        }
+        
+        @Override
+        public String getPattern(String id, Locale locale) {
+            String pattern = resolveCodeWithoutArguments(id, locale);
+            
+            if (pattern == null && getCommonMessages() != null) {
+                pattern = getCommonMessages().getProperty(id);
+            }
+            
+            MessageSource parent = getParentMessageSource();
+            
+            if (pattern == null && parent != null) {
+                pattern = parent.getMessage(id, null, null, locale);
+            }
+            
+            return pattern == null && isUseCodeAsDefaultMessage() ? id : pattern;
+        }
+        
+        @Override
+        public boolean isAlwaysFormatted() {
+            return isAlwaysUseMessageFormat();
+        }
+        
+        @Override
+        public long getCacheDuration() {
+            return getCacheMillis();
+        }
+        
+    }
+    
+    /**
+     * Also discards any messages cached by the Localizer.
+     */
+    @Override
+    public void clearCache() {
+        super.clearCache();
+        Localizer.clearMessageCache();
     }
 
     /**
@@ -73,6 +124,8 @@ public class ClasspathMessageSource extends ReloadableResourceBundleMessageSourc
      */
     @Override
     protected PropertiesHolder refreshProperties(String filename, PropertiesHolder propHolder) {
+        Localizer.clearMessageCache();
+        
         if (filename.startsWith(PathMatchingResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX)) {
             return refreshClassPathProperties(filename, propHolder);
         } else {
@@ -0,0 +1,52 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.thread;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The execution backend shared by all thread pools. Thread pools do not own threads. Instead, they
+ * hand tasks to the backend's executor and use the backend's scheduler to trigger delayed and
+ * periodic tasks.
+ */
+public interface IExecutionBackend {
+
+    /**
+     * Returns the executor that runs tasks.
+     *
+     * @return The executor.
+     */
+    Executor getExecutor();
+
+    /**
+     * Returns the scheduler used to trigger delayed and periodic tasks. Scheduled actions must be
+     * short-lived, as they only hand tasks to a thread pool for execution.
+     *
+     * @return The scheduler.
+     */
+    ScheduledExecutorService getScheduler();
+
+    /**
+     * Shuts down the backend.
+     */
+    void shutdown();
+}
@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.thread;
+
+import org.fujion.common.Logger;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Default execution backend. All thread pools share a single executor and a single scheduler
+ * thread. When running on a JVM that supports virtual threads, the executor starts a new virtual
+ * thread per task. Otherwise, it is a cached pool of daemon platform threads.
+ */
+public class SharedExecutionBackend implements IExecutionBackend {
+
+    private static final Logger log = Logger.create(SharedExecutionBackend.class);
+
+    private final ExecutorService executor;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    /**
+     * Creates the shared backend.
+     *
+     * @param useVirtualThreads If true, use virtual threads if the JVM supports them.
+     */
+    public SharedExecutionBackend(boolean useVirtualThreads) {
+        ExecutorService virtualExecutor = useVirtualThreads ? createVirtualExecutor() : null;
+        executor = virtualExecutor != null ? virtualExecutor : Executors.newCachedThreadPool(createThreadFactory("fujion-worker-"));
+        scheduler = new ScheduledThreadPoolExecutor(1, createThreadFactory("fujion-scheduler-"));
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Creates a virtual-thread-per-task executor using reflection, as the framework is compiled
+     * against a JVM version that predates virtual threads.
+     *
+     * @return The executor, or null if virtual threads are not supported.
+     */
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Exception e) {
+            log.debug(() -> "Virtual threads are not supported; using platform threads.");
+            return null;
+        }
+    }
+
+    private static ThreadFactory createThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public ScheduledExecutorService getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void shutdown() {
+        scheduler.shutdownNow();
+        executor.shutdown();
+    }
+
+}
@@ -20,17 +20,409 @@
  */
 package org.fujion.thread;
 
-import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Scheduled thread pool executor.
+ * Scheduled executor service that runs its tasks on a shared {@link IExecutionBackend execution
+ * backend}. The thread pool owns no threads of its own. It keeps track of the tasks submitted to
+ * it, so that they may be cancelled collectively, and limits how many of them may run
+ * concurrently. Tasks in excess of this limit are queued until a running task completes.
  */
-public class ThreadPool extends ScheduledThreadPoolExecutor {
+public class ThreadPool extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final IExecutionBackend backend;
+
+    private final int maxConcurrency;
+
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    private final Set<TrackedTask<?>> tasks = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    private final AtomicLong taskCount = new AtomicLong();
+
+    private final AtomicLong completedTaskCount = new AtomicLong();
+
+    private final Object terminationLock = new Object();
+
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a thread pool.
+     *
+     * @param backend The execution backend.
+     * @param maxConcurrency The maximum number of tasks that may run concurrently. A value of &lt;=
+     *            0 means no limit.
+     */
+    ThreadPool(IExecutionBackend backend, int maxConcurrency) {
+        this.backend = backend;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Returns the maximum number of tasks that may run concurrently.
+     *
+     * @return The maximum number of concurrent tasks (&lt;= 0 means no limit).
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Returns the number of tasks that are currently running.
+     *
+     * @return The number of running tasks.
+     */
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Returns the number of tasks awaiting a free execution slot.
+     *
+     * @return The number of queued tasks.
+     */
+    public int getQueueSize() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the total number of tasks that have been submitted or scheduled.
+     *
+     * @return The total number of tasks.
+     */
+    public long getTaskCount() {
+        return taskCount.get();
+    }
+
+    /**
+     * Returns the number of tasks that have completed, either normally, exceptionally or by
+     * cancellation.
+     *
+     * @return The number of completed tasks.
+     */
+    public long getCompletedTaskCount() {
+        return completedTaskCount.get();
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return new TrackedTask<>(Executors.callable(runnable, value));
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new TrackedTask<>(callable);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        checkShutdown();
+        TrackedTask<?> task = command instanceof TrackedTask ? (TrackedTask<?>) command
+                : new TrackedTask<>(Executors.callable(command));
+        track(task);
+        enqueue(task);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        return schedule(Executors.callable(command), delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        return newScheduledTask(callable, delay, 0, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        checkPeriod(period);
+        return newScheduledTask(Executors.callable(command), initialDelay, period, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        checkPeriod(delay);
+        return newScheduledTask(Executors.callable(command), initialDelay, -delay, unit);
+    }
+
+    /**
+     * Stops accepting new tasks and cancels periodic tasks. Tasks that are queued or have been
+     * scheduled for one-time execution will still run.
+     */
+    @Override
+    public void shutdown() {
+        shutdown = true;
+
+        for (TrackedTask<?> task : new ArrayList<>(tasks)) {
+            if (task instanceof ScheduledTask && ((ScheduledTask<?>) task).isPeriodic()) {
+                task.cancel(false);
+            }
+        }
+
+        signalTermination();
+    }
+
+    /**
+     * Stops accepting new tasks, cancels all outstanding tasks and interrupts those that are
+     * running.
+     *
+     * @return The tasks that were queued but never started.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        List<Runnable> unstarted = new ArrayList<>();
+        Runnable task;
+
+        while ((task = pending.poll()) != null) {
+            unstarted.add(task);
+        }
+
+        for (TrackedTask<?> trackedTask : new ArrayList<>(tasks)) {
+            trackedTask.cancel(true);
+        }
+
+        signalTermination();
+        return unstarted;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && tasks.isEmpty() && activeCount.get() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        synchronized (terminationLock) {
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    return false;
+                }
+
+                terminationLock.wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining)));
+            }
+        }
+
+        return true;
+    }
+
+    private void checkShutdown() {
+        if (shutdown) {
+            throw new RejectedExecutionException("Thread pool has been shut down.");
+        }
+    }
+
+    private void checkPeriod(long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("Period must be > 0");
+        }
+    }
+
+    private void track(TrackedTask<?> task) {
+        taskCount.incrementAndGet();
+        tasks.add(task);
+    }
+
+    private <V> ScheduledTask<V> newScheduledTask(Callable<V> callable, long delay, long period, TimeUnit unit) {
+        Objects.requireNonNull(callable);
+        checkShutdown();
+        ScheduledTask<V> task = new ScheduledTask<>(callable, period, unit);
+        track(task);
+        task.schedule(delay);
+        return task;
+    }
+
+    /**
+     * Queues a task for execution and starts as many queued tasks as the concurrency limit
+     * permits.
+     *
+     * @param task The task to queue.
+     */
+    private void enqueue(Runnable task) {
+        pending.add(task);
+        drain();
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            int active = activeCount.get();
+
+            if (maxConcurrency > 0 && active >= maxConcurrency) {
+                return;
+            }
+
+            if (!activeCount.compareAndSet(active, active + 1)) {
+                continue;
+            }
+
+            Runnable task = pending.poll();
+
+            if (task == null) {
+                activeCount.decrementAndGet();
+                continue;
+            }
+
+            try {
+                backend.getExecutor().execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                activeCount.decrementAndGet();
+                ((TrackedTask<?>) task).cancel(false);
+                throw e;
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } finally {
+            activeCount.decrementAndGet();
+            drain();
+            signalTermination();
+        }
+    }
+
+    private void signalTermination() {
+        if (isTerminated()) {
+            synchronized (terminationLock) {
+                terminationLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * A task that removes itself from the set of tracked tasks upon completion.
+     *
+     * @param <V> The result type.
+     */
+    private class TrackedTask<V> extends FutureTask<V> {
+
+        TrackedTask(Callable<V> callable) {
+            super(callable);
+        }
+
+        @Override
+        protected void done() {
+            if (tasks.remove(this)) {
+                completedTaskCount.incrementAndGet();
+            }
+
+            signalTermination();
+        }
+
+    }
+
+    /**
+     * A delayed or periodic task. The shared scheduler only triggers the task, which is then
+     * queued for execution like any other. A periodic task is never queued more than once at a
+     * time, so a fixed-rate task that overruns its period skips the missed executions.
+     *
+     * @param <V> The result type.
+     */
+    private class ScheduledTask<V> extends TrackedTask<V> implements ScheduledFuture<V> {
+
+        /**
+         * Positive for fixed-rate, negative for fixed-delay and zero for one-time execution.
+         */
+        private final long period;
+
+        private final TimeUnit unit;
+
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        private volatile ScheduledFuture<?> trigger;
+
+        ScheduledTask(Callable<V> callable, long period, TimeUnit unit) {
+            super(callable);
+            this.period = period;
+            this.unit = unit;
+        }
+
+        boolean isPeriodic() {
+            return period != 0;
+        }
+
+        void schedule(long delay) {
+            ScheduledExecutorService scheduler = backend.getScheduler();
+            trigger = period > 0 ? scheduler.scheduleAtFixedRate(this::fire, delay, period, unit)
+                    : scheduler.schedule(this::fire, delay, unit);
+
+            if (isDone()) {
+                trigger.cancel(false);
+            }
+        }
+
+        private void fire() {
+            if (!isDone() && queued.compareAndSet(false, true)) {
+                enqueue(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (runAndReset()) {
+                queued.set(false);
+
+                if (period < 0 && !shutdown) {
+                    schedule(-period);
+                }
+            }
+        }
+
+        @Override
+        protected void done() {
+            ScheduledFuture<?> trigger = this.trigger;
+
+            if (trigger != null) {
+                trigger.cancel(false);
+            }
+
+            super.done();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            ScheduledFuture<?> trigger = this.trigger;
+            return trigger == null || queued.get() ? 0 : trigger.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return other == this ? 0 : Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
 
-    ThreadPool(int minPoolSize, int maxPoolSize, long keepAlive) {
-        super(minPoolSize);
-        setMaximumPoolSize(maxPoolSize);
-        setKeepAliveTime(keepAlive, TimeUnit.MINUTES);
     }
 }
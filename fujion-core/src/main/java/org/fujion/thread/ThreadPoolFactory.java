@@ -23,34 +23,31 @@ package org.fujion.thread;
 import org.springframework.beans.factory.annotation.Value;
 
 /**
- * Manages threads on a per-session basis.
+ * Manages thread pools for the application and for individual sessions. All thread pools share a
+ * single {@link IExecutionBackend execution backend}, so the number of threads does not grow with
+ * the number of sessions. Consequently, thread pools have no minimum size or keepalive, and the
+ * former sessionMinPoolSize, sessionKeepAlive, appMinPoolSize and appKeepAlive settings are no
+ * longer recognized.
  */
 public class ThreadPoolFactory {
 
     private static final ThreadPoolFactory instance = new ThreadPoolFactory();
 
-    @Value("${org.fujion.thread.sessionMinPoolSize:0}")
-    private int sessionMinPoolSize;
-
     @Value("${org.fujion.thread.sessionMaxPoolSize:5}")
     private int sessionMaxPoolSize;
 
-    @Value("${org.fujion.thread.sessionKeepAlive:3}")
-    private long sessionKeepalive;
-
-    @Value("${org.fujion.thread.appMinPoolSize:8}")
-    private int appMinPoolSize;
-
     @Value("${org.fujion.thread.appMaxPoolSize:20}")
     private int appMaxPoolSize;
 
-    @Value("${org.fujion.thread.appKeepAlive:60}")
-    private long appKeepalive;
+    @Value("${org.fujion.thread.useVirtualThreads:true}")
+    private boolean useVirtualThreads;
 
     public static ThreadPoolFactory getInstance() {
         return instance;
     }
 
+    private IExecutionBackend backend;
+
     private ThreadPool appThreadPool;
 
     private ThreadPoolFactory() {
@@ -60,7 +57,7 @@ public class ThreadPoolFactory {
      * Creates the application's thread pool.
      */
     private void init() {
-        appThreadPool = new ThreadPool(appMinPoolSize, appMaxPoolSize, appKeepalive);
+        appThreadPool = new ThreadPool(getBackend(), appMaxPoolSize);
     }
 
     /**
@@ -68,15 +65,39 @@ public class ThreadPoolFactory {
      */
     private void destroy() {
         appThreadPool.shutdown();
+        getBackend().shutdown();
+    }
+
+    /**
+     * Returns the execution backend, creating the default backend if none has been set.
+     *
+     * @return The execution backend.
+     */
+    public synchronized IExecutionBackend getBackend() {
+        if (backend == null) {
+            backend = new SharedExecutionBackend(useVirtualThreads);
+        }
+
+        return backend;
+    }
+
+    /**
+     * Sets the execution backend. This must be done before any thread pools are created.
+     *
+     * @param backend The execution backend.
+     */
+    public synchronized void setBackend(IExecutionBackend backend) {
+        this.backend = backend;
     }
 
     /**
-     * Creates a session thread pool.
+     * Creates a session thread pool. Session thread pools run on the shared execution backend, and
+     * each is limited in the number of its tasks that may run concurrently.
      *
      * @return A new thread pool.
      */
     public ThreadPool createSessionThreadPool() {
-        return new ThreadPool(sessionMinPoolSize, sessionMaxPoolSize, sessionKeepalive);
+        return new ThreadPool(getBackend(), sessionMaxPoolSize);
     }
 
     /**
@@ -0,0 +1,301 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.websocket;
+
+import org.fujion.common.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Accumulates the fragments of a binary client request. A binary request is either a CBOR-encoded
+ * request, which is retained in its entirety as the preamble, or consists of a JSON preamble
+ * terminated by a newline, followed by the binary content. The preamble is retained in
+ * memory. The content is retained in memory until it exceeds a small threshold, after which it is
+ * spooled to a temporary file, so that heap use per request is bounded regardless of content size.
+ */
+class BinaryMessageBuffer implements Closeable {
+
+    private static final Logger log = Logger.create(BinaryMessageBuffer.class);
+
+    private static final Cleaner cleaner = Cleaner.create();
+
+    /**
+     * Content larger than this (in bytes) is spooled to a temporary file.
+     */
+    private static final int MEMORY_THRESHOLD = 64 * 1024;
+
+    private final ByteArrayOutputStream preamble = new ByteArrayOutputStream(256);
+
+    private ByteArrayOutputStream memory = new ByteArrayOutputStream();
+
+    private boolean preambleComplete;
+
+    private Path file;
+
+    private FileChannel channel;
+
+    private long length;
+
+    private int fragments;
+
+    private boolean cbor;
+
+    /**
+     * Appends a message fragment.
+     *
+     * @param payload The fragment payload.
+     * @throws IOException Exception writing to the spool file.
+     */
+    void append(ByteBuffer payload) throws IOException {
+        if (fragments++ == 0) {
+            cbor = WireFormat.isCbor(payload);
+        }
+
+        length += payload.remaining();
+
+        if (cbor) {
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            preamble.write(bytes);
+            return;
+        }
+
+        while (!preambleComplete && payload.hasRemaining()) {
+            byte b = payload.get();
+
+            if (b == '\n') {
+                preambleComplete = true;
+            } else {
+                preamble.write(b);
+            }
+        }
+
+        if (payload.hasRemaining()) {
+            appendContent(payload);
+        }
+    }
+
+    /**
+     * Appends to the content, spooling to a temporary file once the memory threshold is exceeded.
+     *
+     * @param payload The content to append.
+     * @throws IOException Exception writing to the spool file.
+     */
+    private void appendContent(ByteBuffer payload) throws IOException {
+        if (channel == null && memory.size() + payload.remaining() <= MEMORY_THRESHOLD) {
+            byte[] bytes = new byte[payload.remaining()];
+            payload.get(bytes);
+            memory.write(bytes);
+            return;
+        }
+
+        if (channel == null) {
+            file = Files.createTempFile("fujion-upload-", ".tmp");
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            write(ByteBuffer.wrap(memory.toByteArray()));
+            memory = null;
+        }
+
+        write(payload);
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Returns the total number of bytes received.
+     *
+     * @return The total number of bytes received.
+     */
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * Returns the number of fragments received.
+     *
+     * @return The number of fragments received.
+     */
+    int getFragments() {
+        return fragments;
+    }
+
+    /**
+     * Returns true if the request is CBOR-encoded, in which case the preamble holds the entire
+     * request.
+     *
+     * @return True if the request is CBOR-encoded.
+     */
+    boolean isCbor() {
+        return cbor;
+    }
+
+    /**
+     * Returns the preamble.
+     *
+     * @return The preamble bytes.
+     */
+    byte[] getPreamble() {
+        return preamble.toByteArray();
+    }
+
+    /**
+     * Returns an input stream for reading the content. If the content was spooled to a file, the
+     * file is not opened until the first read.
+     *
+     * @return An input stream for reading the content.
+     * @throws IOException Exception closing the spool file.
+     */
+    InputStream getContent() throws IOException {
+        if (channel == null) {
+            return new ByteArrayInputStream(memory.toByteArray());
+        }
+
+        channel.close();
+        return new SpooledInputStream(file);
+    }
+
+    /**
+     * Releases resources. Any spool file is deleted. Where the platform permits, a stream already
+     * opened on the spool file remains readable until it is closed.
+     */
+    @Override
+    public void close() {
+        try {
+            if (channel != null) {
+                channel.close();
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn(() -> "Failed to delete upload spool file: " + file, e);
+        }
+    }
+
+    /**
+     * Input stream over a spool file that opens the file lazily and deletes it when closed. If the
+     * stream is never closed, the file is closed and deleted once the stream becomes unreachable.
+     */
+    private static class SpooledInputStream extends InputStream {
+
+        private final Spool spool;
+
+        private final Cleaner.Cleanable cleanable;
+
+        private boolean closed;
+
+        SpooledInputStream(Path file) {
+            spool = new Spool(file);
+            cleanable = cleaner.register(this, spool);
+        }
+
+        private InputStream delegate() throws IOException {
+            if (closed) {
+                throw new IOException("Stream is closed.");
+            }
+
+            if (spool.stream == null) {
+                spool.stream = new BufferedInputStream(Channels.newInputStream(FileChannel.open(spool.file, StandardOpenOption.READ)));
+            }
+
+            return spool.stream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return delegate().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return delegate().read(b, off, len);
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return delegate().skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return delegate().available();
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                cleanable.clean();
+            }
+        }
+
+    }
+
+    /**
+     * The resources of a spooled input stream: the spool file and any stream opened on it. This
+     * must not reference the spooled input stream, so that the latter can become unreachable.
+     */
+    private static class Spool implements Runnable {
+
+        private final Path file;
+
+        private volatile InputStream stream;
+
+        Spool(Path file) {
+            this.file = file;
+        }
+
+        /**
+         * Closes any stream opened on the spool file and deletes the file.
+         */
+        @Override
+        public void run() {
+            try {
+                if (stream != null) {
+                    stream.close();
+                }
+            } catch (IOException e) {
+                log.warn(() -> "Failed to close upload spool file: " + file, e);
+            }
+
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn(() -> "Failed to delete upload spool file: " + file, e);
+            }
+        }
+
+    }
+}
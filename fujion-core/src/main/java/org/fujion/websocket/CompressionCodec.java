@@ -0,0 +1,92 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.websocket;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Codecs available for compressing server-to-client messages. The codec names correspond to the
+ * formats supported by the browser's DecompressionStream.
+ */
+public enum CompressionCodec {
+    /**
+     * Zlib-wrapped deflate format.
+     */
+    DEFLATE,
+    /**
+     * Gzip format.
+     */
+    GZIP;
+
+    /**
+     * Returns the codec corresponding to the specified name.
+     *
+     * @param name The codec name (case-insensitive). May be null or empty.
+     * @return The corresponding codec, or null if the name was null or empty.
+     * @throws IllegalArgumentException If the name does not correspond to a known codec.
+     */
+    public static CompressionCodec fromName(String name) {
+        return name == null || name.isEmpty() ? null : valueOf(name.trim().toUpperCase());
+    }
+
+    /**
+     * Returns the name by which the client identifies this codec.
+     *
+     * @return The codec name.
+     */
+    public String getName() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * Compresses the UTF-8 encoding of a text payload.
+     *
+     * @param text The text to compress.
+     * @return The compressed payload.
+     * @throws IOException Exception during compression.
+     */
+    public byte[] compress(String text) throws IOException {
+        return compress(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compresses a binary payload.
+     *
+     * @param bytes The payload to compress.
+     * @return The compressed payload.
+     * @throws IOException Exception during compression.
+     */
+    public byte[] compress(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(bytes.length / 4, 64));
+
+        try (OutputStream os = this == GZIP ? new GZIPOutputStream(out) : new DeflaterOutputStream(out)) {
+            os.write(bytes);
+        }
+
+        return out.toByteArray();
+    }
+
+}
@@ -21,6 +21,7 @@
 package org.fujion.websocket;
 
 import org.fujion.ancillary.OptionMap;
+import org.fujion.client.ClientInvocation;
 import org.fujion.client.ClientOptions;
 import org.fujion.client.ClientRequest;
 import org.fujion.client.Synchronizer;
@@ -40,10 +41,27 @@ public class InitRequestHandler implements IRequestHandler {
     public void handleRequest(ClientRequest request) {
         Page page = request.getPage();
         PageDefinition pageDefinition = PageDefinitionCache.getInstance().get(page.getSrc());
-        Synchronizer synchronizer = request.getSession().getSynchronizer();
+        Session session = request.getSession();
+        Synchronizer synchronizer = session.getSynchronizer();
+        CompressionCodec codec = WebSocketConfiguration.getCompressionCodec();
+
+        if (codec != null && codec.getName().equals(request.getParam("compression", String.class))) {
+            session.setCompressionCodec(codec);
+        }
+
+        WireFormat wireFormat = WebSocketConfiguration.getWireFormat();
+
+        if (wireFormat != null && wireFormat.getName().equals(request.getParam("wireFormat", String.class))) {
+            session.setWireFormat(wireFormat);
+        }
+
         synchronizer.startQueueing();
         Page._init(page, request, synchronizer);
-        Sessions.getInstance().notifyLifecycleListeners(request.getSession(), true);
+        Sessions.getInstance().notifyLifecycleListeners(session, true);
+
+        if (session.isResumable()) {
+            synchronizer.sendToClient(new ClientInvocation("fujion.ws._setResumeToken", null, session.getResumeToken()));
+        }
 
         try {
             page.invoke("beforeInitialize", clientOptionMap);
@@ -34,12 +34,29 @@ import org.fujion.thread.ThreadPoolFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.web.socket.WebSocketSession;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Container for core resources for a single client session (i.e., web socket connection).
+ * <p>
+ * Each outgoing message is numbered in sequence; the client counts the messages it receives. If
+ * session resumption is enabled, a session whose web socket closes unexpectedly is detached rather
+ * than destroyed, and outgoing messages are retained in a buffer, bounded by both message count and
+ * size, until the client
+ * acknowledges receiving them. This also covers messages written to a web socket that failed
+ * before its closure was detected. A client that reconnects within the grace period presents the
+ * session's resume token and the number of messages it received. If the buffer still holds every
+ * message after that one, the session is attached to the new web socket and those messages are
+ * replayed in order. Otherwise, the session cannot be resumed.
  */
 public class Session implements IAttributeMap<String, Object> {
     
@@ -55,7 +72,21 @@ public class Session implements IAttributeMap<String, Object> {
 
     private final ApplicationContext applicationContext;
     
-    private final WebSocketSession socket;
+    private final String id;
+
+    private final String resumeToken = UUID.randomUUID().toString();
+
+    private volatile WebSocketSession socket;
+
+    private final Deque<RetainedMessage> retained = new ArrayDeque<>();
+
+    private long retainedSize;
+
+    private long sequence;
+
+    private long detachedAt;
+
+    private boolean expired;
     
     private final Synchronizer synchronizer;
 
@@ -68,6 +99,12 @@ public class Session implements IAttributeMap<String, Object> {
     private long lastActivity;
     
     private Page page;
+
+    private CompressionCodec compressionCodec;
+
+    private WireFormat wireFormat = WireFormat.JSON;
+
+    private final StringTable stringTable = new StringTable();
     
     /**
      * Create a session, with references to its servlet context and web socket.
@@ -80,8 +117,9 @@ public class Session implements IAttributeMap<String, Object> {
         this.applicationContext = applicationContext;
         this.servletContext = servletContext;
         this.socket = socket;
+        this.id = socket.getId();
         socket.getAttributes().put(ATTR_SESSION, this);
-        this.synchronizer = new Synchronizer(socket);
+        this.synchronizer = new Synchronizer(socket, this);
         this.threadPool = ThreadPoolFactory.getInstance().createSessionThreadPool();
         creationTime = System.currentTimeMillis();
         lastActivity = creationTime;
@@ -96,24 +134,209 @@ public class Session implements IAttributeMap<String, Object> {
                 synchronizer.startQueueing();
                 page.destroy();
                 socket.getAttributes().remove(ATTR_SESSION);
-                threadPool.shutdownNow();
             } finally {
                 page = null;
             }
         }
+
+        threadPool.shutdownNow();
         
         notifySessionListeners(EventType.DESTROY, null);
     }
     
     /**
-     * Returns the session's id, which is the same as the underlying web socket id.
+     * Returns the session's id, which is the same as the id of the web socket on which the session
+     * was established. The id does not change when the session is resumed on another web socket.
      *
      * @return The session's id.
      */
     public String getId() {
-        return socket.getId();
+        return id;
     }
-    
+
+    /**
+     * Returns the token a client must present to resume this session after its web socket closes.
+     *
+     * @return The resume token.
+     */
+    public String getResumeToken() {
+        return resumeToken;
+    }
+
+    /**
+     * Returns true if the session's web socket has closed and the session is awaiting resumption.
+     *
+     * @return True if the session is detached.
+     */
+    public synchronized boolean isDetached() {
+        return detachedAt != 0;
+    }
+
+    /**
+     * Returns the time at which the session was detached from its web socket.
+     *
+     * @return The time at which the session was detached, or 0 if it is not detached.
+     */
+    public synchronized long getDetachedAt() {
+        return detachedAt;
+    }
+
+    /**
+     * Returns true if the session may be resumed should its web socket close.
+     *
+     * @return True if the session may be resumed.
+     */
+    protected boolean isResumable() {
+        return page != null && WebSocketConfiguration.getResumeGracePeriod() > 0;
+    }
+
+    /**
+     * Detaches the session from its closed web socket. Outgoing messages will be buffered until
+     * the session is resumed or destroyed.
+     *
+     * @return The time at which the session was detached.
+     */
+    protected synchronized long detach() {
+        detachedAt = detachedAt == 0 ? System.currentTimeMillis() : detachedAt;
+        return detachedAt;
+    }
+
+    /**
+     * Marks a detached session as expired, after which it can no longer be resumed.
+     *
+     * @param detachedAt The time at which the session was detached.
+     * @return True if the session was expired. False if it has since been resumed or expired.
+     */
+    protected synchronized boolean expire(long detachedAt) {
+        if (expired || this.detachedAt != detachedAt) {
+            return false;
+        }
+
+        expired = true;
+        return true;
+    }
+
+    /**
+     * Assigns the next sequence number to an outgoing message and, if the session is resumable,
+     * retains the message until the client acknowledges receiving it. The oldest messages are
+     * discarded if the number retained or their total size would exceed the configured limits. The
+     * caller must hold the lock on this session until the message has been sent, so that messages
+     * are sent in sequence.
+     *
+     * @param payloads The payloads making up the message, in the order they are sent. Each is a
+     *            String (sent as a text message) or a byte array (sent as a binary message).
+     * @return True if the message should be sent now. False if the session's web socket is not
+     *         available, in which case the message is only retained.
+     */
+    protected synchronized boolean retain(List<Object> payloads) {
+        long seq = ++sequence;
+
+        if (!isResumable()) {
+            retained.clear();
+            retainedSize = 0;
+            return true;
+        }
+
+        RetainedMessage message = new RetainedMessage(seq, payloads);
+        retained.add(message);
+        retainedSize += message.size;
+        int maxCount = Math.max(0, WebSocketConfiguration.getResumeBufferSize());
+        long maxSize = WebSocketConfiguration.getResumeBufferBytes();
+
+        while (!retained.isEmpty() && (retained.size() > maxCount || (maxSize > 0 && retainedSize > maxSize))) {
+            retainedSize -= retained.poll().size;
+        }
+
+        return detachedAt == 0 && socket.isOpen();
+    }
+
+    /**
+     * Discards retained messages the client has acknowledged receiving.
+     *
+     * @param received The number of messages received by the client.
+     */
+    protected synchronized void acknowledge(long received) {
+        while (!retained.isEmpty() && retained.peek().seq <= received) {
+            retainedSize -= retained.poll().size;
+        }
+    }
+
+    /**
+     * Returns the number of messages sent (or retained for sending) to the client.
+     *
+     * @return The sequence number of the most recent message.
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the number of messages retained for replay.
+     *
+     * @return The number of retained messages.
+     */
+    public synchronized int getRetainedCount() {
+        return retained.size();
+    }
+
+    /**
+     * Returns the total size of the messages retained for replay. Text payloads are measured in
+     * characters and binary payloads in bytes.
+     *
+     * @return The size of the retained messages.
+     */
+    public synchronized long getRetainedSize() {
+        return retainedSize;
+    }
+
+    /**
+     * Attaches the session to a new web socket. Messages sent after the last one received by the
+     * client are passed to the replay function, in order, before any other message may be sent.
+     * The session may be attached even if its current web socket appears open, since messages
+     * written to it but not received by the client are replayed. If replaying fails, the session
+     * is detached again, so that the client may retry, and the exception is rethrown.
+     *
+     * @param newSocket The new web socket.
+     * @param token The resume token presented by the client.
+     * @param received The number of messages received by the client.
+     * @param replay Sends the payloads of a retained message over the new web socket.
+     * @return True if the session was resumed. False if the token was invalid, the session has
+     *         expired, or messages the client did not receive are no longer retained.
+     */
+    protected synchronized boolean attach(WebSocketSession newSocket, String token, long received,
+                                          Consumer<List<Object>> replay) {
+        if (page == null || expired || token == null || !MessageDigest.isEqual(
+            resumeToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+
+        if (received < 0 || received > sequence
+                || (received < sequence && (retained.isEmpty() || retained.peek().seq > received + 1))) {
+            log.warn(() -> "Client received " + received + " of " + sequence + " messages for session #" + id
+                    + "; the missing messages are no longer retained.");
+            return false;
+        }
+
+        WebSocketSession oldSocket = socket;
+        Map<String, Object> attributes = newSocket.getAttributes();
+        oldSocket.getAttributes().forEach(attributes::putIfAbsent);
+        attributes.put(ATTR_SESSION, this);
+        socket = newSocket;
+        detachedAt = 0;
+        acknowledge(received);
+
+        try {
+            for (RetainedMessage message : retained) {
+                replay.accept(message.payloads);
+            }
+        } catch (RuntimeException e) {
+            detach();
+            throw e;
+        }
+
+        return true;
+    }
+
     /**
      * Returns the session's time of creation.
      *
@@ -158,7 +381,8 @@ public class Session implements IAttributeMap<String, Object> {
     }
     
     /**
-     * Returns the web socket associated with the session.
+     * Returns the web socket currently associated with the session. This will change if the
+     * session is resumed on a new web socket.
      *
      * @return The web socket.
      */
@@ -184,6 +408,51 @@ public class Session implements IAttributeMap<String, Object> {
         return threadPool;
     }
 
+    /**
+     * Returns the codec negotiated with the client for compressing outgoing messages.
+     *
+     * @return The compression codec, or null if outgoing messages are not compressed.
+     */
+    public CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    /**
+     * Sets the codec for compressing outgoing messages.
+     *
+     * @param compressionCodec The compression codec, or null to disable compression.
+     */
+    protected void setCompressionCodec(CompressionCodec compressionCodec) {
+        this.compressionCodec = compressionCodec;
+    }
+
+    /**
+     * Returns the format negotiated with the client for encoding outgoing messages.
+     *
+     * @return The wire format (never null).
+     */
+    public WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    /**
+     * Sets the format for encoding outgoing messages.
+     *
+     * @param wireFormat The wire format, or null for JSON.
+     */
+    protected void setWireFormat(WireFormat wireFormat) {
+        this.wireFormat = wireFormat == null ? WireFormat.JSON : wireFormat;
+    }
+
+    /**
+     * Returns the table of strings shared with the client by messages in a binary wire format.
+     *
+     * @return The string table.
+     */
+    protected StringTable getStringTable() {
+        return stringTable;
+    }
+
     /**
      * Returns the page associated with the session.
      *
@@ -195,7 +464,8 @@ public class Session implements IAttributeMap<String, Object> {
     
     /**
      * Returns the attribute map associated with the session. This is a convenience method for
-     * accessing the attribute map of the underlying web socket session.
+     * accessing the attribute map of the underlying web socket session. When the session is
+     * resumed, attributes are carried over to the new web socket session.
      *
      * @return The attribute map.
      */
@@ -302,4 +572,29 @@ public class Session implements IAttributeMap<String, Object> {
             return true;
         }
     }
+
+    /**
+     * An outgoing message retained for replay.
+     */
+    private static class RetainedMessage {
+
+        private final long seq;
+
+        private final List<Object> payloads;
+
+        private final long size;
+
+        private RetainedMessage(long seq, List<Object> payloads) {
+            this.seq = seq;
+            this.payloads = payloads;
+            long size = 0;
+
+            for (Object payload : payloads) {
+                size += payload instanceof String text ? text.length() : ((byte[]) payload).length;
+            }
+
+            this.size = size;
+        }
+
+    }
 }
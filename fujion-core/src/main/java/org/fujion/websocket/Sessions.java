@@ -22,6 +22,8 @@ package org.fujion.websocket;
 
 import jakarta.servlet.ServletContext;
 import org.fujion.common.Logger;
+import org.fujion.component.Page;
+import org.fujion.thread.ThreadPoolFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.context.ApplicationContext;
@@ -30,8 +32,12 @@ import org.springframework.web.context.ServletContextAware;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.WebSocketSession;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Keeps track of active sessions.
@@ -47,8 +53,14 @@ public class Sessions implements BeanPostProcessor, ServletContextAware, Applica
     private ServletContext servletContext;
     
     private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private final Map<String, Session> sessionsByPage = new ConcurrentHashMap<>();
     
     private final Set<ISessionLifecycle> lifecycleListeners = new HashSet<>();
+
+    private final AtomicLong resumedCount = new AtomicLong();
+
+    private final AtomicLong expiredCount = new AtomicLong();
     
     public static Sessions getInstance() {
         return instance;
@@ -66,6 +78,40 @@ public class Sessions implements BeanPostProcessor, ServletContextAware, Applica
         return Collections.unmodifiableCollection(sessions.values());
     }
     
+    /**
+     * Returns the number of sessions that were successfully resumed after their web socket closed.
+     *
+     * @return The number of resumed sessions.
+     */
+    public long getResumedCount() {
+        return resumedCount.get();
+    }
+
+    /**
+     * Returns the number of sessions that were destroyed because they were not resumed within the
+     * grace period.
+     *
+     * @return The number of expired sessions.
+     */
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * Returns the number of sessions currently awaiting resumption.
+     *
+     * @return The number of detached sessions.
+     */
+    public int getDetachedCount() {
+        int count = 0;
+
+        for (Session session : sessions.values()) {
+            count += session.isDetached() ? 1 : 0;
+        }
+
+        return count;
+    }
+
     /**
      * Registers a lifecycle listener.
      *
@@ -120,6 +166,20 @@ public class Sessions implements BeanPostProcessor, ServletContextAware, Applica
         return sessions.get(id);
     }
     
+    /**
+     * Indexes a session by the id of the page it owns, so that the session can be found when the
+     * client resumes it. This is called once the session has been initialized with its page.
+     *
+     * @param session The session.
+     */
+    protected void registerPage(Session session) {
+        Page page = session.getPage();
+
+        if (page != null) {
+            sessionsByPage.put(page.getId(), session);
+        }
+    }
+
     /**
      * Creates and registers a new session.
      *
@@ -138,23 +198,150 @@ public class Sessions implements BeanPostProcessor, ServletContextAware, Applica
     }
     
     /**
-     * Destroys and unregisters the session associated with the specified web socket.
+     * Destroys and unregisters the session associated with the specified web socket. If session
+     * resumption is enabled and the web socket did not close normally, the session is instead
+     * detached and will be destroyed only if it is not resumed within the grace period.
      *
      * @param socket The web socket session.
      * @param status The close status.
      */
     protected void destroySession(WebSocketSession socket, CloseStatus status) {
-        Session session = sessions.remove(socket.getId());
-        
+        Session session = (Session) socket.getAttributes().get(Session.ATTR_SESSION);
+
+        if (session != null && session.getSocket() != socket) {
+            return; // The session has been resumed on another web socket.
+        }
+
+        if (session != null && session.isResumable() && !CloseStatus.NORMAL.equalsCode(status)
+                && !CloseStatus.GOING_AWAY.equalsCode(status)) {
+            detachSession(session, "detached, " + status);
+            return;
+        }
+
+        destroySession(sessions.remove(session == null ? socket.getId() : session.getId()), "closed, " + status);
+    }
+
+    /**
+     * Detaches a session from its web socket, if not already detached, and schedules its
+     * destruction should it not be resumed within the grace period.
+     *
+     * @param session The session.
+     * @param event The text describing the event.
+     */
+    private void detachSession(Session session, String event) {
+        long detachedAt = session.detach();
+        long gracePeriod = WebSocketConfiguration.getResumeGracePeriod();
+        ThreadPoolFactory.getInstance().getApplicationThreadPool()
+                .schedule(() -> expireSession(session, detachedAt), gracePeriod, TimeUnit.MILLISECONDS);
+
+        if (log.isDebugEnabled()) {
+            logSessionEvent(session, event);
+        }
+    }
+
+    /**
+     * Destroys a detached session if it has not been resumed since it was detached.
+     *
+     * @param session The detached session.
+     * @param detachedAt The time at which the session was detached.
+     */
+    private void expireSession(Session session, long detachedAt) {
+        if (session.expire(detachedAt) && sessions.remove(session.getId(), session)) {
+            expiredCount.incrementAndGet();
+            destroySession(session, "expired");
+        }
+    }
+
+    /**
+     * Destroys a session that has been unregistered.
+     *
+     * @param session The session (may be null).
+     * @param event The text describing the event.
+     */
+    private void destroySession(Session session, String event) {
         if (session != null) {
             if (log.isDebugEnabled()) {
-                logSessionEvent(session, "closed, " + status);
+                logSessionEvent(session, event);
+            }
+
+            Page page = session.getPage();
+
+            if (page != null) {
+                sessionsByPage.remove(page.getId(), session);
             }
-            
+
             notifyLifecycleListeners(session, false);
             session.destroy();
         }
     }
+
+    /**
+     * Resumes the session owning a page on a new web socket. The session that was created for the
+     * new web socket is discarded. Messages the client did not receive are replayed over the new
+     * web socket. The previous web socket is closed if it remains open. If replaying fails, the
+     * session is detached again so that the client may retry, and the new web socket is closed.
+     *
+     * @param socket The new web socket session.
+     * @param pageId The id of the page owned by the session to be resumed.
+     * @param token The resume token presented by the client.
+     * @param received The number of messages received by the client.
+     * @param replay Sends the payloads of a retained message over the new web socket.
+     * @return The resumed session, or null if no session could be resumed.
+     * @see Session#attach
+     */
+    protected Session resumeSession(WebSocketSession socket, String pageId, String token, long received,
+                                    Consumer<List<Object>> replay) {
+        Session current = (Session) socket.getAttributes().get(Session.ATTR_SESSION);
+        Session session = pageId == null ? null : sessionsByPage.get(pageId);
+
+        if (current == null || current.getPage() != null || session == null || session == current) {
+            return null;
+        }
+
+        WebSocketSession oldSocket = session.getSocket();
+
+        try {
+            if (!session.attach(socket, token, received, replay)) {
+                return null;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to replay messages to resumed session #" + session.getId() + ".", e);
+            socket.getAttributes().remove(Session.ATTR_SESSION);
+            sessions.remove(current.getId(), current);
+            current.destroy();
+            detachSession(session, "detached, replay failed");
+            closeSocket(socket, CloseStatus.SERVER_ERROR);
+            return null;
+        } finally {
+            if (oldSocket != session.getSocket() && oldSocket.isOpen()) {
+                closeSocket(oldSocket, CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        }
+
+        sessions.remove(current.getId(), current);
+        current.destroy();
+        resumedCount.incrementAndGet();
+
+        if (log.isDebugEnabled()) {
+            logSessionEvent(session, "resumed");
+        }
+
+        return session;
+    }
+
+    /**
+     * Closes a web socket, ignoring any exception.
+     *
+     * @param socket The web socket.
+     * @param status The close status.
+     */
+    private void closeSocket(WebSocketSession socket, CloseStatus status) {
+        try {
+            socket.close(status);
+        } catch (IOException e) {
+            // NOP
+        }
+    }
     
     /**
      * Logs a session event.
@@ -0,0 +1,90 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.websocket;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A per-session table of strings shared with the client, so that a repeated string (a function
+ * name, state name, component id, etc.) need be sent in full only once. The table is bounded:
+ * once full, or for strings exceeding the maximum length, strings are sent in full. The table is
+ * not thread-safe. Access must be synchronized on the owning session for the duration of encoding
+ * and sending a message, so that the client receives additions to the table in the order they were
+ * made. The session lock is used, rather than one on the table, because it also guards sending.
+ */
+class StringTable {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private static final int MAX_LENGTH = 64;
+
+    private final Map<String, Integer> entries = new HashMap<>();
+
+    private boolean reset = true;
+
+    /**
+     * Returns the index of a string in the table.
+     *
+     * @param value The string.
+     * @return The index of the string, or -1 if it is not in the table.
+     */
+    int indexOf(String value) {
+        Integer index = entries.get(value);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Adds a string to the table, if there is room and the string qualifies.
+     *
+     * @param value The string, which must not already be in the table.
+     * @return True if the string was added.
+     */
+    boolean add(String value) {
+        if (entries.size() >= MAX_ENTRIES || value.length() > MAX_LENGTH) {
+            return false;
+        }
+
+        entries.put(value, entries.size());
+        return true;
+    }
+
+    /**
+     * Empties the table. The client must be told to empty its copy before the next message that
+     * uses the table.
+     */
+    void reset() {
+        entries.clear();
+        reset = true;
+    }
+
+    /**
+     * Returns true if the table has been reset since the last call to this method.
+     *
+     * @return True if the table has been reset.
+     */
+    boolean checkReset() {
+        boolean result = reset;
+        reset = false;
+        return result;
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.websocket;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.JsonGeneratorDelegate;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+
+import java.io.IOException;
+
+/**
+ * CBOR generator that writes field names and string values through a session's string table. A
+ * string added to the table is written with the shareable tag (28); a string already in the table
+ * is written as a shared reference tag (29) enclosing its index. If the table has been reset, the
+ * message begins with a string reference namespace tag (256), which tells the client to empty its
+ * copy of the table.
+ */
+class StringTableGenerator extends JsonGeneratorDelegate {
+
+    private static final int TAG_SHAREABLE = 28;
+
+    private static final int TAG_SHARED_REF = 29;
+
+    private static final int TAG_NAMESPACE = 256;
+
+    private final CBORGenerator generator;
+
+    private final StringTable table;
+
+    /**
+     * Wraps a CBOR generator. The caller must hold the lock on the session owning the string table
+     * until the message has been sent.
+     *
+     * @param generator The CBOR generator.
+     * @param table The session's string table.
+     * @throws IOException Exception writing to the generator.
+     */
+    StringTableGenerator(CBORGenerator generator, StringTable table) throws IOException {
+        super(generator, false);
+        this.generator = generator;
+        this.table = table;
+
+        if (table.checkReset()) {
+            generator.writeTag(TAG_NAMESPACE);
+        }
+    }
+
+    @Override
+    public void writeFieldName(String name) throws IOException {
+        int index = table.indexOf(name);
+
+        if (index >= 0) {
+            generator.writeTag(TAG_SHARED_REF);
+            generator.writeFieldId(index);
+            return;
+        }
+
+        if (table.add(name)) {
+            generator.writeTag(TAG_SHAREABLE);
+        }
+
+        generator.writeFieldName(name);
+    }
+
+    @Override
+    public void writeFieldName(SerializableString name) throws IOException {
+        writeFieldName(name.getValue());
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        int index = text == null ? -1 : table.indexOf(text);
+
+        if (index >= 0) {
+            generator.writeTag(TAG_SHARED_REF);
+            generator.writeNumber(index);
+            return;
+        }
+
+        if (text != null && table.add(text)) {
+            generator.writeTag(TAG_SHAREABLE);
+        }
+
+        generator.writeString(text);
+    }
+
+    @Override
+    public void writeString(SerializableString text) throws IOException {
+        writeString(text.getValue());
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int len) throws IOException {
+        writeString(new String(text, offset, len));
+    }
+
+}
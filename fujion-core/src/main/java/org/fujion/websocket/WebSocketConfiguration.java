@@ -38,6 +38,24 @@ public class WebSocketConfiguration implements WebSocketConfigurer {
     
     private static long keepaliveInterval;
 
+    private static CompressionCodec compressionCodec;
+
+    private static int compressionThreshold;
+
+    private static WireFormat wireFormat;
+
+    private static int maxFrameSize;
+
+    private static int maxBatchSize;
+
+    private static long maxBatchDelay;
+
+    private static long resumeGracePeriod;
+
+    private static int resumeBufferSize;
+
+    private static long resumeBufferBytes;
+
     private final WebSocketHandler fujion_WebSocketHandler;
 
     /**
@@ -50,6 +68,101 @@ public class WebSocketConfiguration implements WebSocketConfigurer {
         return keepaliveInterval;
     }
 
+    /**
+     * Returns the codec used to compress server-to-client messages. The client must also support
+     * the codec for compression to take place.
+     *
+     * @return The compression codec, or null if compression is disabled.
+     */
+    public static CompressionCodec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    /**
+     * Returns the minimum size, in characters, of a server-to-client message before compression is
+     * applied.
+     *
+     * @return The compression threshold.
+     */
+    public static int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Returns the binary wire format offered to clients. The client must also support the format
+     * for it to be used; otherwise, JSON is used.
+     *
+     * @return The binary wire format, or null if only JSON is offered.
+     */
+    public static WireFormat getWireFormat() {
+        return wireFormat;
+    }
+
+    /**
+     * Returns the maximum size of a single outgoing web socket frame. Text payloads are measured in
+     * characters and binary payloads in bytes. Larger payloads are split across multiple frames. A
+     * value of &lt;= 0 disables this feature.
+     *
+     * @return The maximum frame size.
+     */
+    public static int getMaxFrameSize() {
+        return maxFrameSize;
+    }
+
+    /**
+     * Returns the number of client invocations that may accumulate in a request cycle's batch
+     * before the batch is sent early. A value of &lt;= 0 disables this feature.
+     *
+     * @return The maximum batch size.
+     */
+    public static int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Returns the time, in milliseconds, after which a request cycle's batch is sent early. The
+     * batch age is checked only as client invocations are added to it. A value of &lt;= 0 disables
+     * this feature.
+     *
+     * @return The maximum batch delay.
+     */
+    public static long getMaxBatchDelay() {
+        return maxBatchDelay;
+    }
+
+    /**
+     * Returns the time, in milliseconds, that a session whose web socket closes unexpectedly is
+     * held awaiting resumption by the client. A value of &lt;= 0 disables session resumption.
+     *
+     * @return The resume grace period.
+     */
+    public static long getResumeGracePeriod() {
+        return resumeGracePeriod;
+    }
+
+    /**
+     * Returns the maximum number of outgoing messages retained for replay until the client
+     * acknowledges receiving them. If a client resumes its session after missing more messages
+     * than are retained, the resumption is refused and the client must reload the page.
+     *
+     * @return The maximum resume buffer size.
+     */
+    public static int getResumeBufferSize() {
+        return resumeBufferSize;
+    }
+
+    /**
+     * Returns the maximum total size of the outgoing messages retained for replay. Text payloads
+     * are measured in characters and binary payloads in bytes. The oldest messages are discarded
+     * to stay within this limit, as they are to stay within the resume buffer size. A value of
+     * &lt;= 0 disables this limit.
+     *
+     * @return The maximum size of the resume buffer.
+     */
+    public static long getResumeBufferBytes() {
+        return resumeBufferBytes;
+    }
+
     @Autowired
     public WebSocketConfiguration(WebSocketHandler fujion_WebSocketHandler) {
         this.fujion_WebSocketHandler = fujion_WebSocketHandler;
@@ -76,4 +189,99 @@ public class WebSocketConfiguration implements WebSocketConfigurer {
     private void setKeepaliveInterval(long value) {
         keepaliveInterval = value;
     }
+
+    /**
+     * Sets the codec used to compress server-to-client messages.
+     *
+     * @param value The codec name (deflate or gzip). An empty value disables compression.
+     */
+    @Value("${org.fujion.websocket.compressionCodec}")
+    private void setCompressionCodec(String value) {
+        compressionCodec = CompressionCodec.fromName(value);
+    }
+
+    /**
+     * Sets the minimum size, in characters, of a server-to-client message before compression is
+     * applied.
+     *
+     * @param value The compression threshold.
+     */
+    @Value("${org.fujion.websocket.compressionThreshold}")
+    private void setCompressionThreshold(int value) {
+        compressionThreshold = value;
+    }
+
+    /**
+     * Sets the binary wire format offered to clients.
+     *
+     * @param value The format name (cbor). An empty value offers only JSON.
+     */
+    @Value("${org.fujion.websocket.wireFormat}")
+    private void setWireFormat(String value) {
+        WireFormat format = WireFormat.fromName(value);
+        wireFormat = format == WireFormat.JSON ? null : format;
+    }
+
+    /**
+     * Sets the maximum size of a single outgoing web socket frame.
+     *
+     * @param value The maximum frame size. A value of <= 0 disables this feature.
+     */
+    @Value("${org.fujion.websocket.maxFrameSize}")
+    private void setMaxFrameSize(int value) {
+        maxFrameSize = value;
+    }
+
+    /**
+     * Sets the number of client invocations that may accumulate in a request cycle's batch before
+     * the batch is sent early.
+     *
+     * @param value The maximum batch size. A value of <= 0 disables this feature.
+     */
+    @Value("${org.fujion.websocket.maxBatchSize}")
+    private void setMaxBatchSize(int value) {
+        maxBatchSize = value;
+    }
+
+    /**
+     * Sets the time, in milliseconds, after which a request cycle's batch is sent early.
+     *
+     * @param value The maximum batch delay. A value of <= 0 disables this feature.
+     */
+    @Value("${org.fujion.websocket.maxBatchDelay}")
+    private void setMaxBatchDelay(long value) {
+        maxBatchDelay = value;
+    }
+
+    /**
+     * Sets the time, in milliseconds, that a session whose web socket closes unexpectedly is held
+     * awaiting resumption by the client.
+     *
+     * @param value The resume grace period. A value of <= 0 disables session resumption.
+     */
+    @Value("${org.fujion.websocket.resumeGracePeriod}")
+    private void setResumeGracePeriod(long value) {
+        resumeGracePeriod = value;
+    }
+
+    /**
+     * Sets the maximum number of outgoing messages retained for replay until the client
+     * acknowledges receiving them.
+     *
+     * @param value The maximum resume buffer size.
+     */
+    @Value("${org.fujion.websocket.resumeBufferSize}")
+    private void setResumeBufferSize(int value) {
+        resumeBufferSize = value;
+    }
+
+    /**
+     * Sets the maximum total size of the outgoing messages retained for replay.
+     *
+     * @param value The maximum size of the resume buffer. A value of <= 0 disables this limit.
+     */
+    @Value("${org.fujion.websocket.resumeBufferBytes}")
+    private void setResumeBufferBytes(long value) {
+        resumeBufferBytes = value;
+    }
 }
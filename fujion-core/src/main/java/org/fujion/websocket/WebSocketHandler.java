@@ -20,14 +20,18 @@
  */
 package org.fujion.websocket;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.ObjectWriter;
-import org.apache.commons.lang3.ArrayUtils;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import org.apache.commons.io.output.StringBuilderWriter;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.fujion.client.BinaryData;
 import org.fujion.client.ClientInvocation;
 import org.fujion.client.ClientRequest;
 import org.fujion.client.ExecutionContext;
+import org.fujion.client.Synchronizer;
 import org.fujion.common.Assert;
 import org.fujion.common.Logger;
 import org.fujion.common.MiscUtil;
@@ -40,12 +44,16 @@ import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 
-import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.Arrays;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -57,13 +65,25 @@ public class WebSocketHandler extends AbstractWebSocketHandler implements BeanPo
 
     private static final String ATTR_BUFFER = "message_buffer";
 
+    private static final String ATTR_BINARY_BUFFER = "binary_message_buffer";
+
     private static final Map<String, IRequestHandler> handlers = new HashMap<>();
 
     private static final ObjectMapper mapper = new ObjectMapper();
 
     private static final ObjectReader reader = mapper.readerFor(Map.class);
 
-    private static final ObjectWriter writer = mapper.writerFor(Map.class);
+    private static final CBORFactory cborFactory = CBORFactory.builder()
+            .enable(CBORGenerator.Feature.WRITE_TYPE_HEADER).build();
+
+    private static final ObjectReader cborReader = new ObjectMapper(cborFactory).readerFor(Map.class);
+
+    /**
+     * Output buffers above this capacity are discarded after use rather than returned to the pool.
+     */
+    private static final int MAX_POOLED_CAPACITY = 1024 * 1024;
+
+    private static final ThreadLocal<StringBuilderWriter> buffers = ThreadLocal.withInitial(StringBuilderWriter::new);
 
     private static final Sessions sessions = Sessions.getInstance();
 
@@ -80,20 +100,129 @@ public class WebSocketHandler extends AbstractWebSocketHandler implements BeanPo
     }
 
     /**
-     * Sends a json payload to the client via the web socket session.
+     * Sends a message to the client via the session's current web socket. The message consists of
+     * a json or CBOR payload preceded by the binary messages it references. Binary messages are
+     * never compressed. If the session has negotiated a compression codec and the payload meets
+     * the compression threshold (in characters for json, in bytes for CBOR), the payload is sent
+     * in compressed form as a binary message.
+     * <p>
+     * The message is assigned the session's next sequence number and, if the session is
+     * resumable, retained for replay until the client acknowledges it. If the session is detached,
+     * the message is only retained. Likewise, a retained message that could not be sent is left to
+     * be replayed when the client resumes the session.
      *
-     * @param socket The web socket session. If null, the session is derived from the current
-     *            execution context.
-     * @param json The json payload.
+     * @param session The session.
+     * @param payload The json (String) or CBOR (byte array) payload.
+     * @param binaries Binary messages referenced by the payload (may be null).
+     * @throws IOException Exception compressing or sending the message.
+     * @see BinaryData
      */
-    private static void sendData(WebSocketSession socket, String json) {
-        try {
-            Session session = resolveSession(socket);
-            socket = socket == null ? session.getSocket() : socket;
-            socket.sendMessage(new TextMessage(json));
-            session.updateLastActivity();
-        } catch (Exception e) {
-            log.error(e);
+    private static void sendMessage(Session session, Object payload, List<byte[]> binaries) throws IOException {
+        List<Object> payloads = new ArrayList<>(binaries == null ? 1 : binaries.size() + 1);
+
+        if (binaries != null) {
+            payloads.addAll(binaries);
+        }
+
+        CompressionCodec codec = session.getCompressionCodec();
+        int threshold = WebSocketConfiguration.getCompressionThreshold();
+
+        if (payload instanceof String json) {
+            payloads.add(codec != null && json.length() >= threshold ? codec.compress(json) : json);
+        } else {
+            byte[] cbor = (byte[]) payload;
+            payloads.add(codec != null && cbor.length >= threshold ? codec.compress(cbor) : cbor);
+        }
+
+        synchronized (session) {
+            if (!session.retain(payloads)) {
+                return;
+            }
+
+            try {
+                sendPayloads(session.getSocket(), payloads);
+                session.updateLastActivity();
+            } catch (IOException e) {
+                if (!session.isResumable()) {
+                    throw e;
+                }
+
+                log.warn(() -> "Message to session #" + session.getId() + " retained for replay: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sends the payloads making up a message, in order.
+     *
+     * @param socket The web socket session.
+     * @param payloads Text (String) and binary (byte array) payloads.
+     * @throws IOException Exception sending a payload.
+     */
+    private static void sendPayloads(WebSocketSession socket, List<Object> payloads) throws IOException {
+        for (Object payload : payloads) {
+            if (payload instanceof String text) {
+                sendFrames(socket, text);
+            } else {
+                sendFrames(socket, (byte[]) payload);
+            }
+        }
+    }
+
+    /**
+     * Sends a text payload, splitting it into multiple frames if it exceeds the maximum frame size.
+     * Frames are never split within a surrogate pair.
+     *
+     * @param socket The web socket session.
+     * @param payload The text payload.
+     * @throws IOException Exception sending a frame.
+     */
+    private static void sendFrames(WebSocketSession socket, String payload) throws IOException {
+        int maxFrameSize = WebSocketConfiguration.getMaxFrameSize();
+        int length = payload.length();
+
+        synchronized (socket) {
+            if (maxFrameSize <= 0 || length <= maxFrameSize) {
+                socket.sendMessage(new TextMessage(payload));
+                return;
+            }
+
+            int start = 0;
+
+            while (start < length) {
+                int end = Math.min(start + maxFrameSize, length);
+
+                if (end < length && end - start > 1 && Character.isHighSurrogate(payload.charAt(end - 1))) {
+                    end--;
+                }
+
+                socket.sendMessage(new TextMessage(payload.substring(start, end), end == length));
+                start = end;
+            }
+        }
+    }
+
+    /**
+     * Sends a binary payload, splitting it into multiple frames if it exceeds the maximum frame
+     * size.
+     *
+     * @param socket The web socket session.
+     * @param payload The binary payload.
+     * @throws IOException Exception sending a frame.
+     */
+    private static void sendFrames(WebSocketSession socket, byte[] payload) throws IOException {
+        int maxFrameSize = WebSocketConfiguration.getMaxFrameSize();
+        int length = payload.length;
+        int frameSize = maxFrameSize <= 0 ? length : maxFrameSize;
+
+        synchronized (socket) {
+            int start = 0;
+
+            do {
+                int count = Math.min(frameSize, length - start);
+                socket.sendMessage(new BinaryMessage(payload, start, count, start + count == length));
+                start += count;
+            } while (start < length);
         }
     }
 
@@ -118,8 +247,7 @@ public class WebSocketHandler extends AbstractWebSocketHandler implements BeanPo
         try {
             Session session = resolveSession(socket);
             session.notifySessionListeners(invocation);
-            String json = writer.writeValueAsString(invocation.toMap(session.getPage()));
-            sendData(socket, json);
+            sendInvocations(session, Collections.singleton(invocation), false);
         } catch (Exception e) {
             log.error(e);
             throw MiscUtil.toUnchecked(e);
@@ -144,25 +272,165 @@ public class WebSocketHandler extends AbstractWebSocketHandler implements BeanPo
      * @param invocations The client invocation requests.
      */
     public static void send(WebSocketSession socket, Iterable<ClientInvocation> invocations) {
-        StringBuilder sb = null;
         Session session = resolveSession(socket);
+
+        try {
+            sendInvocations(session, invocations, true);
+        } catch (Exception e) {
+            log.error("Unexpected exception", e);
+        }
+    }
+
+    /**
+     * Serializes and sends one or more client invocation requests in the session's wire format.
+     *
+     * @param session The session.
+     * @param invocations The client invocation requests.
+     * @param batch If true, the invocations are sent as a batch.
+     * @throws IOException Exception serializing or sending the invocations.
+     */
+    private static void sendInvocations(Session session, Iterable<ClientInvocation> invocations,
+                                        boolean batch) throws IOException {
+        List<byte[]> binaries = new ArrayList<>();
+
+        if (session.getWireFormat() != WireFormat.CBOR) {
+            String json = serialize(session, invocations, batch, binaries);
+
+            if (json != null) {
+                sendMessage(session, json, binaries);
+            }
+
+            return;
+        }
+
+        StringTable table = session.getStringTable();
+
+        // The client must receive string table additions in the order they are made. The session
+        // lock also guards sending, so it is the only lock needed and is never taken out of order.
+        synchronized (session) {
+            try {
+                byte[] cbor = serializeCbor(session, invocations, batch, binaries);
+
+                if (cbor != null) {
+                    sendMessage(session, cbor, binaries);
+                }
+            } catch (IOException | RuntimeException e) {
+                table.reset();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Streams one or more client invocation requests directly to a JSON generator backed by a
+     * pooled, per-thread output buffer. This avoids creating an intermediate map and string for
+     * each invocation.
+     *
+     * @param session The session whose page is the target of the invocations.
+     * @param invocations The client invocation requests.
+     * @param batch If true, the invocations are serialized as a JSON array and session listeners
+     *            are notified as each is written. If false, only the first invocation is
+     *            serialized and listeners are not notified.
+     * @param binaries Receives binary messages referenced by the invocations (may be null).
+     * @return The serialized invocations, or null if there were none.
+     * @throws IOException Exception during serialization.
+     */
+    private static String serialize(Session session, Iterable<ClientInvocation> invocations, boolean batch,
+                                    List<byte[]> binaries) throws IOException {
+        // Remove the buffer from the pool while in use in case a session listener sends reentrantly.
+        StringBuilderWriter buffer = buffers.get();
+        buffers.remove();
+        StringBuilder sb = buffer.getBuilder();
+        boolean written;
+
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(buffer)) {
+            written = writeInvocations(session, invocations, batch, binaries, generator);
+        }
+
+        String json = written ? sb.toString() : null;
+
+        if (sb.capacity() <= MAX_POOLED_CAPACITY) {
+            sb.setLength(0);
+            buffers.set(buffer);
+        }
+
+        return json;
+    }
+
+    /**
+     * Serializes one or more client invocation requests in the CBOR format, sharing repeated
+     * strings through the session's string table. The caller must hold the session lock until the
+     * result has been sent.
+     *
+     * @param session The session whose page is the target of the invocations.
+     * @param invocations The client invocation requests.
+     * @param batch If true, the invocations are serialized as an array and session listeners are
+     *            notified as each is written. If false, only the first invocation is serialized and
+     *            listeners are not notified.
+     * @param binaries Receives binary messages referenced by the invocations.
+     * @return The serialized invocations, or null if there were none.
+     * @throws IOException Exception during serialization.
+     */
+    private static byte[] serializeCbor(Session session, Iterable<ClientInvocation> invocations, boolean batch,
+                                        List<byte[]> binaries) throws IOException {
+        if (!invocations.iterator().hasNext()) {
+            return null;
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+
+        try (JsonGenerator generator = new StringTableGenerator(cborFactory.createGenerator(out),
+                session.getStringTable())) {
+            writeInvocations(session, invocations, batch, binaries, generator);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes one or more client invocation requests to a generator, capturing any binary data they
+     * reference.
+     *
+     * @param session The session whose page is the target of the invocations.
+     * @param invocations The client invocation requests.
+     * @param batch If true, the invocations are written as an array and session listeners are
+     *            notified as each is written. If false, only the first invocation is written and
+     *            listeners are not notified.
+     * @param binaries Receives binary messages referenced by the invocations (may be null).
+     * @param generator The generator.
+     * @return True if any invocations were written.
+     * @throws IOException Exception during serialization.
+     */
+    private static boolean writeInvocations(Session session, Iterable<ClientInvocation> invocations, boolean batch,
+                                            List<byte[]> binaries, JsonGenerator generator) throws IOException {
         Page page = session.getPage();
-        
+        boolean written = false;
+        List<byte[]> previous = BinaryData.startCapture(binaries);
+
         try {
+            if (batch) {
+                generator.writeStartArray();
+            }
+
             for (ClientInvocation invocation : invocations) {
-                sb = sb == null ? new StringBuilder() : sb;
-                String json = writer.writeValueAsString(invocation.toMap(page));
-                sb.append(sb.isEmpty() ? "[" : ",").append(json);
+                invocation.writeTo(page, generator);
+                written = true;
+
+                if (!batch) {
+                    break;
+                }
+
                 session.notifySessionListeners(invocation);
             }
 
-            if (sb != null) {
-                sb.append("]");
-                sendData(socket, sb.toString());
+            if (batch) {
+                generator.writeEndArray();
             }
-        } catch (Exception e) {
-            log.error("Unexpected exception", e);
+        } finally {
+            BinaryData.endCapture(previous);
         }
+
+        return written;
     }
 
     /**
@@ -247,7 +515,8 @@ public class WebSocketHandler extends AbstractWebSocketHandler implements BeanPo
     }
 
     /**
-     * Processes a client request containing a BLOB payload sent via the web socket session.
+     * Processes a client request sent as a binary message via the web socket session. The message
+     * is either a CBOR-encoded client request or a JSON client request followed by a BLOB payload.
      * Extracts the client request from the message, creates a new execution context, and invokes
      * registered request handlers. If no registered request handler is capable of processing the
      * request, an exception will be sent to the client.
@@ -259,56 +528,59 @@ public class WebSocketHandler extends AbstractWebSocketHandler implements BeanPo
     protected void handleBinaryMessage(WebSocketSession socket, BinaryMessage message) {
         Session session = resolveSession(socket);
         Map<String, Object> attribs = socket.getAttributes();
+        BinaryMessageBuffer buffer = (BinaryMessageBuffer) attribs.remove(ATTR_BINARY_BUFFER);
+        buffer = buffer == null ? new BinaryMessageBuffer() : buffer;
+        boolean pending = false;
 
         try {
-            byte[] buffer = (byte[]) attribs.get(ATTR_BUFFER);
-            byte[] payload = new byte[message.getPayloadLength()];
-            message.getPayload().get(payload);
-            buffer = buffer == null ? payload : ArrayUtils.addAll(buffer, payload);
+            buffer.append(message.getPayload());
 
             if (!message.isLast()) {
-                attribs.put(ATTR_BUFFER, buffer);
+                attribs.put(ATTR_BINARY_BUFFER, buffer);
+                pending = true;
                 return;
             }
 
-            if (attribs.remove(ATTR_BUFFER) != null) {
-                int len = buffer.length;
+            if (buffer.getFragments() > 1) {
+                long len = buffer.getLength();
                 log.warn(() -> "Large payload received from client (" + len + " bytes).");
             }
 
-            ByteArrayInputStream is = new ByteArrayInputStream(buffer);
-            byte[] preamble = new byte[100];
-            int i = 0;
-
-            while (true) {
-                int b = is.read();
-
-                if (b == 10 || b == -1) {
-                    break;
-                }
-
-                if (i >= preamble.length) {
-                    preamble = Arrays.copyOf(preamble, i + 100);
-                }
-
-                preamble[i++] = (byte) b;
+            if (buffer.isCbor()) {
+                processRequest(session, cborReader.readValue(buffer.getPreamble()));
+                return;
             }
 
-            Map<String, Object> map = reader.readValue(preamble, 0, i);
+            Map<String, Object> map = reader.readValue(buffer.getPreamble());
             @SuppressWarnings("unchecked")
             Map<String, Object> data = (Map<String, Object>) map.get("data");
-            data.put("blob", is);
+            data.put("blob", buffer.getContent());
             processRequest(session, map);
 
         } catch (Exception e) {
-            attribs.remove(ATTR_BUFFER);
             log.error("Error processing client request.", e);
             sendError(socket, e);
+        } finally {
+            if (!pending) {
+                buffer.close();
+            }
         }
     }
 
     private void processRequest(Session session, Map<String, Object> map) {
-        session._init((String) map.get("pid"));
+        if ("resume".equals(map.get("type"))) {
+            resumeSession(session.getSocket(), map);
+            return;
+        }
+
+        if (map.get("ack") instanceof Number ack) {
+            session.acknowledge(ack.longValue());
+        }
+
+        if (session._init((String) map.get("pid"))) {
+            sessions.registerPage(session);
+        }
+
         session.updateLastActivity();
         ClientRequest request = new ClientRequest(session, map);
         IRequestHandler handler = handlers.get(request.getType());
@@ -316,17 +588,66 @@ public class WebSocketHandler extends AbstractWebSocketHandler implements BeanPo
         ExecutionContext.clear();
         ExecutionContext.put(ExecutionContext.ATTR_REQUEST, request);
         ExecutionContext.put(ExecutionContext.ATTR_PROCESSING, true);
+        Synchronizer synchronizer = session.getSynchronizer();
+        boolean batch = synchronizer.beginBatch();
         
         try {
-            handler.handleRequest(request);
-            session.notifySessionListeners(request);
-            request.getPage().getEventQueue().processAll();
+            try {
+                handler.handleRequest(request);
+                session.notifySessionListeners(request);
+                request.getPage().getEventQueue().processAll();
+            } finally {
+                if (batch) {
+                    synchronizer.endBatch();
+                }
+            }
         } catch (Exception e) {
             request.getPage().getEventQueue().clearAll();
             log.error("Unexpected exception", e);
             sendError(session.getSocket(), e);
         } finally {
             ExecutionContext.clear();
+            log.debug(() -> "Request \"" + request.getType() + "\" sent " + synchronizer.getSentCount()
+                    + " client invocation(s) and coalesced " + synchronizer.getCoalescedCount() + ".");
+        }
+    }
+
+    /**
+     * Processes a request to resume a session on a new web socket. The request includes the number
+     * of messages received by the client. The client is notified of the outcome after the messages
+     * it did not receive have been replayed. If the session could not be resumed, the new web
+     * socket is closed and the client must reload the page.
+     *
+     * @param socket The new web socket session.
+     * @param map The resume request.
+     */
+    private void resumeSession(WebSocketSession socket, Map<String, Object> map) {
+        Object data = map.get("data");
+        Map<?, ?> params = data instanceof Map ? (Map<?, ?>) data : Collections.emptyMap();
+        String token = (String) params.get("token");
+        long received = params.get("seq") instanceof Number seq ? seq.longValue() : -1;
+        Session session = sessions.resumeSession(socket, (String) map.get("pid"), token, received, payloads -> {
+            try {
+                sendPayloads(socket, payloads);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        if (!socket.isOpen()) {
+            return; // Replaying messages failed and the web socket was closed.
+        }
+
+        send(socket, new ClientInvocation("fujion.ws._onresume", null, session != null));
+
+        if (session == null) {
+            log.warn(() -> "Unable to resume session for page " + map.get("pid") + ".");
+
+            try {
+                socket.close(CloseStatus.POLICY_VIOLATION);
+            } catch (IOException e) {
+                // NOP
+            }
         }
     }
 
@@ -337,6 +658,13 @@ public class WebSocketHandler extends AbstractWebSocketHandler implements BeanPo
 
     @Override
     public void afterConnectionClosed(WebSocketSession socket, CloseStatus status) {
+        socket.getAttributes().remove(ATTR_BUFFER);
+        BinaryMessageBuffer buffer = (BinaryMessageBuffer) socket.getAttributes().remove(ATTR_BINARY_BUFFER);
+
+        if (buffer != null) {
+            buffer.close();
+        }
+
         sessions.destroySession(socket, status);
     }
 
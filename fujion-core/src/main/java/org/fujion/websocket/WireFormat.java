@@ -0,0 +1,96 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.websocket;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Formats available for encoding messages exchanged with the client. JSON is always supported and
+ * is used unless the client and server negotiate a binary format.
+ */
+public enum WireFormat {
+    /**
+     * JSON text messages.
+     */
+    JSON,
+    /**
+     * CBOR (RFC 8949) binary messages. Each message begins with the self-described CBOR tag
+     * (55799). Server-to-client messages share repeated strings through a per-session string table
+     * using the value sharing tags: 28 marks a string being added to the table, 29 references a
+     * table entry by its index, and 256 indicates that the table has been reset.
+     * <p>
+     * These tags are used with non-standard semantics. In the registered definitions, the value
+     * sharing tags (28 and 29) are scoped to a single data item and 256 opens a string reference
+     * namespace for its enclosed item only. Here, the table persists across messages for the life
+     * of the session (or until the next 256 tag), so tag 29 may reference a string added by an
+     * earlier message, and tag 256 empties the table rather than opening a nested namespace. A
+     * shared reference may also take the place of a map key, making the key an integer. A standard
+     * CBOR decoder will therefore misread these messages. They can only be decoded by the Fujion
+     * client, which must receive every message of the session in order.
+     */
+    CBOR;
+
+    private static final byte[] CBOR_SIGNATURE = { (byte) 0xD9, (byte) 0xD9, (byte) 0xF7 };
+
+    /**
+     * Returns the wire format corresponding to the specified name.
+     *
+     * @param name The format name (case-insensitive). May be null or empty.
+     * @return The corresponding wire format, or null if the name was null or empty.
+     * @throws IllegalArgumentException If the name does not correspond to a known format.
+     */
+    public static WireFormat fromName(String name) {
+        return name == null || name.isEmpty() ? null : valueOf(name.trim().toUpperCase());
+    }
+
+    /**
+     * Returns true if a binary payload begins with the self-described CBOR tag. The position of
+     * the payload is not changed.
+     *
+     * @param payload The binary payload.
+     * @return True if the payload is a CBOR message.
+     */
+    public static boolean isCbor(ByteBuffer payload) {
+        int position = payload.position();
+
+        if (payload.remaining() < CBOR_SIGNATURE.length) {
+            return false;
+        }
+
+        for (int i = 0; i < CBOR_SIGNATURE.length; i++) {
+            if (payload.get(position + i) != CBOR_SIGNATURE[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the name by which the client identifies this format.
+     *
+     * @return The format name.
+     */
+    public String getName() {
+        return name().toLowerCase();
+    }
+
+}
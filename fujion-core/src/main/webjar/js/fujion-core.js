@@ -19,7 +19,7 @@ define('fujion-core', ['jquery', 'jquery-ui', 'lodash'], () => {
         init: function (options) {
             window.onerror = fujion.fatal;
             window.onbeforeunload = event => fujion._canClose ? undefined : event.returnValue = true;
-            window.onunload = () => fujion.ws.setKeepalive(0);
+            window.onunload = () => fujion.ws.close();
             window.fujion = fujion;
 
             this.debug = options.debug;
@@ -34,6 +34,7 @@ define('fujion-core', ['jquery', 'jquery-ui', 'lodash'], () => {
             this.jquery._init();
             this.event._init();
             this.widget._init();
+            this.cbor._init();
             this.ws._init(options);
         },
 
@@ -41,6 +42,7 @@ define('fujion-core', ['jquery', 'jquery-ui', 'lodash'], () => {
 
         action: {
             transforms: {
+                'bin': value => fujion.ws._takeBinary(value),
                 'id': value => fujion.widget.find(value),
                 'js': value => {
                     let fnc;
@@ -316,50 +318,552 @@ define('fujion-core', ['jquery', 'jquery-ui', 'lodash'], () => {
             }
         },
 
+        /*------------------------------ CBOR Support ------------------------------*/
+
+        /**
+         * Encoder and decoder for the CBOR wire format (see org.fujion.websocket.WireFormat).
+         * Decoding maintains the string table shared by the server using value sharing tags.
+         */
+        cbor: {
+            _init: function () {
+                this._encoder = new TextEncoder();
+                this._decoder = new TextDecoder();
+                this._strings = [];
+            },
+
+            /**
+             * Returns true if the binary message begins with the self-described CBOR tag.
+             */
+            isCbor: function (buffer) {
+                if (!(buffer instanceof ArrayBuffer) || buffer.byteLength < 3) {
+                    return false;
+                }
+
+                const bytes = new Uint8Array(buffer, 0, 3);
+                return bytes[0] === 0xD9 && bytes[1] === 0xD9 && bytes[2] === 0xF7;
+            },
+
+            /**
+             * Encodes a value as a self-described CBOR message, following the conventions of
+             * JSON.stringify for toJSON, the replacer, and values that have no JSON equivalent.
+             */
+            encode: function (value, replacer) {
+                const encoder = this._encoder;
+                let bytes = new Uint8Array(256);
+                let length = 0;
+                _header(6, 55799);
+                _write({'': value}, '', value);
+                return bytes.slice(0, length);
+
+                function _ensure(count) {
+                    if (length + count > bytes.length) {
+                        const larger = new Uint8Array(Math.max(bytes.length * 2, length + count));
+                        larger.set(bytes);
+                        bytes = larger;
+                    }
+                }
+
+                function _byte(value) {
+                    _ensure(1);
+                    bytes[length++] = value;
+                }
+
+                function _header(major, count) {
+                    major <<= 5;
+
+                    if (count < 24) {
+                        _byte(major | count);
+                    } else if (count < 0x100) {
+                        _byte(major | 24);
+                        _byte(count);
+                    } else if (count < 0x10000) {
+                        _byte(major | 25);
+                        _byte(count >> 8);
+                        _byte(count & 0xFF);
+                    } else if (count < 0x100000000) {
+                        _byte(major | 26);
+                        _ensure(4);
+                        new DataView(bytes.buffer).setUint32(length, count);
+                        length += 4;
+                    } else {
+                        _byte(major | 27);
+                        _ensure(8);
+                        new DataView(bytes.buffer).setBigUint64(length, BigInt(count));
+                        length += 8;
+                    }
+                }
+
+                function _resolve(holder, key, value) {
+                    value = value && _.isFunction(value.toJSON) ? value.toJSON(key) : value;
+                    return replacer ? replacer.call(holder, key, value) : value;
+                }
+
+                function _write(holder, key, value) {
+                    _value(_resolve(holder, key, value));
+                }
+
+                function _value(value) {
+                    if (value === null || value === undefined || _.isFunction(value) || _.isSymbol(value)) {
+                        _byte(0xF6);
+                    } else if (value === true || value === false) {
+                        _byte(value ? 0xF5 : 0xF4);
+                    } else if (_.isNumber(value) || value instanceof Number) {
+                        _number(+value);
+                    } else if (_.isString(value) || value instanceof String) {
+                        const utf8 = encoder.encode(value);
+                        _header(3, utf8.length);
+                        _ensure(utf8.length);
+                        bytes.set(utf8, length);
+                        length += utf8.length;
+                    } else if (_.isArray(value)) {
+                        _header(4, value.length);
+                        value.forEach((item, index) => _write(value, String(index), item));
+                    } else {
+                        const entries = [];
+
+                        _.forOwn(value, (item, name) => {
+                            item = _resolve(value, name, item);
+
+                            if (item !== undefined && !_.isFunction(item) && !_.isSymbol(item)) {
+                                entries.push([name, item]);
+                            }
+                        });
+
+                        _header(5, entries.length);
+
+                        entries.forEach(entry => {
+                            _value(entry[0]);
+                            _value(entry[1]);
+                        });
+                    }
+                }
+
+                function _number(value) {
+                    if (!_.isFinite(value)) {
+                        _byte(0xF6);
+                    } else if (Number.isSafeInteger(value)) {
+                        value < 0 ? _header(1, -1 - value) : _header(0, value);
+                    } else {
+                        _byte(0xFB);
+                        _ensure(8);
+                        new DataView(bytes.buffer).setFloat64(length, value);
+                        length += 8;
+                    }
+                }
+            },
+
+            /**
+             * Decodes a CBOR message. Strings marked as shareable (tag 28) are added to the string
+             * table, shared references (tag 29) are resolved from it, and a string reference
+             * namespace (tag 256) empties it.
+             */
+            decode: function (buffer) {
+                const decoder = this._decoder;
+                const strings = this._strings;
+                const view = new DataView(buffer);
+                const BREAK = {};
+                let offset = 0;
+                return _read();
+
+                function _count(info) {
+                    let value;
+
+                    switch (info) {
+                        case 24:
+                            value = view.getUint8(offset);
+                            offset += 1;
+                            return value;
+
+                        case 25:
+                            value = view.getUint16(offset);
+                            offset += 2;
+                            return value;
+
+                        case 26:
+                            value = view.getUint32(offset);
+                            offset += 4;
+                            return value;
+
+                        case 27:
+                            value = Number(view.getBigUint64(offset));
+                            offset += 8;
+                            return value;
+
+                        case 31:
+                            return -1;
+
+                        default:
+                            if (info > 27) {
+                                throw new Error('Invalid CBOR data at offset ' + (offset - 1));
+                            }
+
+                            return info;
+                    }
+                }
+
+                function _bytes(count) {
+                    const bytes = new Uint8Array(buffer, offset, count);
+                    offset += count;
+                    return bytes;
+                }
+
+                function _chunks(finish) {
+                    const chunks = [];
+                    let chunk;
+
+                    while ((chunk = _read()) !== BREAK) {
+                        chunks.push(chunk);
+                    }
+
+                    return finish(chunks);
+                }
+
+                function _read() {
+                    const initial = view.getUint8(offset++);
+                    const major = initial >> 5;
+                    const info = initial & 0x1F;
+
+                    if (major === 7) {
+                        return _simple(info);
+                    }
+
+                    const count = _count(info);
+                    let result;
+
+                    switch (major) {
+                        case 0:
+                            return count;
+
+                        case 1:
+                            return -1 - count;
+
+                        case 2:
+                            return count < 0 ? _chunks(_concat) : _bytes(count).slice();
+
+                        case 3:
+                            return count < 0 ? _chunks(chunks => chunks.join(''))
+                                : decoder.decode(_bytes(count));
+
+                        case 4:
+                            result = [];
+
+                            for (let i = 0; count < 0 || i < count; i++) {
+                                const item = _read();
+
+                                if (item === BREAK) {
+                                    break;
+                                }
+
+                                result.push(item);
+                            }
+
+                            return result;
+
+                        case 5:
+                            result = {};
+
+                            for (let i = 0; count < 0 || i < count; i++) {
+                                const key = _read();
+
+                                if (key === BREAK) {
+                                    break;
+                                }
+
+                                result[key] = _read();
+                            }
+
+                            return result;
+
+                        case 6:
+                            return _tag(count);
+                    }
+                }
+
+                function _tag(tag) {
+                    let value;
+
+                    switch (tag) {
+                        case 28:
+                            value = _read();
+                            strings.push(value);
+                            return value;
+
+                        case 29:
+                            return strings[_read()];
+
+                        case 256:
+                            strings.length = 0;
+                            return _read();
+
+                        default:
+                            return _read();
+                    }
+                }
+
+                function _simple(info) {
+                    let value;
+
+                    switch (info) {
+                        case 20:
+                            return false;
+
+                        case 21:
+                            return true;
+
+                        case 22:
+                        case 23:
+                            return null;
+
+                        case 24:
+                            offset += 1;
+                            return undefined;
+
+                        case 25:
+                            value = _half(view.getUint16(offset));
+                            offset += 2;
+                            return value;
+
+                        case 26:
+                            value = view.getFloat32(offset);
+                            offset += 4;
+                            return value;
+
+                        case 27:
+                            value = view.getFloat64(offset);
+                            offset += 8;
+                            return value;
+
+                        case 31:
+                            return BREAK;
+
+                        default:
+                            return undefined;
+                    }
+                }
+
+                function _half(bits) {
+                    const exponent = (bits >> 10) & 0x1F;
+                    const fraction = bits & 0x3FF;
+                    const sign = bits & 0x8000 ? -1 : 1;
+
+                    if (exponent === 0) {
+                        return sign * fraction * Math.pow(2, -24);
+                    }
+
+                    if (exponent === 0x1F) {
+                        return fraction ? NaN : sign * Infinity;
+                    }
+
+                    return sign * (fraction + 0x400) * Math.pow(2, exponent - 25);
+                }
+
+                function _concat(chunks) {
+                    const result = new Uint8Array(chunks.reduce((total, chunk) => total + chunk.length, 0));
+                    let position = 0;
+
+                    chunks.forEach(chunk => {
+                        result.set(chunk, position);
+                        position += chunk.length;
+                    });
+
+                    return result;
+                }
+            }
+        },
+
         /*------------------------------ WebSocket Support ------------------------------*/
 
         ws: {
+            // Typed array types, in the order of org.fujion.client.BinaryData.ElementType.
+            _binaryTypes: [Int8Array, Uint8Array, Int16Array, Uint16Array, Int32Array, Uint32Array, Float32Array,
+                Float64Array],
+
             _init: function (options) {
-                this.socket = new WebSocket(options.wsurl);
-                this.socket.onerror = _onerror.bind(this);
-                this.socket.onmessage = _onmessage.bind(this);
-                this.socket.onopen = _onopen.bind(this);
-                this.socket.binaryType = 'blob';
+                this.options = options;
                 this.lastSend = 0;
                 this.lastReceive = 0;
+                this.compression = options.compression && window.DecompressionStream ? options.compression : undefined;
+                this.wireFormat = options.wireFormat === 'cbor' ? 'cbor' : undefined;
+                this.resume = options.resume > 0 ? options.resume : 0;
+                this._received = Promise.resolve();
+                this._seq = 0;
+                this._pending = [];
+                this._binaries = {};
                 this.setKeepalive(options.keepalive);
+                this._connect();
+            },
 
-                function _onopen() {
-                    const data = {
-                        requestURL: window.location.href,
-                        baseURL: options.baseurl,
-                        viewportHeight: $(window).height(),
-                        viewportWidth: $(window).width(),
-                        timezoneOffset: new Date().getTimezoneOffset()
-                    };
+            /**
+             * Opens a web socket connection. When resuming, a resume request is sent in place of
+             * the initialization request, reporting the number of messages received so that the
+             * server can replay those that were lost.
+             */
+            _connect: function () {
+                const socket = this.socket = new WebSocket(this.options.wsurl);
+                socket.onerror = this._onerror.bind(this);
+                socket.onmessage = this._onmessage.bind(this);
+                socket.onopen = this._onopen.bind(this);
+                socket.onclose = event => socket === this.socket ? this._onclose(event) : null;
+                socket.binaryType = 'arraybuffer';
+            },
 
-                    fujion.flatten(screen, data, 'screen', 1);
-                    fujion.flatten(navigator, data, 'browser', 1);
-                    this.sendData('init', data);
+            _onopen: function () {
+                if (this._reconnect) {
+                    this._send('resume', {token: this._resumeToken, seq: this._seq});
+                    return;
                 }
 
-                function _onmessage(message) {
-                    this.lastReceive = Date.now();
-                    const action = JSON.parse(message.data);
+                const options = this.options;
+                const data = {
+                    requestURL: window.location.href,
+                    baseURL: options.baseurl,
+                    viewportHeight: $(window).height(),
+                    viewportWidth: $(window).width(),
+                    timezoneOffset: new Date().getTimezoneOffset(),
+                    compression: this.compression,
+                    wireFormat: this.wireFormat
+                };
+
+                fujion.flatten(screen, data, 'screen', 1);
+                fujion.flatten(navigator, data, 'browser', 1);
+                this.sendData('init', data);
+            },
+
+            _onmessage: function (message) {
+                this.lastReceive = Date.now();
+                const data = message.data;
+
+                // Binary data always precedes the message that references it, so may be stored immediately.
+                if (this._storeBinary(data)) {
+                    return;
+                }
+
+                this._seq++;
+
+                if (!this.compression) {
+                    _process(data);
+                    return;
+                }
+
+                // Decompression is asynchronous, so serialize processing to preserve message order.
+                this._received = this._received
+                    .then(() => _.isString(data) || fujion.cbor.isCbor(data) ? data : _decompress(data, this.compression))
+                    .then(_process)
+                    .catch(fujion.fatal);
+
+                function _decompress(buffer, codec) {
+                    return new Response(new Response(buffer).body.pipeThrough(new DecompressionStream(codec)))
+                        .arrayBuffer();
+                }
+
+                function _process(data) {
+                    const action = _.isString(data) ? JSON.parse(data)
+                        : fujion.cbor.isCbor(data) ? fujion.cbor.decode(data)
+                        : JSON.parse(fujion.cbor._decoder.decode(data));
                     fujion.log.debug('Received: ', action);
                     fujion.action.queueAction(action);
                 }
+            },
 
-                function _onerror(event) {
-                    fujion.log.error(event);
+            /**
+             * If the message is binary data (see org.fujion.client.BinaryData), wraps its contents
+             * as a typed array and holds it until it is referenced by a subsequent message.
+             */
+            _storeBinary: function (data) {
+                if (!(data instanceof ArrayBuffer) || data.byteLength < 16) {
+                    return false;
                 }
 
-                function _onkeepalive() {
-                    const elapsed = Date.now() - this.lastSend;
+                const view = new DataView(data);
 
-                    if (elapsed >= this.keepalive) {
-                        this.ping('keepalive');
-                    }
+                if (view.getUint32(0) !== 0x464A4244) { // "FJBD"
+                    return false;
+                }
+
+                const type = this._binaryTypes[view.getUint8(8)];
+                this._binaries[view.getInt32(4, true)] = new type(data, 16, view.getInt32(12, true));
+                return true;
+            },
+
+            _takeBinary: function (id) {
+                const data = this._binaries[id];
+                delete this._binaries[id];
+                return data;
+            },
+
+            _onerror: function (event) {
+                fujion.log.error(event);
+            },
+
+            /**
+             * If the session is resumable, an unexpected closure starts reconnection attempts that
+             * continue, with increasing delays, until the server's grace period has elapsed.
+             */
+            _onclose: function (event) {
+                if (!this.resume || !this._resumeToken || this._closing || event.code === 1000) {
+                    return;
+                }
+
+                const reconnect = this._reconnect = this._reconnect || {start: Date.now(), delay: 250};
+                const remaining = reconnect.start + this.resume - Date.now();
+
+                if (remaining <= 0) {
+                    delete this._reconnect;
+                    this._interrupted();
+                    return;
+                }
+
+                fujion.log.warn('Connection lost, attempting to reconnect.');
+                setTimeout(() => this._connect(), Math.min(reconnect.delay, remaining));
+                reconnect.delay = Math.min(reconnect.delay * 2, 5000);
+            },
+
+            /**
+             * Called by the server with the outcome of a resume request. On success, requests
+             * made while disconnected are sent. Otherwise, messages may have been lost, so the
+             * page is reloaded.
+             */
+            _onresume: function (success) {
+                delete this._reconnect;
+
+                if (!success) {
+                    this._closing = true;
+                    fujion.log.warn('Unable to resume connection, reloading page.');
+                    window.location.reload();
+                    return;
+                }
+
+                fujion.log.info('Connection resumed.');
+                const pending = this._pending;
+                this._pending = [];
+                pending.forEach(args => this.sendData.apply(this, args));
+            },
+
+            /**
+             * Called by the server to provide the token required to resume the session.
+             */
+            _setResumeToken: function (token) {
+                this._resumeToken = token;
+            },
+
+            _interrupted: function () {
+                this.setKeepalive(0);
+                fujion.debug ? null : $('html').empty();
+
+                return setTimeout(() => {
+                    throw new Error('Communication with the server has been interrupted.');
+                }, 1);
+            },
+
+            _onkeepalive: function () {
+                if (this._reconnect) {
+                    return;
+                }
+
+                const elapsed = Date.now() - this.lastSend;
+
+                if (elapsed >= this.keepalive) {
+                    this.ping('keepalive');
                 }
             },
 
@@ -371,12 +875,20 @@ define('fujion-core', ['jquery', 'jquery-ui', 'lodash'], () => {
 
                 if (keepalive > 0) {
                     this.keepalive = keepalive;
-                    this.onkeepalive = setInterval(_onkeepalive.bind(this), keepalive / 2);
+                    this.onkeepalive = setInterval(this._onkeepalive.bind(this), keepalive / 2);
                 } else {
                     delete this.keepalive;
                 }
             },
 
+            /**
+             * Closes the connection without attempting to reconnect.
+             */
+            close: function () {
+                this._closing = true;
+                this.setKeepalive(0);
+            },
+
             isConnected: function () {
                 return this.socket && this.socket.readyState === WebSocket.OPEN;
             },
@@ -386,21 +898,32 @@ define('fujion-core', ['jquery', 'jquery-ui', 'lodash'], () => {
             },
 
             sendData: function (type, data, nolog) {
-                if (!this.isConnected()) {
-                    this.setKeepalive(0);
-                    fujion.debug ? null : $('html').empty();
+                if (this._reconnect) {
+                    this._pending.push([type, data, nolog]);
+                    return;
+                }
 
-                    return setTimeout(() => {
-                        throw new Error('Communication with the server has been interrupted.');
-                    }, 1);
+                if (!this.isConnected()) {
+                    return this._interrupted();
                 }
 
+                this._send(type, data, nolog);
+            },
+
+            _send: function (type, data, nolog) {
                 const pkt = {type: type, pid: fujion.pid, data: data};
 
+                // Acknowledges received messages, allowing the server to discard them.
+                if (this.resume) {
+                    pkt.ack = this._seq;
+                }
+
                 if (data && data.blob) {
                     const blob = data.blob;
                     delete data.blob;
                     this.socket.send(new Blob([JSON.stringify(pkt, _replacer), '\n', blob]));
+                } else if (this.wireFormat === 'cbor') {
+                    this.socket.send(fujion.cbor.encode(pkt, _replacer));
                 } else {
                     this.socket.send(JSON.stringify(pkt, _replacer));
                 }
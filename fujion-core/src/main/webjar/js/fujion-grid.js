@@ -115,15 +115,167 @@ define('fujion-grid', ['fujion-core', 'fujion-widget', 'fujion-grid-css'], fujio
 	
 	fujion.widget.Rows = fujion.widget.UIWidget.extend({
 		
+		/*------------------------------ Containment ------------------------------*/
+		
+		addChild: function(child, index) {
+			this._super(child, index);
+			this._placeSpacers();
+		},
+		
+		/**
+		 * Inserts the rows as a batch, placing the spacers once afterward.
+		 *
+		 * @param {Widget[]} children The rows to add.
+		 * @param {number} [index] Position of the first row. If negative, rows are appended.
+		 */
+		addChildren: function(children, index) {
+			children = _.map(children, child => fujion.wgt(child));
+			
+			if (this._canInsertChildren(children)) {
+				this._insertChildren(children, index);
+				this._placeSpacers();
+			} else {
+				this._super(children, index);
+			}
+		},
+		
 		/*------------------------------ Lifecycle ------------------------------*/
 		
 		init: function() {
 			this._super();
-			this.initState({selectable: 'NO'});
+			this.initState({selectable: 'NO', virtual: false});
+			this._range = {offset: 0, total: 0};
+			this.forwardToServer('viewport');
+		},
+		
+		destroy: function() {
+			this._trackScroll(null);
+			this._super();
+		},
+		
+		/*------------------------------ Other ------------------------------*/
+		
+		/**
+		 * Called by the server in virtual mode to report the position of the rendered rows.
+		 *
+		 * @param {number} offset Index of the first rendered row.
+		 * @param {number} total Total number of rows, rendered or not.
+		 */
+		virtualRange: function(offset, total) {
+			this._range.offset = offset;
+			this._range.total = total;
+			this._updateSpacers();
+			this._scheduleViewport();
+		},
+		
+		/**
+		 * Returns the average height of the rendered rows.
+		 *
+		 * @return {number} The average row height in pixels, or 0 if no rows are rendered.
+		 */
+		_rowHeight: function() {
+			const first = _.first(this._children);
+			const last = _.last(this._children);
+			
+			if (!first || !first.widget$ || !last.widget$) {
+				return this._lastRowHeight || 0;
+			}
+			
+			const top = first.widget$[0].getBoundingClientRect().top;
+			const bottom = last.widget$[0].getBoundingClientRect().bottom;
+			const height = (bottom - top) / this._children.length;
+			return height > 0 ? this._lastRowHeight = height : this._lastRowHeight || 0;
+		},
+		
+		/**
+		 * Keeps the spacers at the start and end of the rows.
+		 */
+		_placeSpacers: function() {
+			if (this._spacers && this.widget$) {
+				this._spacers.top.prependTo(this.widget$);
+				this._spacers.bottom.appendTo(this.widget$);
+			}
+		},
+		
+		/**
+		 * Reports the range of visible rows to the server if it has changed.
+		 */
+		_reportViewport: function() {
+			this._pending = false;
+			const height = this._rowHeight();
+			
+			if (!this.getState('virtual') || !this.widget$ || !height) {
+				return;
+			}
+			
+			this._trackScroll(this.widget$.scrollParent());
+			const scroll = this._scroll$[0];
+			const view = scroll === document || scroll === window ? {top: 0, bottom: window.innerHeight}
+				: scroll.getBoundingClientRect();
+			const top = this.widget$[0].getBoundingClientRect().top;
+			const first = Math.floor(Math.max(0, view.top - top) / height);
+			const count = Math.max(1, Math.ceil((view.bottom - Math.max(view.top, top)) / height));
+			const viewport = this._viewport;
+			
+			if (!viewport || viewport.first !== first || viewport.count !== count) {
+				this._viewport = {first: first, count: count};
+				this.trigger('viewport', this._viewport);
+			}
+		},
+		
+		/**
+		 * Schedules a viewport report for the next animation frame, coalescing repeated requests.
+		 */
+		_scheduleViewport: function() {
+			if (!this._pending) {
+				this._pending = true;
+				const report = this._reportViewport.bind(this);
+				requestAnimationFrame ? requestAnimationFrame(report) : setTimeout(report, 50);
+			}
+		},
+		
+		/**
+		 * Starts tracking scroll events on the specified element, stopping tracking on any
+		 * previously tracked element.
+		 *
+		 * @param {jquery} scroll$ The element to track (null to stop tracking).
+		 */
+		_trackScroll: function(scroll$) {
+			const old = this._scroll$ ? this._scroll$[0] : null;
+			const tgt = scroll$ ? scroll$[0] : null;
+			
+			if (old !== tgt) {
+				this._scroll$ ? this._scroll$.off('scroll.fujion_rows') : null;
+				this._scroll$ = scroll$;
+				scroll$ ? scroll$.on('scroll.fujion_rows', this._scheduleViewport.bind(this)) : null;
+			}
+		},
+		
+		/**
+		 * Sizes the spacers to account for the rows that precede and follow those rendered.
+		 */
+		_updateSpacers: function() {
+			if (this._spacers) {
+				const height = this._rowHeight();
+				const before = this._range.offset;
+				const after = Math.max(0, this._range.total - before - this._children.length);
+				_size(this._spacers.top, before * height);
+				_size(this._spacers.bottom, after * height);
+			}
+			
+			function _size(spacer$, size) {
+				spacer$.css('height', size + 'px').toggle(size > 0);
+			}
 		},
 		
 		/*------------------------------ Rendering ------------------------------*/
 		
+		afterRender: function() {
+			this._super();
+			this._placeSpacers();
+			this._scheduleViewport();
+		},
+		
 		render$: function() {
 			return $('<tbody>');
 		},
@@ -140,7 +292,7 @@ define('fujion-grid', ['fujion-core', 'fujion-widget', 'fujion-grid-css'], fujio
 				if (selectable && !active) {
 					self.widget$.selectable({
 						appendTo: '#fujion_root',
-						filter: 'tr',
+						filter: 'tr:not(.fujion_rows-spacer)',
 			            cancel: 'input,textarea,button,select,option,.fa',
 						selected: _select,
 						unselected: _unselect
@@ -165,6 +317,22 @@ define('fujion-grid', ['fujion-core', 'fujion-widget', 'fujion-grid-css'], fujio
 					w.trigger('change', {value: selected});
 				}
 			}
+		},
+		
+		s_virtual: function(v) {
+			if (v && !this._spacers) {
+				const spacer = '<tr class="fujion_rows-spacer"><td colspan="1000"></td></tr>';
+				this._spacers = {top: $(spacer), bottom: $(spacer)};
+				this._placeSpacers();
+				this._updateSpacers();
+				this._scheduleViewport();
+			} else if (!v && this._spacers) {
+				this._spacers.top.remove();
+				this._spacers.bottom.remove();
+				this._spacers = null;
+				this._viewport = null;
+				this._trackScroll(null);
+			}
 		}
 	
 	});
@@ -129,6 +129,89 @@ define('fujion-widget', [
 			child.onParentChange(this);
 		},
 
+		/**
+		 * Adds multiple children as a contiguous run. Unless this widget customizes how a child is
+		 * added, or a child already has a parent, the children's elements are inserted into the
+		 * DOM together (once per distinct anchor) rather than one at a time. A widget that
+		 * customizes how a child is added may still batch by overriding this method and calling
+		 * _insertChildren.
+		 *
+		 * @param {Widget[]} children The children to add.
+		 * @param {number} [index] Position of the first child. If negative, children are appended.
+		 */
+		addChildren: function(children, index) {
+			children = _.map(children, child => fujion.wgt(child));
+
+			if (this.addChild !== fujion.widget.BaseWidget.prototype.addChild || !this._canInsertChildren(children)) {
+				index = this._childIndex(index);
+				_.forEach(children, (child, i) => this.addChild(child, index < 0 ? -1 : index + i));
+				return;
+			}
+
+			this._insertChildren(children, index);
+		},
+
+		/**
+		 * Returns true if the children may be inserted as a batch by _insertChildren. This requires
+		 * that this widget be a container and that each child be a valid widget without a parent.
+		 *
+		 * @param {Widget[]} children The children to add.
+		 * @return {boolean} True if the children may be inserted as a batch.
+		 */
+		_canInsertChildren: function(children) {
+			return this.isContainer() && !_.some(children, child => !child || child._parent);
+		},
+
+		/**
+		 * Normalizes the position at which children are to be added.
+		 *
+		 * @param {number} [index] The requested position.
+		 * @return {number} The position, or -1 if the children are to be appended.
+		 */
+		_childIndex: function(index) {
+			return index == null || index < 0 || index >= this.getChildCount() ? -1 : index;
+		},
+
+		/**
+		 * Inserts children as a batch, with one DOM insert per distinct anchor. The children must
+		 * satisfy _canInsertChildren.
+		 *
+		 * @param {Widget[]} children The children to add.
+		 * @param {number} [index] Position of the first child. If negative, children are appended.
+		 */
+		_insertChildren: function(children, index) {
+			index = this._childIndex(index);
+			const ref$ = index < 0 ? null : fujion.$(this._children[index]);
+			let anchor$ = null;
+			let run = [];
+
+			_.forEach(children, child => {
+				const parent$ = ref$ || this.anchor$(child.widget$);
+				child._parent = this;
+
+				if (anchor$ && parent$[0] !== anchor$[0]) {
+					_insert(anchor$, run);
+					run = [];
+				}
+
+				anchor$ = parent$;
+				run.push(child.widget$);
+			});
+
+			run.length ? _insert(anchor$, run) : null;
+			this._children.splice(index < 0 ? this._children.length : index, 0, ...children);
+
+			_.forEach(children, child => {
+				child._attachAncillaries();
+				this.onAddChild(child);
+				child.onParentChange(this);
+			});
+
+			function _insert(target$, elements) {
+				ref$ ? ref$.before(elements) : target$.append(elements);
+			}
+		},
+
 		anchor$: function() {
 			return this.widget$;
 		},
@@ -21,30 +21,60 @@
 package org.fujion.core.test;
 
 import jakarta.servlet.http.Cookie;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.fujion.ancillary.*;
 import org.fujion.annotation.ComponentDefinition;
 import org.fujion.annotation.ComponentScanner;
+import org.fujion.annotation.EventTypeScanner;
+import org.fujion.client.BinaryData;
+import org.fujion.client.ClientInvocation;
+import org.fujion.client.ClientInvocationQueue;
+import org.fujion.client.CustomDatatype;
 import org.fujion.common.MiscUtil;
 import org.fujion.component.*;
+import org.fujion.component.BaseLabeledComponent.LabelPositionAll;
 import org.fujion.convert.ConversionService;
 import org.fujion.core.CoreUtil;
 import org.fujion.core.test.TestBinder.TestModel;
+import org.fujion.event.ClickEvent;
+import org.fujion.event.Event;
+import org.fujion.event.EventUtil;
 import org.fujion.event.KeyCode;
+import org.fujion.expression.ELContext;
+import org.fujion.expression.ELEvaluator;
+import org.fujion.model.IListModel.IListModelListener;
+import org.fujion.model.IListModel.ListEventType;
+import org.fujion.model.IModelAndView;
+import org.fujion.model.ListModel;
 import org.fujion.page.*;
 import org.fujion.theme.Theme;
 import org.fujion.theme.ThemeResolver;
+import org.fujion.thread.ThreadPool;
+import org.fujion.thread.ThreadPoolFactory;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.mock.web.MockHttpServletRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -63,6 +93,7 @@ public class AllTests {
     @BeforeClass
     public static void beforeTests() {
         ComponentScanner.getInstance().scanPackage("org.fujion.component");
+        EventTypeScanner.getInstance().scanPackage("org.fujion.event");
     }
     
     @Test
@@ -82,6 +113,222 @@ public class AllTests {
         assertEquals("The Page Title", page.getTitle());
     }
     
+    @Test
+    public void precompileTests() throws Exception {
+        PageDefinition pagedef = getPageDefinition("test.fsp");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PageDefinitionSerializer.write(pagedef, out);
+        PageDefinition precompiled = PageDefinitionSerializer.read(new ByteArrayInputStream(out.toByteArray()));
+        assertNotNull(pagedef.getHash());
+        assertEquals(pagedef.getHash(), precompiled.getHash());
+        assertEquals(pagedef.getSource(), precompiled.getSource());
+        assertSameElements(pagedef.getRootElement(), precompiled.getRootElement());
+        Page page = new Page();
+        PageUtil.createPage(precompiled, page, null);
+        assertEquals("The Page Title", page.getTitle());
+    }
+
+    @Test
+    public void precompileFallbackTests() throws Exception {
+        File root = new File(getClass().getResource("/").toURI());
+        String path = "web/precompile" + System.nanoTime() + "/";
+        File dir = new File(root, path);
+        File compiledDir = new File(root, PageDefinitionSerializer.LOCATION + path);
+
+        try {
+            // A current precompiled definition on the classpath is used in place of the source.
+            File fsp = new File(dir, "current.fsp");
+            File fspc = new File(compiledDir, "current." + PageDefinitionSerializer.EXTENSION);
+            String current = new String(precompile(fsp, "Current Title"), StandardCharsets.UTF_8);
+            FileUtils.writeStringToFile(fspc, current.replace("Current Title", "Precompiled Title"), StandardCharsets.UTF_8);
+            assertEquals("Precompiled Title", getCachedTitle(fsp));
+            // A precompiled definition alongside the source is not used.
+            fsp = new File(dir, "sibling.fsp");
+            fspc = new File(dir, "sibling." + PageDefinitionSerializer.EXTENSION);
+            current = new String(precompile(fsp, "Current Title"), StandardCharsets.UTF_8);
+            FileUtils.writeStringToFile(fspc, current.replace("Current Title", "Precompiled Title"), StandardCharsets.UTF_8);
+            assertEquals("Current Title", getCachedTitle(fsp));
+            // A precompiled definition whose hash does not match the source is ignored.
+            fsp = new File(dir, "stale.fsp");
+            fspc = new File(compiledDir, "stale." + PageDefinitionSerializer.EXTENSION);
+            byte[] stale = precompile(fsp, "Stale Title");
+            FileUtils.writeByteArrayToFile(fspc, stale);
+            writePage(fsp, "Current Title");
+            assertEquals("Current Title", getCachedTitle(fsp));
+            // A corrupt precompiled definition is ignored.
+            fsp = new File(dir, "corrupt.fsp");
+            fspc = new File(compiledDir, "corrupt." + PageDefinitionSerializer.EXTENSION);
+            byte[] bytes = precompile(fsp, "Current Title");
+            FileUtils.writeByteArrayToFile(fspc, Arrays.copyOf(bytes, bytes.length / 2));
+            assertEquals("Current Title", getCachedTitle(fsp));
+        } finally {
+            FileUtils.deleteQuietly(dir);
+            FileUtils.deleteQuietly(compiledDir);
+        }
+    }
+
+    /**
+     * Writes a page with the specified title and returns its precompiled form.
+     */
+    private byte[] precompile(File fsp, String title) throws Exception {
+        writePage(fsp, title);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PageDefinitionSerializer.write(PageParser.getInstance().parse(new PageSource(new FileSystemResource(fsp))), out);
+        return out.toByteArray();
+    }
+
+    private void writePage(File fsp, String title) throws Exception {
+        FileUtils.writeStringToFile(fsp, "<page title=\"" + title + "\"/>", StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the title of the page materialized from the cached page definition.
+     */
+    private String getCachedTitle(File fsp) {
+        PageDefinition pagedef = PageDefinitionCache.getInstance().get(fsp.toURI().toString());
+        Page page = new Page();
+        PageUtil.createPage(pagedef, page, null);
+        return page.getTitle();
+    }
+
+    @Test
+    public void streamingParserTests() {
+        PageParser parser = PageParser.getInstance();
+
+        for (String file : new String[] { "test.fsp", "nstest.fsp", "binding.fsp", "treeview.fsp" }) {
+            PageDefinition pagedef = getPageDefinition(file);
+            parser.setStreaming(true);
+
+            try {
+                assertSameElements(pagedef.getRootElement(), getPageDefinition(file).getRootElement());
+            } finally {
+                parser.setStreaming(false);
+            }
+        }
+    }
+
+    private void assertSameElements(PageElement expected, PageElement actual) {
+        assertEquals(expected.getDefinition(), actual.getDefinition());
+        assertEquals(expected.getAttributes(), actual.getAttributes());
+        assertArrayEquals(ArrayUtils.nullToEmpty(expected.getConstructorArgs()),
+            ArrayUtils.nullToEmpty(actual.getConstructorArgs()));
+        assertEquals(expected.getChildren().size(), actual.getChildren().size());
+
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            assertSameElements(expected.getChildren().get(i), actual.getChildren().get(i));
+        }
+    }
+
+    @Test
+    public void preconvertTests() {
+        ComponentDefinition textbox = new Textbox().getDefinition();
+        ComponentDefinition button = new Button().getDefinition();
+        assertEquals(20, textbox.getCompiledProperty("maxlength").preconvert("20"));
+        assertEquals(Boolean.TRUE, textbox.getCompiledProperty("readonly").preconvert("true"));
+        assertEquals("text", textbox.getCompiledProperty("placeholder").preconvert("text"));
+        assertEquals(LabelPositionAll.TOP, button.getCompiledProperty("position").preconvert("top"));
+        // Values that cannot be converted in advance are left for conversion at invocation time.
+        assertEquals("abc", textbox.getCompiledProperty("maxlength").preconvert("abc"));
+        assertEquals("options", textbox.getCompiledProperty("options").preconvert("options"));
+        assertEquals("value", textbox.getCompiledProperty("unknown").preconvert("value"));
+        assertNull(textbox.getCompiledProperty("maxlength").preconvert(null));
+        assertSame(textbox.getCompiledProperty("maxlength"), textbox.getCompiledProperty("maxlength"));
+    }
+
+    @Test
+    public void planTests() {
+        String fsp = "<div name='root'>"
+                + "<button label='${greeting}' position='top'/>"
+                + "<textbox maxlength='20' placeholder='${parent.name}' readonly='true'/>"
+                + "<button foreach='${items}' label='${each}'/>"
+                + "<textbox if='${false}'/>"
+                + "<textbox unless='false' maxlength='${5 + 5}'/>"
+                + "</div>";
+        PageDefinition pagedef = PageParser.getInstance().parse(new ByteArrayInputStream(fsp.getBytes(StandardCharsets.UTF_8)));
+        Map<String, Object> args = new HashMap<>();
+        args.put("greeting", "Hello");
+        args.put("items", Arrays.asList("a", "b", "c"));
+        BaseComponent root = pagedef.materialize(null, args).get(0);
+        List<BaseComponent> children = root.getChildren();
+        // Factory parameters control creation and are not applied as properties.
+        assertEquals(6, children.size());
+        Button button = (Button) children.get(0);
+        assertEquals("Hello", button.getLabel());
+        assertEquals(LabelPositionAll.TOP, button.getPosition());
+        Textbox textbox = (Textbox) children.get(1);
+        assertEquals(20, textbox.getMaxLength());
+        assertEquals("root", textbox.getPlaceholder());
+        assertTrue(textbox.isReadonly());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Arrays.asList("a", "b", "c").get(i), ((Button) children.get(i + 2)).getLabel());
+        }
+
+        assertEquals(10, ((Textbox) children.get(5)).getMaxLength());
+        // The same plan is evaluated anew for different arguments.
+        args.put("greeting", "Goodbye");
+        args.put("items", Collections.singletonList("d"));
+        root = pagedef.materialize(null, args).get(0);
+        assertEquals(4, root.getChildren().size());
+        assertEquals("Goodbye", ((Button) root.getFirstChild()).getLabel());
+        // Materialization from the plan matches materialization directly from the page elements.
+        BaseComponent expected = materializeUnplanned(pagedef.getRootElement().getChildren().get(0), null, args).get(0);
+        expected.getAttributes().putAll(args);
+        assertSameComponents(expected, root, "name", "label", "position", "maxlength", "placeholder", "readonly");
+    }
+
+    /**
+     * Materializes a page element by evaluating each of its attributes in turn, without the use of
+     * a compiled plan.
+     */
+    private List<BaseComponent> materializeUnplanned(PageElement element, BaseComponent parent, Map<String, Object> args) {
+        ComponentDefinition def = element.getDefinition();
+        Map<String, String> attributes = element.getAttributes();
+        List<BaseComponent> components = def.getFactory().create(new HashMap<>(attributes),
+            new ELContext(null, parent, element, args), element.getConstructorArgs());
+
+        for (BaseComponent component : components) {
+            ELContext elContext = new ELContext(component, parent, element, args);
+
+            for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+                Object value = ELEvaluator.getInstance().evaluate(attribute.getValue(), elContext);
+                DeferredInvocation<?> deferral = def.setProperty(component, attribute.getKey(), value);
+
+                if (deferral != null) {
+                    deferral.invoke();
+                }
+            }
+
+            if (parent != null) {
+                parent.addChild(component);
+            }
+
+            for (PageElement child : element.getChildren()) {
+                materializeUnplanned(child, component, args);
+            }
+        }
+
+        return components;
+    }
+
+    private void assertSameComponents(BaseComponent expected, BaseComponent actual, String... properties) {
+        ComponentDefinition def = expected.getDefinition();
+        assertEquals(def, actual.getDefinition());
+        assertEquals(expected.getAttributes(), actual.getAttributes());
+
+        for (String property : properties) {
+            if (def.getGetters().containsKey(property)) {
+                assertEquals(def.getProperty(expected, property), def.getProperty(actual, property));
+            }
+        }
+
+        assertEquals(expected.getChildren().size(), actual.getChildren().size());
+
+        for (int i = 0; i < expected.getChildren().size(); i++) {
+            assertSameComponents(expected.getChildren().get(i), actual.getChildren().get(i), properties);
+        }
+    }
+
     @Test
     public void attributeTests() {
         Div cmpt = new Div();
@@ -132,6 +379,76 @@ public class AllTests {
         assertTrue(cmp instanceof Button);
     }
 
+    @Test
+    public void nameIndexTests() {
+        Div outer = new Div();
+        outer.setNamespace(true);
+        Div inner = new Div();
+        Span span = new Span();
+        span.setName("span");
+        inner.addChild(span);
+        assertSame(span, inner.findByName("span"));
+        outer.addChild(inner);
+        assertSame(span, outer.findByName("span"));
+        span.setName("renamed");
+        assertNull(outer.findByName("span"));
+        assertSame(span, inner.findByName("renamed"));
+        Div other = new Div();
+        other.setNamespace(true);
+        other.addChild(inner);
+        assertNull(outer.findByName("renamed"));
+        assertSame(span, other.findByName("renamed"));
+        Span dup = new Span();
+        dup.setName("renamed");
+        outer.addChild(dup);
+
+        try {
+            other.addChild(dup);
+            fail("Expected name collision.");
+        } catch (ComponentException e) {
+            assertSame(dup, outer.findByName("renamed"));
+        }
+
+        inner.detach();
+        assertNull(other.findByName("renamed"));
+        assertSame(span, inner.findByName("renamed"));
+        // Reordering within the same parent neither reindexes names nor fires remove callbacks.
+        List<BaseComponent> removed = new ArrayList<>();
+        Div parent = new Div() {
+
+            @Override
+            protected void beforeRemoveChild(BaseComponent child) {
+                removed.add(child);
+            }
+
+        };
+        parent.setNamespace(true);
+        Span first = new Span();
+        first.setName("first");
+        Span last = new Span();
+        last.setName("last");
+        parent.addChild(first);
+        parent.addChild(last);
+        parent.addChild(inner);
+        parent.addChild(first, 3);
+        assertEquals(2, first.getIndex());
+        assertEquals(0, last.getIndex());
+        parent.addChild(inner, 0);
+        assertEquals(0, inner.getIndex());
+        assertSame(first, parent.getLastChild());
+        assertTrue(removed.isEmpty());
+        assertSame(first, parent.findByName("first"));
+        assertSame(span, parent.findByName("renamed"));
+
+        try {
+            parent.addChild(last, 4);
+            fail("Expected index out of bounds.");
+        } catch (IndexOutOfBoundsException e) {
+            assertSame(parent, last.getParent());
+            assertEquals(3, parent.getChildCount());
+        }
+    }
+
     private enum TestEnum {
         TEST1, TEST2, TEST3
     }
@@ -332,6 +649,109 @@ public class AllTests {
         assertNull(theme.translatePath("this/should/not/match"));
     }
 
+    @Test
+    public void binaryDataTests() {
+        float[] values = { 1f, 2f, 3f };
+        BinaryData data = new BinaryData(BinaryData.ElementType.FLOAT32, values, 1, 2);
+        assertArrayEquals(new float[] { 2f, 3f }, (float[]) data.transformForClient(), 0f);
+        List<byte[]> binaries = new ArrayList<>();
+        List<byte[]> previous = BinaryData.startCapture(binaries);
+
+        try {
+            assertTrue(data.transformForClient() instanceof CustomDatatype);
+        } finally {
+            BinaryData.endCapture(previous);
+        }
+
+        assertEquals(1, binaries.size());
+        byte[] message = binaries.get(0);
+        assertTrue(BinaryData.isBinaryData(message));
+        assertEquals(BinaryData.HEADER_SIZE + 8, message.length);
+        ByteBuffer buffer = ByteBuffer.wrap(message).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(BinaryData.ElementType.FLOAT32.ordinal(), buffer.get(8));
+        assertEquals(2, buffer.getInt(12));
+        assertEquals(3f, buffer.getFloat(BinaryData.HEADER_SIZE + 4), 0f);
+    }
+
+    @Test
+    public void childListTests() {
+        Div parent = new Div();
+        List<BaseComponent> batch = new ArrayList<>();
+
+        for (int i = 0; i < 100; i++) {
+            batch.add(new Div());
+        }
+
+        parent.addChildren(batch);
+        parent.addChild(new Span(), 50);
+        parent.addChildren(Arrays.asList(new Span(), new Span()), 10);
+        parent.removeChild(parent.getChildAt(0));
+        parent.swapChildren(5, 80);
+        parent.addChild(parent.getChildAt(90), 3);
+        assertEquals(102, parent.getChildCount());
+
+        for (int i = 0; i < parent.getChildCount(); i++) {
+            assertEquals(i, parent.getChildAt(i).getIndex());
+        }
+
+        assertEquals(-1, parent.getChildren().indexOf(new Div()));
+        Div named1 = new Div();
+        named1.setName("dup");
+        Div named2 = new Div();
+        named2.setName("dup");
+
+        try {
+            parent.addChildren(Arrays.asList(named1, named2), 0);
+            fail("Expected exception.");
+        } catch (ComponentException e) {
+            assertEquals(102, parent.getChildCount());
+            assertNull(named1.getParent());
+        }
+
+        try {
+            parent.addChildren(Arrays.asList(new Div(), new Div()), 103);
+            fail("Expected exception.");
+        } catch (IndexOutOfBoundsException e) {
+            assertEquals(102, parent.getChildCount());
+        }
+
+        parent.addChildren(Arrays.asList(new Div(), new Div()), 102);
+        assertEquals(104, parent.getChildCount());
+        assertEquals(103, parent.getChildAt(103).getIndex());
+    }
+
+    @Test
+    public void eventUtilTests() throws Exception {
+        Div div = new Div();
+        Event event = EventUtil.toEvent("onClick", div, "data");
+        assertTrue(event instanceof ClickEvent);
+        assertSame(div, event.getTarget());
+        assertEquals("data", event.getData());
+        assertTrue(EventUtil.toEvent("click") instanceof ClickEvent);
+        assertEquals(Event.class, EventUtil.toEvent("unknown").getClass());
+        EventHandlers handlers = new EventHandlers();
+        Method method = EventUtil.getHandler("onClick", handlers, event);
+        assertEquals(ClickEvent.class, method.getParameterTypes()[0]);
+        assertSame(method, EventUtil.getHandler("onClick", handlers, event));
+        assertEquals(0, EventUtil.getHandler("onClick", handlers, new Event("other")).getParameterCount());
+        assertNull(EventUtil.getHandler("onMissing", handlers, event));
+        assertTrue(EventUtil.invokeHandler("onClick", handlers, event));
+        assertEquals(1, handlers.count);
+    }
+
+    public static class EventHandlers {
+
+        private int count;
+
+        public void onClick(ClickEvent event) {
+            count++;
+        }
+
+        public void onClick() {
+            count += 10;
+        }
+    }
+
     @Test
     public void testThemeLookup() {
         MockHttpServletRequest request = new MockHttpServletRequest();
@@ -365,6 +785,137 @@ public class AllTests {
         assertEquals("web/org/fujion/", CoreUtil.getResourceClassPath(pkg, 1));
     }
     
+    @Test
+    public void listModelTests() {
+        ListModel<Integer> model = new ListModel<>(Arrays.asList(3, 1, 2));
+        List<String> events = new ArrayList<>();
+        model.addEventListener(new IListModelListener() {
+
+            @Override
+            public void onListChange(ListEventType type, int startIndex, int endIndex) {
+                events.add(type + ":" + startIndex + "-" + endIndex);
+            }
+
+            @Override
+            public void onListPermute(int[] permutation) {
+                events.add("PERMUTE:" + Arrays.toString(permutation));
+            }
+
+        });
+
+        model.sort(null, true);
+        assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(model));
+        assertEquals("PERMUTE:[1, 2, 0]", events.get(0));
+        model.addAll(1, Arrays.asList(10, 11));
+        assertEquals(Arrays.asList(1, 10, 11, 2, 3), new ArrayList<>(model));
+        assertEquals("ADD:1-2", events.get(1));
+        model.removeRange(1, 2);
+        assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(model));
+        assertEquals("DELETE:1-2", events.get(2));
+        model.beginUpdate();
+        model.add(4);
+        model.add(5);
+        model.endUpdate();
+        assertEquals(4, events.size());
+        assertEquals("CHANGE:-1--1", events.get(3));
+    }
+
+    @Test
+    public void virtualRenderingTests() {
+        ListModel<Integer> model = new ListModel<>();
+
+        for (int i = 0; i < 1000; i++) {
+            model.add(i);
+        }
+
+        Rows rows = new Rows();
+        IModelAndView<Row, Integer> mv = rows.getModelAndView(Integer.class);
+        mv.setOverscan(5);
+        mv.setViewport(0, 10);
+        rows.setVirtual(true);
+        mv.setRenderer(value -> {
+            Row row = new Row();
+            row.setData(value);
+            return row;
+        });
+        mv.setModel(model);
+        assertEquals(20, rows.getChildCount());
+        assertEquals(0, rows.getFirstChild().getData());
+        mv.setViewport(100, 10);
+        assertEquals(20, rows.getChildCount());
+        assertEquals(95, rows.getFirstChild().getData());
+        BaseComponent retained = rows.getChildAt(5);
+        mv.setViewport(102, 10);
+        assertEquals(20, rows.getChildCount());
+        assertEquals(97, rows.getFirstChild().getData());
+        assertSame(retained, rows.getChildAt(3));
+        assertEquals(116, rows.getLastChild().getData());
+        model.add(-1);
+        assertSame(retained, rows.getChildAt(3));
+        model.add(0, -2);
+        assertEquals(96, rows.getFirstChild().getData());
+        mv.setViewport(5000, 10);
+        assertEquals(20, rows.getChildCount());
+        assertEquals(-1, rows.getLastChild().getData());
+        rows.setVirtual(false);
+        assertEquals(model.size(), rows.getChildCount());
+    }
+
+    @Test
+    public void virtualRenderingUnsupportedTests() {
+        ListModel<Integer> model = new ListModel<>();
+
+        for (int i = 0; i < 100; i++) {
+            model.add(i);
+        }
+
+        // Listbox has no client support for virtual rendering.
+        Listbox listbox = new Listbox();
+        IModelAndView<Listitem, Integer> mv = listbox.getModelAndView(Integer.class);
+        mv.setRenderer(value -> new Listitem(value.toString()));
+        mv.setModel(model);
+        assertThrows(IllegalStateException.class, () -> mv.setVirtual(true));
+        assertFalse(mv.isVirtual());
+        assertEquals(model.size(), listbox.getChildCount());
+        mv.setVirtual(false);
+        assertEquals(model.size(), listbox.getChildCount());
+    }
+
+    @Test
+    public void invocationQueueTests() {
+        ClientInvocationQueue queue = new ClientInvocationQueue();
+        IElementIdentifier target = () -> "test";
+
+        for (int i = 0; i < 100; i++) {
+            queue.queue(new ClientInvocation(target, "updateState", null, "label", i, true));
+        }
+
+        queue.queue(new ClientInvocation(target, "updateState", null, "title", "title", true));
+        queue.queue(new ClientInvocation(target, "addChild", null, "child"));
+        queue.queue(new ClientInvocation(target, "updateState", null, "label", 100, true));
+        queue.queue(new ClientInvocation(target, "updateState", null, "label", 101, true));
+        assertEquals(100, queue.getCoalescedCount());
+        List<ClientInvocation> invocations = queue.flush();
+        assertEquals(4, invocations.size());
+        assertArrayEquals(new Object[] { "label", 99, true }, (Object[]) invocations.get(0).toMap(null).get("arg"));
+        assertEquals("addChild", invocations.get(2).toMap(null).get("fcn"));
+        assertArrayEquals(new Object[] { "label", 101, true }, (Object[]) invocations.get(3).toMap(null).get("arg"));
+        assertEquals(0, queue.getCoalescedCount());
+    }
+
+    @Test
+    public void threadPoolTests() throws Exception {
+        ThreadPool pool = ThreadPoolFactory.getInstance().createSessionThreadPool();
+        assertEquals("done", pool.submit(() -> "done").get(5, TimeUnit.SECONDS));
+        ScheduledFuture<?> delayed = pool.schedule(() -> fail("Should have been cancelled."), 1, TimeUnit.HOURS);
+        assertTrue(delayed.getDelay(TimeUnit.MINUTES) > 0);
+        assertEquals(2, pool.getTaskCount());
+        pool.shutdownNow();
+        assertTrue(delayed.isCancelled());
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(2, pool.getCompletedTaskCount());
+    }
+
     private PageDefinition getPageDefinition(String file) {
         try (InputStream is = getClass().getResourceAsStream("/" + file)) {
             Assert.assertNotNull(is);
@@ -105,6 +105,18 @@ public class OptionTests {
         @Option(convertUsing = "${value ? 1 : -1}")
         private final Boolean should13 = true;
 
+        // should serialize under nested submaps
+        @Option("map5.map6.should14")
+        public Integer map5_map6_should14 = 14;
+
+        // should serialize under existing nested submap
+        @Option("map5.map6.should15")
+        public Integer map5_map6_should15 = 15;
+
+        // name ending with a period is discarded: map7 should not serialize
+        @Option("map7.shouldnot16.")
+        public Integer map7_shouldnot16 = 16;
+
     }
     
     public static class TestOptions3 extends Options {
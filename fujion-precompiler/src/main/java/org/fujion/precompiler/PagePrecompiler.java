@@ -0,0 +1,172 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.precompiler;
+
+import org.apache.commons.cli.*;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.fujion.page.PageDefinition;
+import org.fujion.page.PageDefinitionSerializer;
+import org.fujion.page.PageParser;
+import org.fujion.page.PageSource;
+import org.fujion.test.MockConfig;
+import org.fujion.test.MockEnvironment;
+import org.fujion.test.MockServletContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Collection;
+
+/**
+ * Compiles all Fujion server pages under a source directory into their precompiled form. The
+ * output directory is a classpath root, typically the project's class output directory. The
+ * precompiled page definitions are written beneath it to {@value PageDefinitionSerializer#LOCATION},
+ * at the same relative location as their sources, where the page definition cache will find them
+ * at run time. Keeping them on the classpath prevents them from being served as web content.
+ * Pages are parsed within a mock Fujion environment, so all components, tag libraries and
+ * processing instruction parsers on the classpath are available to the parser.
+ */
+public class PagePrecompiler {
+
+    private static final String DEFAULT_CONFIG = "classpath:/META-INF/fujion-dispatcher-servlet.xml";
+
+    /**
+     * Mock environment whose web resources are resolved relative to the source directory.
+     */
+    private static class PrecompilerEnvironment extends MockEnvironment {
+
+        private final String resourceBasePath;
+
+        private MockServletContext servletContext;
+
+        PrecompilerEnvironment(File sourceDir) {
+            resourceBasePath = "file:" + sourceDir.getAbsolutePath();
+        }
+
+        @Override
+        protected MockServletContext initServletContext(MockServletContext servletContext) {
+            return this.servletContext = new MockServletContext(resourceBasePath);
+        }
+
+    }
+
+    private final File sourceDir;
+
+    private final File outputDir;
+
+    private final PrecompilerEnvironment environment;
+
+    /**
+     * Main entry point.
+     *
+     * @param args The command line arguments.
+     * @throws Exception Unspecified exception.
+     */
+    public static void main(String... args) throws Exception {
+        Options options = new Options();
+        Option option = new Option("s", "source", true, "Source directory containing FSPs");
+        option.setRequired(true);
+        options.addOption(option);
+        option = new Option("o", "output", true, "Classpath root to receive precompiled FSPs");
+        option.setRequired(true);
+        options.addOption(option);
+        option = new Option("c", "config", true, "Spring configuration location(s)");
+        option.setArgs(Option.UNLIMITED_VALUES);
+        options.addOption(option);
+        option = new Option("f", "fail", false, "Fail if any FSP cannot be precompiled");
+        options.addOption(option);
+        option = new Option("h", "help", false, "This help message");
+        options.addOption(option);
+        CommandLine cmd = new DefaultParser().parse(options, args);
+
+        if (cmd.hasOption("h")) {
+            new HelpFormatter().printHelp("PagePrecompiler [options]", options);
+            return;
+        }
+
+        String[] config = cmd.hasOption("c") ? cmd.getOptionValues("c") : new String[] { DEFAULT_CONFIG };
+        PagePrecompiler precompiler = new PagePrecompiler(new File(cmd.getOptionValue("s")),
+                new File(cmd.getOptionValue("o")), config);
+
+        try {
+            int failures = precompiler.precompile();
+
+            if (failures > 0 && cmd.hasOption("f")) {
+                throw new IllegalStateException(failures + " FSP(s) could not be precompiled");
+            }
+        } finally {
+            precompiler.close();
+        }
+    }
+
+    private PagePrecompiler(File sourceDir, File outputDir, String[] configLocations) throws Exception {
+        this.sourceDir = sourceDir;
+        this.outputDir = outputDir;
+        environment = new PrecompilerEnvironment(sourceDir);
+        environment.init(new MockConfig(configLocations, null), null);
+    }
+
+    /**
+     * Precompiles all FSPs under the source directory.
+     *
+     * @return The number of FSPs that could not be precompiled.
+     */
+    private int precompile() {
+        Collection<File> files = FileUtils.listFiles(sourceDir, new String[] { "fsp" }, true);
+        int failures = 0;
+
+        for (File file : files) {
+            String path = FilenameUtils.separatorsToUnix(sourceDir.toPath().relativize(file.toPath()).toString());
+
+            try {
+                precompile(path);
+                System.out.println("Precompiled " + path);
+            } catch (Exception e) {
+                System.err.println("Unable to precompile " + path + ": " + e.getMessage());
+                failures++;
+            }
+        }
+
+        System.out.printf("Precompiled %d of %d FSP(s).%n", files.size() - failures, files.size());
+        return failures;
+    }
+
+    /**
+     * Precompiles a single FSP.
+     *
+     * @param path Path of the FSP, relative to the source directory.
+     * @throws Exception Unspecified exception.
+     */
+    private void precompile(String path) throws Exception {
+        PageDefinition pageDefinition = PageParser.getInstance()
+                .parse(new PageSource(path, environment.servletContext));
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        PageDefinitionSerializer.write(pageDefinition, stream);
+        File file = new File(outputDir, PageDefinitionSerializer.LOCATION + FilenameUtils.removeExtension(path) + "."
+                + PageDefinitionSerializer.EXTENSION);
+        FileUtils.writeByteArrayToFile(file, stream.toByteArray());
+    }
+
+    private void close() {
+        environment.close();
+    }
+
+}
@@ -48,7 +48,17 @@ public class MockServletContext extends org.springframework.mock.web.MockServlet
     }
     
     public MockServletContext() {
-        super(new ResourceLoader());
+        this("");
+    }
+
+    /**
+     * Creates a mock servlet context whose web resources are resolved relative to the specified
+     * base path.
+     *
+     * @param resourceBasePath The base path for web resources (e.g., "file:src/main/webapp").
+     */
+    public MockServletContext(String resourceBasePath) {
+        super(resourceBasePath, new ResourceLoader());
         this.setAttribute("jakarta.websocket.server.ServerContainer", new MockServerContainer());
     }
 
@@ -29,12 +29,13 @@ import org.springframework.web.socket.WebSocketSession;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.security.Principal;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * A mock web socket connection.
+ * A mock web socket connection. Messages sent over the connection are recorded.
  */
 public class MockWebSocketSession implements WebSocketSession {
 
@@ -44,6 +45,10 @@ public class MockWebSocketSession implements WebSocketSession {
 
     private final Principal principal;
 
+    private final List<WebSocketMessage<?>> messages = new ArrayList<>();
+
+    private String id = "mock-id";
+
     int messageSizeLimitText = 5000;
 
     int messageSizeLimitBinary = 5000;
@@ -61,7 +66,17 @@ public class MockWebSocketSession implements WebSocketSession {
 
     @Override
     public String getId() {
-        return "mock-id";
+        return id;
+    }
+
+    /**
+     * Sets the connection's id. Connections registered with the same session manager must have
+     * distinct ids.
+     *
+     * @param id The connection id.
+     */
+    public void setId(String id) {
+        this.id = id;
     }
 
     @Override
@@ -126,6 +141,29 @@ public class MockWebSocketSession implements WebSocketSession {
 
     @Override
     public void sendMessage(WebSocketMessage<?> message) {
+        synchronized (messages) {
+            messages.add(message);
+        }
+    }
+
+    /**
+     * Returns the messages sent over this connection since they were last cleared.
+     *
+     * @return The sent messages, in order.
+     */
+    public List<WebSocketMessage<?>> getMessages() {
+        synchronized (messages) {
+            return new ArrayList<>(messages);
+        }
+    }
+
+    /**
+     * Clears the recorded messages.
+     */
+    public void clearMessages() {
+        synchronized (messages) {
+            messages.clear();
+        }
     }
 
     @Override
@@ -24,11 +24,14 @@ import org.fujion.annotation.ComponentDefinition;
 import org.fujion.client.ExecutionContext;
 import org.fujion.component.BaseComponent;
 import org.fujion.component.Page;
+import org.fujion.event.Event;
+import org.fujion.event.EventQueue;
 import org.fujion.page.PageDefinition;
 import org.fujion.page.PageElement;
 import org.fujion.page.PageUtil;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -94,6 +97,32 @@ public class FujionTest extends MockTest {
         assertEquals("This is a test.", tag_libraries.getFirstChild().getData());
     }
 
+    @Test
+    public void eventQueueTests() {
+        Page page = ExecutionContext.getPage();
+        EventQueue queue = page.getEventQueue();
+        List<Event> events = new ArrayList<>();
+        page.addEventListener("queuetest", events::add, false);
+        long pings = queue.getPingCount();
+
+        for (int i = 0; i < 3; i++) {
+            queue.queue(new Event("queuetest", page));
+        }
+
+        assertEquals(3, queue.getDepth());
+        assertEquals(pings + 1, queue.getPingCount());
+        assertTrue(getMockEnvironment().flushEvents());
+        assertEquals(3, events.size());
+        assertEquals(0, queue.getDepth());
+        assertTrue(queue.getMaxDepth() >= 3);
+        assertTrue(queue.getProcessedCount() >= 3);
+        queue.queue(new Event("queuetest", page));
+        assertEquals(pings + 2, queue.getPingCount());
+        queue.clearAll();
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.getDepth());
+    }
+
     private void checkEL(BaseComponent parent, int childIndex, Object expectedValue) {
         BaseComponent comp = parent.getChildAt(childIndex);
         assertEquals(expectedValue, comp.getAttribute("el"));
@@ -0,0 +1,806 @@
+/*
+ * #%L
+ * fujion
+ * %%
+ * Copyright (C) 2023 Fujion Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * #L%
+ */
+package org.fujion.websocket;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import org.apache.commons.io.IOUtils;
+import org.fujion.client.ClientInvocation;
+import org.fujion.client.ClientRequest;
+import org.fujion.client.ExecutionContext;
+import org.fujion.client.Synchronizer;
+import org.fujion.component.Page;
+import org.fujion.test.MockEnvironment;
+import org.fujion.test.MockServletContext;
+import org.fujion.test.MockSession;
+import org.fujion.test.MockTest;
+import org.fujion.test.MockWebSocketSession;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for web socket communications. These use their own sessions, each with a mock web socket
+ * that records the messages sent to the client.
+ */
+public class WebSocketTest extends MockTest {
+
+    private static final String REQUEST_TYPE = "websockettest";
+
+    private static final WebSocketHandler handler = new WebSocketHandler();
+
+    private static final CBORFactory cborFactory = CBORFactory.builder()
+            .enable(CBORGenerator.Feature.WRITE_TYPE_HEADER).build();
+
+    private final List<Session> sessions = new ArrayList<>();
+
+    private final List<MockWebSocketSession> sockets = new ArrayList<>();
+
+    @BeforeClass
+    public static void registerHandler() {
+        WebSocketHandler.registerRequestHandler(new IRequestHandler() {
+
+            @Override
+            public void handleRequest(ClientRequest request) {
+                Synchronizer synchronizer = request.getSession().getSynchronizer();
+                synchronizer.sendToClient(new ClientInvocation("test.request", null, request.getData()));
+
+                if ("fail".equals(request.getData())) {
+                    throw new IllegalStateException("Request failed");
+                }
+            }
+
+            @Override
+            public String getRequestType() {
+                return REQUEST_TYPE;
+            }
+
+        });
+    }
+
+    @After
+    public void destroySessions() {
+        sessions.forEach(Session::destroy);
+        sessions.clear();
+        sockets.forEach(socket -> handler.afterConnectionClosed(socket, CloseStatus.NORMAL));
+        sockets.clear();
+    }
+
+    @Test
+    public void nestedBatchTests() {
+        Session session = createSession();
+        MockWebSocketSession socket = getSocket(session);
+        Synchronizer synchronizer = session.getSynchronizer();
+        assertTrue(synchronizer.beginBatch());
+        assertFalse(synchronizer.beginBatch());
+        assertTrue(synchronizer.isQueueing());
+        synchronizer.sendToClient(new ClientInvocation("test.one", null));
+        synchronizer.startQueueing();
+        synchronizer.sendToClient(new ClientInvocation("test.two", null));
+        synchronizer.stopQueueing();
+        assertTrue(socket.getMessages().isEmpty());
+        synchronizer.endBatch();
+        assertFalse(synchronizer.isQueueing());
+        List<WebSocketMessage<?>> messages = socket.getMessages();
+        assertEquals(1, messages.size());
+        String payload = getText(messages.get(0));
+        assertTrue(payload.indexOf("test.one") < payload.indexOf("test.two"));
+        assertEquals(2, synchronizer.getSentCount());
+    }
+
+    @Test
+    public void concurrentBatchTests() throws Exception {
+        Session session = createSession();
+        MockWebSocketSession socket = getSocket(session);
+        Synchronizer synchronizer = session.getSynchronizer();
+        assertTrue(synchronizer.beginBatch());
+        synchronizer.sendToClient(new ClientInvocation("test.owner", null));
+        AtomicBoolean opened = new AtomicBoolean(true);
+        AtomicBoolean queueing = new AtomicBoolean(true);
+        AtomicReference<Exception> closeError = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            opened.set(synchronizer.beginBatch());
+            queueing.set(synchronizer.isQueueing());
+            synchronizer.sendToClient(new ClientInvocation("test.other", null));
+
+            try {
+                synchronizer.endBatch();
+            } catch (Exception e) {
+                closeError.set(e);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertFalse("Batch should be owned by another thread", opened.get());
+        assertFalse("Other thread should not queue", queueing.get());
+        assertTrue("Only the owner may close the batch", closeError.get() instanceof IllegalStateException);
+        // The owner's earlier invocation is sent before the other thread's.
+        List<WebSocketMessage<?>> messages = socket.getMessages();
+        assertEquals(2, messages.size());
+        assertTrue(getText(messages.get(0)).contains("test.owner"));
+        assertTrue(getText(messages.get(1)).contains("test.other"));
+        assertTrue(synchronizer.isQueueing());
+        synchronizer.sendToClient(new ClientInvocation("test.last", null));
+        synchronizer.endBatch();
+        messages = socket.getMessages();
+        assertEquals(3, messages.size());
+        assertTrue(getText(messages.get(2)).contains("test.last"));
+    }
+
+    @Test
+    public void invokeBatchTests() throws Exception {
+        Session session = createSession();
+        MockWebSocketSession socket = getSocket(session);
+        Synchronizer synchronizer = session.getSynchronizer();
+        Page._init(session.getPage(), new ClientRequest(session, Map.of("data", Map.of())), synchronizer);
+        AtomicBoolean queueing = new AtomicBoolean();
+        AtomicInteger sent = new AtomicInteger(-1);
+        runThread(() -> ExecutionContext.invoke(session.getPage().getId(), () -> {
+            queueing.set(synchronizer.isQueueing());
+            synchronizer.sendToClient(new ClientInvocation("test.one", null));
+            synchronizer.sendToClient(new ClientInvocation("test.two", null));
+            sent.set(socket.getMessages().size());
+        }));
+        assertTrue("Invocation should open a batch", queueing.get());
+        assertEquals("Invocations should be held until the callback completes", 0, sent.get());
+        List<WebSocketMessage<?>> messages = socket.getMessages();
+        assertEquals(1, messages.size());
+        String payload = getText(messages.get(0));
+        assertTrue(payload.indexOf("test.one") < payload.indexOf("test.two"));
+        assertFalse(synchronizer.isQueueing());
+    }
+
+    @Test
+    public void earlyFlushTests() throws Exception {
+        int maxBatchSize = WebSocketConfiguration.getMaxBatchSize();
+        long maxBatchDelay = WebSocketConfiguration.getMaxBatchDelay();
+        Session session = createSession();
+        MockWebSocketSession socket = getSocket(session);
+        Synchronizer synchronizer = session.getSynchronizer();
+
+        try {
+            setConfig("maxBatchSize", 3);
+            setConfig("maxBatchDelay", 0L);
+            assertTrue(synchronizer.beginBatch());
+
+            for (int i = 0; i < 7; i++) {
+                synchronizer.sendToClient(new ClientInvocation("test.size", null, i));
+            }
+
+            assertEquals(2, socket.getMessages().size());
+            synchronizer.startQueueing();
+
+            for (int i = 0; i < 5; i++) {
+                synchronizer.sendToClient(new ClientInvocation("test.queued", null, i));
+            }
+
+            assertEquals("Explicit queueing suppresses early flush", 2, socket.getMessages().size());
+            synchronizer.stopQueueing();
+            synchronizer.endBatch();
+            assertEquals(3, socket.getMessages().size());
+            socket.clearMessages();
+            setConfig("maxBatchSize", 0);
+            setConfig("maxBatchDelay", 10L);
+            assertTrue(synchronizer.beginBatch());
+            synchronizer.sendToClient(new ClientInvocation("test.delay", null, 1));
+            assertTrue(socket.getMessages().isEmpty());
+            Thread.sleep(20);
+            synchronizer.sendToClient(new ClientInvocation("test.delay", null, 2));
+            assertEquals(1, socket.getMessages().size());
+            synchronizer.endBatch();
+            assertEquals(1, socket.getMessages().size());
+        } finally {
+            setConfig("maxBatchSize", maxBatchSize);
+            setConfig("maxBatchDelay", maxBatchDelay);
+        }
+    }
+
+    @Test
+    public void requestBatchTests() throws Exception {
+        Session session = createSession();
+        MockWebSocketSession socket = getSocket(session);
+        handleRequest(session, "succeed");
+        List<WebSocketMessage<?>> messages = socket.getMessages();
+        assertEquals(1, messages.size());
+        assertTrue(getText(messages.get(0)).startsWith("["));
+        assertFalse(session.getSynchronizer().isQueueing());
+        socket.clearMessages();
+        // The batch must be sent, and closed, even if the request fails.
+        handleRequest(session, "fail");
+        messages = socket.getMessages();
+        assertEquals(2, messages.size());
+        assertTrue(getText(messages.get(0)).contains("test.request"));
+        assertTrue(getText(messages.get(1)).contains("fujion.alert"));
+        assertTrue(session.getSynchronizer().beginBatch());
+        session.getSynchronizer().endBatch();
+    }
+
+    @Test
+    public void resumeTests() throws Exception {
+        long gracePeriod = WebSocketConfiguration.getResumeGracePeriod();
+
+        try {
+            setConfig("resumeGracePeriod", 60000L);
+            Session session = createRegisteredSession("resume-1");
+            MockWebSocketSession socket1 = getSocket(session);
+            String pid = session.getPage().getId();
+            String token = session.getResumeToken();
+            WebSocketHandler.send(socket1, new ClientInvocation("test.one", null));
+            WebSocketHandler.send(socket1, new ClientInvocation("test.two", null));
+            assertEquals(2, session.getSequence());
+            assertEquals(2, session.getRetainedCount());
+            assertEquals(2, socket1.getMessages().size());
+            // Acknowledged messages are discarded.
+            handleRequest(session, "succeed", 1);
+            assertEquals(3, socket1.getMessages().size());
+            assertEquals(2, session.getRetainedCount());
+            // The client received only the first two messages before the connection failed.
+            handler.afterConnectionClosed(socket1, CloseStatus.SESSION_NOT_RELIABLE);
+            assertTrue(session.isDetached());
+            WebSocketHandler.send(socket1, new ClientInvocation("test.detached", null));
+            assertEquals(3, socket1.getMessages().size());
+            assertEquals(4, session.getSequence());
+            // Invalid requests are refused, and the client's web socket closed.
+            assertFalse(resume(createRegisteredSocket("resume-2"), pid, "bad-token", 2));
+            assertFalse(resume(createRegisteredSocket("resume-3"), pid, token, 5));
+            assertFalse(resume(createRegisteredSocket("resume-4"), pid, token, -1));
+            assertTrue(session.isDetached());
+            // A valid request replays the messages not received.
+            MockWebSocketSession socket2 = createRegisteredSocket("resume-5");
+            assertTrue(resume(socket2, pid, token, 2));
+            assertSame(socket2, session.getSocket());
+            assertFalse(session.isDetached());
+            assertNull("The new web socket's own session is discarded", Sessions.getInstance().getSession("resume-5"));
+            List<WebSocketMessage<?>> messages = socket2.getMessages();
+            assertEquals(3, messages.size());
+            assertTrue(getText(messages.get(0)).contains("test.request"));
+            assertTrue(getText(messages.get(1)).contains("test.detached"));
+            assertEquals(5, session.getSequence());
+            assertEquals(3, session.getRetainedCount());
+            // Messages are sent over the new web socket, even if sent via the old one.
+            WebSocketHandler.send(socket1, new ClientInvocation("test.resumed", null));
+            assertEquals(4, socket2.getMessages().size());
+            assertEquals(3, socket1.getMessages().size());
+            // Closure of the old web socket does not affect the resumed session.
+            handler.afterConnectionClosed(socket1, CloseStatus.SESSION_NOT_RELIABLE);
+            assertFalse(session.isDetached());
+            // A session may be resumed even if its current web socket appears open.
+            MockWebSocketSession socket3 = createRegisteredSocket("resume-6");
+            assertTrue(resume(socket3, pid, token, 5));
+            assertTrue(getText(socket3.getMessages().get(0)).contains("test.resumed"));
+            assertFalse(socket2.isOpen());
+        } finally {
+            setConfig("resumeGracePeriod", gracePeriod);
+        }
+    }
+
+    @Test
+    public void resumeOverflowTests() throws Exception {
+        long gracePeriod = WebSocketConfiguration.getResumeGracePeriod();
+        int bufferSize = WebSocketConfiguration.getResumeBufferSize();
+
+        try {
+            setConfig("resumeGracePeriod", 60000L);
+            setConfig("resumeBufferSize", 2);
+            Session session = createRegisteredSession("overflow-1");
+            MockWebSocketSession socket = getSocket(session);
+            String pid = session.getPage().getId();
+
+            for (int i = 0; i < 4; i++) {
+                WebSocketHandler.send(socket, new ClientInvocation("test.overflow", null, i));
+            }
+
+            assertEquals(4, socket.getMessages().size());
+            assertEquals(2, session.getRetainedCount());
+            handler.afterConnectionClosed(socket, CloseStatus.SESSION_NOT_RELIABLE);
+            // The third message is no longer retained.
+            assertFalse(resume(createRegisteredSocket("overflow-2"), pid, session.getResumeToken(), 1));
+            assertTrue(session.isDetached());
+            assertTrue(resume(createRegisteredSocket("overflow-3"), pid, session.getResumeToken(), 2));
+            assertFalse(session.isDetached());
+            // Nothing is retained if resumption is disabled.
+            setConfig("resumeGracePeriod", 0L);
+            WebSocketHandler.send(socket, new ClientInvocation("test.overflow", null, 4));
+            assertEquals(0, session.getRetainedCount());
+        } finally {
+            setConfig("resumeGracePeriod", gracePeriod);
+            setConfig("resumeBufferSize", bufferSize);
+        }
+    }
+
+    @Test
+    public void resumeBufferSizeTests() throws Exception {
+        long gracePeriod = WebSocketConfiguration.getResumeGracePeriod();
+        long bufferBytes = WebSocketConfiguration.getResumeBufferBytes();
+
+        try {
+            setConfig("resumeGracePeriod", 60000L);
+            Session session = createRegisteredSession("size-1");
+            MockWebSocketSession socket = getSocket(session);
+            WebSocketHandler.send(socket, new ClientInvocation("test.size", null, 0));
+            long size = session.getRetainedSize();
+            assertTrue(size > 0);
+            // The oldest messages are discarded once the retained messages exceed the size limit.
+            setConfig("resumeBufferBytes", size * 2);
+
+            for (int i = 1; i < 4; i++) {
+                WebSocketHandler.send(socket, new ClientInvocation("test.size", null, i));
+            }
+
+            assertEquals(4, socket.getMessages().size());
+            assertEquals(2, session.getRetainedCount());
+            assertEquals(size * 2, session.getRetainedSize());
+            session.acknowledge(3);
+            assertEquals(1, session.getRetainedCount());
+            assertEquals(size, session.getRetainedSize());
+        } finally {
+            setConfig("resumeGracePeriod", gracePeriod);
+            setConfig("resumeBufferBytes", bufferBytes);
+        }
+    }
+
+    @Test
+    public void resumeReplayFailureTests() throws Exception {
+        long gracePeriod = WebSocketConfiguration.getResumeGracePeriod();
+
+        try {
+            setConfig("resumeGracePeriod", 60000L);
+            Session session = createRegisteredSession("replay-1");
+            MockWebSocketSession socket1 = getSocket(session);
+            String pid = session.getPage().getId();
+            String token = session.getResumeToken();
+            WebSocketHandler.send(socket1, new ClientInvocation("test.replay", null));
+            handler.afterConnectionClosed(socket1, CloseStatus.SESSION_NOT_RELIABLE);
+            MockWebSocketSession socket2 = registerSocket(new MockWebSocketSession() {
+
+                @Override
+                public void sendMessage(WebSocketMessage<?> message) {
+                    throw new IllegalStateException("Send failed");
+                }
+
+            }, "replay-2");
+            handleText(socket2, getResumeRequest(pid, token, 0));
+            // The session is detached again, the new web socket's own session is discarded, and the
+            // new web socket is closed.
+            assertTrue(session.isDetached());
+            assertFalse(socket2.isOpen());
+            assertNull(Sessions.getInstance().getSession("replay-2"));
+            assertNull(socket2.getAttributes().get(Session.ATTR_SESSION));
+            assertEquals(1, session.getRetainedCount());
+            // The client may retry on another web socket.
+            MockWebSocketSession socket3 = createRegisteredSocket("replay-3");
+            assertTrue(resume(socket3, pid, token, 0));
+            assertFalse(session.isDetached());
+            assertTrue(getText(socket3.getMessages().get(0)).contains("test.replay"));
+        } finally {
+            setConfig("resumeGracePeriod", gracePeriod);
+        }
+    }
+
+    @Test
+    public void resumeExpiredTests() throws Exception {
+        long gracePeriod = WebSocketConfiguration.getResumeGracePeriod();
+
+        try {
+            setConfig("resumeGracePeriod", 50L);
+            Session session = createRegisteredSession("expired-1");
+            MockWebSocketSession socket = getSocket(session);
+            String pid = session.getPage().getId();
+            WebSocketHandler.send(socket, new ClientInvocation("test.expired", null));
+            handler.afterConnectionClosed(socket, CloseStatus.SESSION_NOT_RELIABLE);
+            long detachedAt = session.getDetachedAt();
+            assertTrue(detachedAt > 0);
+            assertFalse("Stale expiration is ignored", session.expire(detachedAt - 1));
+
+            for (int i = 0; i < 100 && Sessions.getInstance().getSession("expired-1") != null; i++) {
+                Thread.sleep(20);
+            }
+
+            assertNull(Sessions.getInstance().getSession("expired-1"));
+            assertNull(session.getPage());
+            assertFalse(session.expire(detachedAt));
+            assertFalse(resume(createRegisteredSocket("expired-2"), pid, session.getResumeToken(), 1));
+        } finally {
+            setConfig("resumeGracePeriod", gracePeriod);
+        }
+    }
+
+    @Test
+    public void wireFormatTests() {
+        byte[] bytes = { 0, (byte) 0xD9, (byte) 0xD9, (byte) 0xF7, (byte) 0xA0 };
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, 4);
+        assertTrue(WireFormat.isCbor(buffer));
+        assertEquals("Position is unchanged", 1, buffer.position());
+        assertFalse(WireFormat.isCbor(ByteBuffer.wrap(bytes)));
+        assertFalse(WireFormat.isCbor(ByteBuffer.wrap(bytes, 1, 2)));
+        assertFalse(WireFormat.isCbor(ByteBuffer.wrap("{}".getBytes(StandardCharsets.UTF_8))));
+        assertEquals(WireFormat.CBOR, WireFormat.fromName(" CBOR "));
+        assertNull(WireFormat.fromName(""));
+        assertEquals("cbor", WireFormat.CBOR.getName());
+    }
+
+    @Test
+    public void stringTableTests() throws Exception {
+        StringTable table = new StringTable();
+        // A new table is reset, so the first message tells the client to empty its table.
+        assertArrayEquals(cbor(0xD9, 0xD9, 0xF7, 0xD9, 0x01, 0x00, 0xBF, 0xD8, 28, 0x63, "fcn", 0xD8, 28, 0x63, "abc", 0xFF),
+            encode(table, "fcn", "abc"));
+        // Shared references to table entries, including integer map keys, span messages.
+        assertArrayEquals(cbor(0xD9, 0xD9, 0xF7, 0xBF, 0xD8, 29, 0x00, 0xD8, 29, 0x01, 0xD8, 29, 0x01, 0xD8, 29, 0x00, 0xFF),
+            encode(table, "fcn", "abc", "abc", "fcn"));
+        // Strings longer than the maximum length are not added.
+        String max = "x".repeat(64);
+        String over = "y".repeat(65);
+        assertArrayEquals(cbor(0xD9, 0xD9, 0xF7, 0xBF, 0xD8, 29, 0x00, 0xD8, 28, 0x78, 64, max, 0xD8, 29, 0x00, 0x78, 65, over, 0xFF),
+            encode(table, "fcn", max, "fcn", over));
+        assertEquals(2, table.indexOf(max));
+        assertEquals(-1, table.indexOf(over));
+        // Once the table is full, strings are not added.
+        table.reset();
+
+        for (int i = 0; i < 4096; i++) {
+            assertTrue(table.add("s" + i));
+        }
+
+        assertFalse(table.add("new"));
+        assertEquals(4095, table.indexOf("s4095"));
+        assertArrayEquals(cbor(0xD9, 0xD9, 0xF7, 0xD9, 0x01, 0x00, 0xBF, 0xD8, 29, 0x00, 0x63, "new", 0xFF),
+            encode(table, "s0", "new"));
+        assertEquals(-1, table.indexOf("new"));
+    }
+
+    @Test
+    public void cborSendFailureTests() throws Exception {
+        AtomicBoolean failing = new AtomicBoolean();
+        MockWebSocketSession socket = new MockWebSocketSession() {
+
+            @Override
+            public void sendMessage(WebSocketMessage<?> message) {
+                if (failing.get()) {
+                    throw new IllegalStateException("Send failed");
+                }
+
+                super.sendMessage(message);
+            }
+
+        };
+
+        Session session = createSession(socket);
+        session.setWireFormat(WireFormat.CBOR);
+        WebSocketHandler.send(socket, new ClientInvocation("test.cbor", null));
+        WebSocketHandler.send(socket, new ClientInvocation("test.cbor", null));
+        List<WebSocketMessage<?>> messages = socket.getMessages();
+        assertEquals(2, messages.size());
+        assertTrue(startsWith(getBytes(messages.get(0)), cbor(0xD9, 0xD9, 0xF7, 0xD9, 0x01, 0x00)));
+        assertTrue(indexOf(getBytes(messages.get(0)), cbor(0xD8, 28, 0x69, "test.cbor")) > 0);
+        assertFalse(startsWith(getBytes(messages.get(1)), cbor(0xD9, 0xD9, 0xF7, 0xD9, 0x01, 0x00)));
+        assertEquals(-1, indexOf(getBytes(messages.get(1)), "test.cbor".getBytes(StandardCharsets.UTF_8)));
+        failing.set(true);
+        assertThrows(RuntimeException.class,
+            () -> WebSocketHandler.send(socket, new ClientInvocation("test.lost", null)));
+        // The client may not have received the additions made by the failed message.
+        failing.set(false);
+        socket.clearMessages();
+        WebSocketHandler.send(socket, new ClientInvocation("test.cbor", null));
+        byte[] payload = getBytes(socket.getMessages().get(0));
+        assertTrue(startsWith(payload, cbor(0xD9, 0xD9, 0xF7, 0xD9, 0x01, 0x00)));
+        assertTrue(indexOf(payload, cbor(0xD8, 28, 0x69, "test.cbor")) > 0);
+    }
+
+    @Test
+    public void binaryMessageBufferTests() throws Exception {
+        byte[] request = new ObjectMapper(cborFactory).writeValueAsBytes(Map.of("type", "test"));
+
+        try (BinaryMessageBuffer buffer = new BinaryMessageBuffer()) {
+            buffer.append(ByteBuffer.wrap(request, 0, 2));
+            buffer.append(ByteBuffer.wrap(request, 2, request.length - 2));
+            assertTrue(buffer.isCbor());
+            assertEquals(2, buffer.getFragments());
+            assertEquals(request.length, buffer.getLength());
+            assertArrayEquals(request, buffer.getPreamble());
+        }
+
+        try (BinaryMessageBuffer buffer = new BinaryMessageBuffer()) {
+            buffer.append(ByteBuffer.wrap("{\"type\":\"test\"}\nbl".getBytes(StandardCharsets.UTF_8)));
+            buffer.append(ByteBuffer.wrap("ob".getBytes(StandardCharsets.UTF_8)));
+            assertFalse(buffer.isCbor());
+            assertEquals("{\"type\":\"test\"}", new String(buffer.getPreamble(), StandardCharsets.UTF_8));
+
+            try (InputStream content = buffer.getContent()) {
+                assertEquals("blob", IOUtils.toString(content, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    public void cborRequestTests() throws Exception {
+        Session session = createSession();
+        MockWebSocketSession socket = getSocket(session);
+        byte[] request = new ObjectMapper(cborFactory).writeValueAsBytes(
+            Map.of("type", REQUEST_TYPE, "pid", session.getPage().getId(), "data", "cbor-request"));
+        assertTrue(WireFormat.isCbor(ByteBuffer.wrap(request)));
+        // The request arrives in two fragments.
+        int split = request.length / 2;
+        runThread(() -> {
+            handler.handleBinaryMessage(socket, new BinaryMessage(Arrays.copyOfRange(request, 0, split), false));
+            handler.handleBinaryMessage(socket, new BinaryMessage(Arrays.copyOfRange(request, split, request.length), true));
+        });
+        List<WebSocketMessage<?>> messages = socket.getMessages();
+        assertEquals(1, messages.size());
+        String payload = getText(messages.get(0));
+        assertTrue(payload.contains("test.request"));
+        assertTrue(payload.contains("cbor-request"));
+    }
+
+    /**
+     * Creates a session with its own mock web socket. The session is destroyed after the test.
+     *
+     * @return The new session.
+     */
+    private Session createSession() {
+        try {
+            return createSession(new MockWebSocketSession());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a session using the specified mock web socket. The session is destroyed after the
+     * test.
+     *
+     * @param socket The mock web socket.
+     * @return The new session.
+     */
+    private Session createSession(MockWebSocketSession socket) {
+        MockEnvironment environment = getMockEnvironment();
+        MockServletContext servletContext = (MockServletContext) environment.getSession().getServletContext();
+        Session session = new MockSession(environment.getRootContext(), servletContext, socket);
+        sessions.add(session);
+        return session;
+    }
+
+    /**
+     * Creates a web socket and its session, registered with the session manager as if the client
+     * had connected. The session is destroyed after the test.
+     *
+     * @param id The web socket id.
+     * @return The new web socket.
+     */
+    private MockWebSocketSession createRegisteredSocket(String id) throws Exception {
+        return registerSocket(new MockWebSocketSession(), id);
+    }
+
+    /**
+     * Registers a mock web socket with the session manager, which creates a session for it.
+     *
+     * @param socket The mock web socket.
+     * @param id The web socket id.
+     * @return The mock web socket.
+     */
+    private MockWebSocketSession registerSocket(MockWebSocketSession socket, String id) {
+        socket.setId(id);
+        sockets.add(socket);
+        Sessions.getInstance().createSession(socket);
+        return socket;
+    }
+
+    /**
+     * Creates a registered session that owns a page, as if the client had initialized it.
+     *
+     * @param id The web socket id.
+     * @return The new session.
+     */
+    private Session createRegisteredSession(String id) throws Exception {
+        Session session = Sessions.getInstance().getSession(createRegisteredSocket(id).getId());
+        session._init(Page._create("mockpage").getId());
+        Sessions.getInstance().registerPage(session);
+        return session;
+    }
+
+    /**
+     * Returns a resume request, as the client would send on reconnecting.
+     *
+     * @param pid The id of the page owned by the session to be resumed.
+     * @param token The resume token.
+     * @param received The number of messages received by the client.
+     * @return The resume request.
+     */
+    private String getResumeRequest(String pid, String token, long received) {
+        return "{\"type\":\"resume\",\"pid\":\"" + pid + "\",\"data\":{\"token\":\"" + token
+                + "\",\"seq\":" + received + "}}";
+    }
+
+    /**
+     * Sends a resume request to a new web socket, as the client would on reconnecting.
+     *
+     * @param socket The new web socket.
+     * @param pid The id of the page owned by the session to be resumed.
+     * @param token The resume token.
+     * @param received The number of messages received by the client.
+     * @return True if the client was notified that the session was resumed.
+     * @throws InterruptedException If interrupted while waiting for the request to complete.
+     */
+    private boolean resume(MockWebSocketSession socket, String pid, String token,
+                           long received) throws InterruptedException {
+        handleText(socket, getResumeRequest(pid, token, received));
+        List<WebSocketMessage<?>> messages = socket.getMessages();
+        String payload = getText(messages.get(messages.size() - 1));
+        assertTrue(payload.contains("fujion.ws._onresume"));
+        boolean resumed = payload.contains("true");
+        assertEquals(resumed, socket.isOpen());
+        return resumed;
+    }
+
+    private MockWebSocketSession getSocket(Session session) {
+        return (MockWebSocketSession) session.getSocket();
+    }
+
+    /**
+     * Sends a request to the session's web socket. The request is handled on its own thread, as
+     * request processing replaces the execution context of the calling thread.
+     *
+     * @param session The session.
+     * @param data The request data.
+     * @throws InterruptedException If interrupted while waiting for the request to complete.
+     */
+    private void handleRequest(Session session, String data) throws InterruptedException {
+        handleRequest(session, data, -1);
+    }
+
+    /**
+     * Sends a request to the session's web socket, acknowledging received messages.
+     *
+     * @param session The session.
+     * @param data The request data.
+     * @param ack The number of messages received by the client, or -1 to omit the acknowledgment.
+     * @throws InterruptedException If interrupted while waiting for the request to complete.
+     */
+    private void handleRequest(Session session, String data, long ack) throws InterruptedException {
+        String request = "{\"type\":\"" + REQUEST_TYPE + "\",\"pid\":\"" + session.getPage().getId()
+                + "\",\"data\":\"" + data + "\"" + (ack < 0 ? "" : ",\"ack\":" + ack) + "}";
+        handleText(session.getSocket(), request);
+    }
+
+    /**
+     * Handles a text message received by a web socket. The message is handled on its own thread,
+     * as request processing replaces the execution context of the calling thread.
+     *
+     * @param socket The web socket.
+     * @param text The message text.
+     * @throws InterruptedException If interrupted while waiting for the message to be handled.
+     */
+    private void handleText(WebSocketSession socket, String text) throws InterruptedException {
+        runThread(() -> handler.handleTextMessage(socket, new TextMessage(text)));
+    }
+
+    /**
+     * Runs a task on its own thread and waits for it to complete.
+     *
+     * @param task The task to run.
+     * @throws InterruptedException If interrupted while waiting for the task to complete.
+     */
+    private void runThread(Runnable task) throws InterruptedException {
+        Thread thread = new Thread(task);
+        thread.start();
+        thread.join();
+    }
+
+    /**
+     * Encodes a map of strings as a CBOR message using a string table.
+     *
+     * @param table The string table.
+     * @param keyValues Alternating keys and values.
+     * @return The encoded message.
+     * @throws IOException Exception during encoding.
+     */
+    private byte[] encode(StringTable table, String... keyValues) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (JsonGenerator generator = new StringTableGenerator(cborFactory.createGenerator(out), table)) {
+            generator.writeStartObject();
+
+            for (int i = 0; i < keyValues.length; i += 2) {
+                generator.writeFieldName(keyValues[i]);
+                generator.writeString(keyValues[i + 1]);
+            }
+
+            generator.writeEndObject();
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Assembles expected CBOR output from byte values (Integer) and ASCII text (String).
+     *
+     * @param parts The parts to assemble.
+     * @return The assembled bytes.
+     */
+    private byte[] cbor(Object... parts) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        for (Object part : parts) {
+            if (part instanceof Integer value) {
+                out.write(value);
+            } else {
+                out.writeBytes(((String) part).getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    private byte[] getBytes(WebSocketMessage<?> message) {
+        assertTrue(message instanceof BinaryMessage);
+        ByteBuffer payload = ((BinaryMessage) message).getPayload().duplicate();
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return bytes;
+    }
+
+    private boolean startsWith(byte[] bytes, byte[] prefix) {
+        return bytes.length >= prefix.length && Arrays.equals(Arrays.copyOf(bytes, prefix.length), prefix);
+    }
+
+    private int indexOf(byte[] bytes, byte[] target) {
+        for (int i = 0; i <= bytes.length - target.length; i++) {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + target.length), target)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private String getText(WebSocketMessage<?> message) {
+        assertTrue(message instanceof TextMessage);
+        return ((TextMessage) message).getPayload();
+    }
+
+    private void setConfig(String name, Object value) {
+        ReflectionTestUtils.setField(WebSocketConfiguration.class, name, value);
+    }
+
+}